@@ -1,5 +1,5 @@
 import { describe, it, expect, vi, beforeEach, afterEach } from 'vitest';
-import { getCsrfTokenFromCookie, healthApi, serverApi, qotdApi, authApi } from '../client';
+import { getCsrfTokenFromCookie, healthApi, serverApi, roleJobApi, qotdApi, authApi } from '../client';
 
 // Mock axios module completely
 vi.mock('axios', () => {
@@ -145,6 +145,7 @@ describe('API modules exist', () => {
     expect(serverApi).toBeDefined();
     expect(typeof serverApi.getServers).toBe('function');
     expect(typeof serverApi.getServer).toBe('function');
+    expect(typeof serverApi.getSnapshot).toBe('function');
     expect(typeof serverApi.getBotInviteUrl).toBe('function');
     expect(typeof serverApi.removeBot).toBe('function');
     expect(typeof serverApi.getRoles).toBe('function');
@@ -157,6 +158,16 @@ describe('API modules exist', () => {
     expect(typeof serverApi.bulkDeleteRoles).toBe('function');
     expect(typeof serverApi.refreshGuildsCache).toBe('function');
     expect(typeof serverApi.getChannelOptions).toBe('function');
+    expect(typeof serverApi.searchGuildMembers).toBe('function');
+  });
+
+  it('roleJobApi has all required methods', () => {
+    expect(roleJobApi).toBeDefined();
+    expect(typeof roleJobApi.initializeDefaultRoles).toBe('function');
+    expect(typeof roleJobApi.uploadCsv).toBe('function');
+    expect(typeof roleJobApi.bulkDeleteRoles).toBe('function');
+    expect(typeof roleJobApi.getJob).toBe('function');
+    expect(typeof roleJobApi.cancelJob).toBe('function');
   });
 
   it('qotdApi has all required methods', () => {
@@ -1,6 +1,6 @@
 import axios from 'axios';
-import type { GuildInfo, GachaRoleInfo, HealthResponse, BulkRoleCreationResult, RoleDeletionResult, BulkRoleDeletionResult, RoleHierarchyStatus } from '../types';
-import type { QotdConfigDto, QotdQuestionDto, UploadCsvResult, TextChannelInfo, QotdSubmissionDto, BulkActionResult, QotdStreamDto, CreateStreamRequest, UpdateStreamRequest, ChannelStreamStatusDto } from '../types/qotd';
+import type { GuildInfo, GachaRoleInfo, HealthResponse, BulkRoleCreationResult, RoleDeletionResult, BulkRoleDeletionResult, RoleHierarchyStatus, GuildSnapshot, RoleJobDto } from '../types';
+import type { QotdConfigDto, QotdQuestionDto, UploadCsvResult, TextChannelInfo, QotdSubmissionDto, BulkActionResult, QotdStreamDto, CreateStreamRequest, UpdateStreamRequest, ChannelStreamStatusDto, QotdPostedPageDto, QotdChannelSettingsDto } from '../types/qotd';
 
 const api = axios.create({
   baseURL: '/api',
@@ -58,6 +58,11 @@ export const healthApi = {
 export const serverApi = {
   getServers: () => api.get<GuildInfo[]>('/servers'),
   getServer: (guildId: string) => api.get<GuildInfo>(`/servers/${guildId}`),
+  /**
+   * Guild info, channel tree, stream status, roles, first page of members, gacha roles and the
+   * role hierarchy check in one round-trip (see hooks/useGuildSnapshot)
+   */
+  getSnapshot: (guildId: string) => api.get<GuildSnapshot>(`/servers/${guildId}/snapshot`),
   getBotInviteUrl: (guildId: string) => api.get<{ inviteUrl: string }>(`/servers/${guildId}/invite`),
   removeBot: async (guildId: string) => {
     const result = await api.delete<{ message: string }>(`/servers/${guildId}/bot`);
@@ -100,10 +105,42 @@ export const serverApi = {
    */
   getAllRoles: (guildId: string) => api.get<import('../types').DiscordRoleDto[]>(`/servers/${guildId}/all-roles`),
   /**
-   * Get guild members for mention dropdown (paginated)
+   * Get guild members for mention dropdown (paginated).
+   * Optional query filters by display name prefix; the next page's cursor is in the X-Next-Cursor header.
    */
-  getGuildMembers: (guildId: string, limit: number = 100) =>
-    api.get<import('../types').DiscordMemberDto[]>(`/servers/${guildId}/members`, { params: { limit } }),
+  getGuildMembers: (guildId: string, limit: number = 100, query?: string, cursor?: string) =>
+    api.get<import('../types').DiscordMemberDto[]>(`/servers/${guildId}/members`, { params: { limit, query, cursor } }),
+  /**
+   * One page of a member search, with the cursor for the next page taken from X-Next-Cursor
+   */
+  searchGuildMembers: async (guildId: string, query: string, cursor?: string, limit: number = 100): Promise<import('../types').DiscordMemberPage> => {
+    const response = await api.get<import('../types').DiscordMemberDto[]>(`/servers/${guildId}/members`, {
+      params: { limit, query: query || undefined, cursor },
+    });
+    return { members: response.data, nextCursor: response.headers['x-next-cursor'] ?? null };
+  },
+};
+
+/**
+ * Bulk role operations run as background jobs: submitting returns the queued job (202),
+ * whose progress is then polled with getJob.
+ */
+export const roleJobApi = {
+  initializeDefaultRoles: (guildId: string) =>
+    api.post<RoleJobDto>(`/servers/${guildId}/roles/jobs/init-defaults`),
+  uploadCsv: (guildId: string, file: File) => {
+    const formData = new FormData();
+    formData.append('file', file);
+    return api.post<RoleJobDto>(`/servers/${guildId}/roles/jobs/upload-csv`, formData, {
+      headers: {
+        'Content-Type': 'multipart/form-data',
+      },
+    });
+  },
+  bulkDeleteRoles: (guildId: string, roleIds: string[]) =>
+    api.post<RoleJobDto>(`/servers/${guildId}/roles/jobs/bulk-delete`, { roleIds }),
+  getJob: (guildId: string, jobId: number) => api.get<RoleJobDto>(`/servers/${guildId}/roles/jobs/${jobId}`),
+  cancelJob: (guildId: string, jobId: number) => api.post<RoleJobDto>(`/servers/${guildId}/roles/jobs/${jobId}/cancel`),
 };
 
 export const qotdApi = {
@@ -134,11 +171,16 @@ export const qotdApi = {
   updateStream: (guildId: string, channelId: string, streamId: number, req: UpdateStreamRequest) => api.put<QotdStreamDto>(`/servers/${guildId}/channels/${channelId}/qotd/streams/${streamId}`, req),
   deleteStream: (guildId: string, channelId: string, streamId: number) => api.delete<void>(`/servers/${guildId}/channels/${channelId}/qotd/streams/${streamId}`),
 
+  // Channel-level options (shared by every stream in the channel)
+  getChannelSettings: async (guildId: string, channelId: string) => (await api.get<QotdChannelSettingsDto>(`/servers/${guildId}/channels/${channelId}/qotd/settings`)).data,
+  updateChannelSettings: (guildId: string, channelId: string, settings: QotdChannelSettingsDto) => api.put<QotdChannelSettingsDto>(`/servers/${guildId}/channels/${channelId}/qotd/settings`, settings),
+
   // Stream-scoped question management
   listStreamQuestions: async (guildId: string, channelId: string, streamId: number) => (await api.get<QotdQuestionDto[]>(`/servers/${guildId}/channels/${channelId}/qotd/streams/${streamId}/questions`)).data,
   addStreamQuestion: (guildId: string, channelId: string, streamId: number, text: string) => api.post<QotdQuestionDto>(`/servers/${guildId}/channels/${channelId}/qotd/streams/${streamId}/questions`, { text }),
   deleteStreamQuestion: (guildId: string, channelId: string, streamId: number, questionId: number) => api.delete<void>(`/servers/${guildId}/channels/${channelId}/qotd/streams/${streamId}/questions/${questionId}`),
   reorderStreamQuestions: (guildId: string, channelId: string, streamId: number, orderedIds: number[]) => api.put<void>(`/servers/${guildId}/channels/${channelId}/qotd/streams/${streamId}/questions/reorder`, { orderedIds }),
+  listStreamHistory: async (guildId: string, channelId: string, streamId: number, before?: string | null, beforeId?: number | null, limit?: number) => (await api.get<QotdPostedPageDto>(`/servers/${guildId}/channels/${channelId}/qotd/streams/${streamId}/history`, { params: { before: before ?? undefined, beforeId: beforeId ?? undefined, limit } })).data,
   uploadStreamCsv: (guildId: string, channelId: string, streamId: number, file: File) => {
     const formData = new FormData();
     formData.append('file', file);
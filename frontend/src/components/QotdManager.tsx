@@ -1,10 +1,11 @@
 import React, { useRef } from 'react';
 import { useState, useEffect, useMemo } from 'react';
 import { useNavigate, useParams } from 'react-router-dom';
-import { useMutation, useQuery, useQueryClient } from '@tanstack/react-query';
+import { useInfiniteQuery, useMutation, useQuery, useQueryClient } from '@tanstack/react-query';
 import { qotdApi, serverApi } from '../api/client';
 import type { CreateStreamRequest, UpdateStreamRequest, ChannelTreeNodeDto } from '../types/qotd';
 import { useWebSocket } from '../hooks/useWebSocket';
+import { useGuildSnapshot } from '../hooks/useGuildSnapshot';
 
 function ChannelTreeNode({
   node,
@@ -664,11 +665,14 @@ export default function QotdManager() {
   ]);
   const [showAdvanced, setShowAdvanced] = useState(false);
 
+  // One request seeds the channel tree, stream status, roles and members queries below
+  const { settled: snapshotSettled } = useGuildSnapshot(guildId);
+
   // Fetch available channels and threads as tree structure
   const { data: channels } = useQuery({
     queryKey: ['qotd-channel-options', guildId],
     queryFn: async () => (await serverApi.getChannelOptions(guildId!)),
-    enabled: !!guildId,
+    enabled: !!guildId && snapshotSettled,
   });
 
   // Fetch all configured channels/threads (guild-wide) to mark configured nodes
@@ -715,22 +719,37 @@ export default function QotdManager() {
   const { data: guildRoles } = useQuery({
     queryKey: ['guild-roles', guildId],
     queryFn: async () => (await serverApi.getAllRoles(guildId!)).data,
-    enabled: !!guildId,
+    enabled: !!guildId && snapshotSettled,
   });
 
-  // Fetch guild members for mention dropdown (limit to 100 for performance)
-  const { data: guildMembers } = useQuery({
-    queryKey: ['guild-members', guildId],
-    queryFn: async () => (await serverApi.getGuildMembers(guildId!, 100)).data,
-    enabled: !!guildId,
+  // Member search for the mention dropdown: 100 per page, filtered as the user types
+  const [memberSearch, setMemberSearch] = useState('');
+  const [memberQuery, setMemberQuery] = useState('');
+  useEffect(() => {
+    const timer = setTimeout(() => setMemberQuery(memberSearch.trim()), 300);
+    return () => clearTimeout(timer);
+  }, [memberSearch]);
+
+  const {
+    data: memberPages,
+    fetchNextPage: fetchMoreMembers,
+    hasNextPage: hasMoreMembers,
+    isFetchingNextPage: loadingMoreMembers,
+  } = useInfiniteQuery({
+    queryKey: ['guild-members', guildId, memberQuery],
+    queryFn: ({ pageParam }) => serverApi.searchGuildMembers(guildId!, memberQuery, pageParam),
+    initialPageParam: undefined as string | undefined,
+    getNextPageParam: (lastPage) => lastPage.nextCursor ?? undefined,
+    enabled: !!guildId && snapshotSettled,
   });
+  const guildMembers = useMemo(() => memberPages?.pages.flatMap((page) => page.members) ?? [], [memberPages]);
 
   // Fetch stream status for all nodes in one batch call
   const { data: streamStatus } = useQuery({
     queryKey: ['qotd-stream-status', guildId],
     queryFn: async () => await qotdApi.getStreamStatus(guildId!),
-    enabled: !!guildId && allNodeIds.length > 0,
-    staleTime: 0, // always fresh per load
+    // Seeded fresh by the snapshot on each page load
+    enabled: !!guildId && snapshotSettled && allNodeIds.length > 0,
   });
 
   // Enabled streams set
@@ -785,6 +804,13 @@ export default function QotdManager() {
     enabled: !!guildId && !!selectedChannelId,
   });
 
+  // Fetch channel-level options for selected channel
+  const { data: channelSettings } = useQuery({
+    queryKey: ['qotd-channel-settings', guildId, selectedChannelId],
+    queryFn: async () => await qotdApi.getChannelSettings(guildId!, selectedChannelId!),
+    enabled: !!guildId && !!selectedChannelId,
+  });
+
   // Auto-select first stream when streams load
   useEffect(() => {
     if (streams && streams.length > 0 && !selectedStreamId) {
@@ -950,11 +976,23 @@ export default function QotdManager() {
     },
   });
 
+  const updateChannelSettingsMutation = useMutation({
+    mutationFn: (coalescePosts: boolean) => qotdApi.updateChannelSettings(guildId!, selectedChannelId!, { coalescePosts }),
+    onSuccess: (res) => {
+      qc.setQueryData(['qotd-channel-settings', guildId, selectedChannelId], res.data);
+    },
+    onError: (error: any) => {
+      const errorMessage = error?.response?.data || 'Failed to save channel settings';
+      setConfigMessage(`✗ ${errorMessage}`);
+      setTimeout(() => setConfigMessage(''), 5000);
+    },
+  });
+
   const uploadCsvMutation = useMutation({
     mutationFn: (file: File) => qotdApi.uploadStreamCsv(guildId!, selectedChannelId!, selectedStreamId!, file),
     onSuccess: (res) => {
       const r = res.data;
-      setQuestionMessage(`✓ Added ${r.successCount} questions${r.failureCount ? `, ${r.failureCount} failed` : ''}`);
+      setQuestionMessage(`✓ Added ${r.successCount} questions${r.duplicateCount ? `, ${r.duplicateCount} duplicates skipped` : ''}${r.failureCount ? `, ${r.failureCount} failed` : ''}`);
       qc.invalidateQueries({ queryKey: ['qotd-stream-questions', guildId, selectedChannelId, selectedStreamId] });
       setCsvFile(null);
       setTimeout(() => setQuestionMessage(''), 5000);
@@ -1152,6 +1190,17 @@ export default function QotdManager() {
                 ) : (
                   <div>Loading streams...</div>
                 )}
+                {streams && streams.length > 1 && (
+                  <label style={{ display: 'flex', alignItems: 'center', gap: '0.5rem', marginTop: '0.75rem' }}>
+                    <input
+                      type="checkbox"
+                      checked={channelSettings?.coalescePosts ?? false}
+                      disabled={!channelSettings || updateChannelSettingsMutation.isPending}
+                      onChange={(e) => updateChannelSettingsMutation.mutate(e.target.checked)}
+                    />
+                    Combine streams that post at the same time into one message
+                  </label>
+                )}
               </section>
             )}
 
@@ -1620,6 +1669,14 @@ export default function QotdManager() {
 
                     {/* Mention selector dropdown */}
                     <div style={{ display: 'flex', gap: '0.5rem', alignItems: 'center', flexWrap: 'wrap' }}>
+                      <input
+                        type="text"
+                        className="input"
+                        style={{ width: '200px' }}
+                        placeholder="Search members..."
+                        value={memberSearch}
+                        onChange={(e) => setMemberSearch(e.target.value)}
+                      />
                       <select
                         className="input"
                         style={{ width: '280px' }}
@@ -1647,8 +1704,8 @@ export default function QotdManager() {
                             ))}
                           </optgroup>
                         )}
-                        {guildMembers && guildMembers.length > 0 && (
-                          <optgroup label="Members (up to 100)">
+                        {guildMembers.length > 0 && (
+                          <optgroup label={memberQuery ? `Members matching "${memberQuery}"` : 'Members'}>
                             {guildMembers.map(member => (
                               <option key={member.id} value={`<@${member.id}>`}>
                                 {member.displayName} (@{member.username})
@@ -1658,6 +1715,17 @@ export default function QotdManager() {
                         )}
                       </select>
 
+                      {hasMoreMembers && (
+                        <button
+                          className="btn btn-secondary btn-sm"
+                          onClick={() => fetchMoreMembers()}
+                          disabled={loadingMoreMembers}
+                          style={{ padding: '0.25rem 0.5rem' }}
+                        >
+                          {loadingMoreMembers ? 'Loading...' : 'More members'}
+                        </button>
+                      )}
+
                       {mentionTarget && (
                         <button
                           className="btn btn-secondary btn-sm"
@@ -2248,6 +2316,14 @@ export default function QotdManager() {
                 <div key={sub.id} className="role-item">
                   <span className="role-name">{sub.text}</span>
                   <span style={{ fontSize: '0.85rem', color: '#999', marginLeft: '0.5rem' }}>by {sub.username}</span>
+                  {sub.similarTo && (
+                    <span
+                      style={{ fontSize: '0.85rem', color: '#e0a800', marginLeft: '0.5rem' }}
+                      title={sub.similarTo.text}
+                    >
+                      ⚠️ {Math.round(sub.similarTo.similarity * 100)}% similar to {sub.similarTo.source === 'QUESTION' ? 'a queued question' : sub.similarTo.source === 'POSTED' ? 'a recently posted question' : 'another submission'}
+                    </span>
+                  )}
                   {selectedChannelId && (
                     <div style={{ display: 'flex', gap: '0.5rem' }}>
                       <button className="btn btn-primary btn-sm" onClick={async () => {
@@ -1,9 +1,11 @@
 import { useState } from 'react';
 import { useQuery, useMutation, useQueryClient } from '@tanstack/react-query';
-import { serverApi } from '../api/client';
+import { roleJobApi, serverApi } from '../api/client';
 import { useParams, useNavigate } from 'react-router-dom';
-import type { GachaRoleInfo, BulkRoleCreationResult } from '../types';
+import type { GachaRoleInfo, RoleJobDto } from '../types';
 import { useWebSocket } from '../hooks/useWebSocket';
+import { useGuildSnapshot } from '../hooks/useGuildSnapshot';
+import { useRoleJob } from '../hooks/useRoleJob';
 
 const rarityEmojis: Record<string, string> = {
   common: '⚪',
@@ -21,6 +23,29 @@ const rarityColors: Record<string, string> = {
   legendary: '#ffcc00',
 };
 
+// Summary line for a finished role job, in the same form as the old synchronous results
+function describeRoleJob(job: RoleJobDto): string {
+  if (job.status === 'FAILED' && job.succeededCount === 0) {
+    return `✗ ${job.errors[0] ?? 'Role job failed'}`;
+  }
+  const count = `${job.succeededCount} role${job.succeededCount !== 1 ? 's' : ''}`;
+  let message = job.status === 'CANCELLED'
+    ? `✗ Cancelled after ${count} ${job.type === 'CREATE' ? 'created' : 'deleted'}`
+    : `✓ ${job.type === 'CREATE' ? 'Created' : 'Deleted'} ${count}`;
+  if (job.skippedCount > 0) {
+    message += job.type === 'CREATE' ? `, ${job.skippedCount} already existed` : `, ${job.skippedCount} already gone`;
+  }
+  if (job.failedCount > 0) {
+    message += ` | ✗ ${job.failedCount} failed`;
+    if (job.errors.length > 0) {
+      // Just the error message part after "Role <id>: " / "Failed to create '<name>': "
+      const firstError = job.errors[0];
+      message += `: ${firstError.includes(': ') ? firstError.split(': ').slice(1).join(': ') : firstError}`;
+    }
+  }
+  return message;
+}
+
 export default function RoleManager() {
   const { guildId } = useParams<{ guildId: string }>();
   const navigate = useNavigate();
@@ -96,13 +121,16 @@ export default function RoleManager() {
     return bestName;
   }
 
+  // One request seeds the server, roles and hierarchy queries below
+  const { settled: snapshotSettled } = useGuildSnapshot(guildId);
+
   const { data: server, isLoading: serverLoading } = useQuery({
     queryKey: ['server', guildId],
     queryFn: async () => {
       const response = await serverApi.getServer(guildId!);
       return response.data;
     },
-    enabled: !!guildId,
+    enabled: !!guildId && snapshotSettled,
   });
 
   const { data: roles, isLoading: rolesLoading, error } = useQuery({
@@ -111,7 +139,7 @@ export default function RoleManager() {
       const response = await serverApi.getRoles(guildId!);
       return response.data;
     },
-    enabled: !!guildId,
+    enabled: !!guildId && snapshotSettled,
   });
 
   const { data: hierarchyStatus } = useQuery({
@@ -120,7 +148,7 @@ export default function RoleManager() {
       const response = await serverApi.checkRoleHierarchy(guildId!);
       return response.data;
     },
-    enabled: !!guildId && !!roles && roles.length > 0,
+    enabled: !!guildId && snapshotSettled && !!roles && roles.length > 0,
   });
 
   // Listen for real-time role updates via WebSocket
@@ -132,35 +160,27 @@ export default function RoleManager() {
     }
   });
 
-  const initDefaultsMutation = useMutation<{ data: BulkRoleCreationResult }>({
-    mutationFn: () => serverApi.initializeDefaultRoles(guildId!),
+  // Bulk operations run as background jobs; progress is polled until the job finishes
+  const roleJob = useRoleJob(guildId, (job) => setUploadMessage(describeRoleJob(job)));
+  const jobProgress = roleJob.job ? ` ${roleJob.job.processedItems}/${roleJob.job.totalItems}` : '';
+
+  const initDefaultsMutation = useMutation({
+    mutationFn: () => roleJobApi.initializeDefaultRoles(guildId!),
     onSuccess: (response) => {
-      queryClient.invalidateQueries({ queryKey: ['roles', guildId] });
-      queryClient.invalidateQueries({ queryKey: ['server', guildId] });
-      queryClient.invalidateQueries({ queryKey: ['servers'] });
-      const result = response.data;
-      const parts = [`✓ Created ${result.successCount} roles`];
-      if (result.skippedCount > 0) parts.push(`${result.skippedCount} already existed`);
-      if (result.failureCount > 0) parts.push(`${result.failureCount} failed`);
-      setUploadMessage(parts.join(', '));
+      setUploadMessage('');
+      roleJob.start(response.data);
     },
     onError: () => {
       setUploadMessage('✗ Failed to initialize default roles');
     },
   });
 
-  const uploadCsvMutation = useMutation<{ data: BulkRoleCreationResult }, Error, File>({
-    mutationFn: (file: File) => serverApi.uploadCsv(guildId!, file),
+  const uploadCsvMutation = useMutation({
+    mutationFn: (file: File) => roleJobApi.uploadCsv(guildId!, file),
     onSuccess: (response) => {
-      queryClient.invalidateQueries({ queryKey: ['roles', guildId] });
-      queryClient.invalidateQueries({ queryKey: ['server', guildId] });
-      queryClient.invalidateQueries({ queryKey: ['servers'] });
-      const result = response.data;
-      const parts = [`✓ Created ${result.successCount} roles`];
-      if (result.skippedCount > 0) parts.push(`${result.skippedCount} already existed`);
-      if (result.failureCount > 0) parts.push(`${result.failureCount} failed`);
-      setUploadMessage(parts.join(', '));
+      setUploadMessage('');
       setSelectedFile(null);
+      roleJob.start(response.data);
     },
     onError: () => {
       setUploadMessage('✗ Failed to upload CSV');
@@ -182,40 +202,18 @@ export default function RoleManager() {
   });
 
   const bulkDeleteMutation = useMutation({
-    mutationFn: (roleIds: string[]) => serverApi.bulkDeleteRoles(guildId!, roleIds),
+    mutationFn: (roleIds: string[]) => roleJobApi.bulkDeleteRoles(guildId!, roleIds),
     onSuccess: (response) => {
-      const result = response.data;
-      
-      // Build detailed message
-      let message = `✓ Deleted ${result.successCount} role${result.successCount !== 1 ? 's' : ''}`;
-      
-      if (result.failureCount > 0) {
-        message += ` | ✗ ${result.failureCount} failed`;
-        // Add first error as detail
-        if (result.errors.length > 0) {
-          const firstError = result.errors[0];
-          // Extract just the error message part after "Role <id>: "
-          const errorDetail = firstError.includes(': ') 
-            ? firstError.split(': ').slice(1).join(': ')
-            : firstError;
-          message += `: ${errorDetail}`;
-        }
-      }
-      
-      setUploadMessage(message);
+      setUploadMessage('');
       setSelectedRoleIds(new Set());
       setShowDeleteConfirm(false);
-      
-      // Force refetch of roles to update UI
-      queryClient.invalidateQueries({ queryKey: ['roles', guildId] });
-      queryClient.invalidateQueries({ queryKey: ['server', guildId] });
-      queryClient.invalidateQueries({ queryKey: ['servers'] });
+      roleJob.start(response.data);
     },
     onError: (error: any) => {
       const errorMsg = error?.response?.data?.message || error?.message || 'Failed to delete roles';
       setUploadMessage(`✗ ${errorMsg}`);
       setShowDeleteConfirm(false);
-      
+
       // Still refresh to show current state
       queryClient.invalidateQueries({ queryKey: ['roles', guildId] });
     },
@@ -300,7 +298,7 @@ export default function RoleManager() {
     bulkDeleteMutation.mutate(Array.from(selectedRoleIds));
   };
 
-  if (serverLoading || rolesLoading) {
+  if (serverLoading || rolesLoading || (!snapshotSettled && (!server || !roles))) {
     return <div className="loading">Loading...</div>;
   }
 
@@ -416,7 +414,7 @@ export default function RoleManager() {
               <button
                 onClick={confirmBulkDelete}
                 className="btn btn-danger"
-                disabled={bulkDeleteMutation.isPending}
+                disabled={bulkDeleteMutation.isPending || roleJob.running}
               >
                 {bulkDeleteMutation.isPending ? 'Deleting...' : 'Yes, Delete Roles'}
               </button>
@@ -510,10 +508,10 @@ export default function RoleManager() {
             <p>Create 10 pre-configured roles with beautiful colors across all rarity tiers.</p>
             <button
               onClick={() => initDefaultsMutation.mutate()}
-              disabled={initDefaultsMutation.isPending}
+              disabled={initDefaultsMutation.isPending || roleJob.running}
               className="btn btn-primary"
             >
-              {initDefaultsMutation.isPending ? 'Creating...' : 'Initialize 10 Default Roles'}
+              {initDefaultsMutation.isPending || roleJob.running ? `Creating...${jobProgress}` : 'Initialize 10 Default Roles'}
             </button>
           </div>
 
@@ -539,7 +537,7 @@ export default function RoleManager() {
                   <span>{selectedFile.name}</span>
                   <button
                     onClick={handleUploadCsv}
-                    disabled={uploadCsvMutation.isPending}
+                    disabled={uploadCsvMutation.isPending || roleJob.running}
                     className="btn btn-primary"
                   >
                     {uploadCsvMutation.isPending ? 'Uploading...' : 'Upload & Create Roles'}
@@ -549,6 +547,15 @@ export default function RoleManager() {
             </div>
           </div>
 
+          {roleJob.running && (
+            <div className="upload-message">
+              Working...{jobProgress}{' '}
+              <button onClick={roleJob.cancel} className="btn btn-link" disabled={roleJob.job?.cancelRequested}>
+                Cancel
+              </button>
+            </div>
+          )}
+
           {uploadMessage && (
             <div className={`upload-message ${uploadMessage.startsWith('✓') ? 'success' : 'error'}`}>
               {uploadMessage}
@@ -583,7 +590,7 @@ export default function RoleManager() {
                   <span className="file-name">{selectedFile.name}</span>
                   <button
                     onClick={handleUploadCsv}
-                    disabled={uploadCsvMutation.isPending}
+                    disabled={uploadCsvMutation.isPending || roleJob.running}
                     className="btn btn-primary btn-sm"
                   >
                     {uploadCsvMutation.isPending ? 'Uploading...' : 'Create'}
@@ -591,6 +598,14 @@ export default function RoleManager() {
                 </>
               )}
             </div>
+            {roleJob.running && (
+              <div className="upload-message-inline">
+                Working...{jobProgress}{' '}
+                <button onClick={roleJob.cancel} className="btn btn-link" disabled={roleJob.job?.cancelRequested}>
+                  Cancel
+                </button>
+              </div>
+            )}
             {uploadMessage && (
               <div className={`upload-message-inline ${uploadMessage.startsWith('✓') ? 'success' : 'error'}`}>
                 {uploadMessage}
@@ -614,7 +629,7 @@ export default function RoleManager() {
               <button
                 onClick={handleBulkDelete}
                 className="btn btn-danger btn-sm"
-                disabled={bulkDeleteMutation.isPending}
+                disabled={bulkDeleteMutation.isPending || roleJob.running}
               >
                 🗑️ Delete Selected ({selectedRoleIds.size})
               </button>
@@ -34,6 +34,13 @@ vi.mock('../api/client', () => ({
     bulkCreateRoles: vi.fn(),
     bulkDeleteRoles: vi.fn(),
   },
+  roleJobApi: {
+    initializeDefaultRoles: vi.fn(),
+    uploadCsv: vi.fn(),
+    bulkDeleteRoles: vi.fn(),
+    getJob: vi.fn(),
+    cancelJob: vi.fn(),
+  },
 }));
 
 describe('RoleManager', () => {
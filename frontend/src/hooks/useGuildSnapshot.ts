@@ -0,0 +1,43 @@
+import { useQuery, useQueryClient, type QueryClient } from '@tanstack/react-query';
+import { serverApi } from '../api/client';
+import type { GuildSnapshot } from '../types';
+
+/**
+ * Loads everything a guild page needs in one request and seeds the per-section queries
+ * (['server'], ['roles'], ['qotd-channel-options'], ...) from it, so components keep their
+ * existing query keys and invalidation but don't fetch each section on page load.
+ *
+ * Pages should gate their section queries on `settled`: sections the snapshot couldn't build
+ * (null on the server) stay unseeded and are then fetched from their own endpoints.
+ */
+export function useGuildSnapshot(guildId: string | undefined) {
+  const queryClient = useQueryClient();
+  const query = useQuery({
+    queryKey: ['guild-snapshot', guildId],
+    queryFn: async () => {
+      const snapshot = (await serverApi.getSnapshot(guildId!)).data;
+      seedSections(queryClient, guildId!, snapshot);
+      return snapshot;
+    },
+    enabled: !!guildId,
+    staleTime: 0, // one fresh round-trip per page load
+  });
+  // Wait out refetches too, so stale seeded sections don't race the snapshot on a revisit
+  return { ...query, settled: !!guildId && !query.isFetching };
+}
+
+function seedSections(queryClient: QueryClient, guildId: string, snapshot: GuildSnapshot) {
+  const seed = (key: unknown[], value: unknown) => {
+    if (value !== null && value !== undefined) {
+      queryClient.setQueryData(key, value);
+    }
+  };
+  seed(['server', guildId], snapshot.guild);
+  seed(['roles', guildId], snapshot.gachaRoles);
+  seed(['hierarchy', guildId], snapshot.roleHierarchy);
+  seed(['qotd-channel-options', guildId], snapshot.channelOptions);
+  seed(['qotd-stream-status', guildId], snapshot.streamStatus);
+  seed(['guild-roles', guildId], snapshot.allRoles);
+  // First page of the unfiltered member search (an infinite query)
+  seed(['guild-members', guildId, ''], snapshot.members && { pages: [snapshot.members], pageParams: [undefined] });
+}
@@ -0,0 +1,47 @@
+import { useEffect, useState } from 'react';
+import { useQuery, useQueryClient } from '@tanstack/react-query';
+import { roleJobApi } from '../api/client';
+import type { RoleJobDto } from '../types';
+
+const FINISHED: RoleJobDto['status'][] = ['COMPLETED', 'CANCELLED', 'FAILED'];
+
+export const isRoleJobFinished = (job: RoleJobDto) => FINISHED.includes(job.status);
+
+/**
+ * Follows one background role job at a time: polls its progress until it finishes, then refreshes
+ * the role queries and hands the final state to `onFinished`.
+ */
+export function useRoleJob(guildId: string | undefined, onFinished: (job: RoleJobDto) => void) {
+  const queryClient = useQueryClient();
+  const [jobId, setJobId] = useState<number | null>(null);
+
+  const { data: job } = useQuery({
+    queryKey: ['role-job', guildId, jobId],
+    queryFn: async () => (await roleJobApi.getJob(guildId!, jobId!)).data,
+    enabled: !!guildId && jobId !== null,
+    refetchInterval: (query) => (query.state.data && isRoleJobFinished(query.state.data) ? false : 1000),
+  });
+
+  useEffect(() => {
+    if (jobId !== null && job && isRoleJobFinished(job)) {
+      setJobId(null);
+      queryClient.invalidateQueries({ queryKey: ['roles', guildId] });
+      queryClient.invalidateQueries({ queryKey: ['server', guildId] });
+      queryClient.invalidateQueries({ queryKey: ['servers'] });
+      onFinished(job);
+    }
+  }, [job, jobId]);
+
+  const start = (queued: RoleJobDto) => {
+    queryClient.setQueryData(['role-job', guildId, queued.id], queued);
+    setJobId(queued.id);
+  };
+
+  const cancel = () => {
+    if (jobId !== null) {
+      roleJobApi.cancelJob(guildId!, jobId).catch(() => undefined);
+    }
+  };
+
+  return { job: jobId !== null ? job : undefined, running: jobId !== null, start, cancel };
+}
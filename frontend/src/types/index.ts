@@ -39,6 +39,27 @@ export interface BulkRoleDeletionResult {
   errors: string[];
 }
 
+/**
+ * Progress of a background bulk role job (CSV import, default roles, bulk delete).
+ * The job is done once status is COMPLETED, CANCELLED or FAILED.
+ */
+export interface RoleJobDto {
+  id: number;
+  guildId: string;
+  type: 'CREATE' | 'DELETE';
+  status: 'QUEUED' | 'RUNNING' | 'COMPLETED' | 'CANCELLED' | 'FAILED';
+  totalItems: number;
+  processedItems: number;
+  succeededCount: number;
+  skippedCount: number;
+  failedCount: number;
+  errors: string[];
+  cancelRequested: boolean;
+  createdAt: string;
+  updatedAt: string | null;
+  finishedAt: string | null;
+}
+
 export interface RoleHierarchyStatus {
   isValid: boolean;
   botRoleName: string;
@@ -77,3 +98,25 @@ export interface DiscordMemberDto {
   displayName: string;
   avatarUrl: string | null;
 }
+
+/** One page of a guild member search; nextCursor is null on the last page. */
+export interface DiscordMemberPage {
+  members: DiscordMemberDto[];
+  nextCursor: string | null;
+}
+
+/**
+ * Everything the admin panel loads when opening a guild, in one response.
+ * A section that failed or missed the server's time budget is null and listed in errors.
+ */
+export interface GuildSnapshot {
+  guild: GuildInfo | null;
+  channelOptions: import('./qotd').ChannelTreeNodeDto[] | null;
+  streamStatus: import('./qotd').ChannelStreamStatusDto[] | null;
+  allRoles: DiscordRoleDto[] | null;
+  members: DiscordMemberPage | null;
+  gachaRoles: GachaRoleInfo[] | null;
+  roleHierarchy: RoleHierarchyStatus | null;
+  timingsMs: Record<string, number>;
+  errors: Record<string, string>;
+}
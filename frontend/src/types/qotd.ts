@@ -22,6 +22,7 @@ export interface QotdConfigDto {
 export interface UploadCsvResult {
   successCount: number;
   failureCount: number;
+  duplicateCount: number;
   errors: string[];
 }
 
@@ -50,6 +51,13 @@ export interface ChannelTreeNodeDto {
 
 export type SubmissionStatus = 'PENDING' | 'APPROVED' | 'REJECTED';
 
+export interface NearDuplicateDto {
+  source: 'QUESTION' | 'SUBMISSION' | 'POSTED';
+  id: number;
+  text: string;
+  similarity: number;
+}
+
 export interface QotdSubmissionDto {
   id: number;
   text: string;
@@ -57,6 +65,29 @@ export interface QotdSubmissionDto {
   username: string;
   status: SubmissionStatus;
   createdAt: string;
+  similarTo?: NearDuplicateDto | null;
+}
+
+export interface QotdPostedDto {
+  id: number;
+  questionId?: number | null;
+  text: string;
+  authorUserId?: string | null;
+  authorUsername?: string | null;
+  messageId?: string | null;
+  postedAt: string;
+}
+
+// Newest first; pass nextBefore/nextBeforeId back to get the following page (null when there is none)
+export interface QotdPostedPageDto {
+  items: QotdPostedDto[];
+  nextBefore: string | null;
+  nextBeforeId: number | null;
+}
+
+// Per-channel options; coalescePosts sends streams due at the same time as one multi-embed message
+export interface QotdChannelSettingsDto {
+  coalescePosts: boolean;
 }
 
 export interface BulkIdsRequest { ids: number[]; }
@@ -5,6 +5,7 @@ import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.JDABuilder;
 import net.dv8tion.jda.api.OnlineStatus;
 import net.dv8tion.jda.api.entities.Activity;
+import net.dv8tion.jda.api.hooks.ListenerAdapter;
 import net.dv8tion.jda.api.requests.GatewayIntent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -14,6 +15,8 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
+import java.util.List;
+
 @SpringBootApplication
 @EnableScheduling
 @EnableJpaRepositories(basePackages = "com.discordbot.repository")
@@ -46,7 +49,7 @@ public class Bot {
     }
 
     @Bean
-    public JDA jda(SlashCommandHandler slashCommandHandler) throws InterruptedException {
+    public JDA jda(List<ListenerAdapter> listeners) throws InterruptedException {
         logger.info("=== Playbot Starting ===");
 
         // Get token from system properties (loaded in main())
@@ -82,9 +85,10 @@ public class Bot {
             builder.setActivity(Activity.playing("/roll for colors | /help"));
             logger.info("Bot status set to ONLINE with activity: /roll for colors | /help");
 
-            // Register event listeners (injected from Spring)
-            builder.addEventListeners(slashCommandHandler);
-            logger.info("Event listener registered: SlashCommandHandler (with database persistence)");
+            // Register event listeners (every ListenerAdapter bean, injected from Spring)
+            builder.addEventListeners(listeners.toArray());
+            logger.info("Event listeners registered: {}",
+                listeners.stream().map(l -> l.getClass().getSimpleName()).toList());
 
             // Build and start the bot
             JDA jda = builder.build();
@@ -4,6 +4,7 @@ import com.discordbot.entity.QotdStream;
 import com.discordbot.entity.UserCooldown;
 import com.discordbot.repository.QotdStreamRepository;
 import com.discordbot.repository.UserCooldownRepository;
+import com.discordbot.web.dto.qotd.QotdDtos;
 import com.discordbot.web.service.GuildsCache;
 import com.discordbot.web.service.QotdSubmissionService;
 import com.discordbot.web.service.WebSocketNotificationService;
@@ -114,8 +115,8 @@ public class SlashCommandHandler extends ListenerAdapter {
         String guildId = event.getGuild().getId();
         String guildName = event.getGuild().getName();
         
-        // Evict cache so backend reflects the change immediately
-        if (guildsCache != null) guildsCache.evictAll();
+        // Evict cached guild lists of users in this guild so backend reflects the change immediately
+        if (guildsCache != null) guildsCache.evictGuild(guildId);
         
         // Notify all connected WebSocket clients
         webSocketNotificationService.notifyGuildJoined(guildId, guildName);
@@ -141,8 +142,8 @@ public class SlashCommandHandler extends ListenerAdapter {
         String guildId = event.getGuild().getId();
         String guildName = event.getGuild().getName();
         
-        // Evict cache so backend reflects the change immediately
-        if (guildsCache != null) guildsCache.evictAll();
+        // Evict cached guild lists of users in this guild so backend reflects the change immediately
+        if (guildsCache != null) guildsCache.evictGuild(guildId);
         
         // Notify all connected WebSocket clients
         webSocketNotificationService.notifyGuildLeft(guildId, guildName);
@@ -209,11 +210,18 @@ public class SlashCommandHandler extends ListenerAdapter {
         }
 
         try {
-            qotdSubmissionService.submit(guildId, userId, username, questionText, targetStreamId);
+            QotdDtos.QotdSubmissionDto submission =
+                qotdSubmissionService.submit(guildId, userId, username, questionText, targetStreamId);
 
             String responseMessage = targetStreamId != null
                 ? "✓ Your question has been submitted to the selected stream for admin review. Thanks for contributing!"
                 : "✓ Your question has been submitted for admin review. Thanks for contributing!";
+            // Never echo the match: it may be an unposted queued question or another member's submission.
+            // Admins see it in the pending list.
+            if (submission != null && submission.similarTo() != null
+                    && submission.status() == QotdDtos.SubmissionStatus.PENDING) {
+                responseMessage += "\n⚠️ It looks similar to an existing question — admins may reject it as a duplicate.";
+            }
 
             event.reply(responseMessage).setEphemeral(true).queue();
             logger.info("QOTD submission from {} in guild {} (stream: {}): {}", username, guildId, targetStreamId, questionText);
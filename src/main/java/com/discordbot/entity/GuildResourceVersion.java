@@ -0,0 +1,38 @@
+package com.discordbot.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * Entity representing the shared change counter of one guild's resource family. Rows are created on
+ * the first write and only ever incremented, see
+ * {@link com.discordbot.web.service.GuildResourceVersions}.
+ */
+@Entity
+@Table(name = "guild_resource_versions", uniqueConstraints = {
+    @UniqueConstraint(name = "uq_guild_resource_versions_family", columnNames = {"guildId", "family"})
+})
+public class GuildResourceVersion {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 32)
+    private String guildId;
+
+    @Column(nullable = false, length = 16)
+    private String family;
+
+    @Column(nullable = false)
+    private Long version = 0L;
+
+    public GuildResourceVersion() {}
+
+    public Long getId() { return id; }
+    public String getGuildId() { return guildId; }
+    public void setGuildId(String guildId) { this.guildId = guildId; }
+    public String getFamily() { return family; }
+    public void setFamily(String family) { this.family = family; }
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+}
@@ -0,0 +1,53 @@
+package com.discordbot.entity;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * Entity representing per-channel QOTD options. Channels without a row use the defaults.
+ *
+ * {@code coalescePosts}: streams in the channel that come due in the same scheduler tick are posted
+ * as one message with one embed per stream instead of one message each.
+ */
+@Entity
+@Table(name = "qotd_channel_settings", uniqueConstraints = {
+    @UniqueConstraint(name = "uq_qotd_channel_settings_channel", columnNames = {"guildId", "channelId"})
+})
+public class QotdChannelSettings {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 32)
+    private String guildId;
+
+    @Column(nullable = false, length = 32)
+    private String channelId;
+
+    @Column(nullable = false)
+    private Boolean coalescePosts = false;
+
+    @Column
+    private Instant updatedAt;
+
+    public QotdChannelSettings() {}
+
+    public QotdChannelSettings(String guildId, String channelId) {
+        this.guildId = guildId;
+        this.channelId = channelId;
+    }
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = Instant.now();
+    }
+
+    public Long getId() { return id; }
+    public String getGuildId() { return guildId; }
+    public String getChannelId() { return channelId; }
+    public Boolean getCoalescePosts() { return coalescePosts; }
+    public void setCoalescePosts(Boolean coalescePosts) { this.coalescePosts = coalescePosts; }
+    public Instant getUpdatedAt() { return updatedAt; }
+}
@@ -0,0 +1,87 @@
+package com.discordbot.entity;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * Entity representing a QOTD post in flight: the question is reserved until Discord acknowledges
+ * the message (the row is then removed along with the question) or retries are exhausted.
+ *
+ * {@code nextAttemptAt} is the ack deadline while {@link Status#SENDING} and the backoff expiry while
+ * {@link Status#RETRY}; either way the delivery is sent again once it passes.
+ *
+ * Deliveries posted together as one coalesced message share a {@code batchId}; their status,
+ * attempts and nextAttemptAt always change together.
+ */
+@Entity
+@Table(name = "qotd_deliveries", indexes = {
+    @Index(name = "idx_qotd_deliveries_next_attempt", columnList = "nextAttemptAt"),
+    @Index(name = "idx_qotd_deliveries_batch", columnList = "batchId")
+})
+public class QotdDelivery {
+
+    public enum Status { SENDING, RETRY }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true)
+    private Long streamId;
+
+    @Column(nullable = false)
+    private Long questionId;
+
+    // Shared by the deliveries of one coalesced message; null for a stream posted on its own
+    @Column(length = 36)
+    private String batchId;
+
+    // nextIndex the stream moves to once this post is acknowledged; null in random mode
+    @Column
+    private Integer nextIndex;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status;
+
+    // Send attempts started, including the one in flight
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(nullable = false)
+    private Instant nextAttemptAt;
+
+    @Column(length = 500)
+    private String lastError;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    public QotdDelivery() {}
+
+    public QotdDelivery(Long streamId, Long questionId, Integer nextIndex, Instant now, Instant ackDeadline) {
+        this(streamId, questionId, nextIndex, null, now, ackDeadline);
+    }
+
+    public QotdDelivery(Long streamId, Long questionId, Integer nextIndex, String batchId, Instant now, Instant ackDeadline) {
+        this.streamId = streamId;
+        this.questionId = questionId;
+        this.batchId = batchId;
+        this.nextIndex = nextIndex;
+        this.status = Status.SENDING;
+        this.attempts = 1;
+        this.nextAttemptAt = ackDeadline;
+        this.createdAt = now;
+    }
+
+    public Long getId() { return id; }
+    public Long getStreamId() { return streamId; }
+    public Long getQuestionId() { return questionId; }
+    public String getBatchId() { return batchId; }
+    public Integer getNextIndex() { return nextIndex; }
+    public Status getStatus() { return status; }
+    public int getAttempts() { return attempts; }
+    public Instant getNextAttemptAt() { return nextAttemptAt; }
+    public String getLastError() { return lastError; }
+    public Instant getCreatedAt() { return createdAt; }
+}
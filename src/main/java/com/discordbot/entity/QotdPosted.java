@@ -0,0 +1,75 @@
+package com.discordbot.entity;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * Entity representing a posted QOTD question. A question moves here from {@code qotd_questions} when
+ * Discord acknowledges its message (see QotdDeliveryService). {@code messageId} is null only for rows
+ * archived before acknowledged delivery.
+ */
+@Entity
+@Table(name = "qotd_posted", indexes = {
+    @Index(name = "idx_qotd_posted_stream_posted", columnList = "streamId,postedAt"),
+    @Index(name = "idx_qotd_posted_guild_posted", columnList = "guildId,postedAt"),
+    @Index(name = "idx_qotd_posted_posted_at", columnList = "postedAt")
+})
+public class QotdPosted {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 32)
+    private String guildId;
+
+    @Column(nullable = false, length = 32)
+    private String channelId;
+
+    @Column(nullable = false)
+    private Long streamId;
+
+    // Id the question had in qotd_questions; that row no longer exists
+    @Column
+    private Long questionId;
+
+    @Column(nullable = false, length = 2000)
+    private String text;
+
+    @Column(length = 255)
+    private String authorUserId;
+
+    @Column(length = 255)
+    private String authorUsername;
+
+    @Column(length = 32)
+    private String messageId;
+
+    @Column(nullable = false)
+    private Instant postedAt;
+
+    public QotdPosted() {}
+
+    public QotdPosted(QotdStream stream, QotdQuestion question, Instant postedAt) {
+        this.guildId = stream.getGuildId();
+        this.channelId = stream.getChannelId();
+        this.streamId = stream.getId();
+        this.questionId = question.getId();
+        this.text = question.getText();
+        this.authorUserId = question.getAuthorUserId();
+        this.authorUsername = question.getAuthorUsername();
+        this.postedAt = postedAt;
+    }
+
+    public Long getId() { return id; }
+    public String getGuildId() { return guildId; }
+    public String getChannelId() { return channelId; }
+    public Long getStreamId() { return streamId; }
+    public Long getQuestionId() { return questionId; }
+    public String getText() { return text; }
+    public String getAuthorUserId() { return authorUserId; }
+    public String getAuthorUsername() { return authorUsername; }
+    public String getMessageId() { return messageId; }
+    public void setMessageId(String messageId) { this.messageId = messageId; }
+    public Instant getPostedAt() { return postedAt; }
+}
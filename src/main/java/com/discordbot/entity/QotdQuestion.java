@@ -1,12 +1,25 @@
 package com.discordbot.entity;
 
 import jakarta.persistence.*;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
 import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.regex.Pattern;
 
 @Entity
-@Table(name = "qotd_questions")
+@Table(name = "qotd_questions", indexes = {
+    @Index(name = "idx_qotd_questions_stream_order", columnList = "streamId,displayOrder"),
+    @Index(name = "idx_qotd_questions_text_hash_stream", columnList = "textHash,streamId")
+})
 public class QotdQuestion {
 
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -26,6 +39,10 @@ public class QotdQuestion {
     @Column(nullable = false, length = 2000)
     private String text;
 
+    // SHA-256 of the normalized text (see hashText), maintained on save; used to find duplicates in a stream
+    @Column(length = 64)
+    private String textHash;
+
     @Column(length = 255)
     private String authorUserId;
 
@@ -56,6 +73,35 @@ public class QotdQuestion {
         this.createdAt = Instant.now();
     }
 
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        textHash = hashText(text);
+    }
+
+    /**
+     * Text as compared for duplicates: Unicode NFKC, lower case, whitespace runs collapsed and trimmed.
+     */
+    public static String normalizeText(String text) {
+        if (text == null) {
+            return "";
+        }
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        return WHITESPACE.matcher(normalized).replaceAll(" ").trim();
+    }
+
+    /**
+     * Hex SHA-256 of {@link #normalizeText(String)}; equal for questions that differ only in case or spacing.
+     */
+    public static String hashText(String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(normalizeText(text).getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
 
@@ -68,6 +114,8 @@ public class QotdQuestion {
     public String getText() { return text; }
     public void setText(String text) { this.text = text; }
 
+    public String getTextHash() { return textHash; }
+
     public String getAuthorUserId() { return authorUserId; }
     public void setAuthorUserId(String authorUserId) { this.authorUserId = authorUserId; }
 
@@ -38,6 +38,10 @@ public class QotdStream {
     @Column
     private Instant lastPostedAt;
 
+    // Next scheduled post; null when disabled or unscheduled (maintained by QotdSchedule.nextRunAt)
+    @Column
+    private Instant nextRunAt;
+
     // Rotation
     @Column(nullable = false)
     private Boolean randomize = false;
@@ -135,6 +139,14 @@ public class QotdStream {
         return lastPostedAt;
     }
 
+    public Instant getNextRunAt() {
+        return nextRunAt;
+    }
+
+    public void setNextRunAt(Instant nextRunAt) {
+        this.nextRunAt = nextRunAt;
+    }
+
     public void setLastPostedAt(Instant lastPostedAt) {
         this.lastPostedAt = lastPostedAt;
     }
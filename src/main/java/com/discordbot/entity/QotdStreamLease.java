@@ -0,0 +1,44 @@
+package com.discordbot.entity;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * Entity representing the scheduler lease on one QOTD stream firing. The holder posts the firing;
+ * once {@code expiresAt} passes, any instance may take the lease over (the holder is presumed dead).
+ */
+@Entity
+@Table(name = "qotd_stream_leases")
+public class QotdStreamLease {
+
+    @Id
+    private Long streamId;
+
+    @Column(nullable = false, length = 128)
+    private String owner;
+
+    // Cron time of the firing being posted, kept across takeovers
+    @Column(nullable = false)
+    private Instant fireAt;
+
+    @Column(nullable = false)
+    private Instant expiresAt;
+
+    public QotdStreamLease() {}
+
+    public QotdStreamLease(Long streamId, String owner, Instant fireAt, Instant expiresAt) {
+        this.streamId = streamId;
+        this.owner = owner;
+        this.fireAt = fireAt;
+        this.expiresAt = expiresAt;
+    }
+
+    public Long getStreamId() { return streamId; }
+    public void setStreamId(Long streamId) { this.streamId = streamId; }
+    public String getOwner() { return owner; }
+    public void setOwner(String owner) { this.owner = owner; }
+    public Instant getFireAt() { return fireAt; }
+    public void setFireAt(Instant fireAt) { this.fireAt = fireAt; }
+    public Instant getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(Instant expiresAt) { this.expiresAt = expiresAt; }
+}
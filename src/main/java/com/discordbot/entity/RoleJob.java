@@ -0,0 +1,132 @@
+package com.discordbot.entity;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * Entity representing a background bulk role job (CSV import, default roles, bulk delete).
+ * Items are stored as a JSON payload and processed in order; {@code nextItem} is the checkpoint
+ * a job resumes from after a restart.
+ */
+@Entity
+@Table(name = "role_jobs", indexes = {
+    @Index(name = "idx_role_jobs_status", columnList = "status"),
+    @Index(name = "idx_role_jobs_guild_created", columnList = "guildId,createdAt")
+})
+public class RoleJob {
+
+    public enum Type { CREATE, DELETE }
+
+    public enum Status { QUEUED, RUNNING, COMPLETED, CANCELLED, FAILED }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 32)
+    private String guildId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "job_type", nullable = false, length = 16)
+    private Type type;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status = Status.QUEUED;
+
+    @Column(length = 32)
+    private String requestedBy;
+
+    // DELETE jobs only touch roles whose name starts with this prefix
+    @Column(length = 64)
+    private String namePrefix;
+
+    @Lob
+    @Column(nullable = false)
+    private String payload;
+
+    @Column(nullable = false)
+    private int totalItems;
+
+    @Column(nullable = false)
+    private int nextItem = 0;
+
+    @Column(nullable = false)
+    private int succeededCount = 0;
+
+    @Column(nullable = false)
+    private int skippedCount = 0;
+
+    @Column(nullable = false)
+    private int failedCount = 0;
+
+    @Lob
+    private String errors;
+
+    @Column(nullable = false)
+    private boolean cancelRequested = false;
+
+    // Instance running the job; updatedAt doubles as its heartbeat
+    @Column(length = 128)
+    private String claimedBy;
+
+    @Column(nullable = false)
+    private Instant createdAt = Instant.now();
+
+    private Instant updatedAt;
+
+    private Instant finishedAt;
+
+    public RoleJob() {}
+
+    public RoleJob(String guildId, Type type, String requestedBy, String payload, int totalItems) {
+        this.guildId = guildId;
+        this.type = type;
+        this.requestedBy = requestedBy;
+        this.payload = payload;
+        this.totalItems = totalItems;
+        this.status = Status.QUEUED;
+        this.createdAt = Instant.now();
+    }
+
+    public boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.CANCELLED || status == Status.FAILED;
+    }
+
+    // Getters and setters
+    public Long getId() { return id; }
+    public String getGuildId() { return guildId; }
+    public void setGuildId(String guildId) { this.guildId = guildId; }
+    public Type getType() { return type; }
+    public void setType(Type type) { this.type = type; }
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+    public String getRequestedBy() { return requestedBy; }
+    public void setRequestedBy(String requestedBy) { this.requestedBy = requestedBy; }
+    public String getNamePrefix() { return namePrefix; }
+    public void setNamePrefix(String namePrefix) { this.namePrefix = namePrefix; }
+    public String getPayload() { return payload; }
+    public void setPayload(String payload) { this.payload = payload; }
+    public int getTotalItems() { return totalItems; }
+    public void setTotalItems(int totalItems) { this.totalItems = totalItems; }
+    public int getNextItem() { return nextItem; }
+    public void setNextItem(int nextItem) { this.nextItem = nextItem; }
+    public int getSucceededCount() { return succeededCount; }
+    public void setSucceededCount(int succeededCount) { this.succeededCount = succeededCount; }
+    public int getSkippedCount() { return skippedCount; }
+    public void setSkippedCount(int skippedCount) { this.skippedCount = skippedCount; }
+    public int getFailedCount() { return failedCount; }
+    public void setFailedCount(int failedCount) { this.failedCount = failedCount; }
+    public String getErrors() { return errors; }
+    public void setErrors(String errors) { this.errors = errors; }
+    public boolean isCancelRequested() { return cancelRequested; }
+    public void setCancelRequested(boolean cancelRequested) { this.cancelRequested = cancelRequested; }
+    public String getClaimedBy() { return claimedBy; }
+    public void setClaimedBy(String claimedBy) { this.claimedBy = claimedBy; }
+    public Instant getCreatedAt() { return createdAt; }
+    public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
+    public Instant getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(Instant updatedAt) { this.updatedAt = updatedAt; }
+    public Instant getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(Instant finishedAt) { this.finishedAt = finishedAt; }
+}
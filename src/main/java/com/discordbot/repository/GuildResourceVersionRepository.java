@@ -0,0 +1,40 @@
+package com.discordbot.repository;
+
+import com.discordbot.entity.GuildResourceVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Repository for the shared per-guild resource versions. Writes join the caller's transaction, so a
+ * version moves exactly when the write it describes commits.
+ */
+@Repository
+public interface GuildResourceVersionRepository extends JpaRepository<GuildResourceVersion, Long> {
+
+    @Query("SELECT v.version FROM GuildResourceVersion v WHERE v.guildId = :guildId AND v.family = :family")
+    Long findVersion(@Param("guildId") String guildId, @Param("family") String family);
+
+    /**
+     * Returns 0 if the guild has no row for the family yet.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE GuildResourceVersion v SET v.version = v.version + 1 "
+            + "WHERE v.guildId = :guildId AND v.family = :family")
+    int increment(@Param("guildId") String guildId, @Param("family") String family);
+
+    /**
+     * Create the row at version 1. Returns 0 instead of failing if it already exists.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO guild_resource_versions (guild_id, family, version) "
+            + "SELECT :guildId, :family, 1 FROM (VALUES (1)) seed "
+            + "WHERE NOT EXISTS (SELECT 1 FROM guild_resource_versions "
+            + "WHERE guild_id = :guildId AND family = :family)", nativeQuery = true)
+    int insertIfAbsent(@Param("guildId") String guildId, @Param("family") String family);
+}
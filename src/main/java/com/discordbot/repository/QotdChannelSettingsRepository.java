@@ -0,0 +1,21 @@
+package com.discordbot.repository;
+
+import com.discordbot.entity.QotdChannelSettings;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * Repository for per-channel QOTD options.
+ */
+@Repository
+public interface QotdChannelSettingsRepository extends JpaRepository<QotdChannelSettings, Long> {
+
+    Optional<QotdChannelSettings> findByGuildIdAndChannelId(String guildId, String channelId);
+
+    /**
+     * Whether a channel posts its due streams as one coalesced message.
+     */
+    boolean existsByGuildIdAndChannelIdAndCoalescePostsTrue(String guildId, String channelId);
+}
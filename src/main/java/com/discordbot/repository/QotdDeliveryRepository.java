@@ -0,0 +1,89 @@
+package com.discordbot.repository;
+
+import com.discordbot.entity.QotdDelivery;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository for QOTD deliveries in flight. State changes are single conditional statements keyed
+ * on the {@code nextAttemptAt} the caller read, so two instances can't both claim one retry. The
+ * batch variants apply the same statement to every delivery of a coalesced message at once.
+ */
+@Repository
+public interface QotdDeliveryRepository extends JpaRepository<QotdDelivery, Long> {
+
+    Optional<QotdDelivery> findByStreamId(Long streamId);
+
+    /** Deliveries of one coalesced message, in embed order. */
+    List<QotdDelivery> findByBatchIdOrderByIdAsc(String batchId);
+
+    /** Deliveries whose ack deadline or backoff has passed, oldest first. */
+    @Query("SELECT d FROM QotdDelivery d WHERE d.nextAttemptAt <= :now ORDER BY d.nextAttemptAt")
+    List<QotdDelivery> findDue(@Param("now") Instant now, Pageable page);
+
+    /**
+     * Start another send attempt, provided no one else has since the caller read {@code seenNextAttemptAt}
+     * and the delivery is backing off or past its ack deadline (an in-flight send is never doubled).
+     * Returns 0 if the claim was lost.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE QotdDelivery d SET d.status = com.discordbot.entity.QotdDelivery.Status.SENDING, "
+            + "d.attempts = d.attempts + 1, d.nextAttemptAt = :ackDeadline "
+            + "WHERE d.id = :id AND d.nextAttemptAt = :seenNextAttemptAt "
+            + "AND (d.status = com.discordbot.entity.QotdDelivery.Status.RETRY OR d.nextAttemptAt <= :now)")
+    int claim(@Param("id") Long id, @Param("seenNextAttemptAt") Instant seenNextAttemptAt,
+              @Param("now") Instant now, @Param("ackDeadline") Instant ackDeadline);
+
+    /**
+     * Back off after a failed attempt. Returns 0 if the delivery is gone or another attempt has started.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE QotdDelivery d SET d.status = com.discordbot.entity.QotdDelivery.Status.RETRY, "
+            + "d.nextAttemptAt = :retryAt, d.lastError = :error WHERE d.id = :id AND d.attempts = :attempts")
+    int scheduleRetry(@Param("id") Long id, @Param("attempts") int attempts,
+                      @Param("retryAt") Instant retryAt, @Param("error") String error);
+
+    /**
+     * Give up on a delivery after its last attempt failed; the question stays in the queue.
+     * Returns 0 if the delivery is gone or another attempt has started.
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM QotdDelivery d WHERE d.id = :id AND d.attempts = :attempts")
+    int abandon(@Param("id") Long id, @Param("attempts") int attempts);
+
+    /** {@link #claim} for every delivery of a batch. */
+    @Modifying
+    @Transactional
+    @Query("UPDATE QotdDelivery d SET d.status = com.discordbot.entity.QotdDelivery.Status.SENDING, "
+            + "d.attempts = d.attempts + 1, d.nextAttemptAt = :ackDeadline "
+            + "WHERE d.batchId = :batchId AND d.nextAttemptAt = :seenNextAttemptAt "
+            + "AND (d.status = com.discordbot.entity.QotdDelivery.Status.RETRY OR d.nextAttemptAt <= :now)")
+    int claimBatch(@Param("batchId") String batchId, @Param("seenNextAttemptAt") Instant seenNextAttemptAt,
+                   @Param("now") Instant now, @Param("ackDeadline") Instant ackDeadline);
+
+    /** {@link #scheduleRetry} for every delivery of a batch. */
+    @Modifying
+    @Transactional
+    @Query("UPDATE QotdDelivery d SET d.status = com.discordbot.entity.QotdDelivery.Status.RETRY, "
+            + "d.nextAttemptAt = :retryAt, d.lastError = :error WHERE d.batchId = :batchId AND d.attempts = :attempts")
+    int scheduleBatchRetry(@Param("batchId") String batchId, @Param("attempts") int attempts,
+                           @Param("retryAt") Instant retryAt, @Param("error") String error);
+
+    /** {@link #abandon} for every delivery of a batch. */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM QotdDelivery d WHERE d.batchId = :batchId AND d.attempts = :attempts")
+    int abandonBatch(@Param("batchId") String batchId, @Param("attempts") int attempts);
+}
@@ -0,0 +1,37 @@
+package com.discordbot.repository;
+
+import com.discordbot.entity.QotdPosted;
+import com.discordbot.repository.QotdQuestionRepository.QuestionText;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Repository for the posted-question archive. History is read with keyset pagination on
+ * (postedAt, id), newest first, so a page costs the same at any depth.
+ */
+@Repository
+public interface QotdPostedRepository extends JpaRepository<QotdPosted, Long> {
+
+    /** First page of a stream's history. */
+    List<QotdPosted> findByStreamIdOrderByPostedAtDescIdDesc(Long streamId, Pageable page);
+
+    /**
+     * Page of a stream's history strictly after the cursor ({@code before}, {@code beforeId}) in
+     * newest-first order. The {@code postedAt <= :before} term bounds the index range scan; the
+     * second term breaks ties between rows posted at the same instant.
+     */
+    @Query("SELECT p FROM QotdPosted p WHERE p.streamId = :streamId AND p.postedAt <= :before "
+            + "AND (p.postedAt < :before OR p.id < :beforeId) ORDER BY p.postedAt DESC, p.id DESC")
+    List<QotdPosted> findPageBefore(@Param("streamId") Long streamId, @Param("before") Instant before,
+                                    @Param("beforeId") Long beforeId, Pageable page);
+
+    /** Id and text of a guild's questions posted since {@code since}, for near-duplicate detection. */
+    @Query("SELECT p.id AS id, p.text AS text FROM QotdPosted p WHERE p.guildId = :guildId AND p.postedAt >= :since")
+    List<QuestionText> findTextByGuildIdPostedSince(@Param("guildId") String guildId, @Param("since") Instant since);
+}
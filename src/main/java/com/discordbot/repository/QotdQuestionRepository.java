@@ -1,17 +1,60 @@
 package com.discordbot.repository;
 
 import com.discordbot.entity.QotdQuestion;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface QotdQuestionRepository extends JpaRepository<QotdQuestion, Long> {
     // NEW: Stream-based queries (preferred)
-    List<QotdQuestion> findByStreamIdOrderByDisplayOrderAsc(Long streamId);
     long countByStreamId(Long streamId);
+    List<QotdQuestion> findByStreamIdOrderByDisplayOrderAscIdAsc(Long streamId);
+    // Single question at a position in display order (page size 1, served by idx_qotd_questions_stream_order)
+    List<QotdQuestion> findByStreamIdOrderByDisplayOrderAscIdAsc(Long streamId, Pageable page);
     void deleteByIdAndStreamId(Long id, Long streamId);
+
+    /** Id and display order of a question, without its text. */
+    interface QuestionOrder {
+        Long getId();
+        int getDisplayOrder();
+    }
+
+    // Ordering (display_order values are spaced QotdQuestionOrdering.GAP apart)
+    @Query("SELECT MAX(q.displayOrder) FROM QotdQuestion q WHERE q.streamId = :streamId")
+    Integer findMaxDisplayOrder(@Param("streamId") Long streamId);
+
+    @Query("SELECT q.id AS id, q.displayOrder AS displayOrder FROM QotdQuestion q "
+            + "WHERE q.streamId = :streamId ORDER BY q.displayOrder, q.id")
+    List<QuestionOrder> findOrderByStreamId(@Param("streamId") Long streamId);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE QotdQuestion q SET q.displayOrder = :displayOrder WHERE q.id = :id AND q.streamId = :streamId")
+    int updateDisplayOrder(@Param("id") Long id, @Param("streamId") Long streamId, @Param("displayOrder") int displayOrder);
+
+    // Duplicate detection by normalized-text hash (QotdQuestion.hashText), served by idx_qotd_questions_text_hash_stream
+    boolean existsByStreamIdAndTextHash(Long streamId, String textHash);
+
+    @Query("SELECT q.textHash FROM QotdQuestion q WHERE q.streamId = :streamId AND q.textHash IN :hashes")
+    List<String> findTextHashes(@Param("streamId") Long streamId, @Param("hashes") Collection<String> hashes);
+
+    /** Id and text of a question, for building the near-duplicate index. */
+    interface QuestionText {
+        Long getId();
+        String getText();
+    }
+
+    @Query("SELECT q.id AS id, q.text AS text FROM QotdQuestion q WHERE q.guildId = :guildId")
+    List<QuestionText> findTextByGuildId(@Param("guildId") String guildId);
+
     long countByStreamIdIsNull();  // For migration verification
     List<QotdQuestion> findByStreamIdIsNull();  // For cleanup of legacy questions
 }
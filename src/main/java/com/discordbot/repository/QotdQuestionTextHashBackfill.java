@@ -0,0 +1,71 @@
+package com.discordbot.repository;
+
+import com.discordbot.entity.QotdQuestion;
+import liquibase.change.custom.CustomTaskChange;
+import liquibase.database.Database;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.CustomChangeException;
+import liquibase.exception.ValidationErrors;
+import liquibase.resource.ResourceAccessor;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Liquibase change (017) that fills {@code qotd_questions.text_hash} for rows written before the column
+ * existed, using the same normalization as {@link QotdQuestion#hashText(String)}.
+ * Only rows with a null hash are touched, so re-running it is harmless.
+ */
+public class QotdQuestionTextHashBackfill implements CustomTaskChange {
+
+    private static final int BATCH_SIZE = 500;
+
+    private int updated;
+
+    @Override
+    public void execute(Database database) throws CustomChangeException {
+        Connection connection = ((JdbcConnection) database.getConnection()).getUnderlyingConnection();
+        try (Statement select = connection.createStatement();
+             PreparedStatement update = connection.prepareStatement("UPDATE qotd_questions SET text_hash = ? WHERE id = ?");
+             ResultSet rows = select.executeQuery("SELECT id, text FROM qotd_questions WHERE text_hash IS NULL")) {
+            int pending = 0;
+            while (rows.next()) {
+                update.setString(1, QotdQuestion.hashText(rows.getString(2)));
+                update.setLong(2, rows.getLong(1));
+                update.addBatch();
+                if (++pending == BATCH_SIZE) {
+                    update.executeBatch();
+                    updated += pending;
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                update.executeBatch();
+                updated += pending;
+            }
+        } catch (SQLException e) {
+            throw new CustomChangeException("Failed to backfill qotd_questions.text_hash", e);
+        }
+    }
+
+    @Override
+    public String getConfirmationMessage() {
+        return "Backfilled text_hash for " + updated + " QOTD question(s)";
+    }
+
+    @Override
+    public void setUp() {
+    }
+
+    @Override
+    public void setFileOpener(ResourceAccessor resourceAccessor) {
+    }
+
+    @Override
+    public ValidationErrors validate(Database database) {
+        return new ValidationErrors();
+    }
+}
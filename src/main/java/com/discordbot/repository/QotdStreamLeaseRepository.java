@@ -0,0 +1,58 @@
+package com.discordbot.repository;
+
+import com.discordbot.entity.QotdStreamLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+/**
+ * Repository for QOTD scheduler leases. Every write is a single conditional statement, so two
+ * instances racing for the same lease can't both succeed.
+ */
+@Repository
+public interface QotdStreamLeaseRepository extends JpaRepository<QotdStreamLease, Long> {
+
+    /**
+     * Lock a stream's row until the surrounding transaction ends, so lease inserts for it run one at a time.
+     * Returns null if the stream no longer exists.
+     */
+    @Query(value = "SELECT id FROM qotd_streams WHERE id = :streamId FOR UPDATE", nativeQuery = true)
+    Long lockStream(@Param("streamId") Long streamId);
+
+    /**
+     * Create a lease. Returns 0 instead of failing if the stream already has one or no longer exists;
+     * run it after {@link #lockStream} in the same transaction so a concurrent insert can't slip in between.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO qotd_stream_leases (stream_id, owner, fire_at, expires_at) "
+            + "SELECT s.id, :owner, :fireAt, :expiresAt FROM qotd_streams s WHERE s.id = :streamId "
+            + "AND NOT EXISTS (SELECT 1 FROM qotd_stream_leases l WHERE l.stream_id = :streamId)", nativeQuery = true)
+    int insertIfAbsent(@Param("streamId") Long streamId, @Param("owner") String owner,
+               @Param("fireAt") Instant fireAt, @Param("expiresAt") Instant expiresAt);
+
+    /**
+     * Replace an expired lease, provided it is still the one the caller read.
+     * Returns 0 if another instance took or renewed it first.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE QotdStreamLease l SET l.owner = :owner, l.fireAt = :fireAt, l.expiresAt = :expiresAt "
+            + "WHERE l.streamId = :streamId AND l.owner = :previousOwner AND l.expiresAt = :previousExpiresAt")
+    int takeOver(@Param("streamId") Long streamId, @Param("previousOwner") String previousOwner,
+                 @Param("previousExpiresAt") Instant previousExpiresAt, @Param("owner") String owner,
+                 @Param("fireAt") Instant fireAt, @Param("expiresAt") Instant expiresAt);
+
+    /**
+     * Drop a lease if the caller still owns it.
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM QotdStreamLease l WHERE l.streamId = :streamId AND l.owner = :owner")
+    int release(@Param("streamId") Long streamId, @Param("owner") String owner);
+}
@@ -2,8 +2,13 @@ package com.discordbot.repository;
 
 import com.discordbot.entity.QotdStream;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
@@ -28,6 +33,33 @@ public interface QotdStreamRepository extends JpaRepository<QotdStream, Long> {
      */
     List<QotdStream> findByEnabledTrue();
 
+    /**
+     * Find enabled streams whose stored next run is due (range scan on idx_qotd_streams_enabled_next_run).
+     */
+    List<QotdStream> findByEnabledTrueAndNextRunAtLessThanEqualOrderByNextRunAtAsc(Instant now);
+
+    /**
+     * Find enabled streams with no stored next run (rows written before next_run_at existed).
+     */
+    List<QotdStream> findByEnabledTrueAndNextRunAtIsNull();
+
+    /**
+     * Move a stream's next run from {@code expected} to {@code next}.
+     * Returns 0 if the stored value no longer matches (another instance or an edit got there first).
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE QotdStream s SET s.nextRunAt = :next WHERE s.id = :id AND s.nextRunAt = :expected")
+    int advanceNextRun(@Param("id") Long id, @Param("expected") Instant expected, @Param("next") Instant next);
+
+    /**
+     * Store a stream's next run without touching other columns (startup backfill).
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE QotdStream s SET s.nextRunAt = :next WHERE s.id = :id")
+    int updateNextRun(@Param("id") Long id, @Param("next") Instant next);
+
     /**
      * Check if any stream exists for a specific channel.
      * Used by migration service to avoid duplicate default streams.
@@ -0,0 +1,54 @@
+package com.discordbot.repository;
+
+import com.discordbot.entity.RoleJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface RoleJobRepository extends JpaRepository<RoleJob, Long> {
+    Optional<RoleJob> findByIdAndGuildId(Long id, String guildId);
+    List<RoleJob> findTop20ByGuildIdOrderByCreatedAtDesc(String guildId);
+    List<RoleJob> findByStatusInOrderByIdAsc(Collection<RoleJob.Status> statuses);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE RoleJob j SET j.cancelRequested = true WHERE j.id = :id")
+    int requestCancel(@Param("id") Long id);
+
+    /** Whether cancellation was requested, by this instance or any other. */
+    @Query("SELECT COUNT(j) > 0 FROM RoleJob j WHERE j.id = :id AND j.cancelRequested = true")
+    boolean isCancelRequested(@Param("id") Long id);
+
+    /**
+     * Checkpoint a running job's progress. Leaves cancelRequested (set by {@link #requestCancel} from any
+     * instance) and the payload alone.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE RoleJob j SET j.status = :status, j.nextItem = :nextItem, j.succeededCount = :succeeded, "
+            + "j.skippedCount = :skipped, j.failedCount = :failed, j.errors = :errors, "
+            + "j.updatedAt = :updatedAt, j.finishedAt = :finishedAt WHERE j.id = :id")
+    int saveProgress(@Param("id") Long id, @Param("status") RoleJob.Status status, @Param("nextItem") int nextItem,
+                     @Param("succeeded") int succeeded, @Param("skipped") int skipped, @Param("failed") int failed,
+                     @Param("errors") String errors, @Param("updatedAt") Instant updatedAt,
+                     @Param("finishedAt") Instant finishedAt);
+
+    /**
+     * Claim an unfinished job that no instance has checkpointed since {@code staleBefore}.
+     * Returns 0 if the job finished or its holder is still active.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE RoleJob j SET j.claimedBy = :owner, j.updatedAt = :now "
+            + "WHERE j.id = :id AND j.status IN :statuses "
+            + "AND (j.claimedBy IS NULL OR j.updatedAt IS NULL OR j.updatedAt < :staleBefore)")
+    int claim(@Param("id") Long id, @Param("statuses") Collection<RoleJob.Status> statuses,
+              @Param("owner") String owner, @Param("now") Instant now, @Param("staleBefore") Instant staleBefore);
+}
@@ -0,0 +1,124 @@
+package com.discordbot.web;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClientService;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * In-memory near-cache in front of another {@link OAuth2AuthorizedClientService} (normally the
+ * JDBC-backed one), so the per-request access token lookup doesn't hit the database.
+ *
+ * Behavior:
+ * - Reads are served from a bounded, expiring Caffeine tier; misses load from the delegate
+ * - Saves write through to the delegate and evict the cached entry (token refresh picks up the new row)
+ * - Removals and logout evict the cached entry
+ * - Entries whose access token has expired are treated as misses
+ */
+public class CachingOAuth2AuthorizedClientService implements OAuth2AuthorizedClientService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CachingOAuth2AuthorizedClientService.class);
+
+    static final Duration TTL = Duration.ofMinutes(5);
+    static final long MAX_ENTRIES = 10_000;
+
+    private record Key(String registrationId, String principalName) {}
+
+    private final OAuth2AuthorizedClientService delegate;
+    private final Cache<Key, OAuth2AuthorizedClient> clients;
+    private final Clock clock;
+
+    public CachingOAuth2AuthorizedClientService(OAuth2AuthorizedClientService delegate) {
+        this(delegate, Ticker.systemTicker(), Clock.systemUTC());
+    }
+
+    /**
+     * Visible for tests: allows a fake ticker (cache expiry) and clock (token expiry).
+     */
+    public CachingOAuth2AuthorizedClientService(OAuth2AuthorizedClientService delegate, Ticker ticker, Clock clock) {
+        this.delegate = delegate;
+        this.clock = clock;
+        this.clients = Caffeine.newBuilder()
+                .ticker(ticker)
+                .expireAfterWrite(TTL)
+                .maximumSize(MAX_ENTRIES)
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public <T extends OAuth2AuthorizedClient> T loadAuthorizedClient(String clientRegistrationId, String principalName) {
+        Key key = new Key(clientRegistrationId, principalName);
+        OAuth2AuthorizedClient client = clients.getIfPresent(key);
+        if (client != null && isExpired(client)) {
+            clients.invalidate(key);
+            client = null;
+        }
+        if (client == null) {
+            client = delegate.loadAuthorizedClient(clientRegistrationId, principalName);
+            // Don't cache misses: a login in progress will save the client moments later
+            if (client != null && !isExpired(client)) {
+                clients.put(key, client);
+            }
+        }
+        @SuppressWarnings("unchecked")
+        T typed = (T) client;
+        return typed;
+    }
+
+    @Override
+    public void saveAuthorizedClient(OAuth2AuthorizedClient authorizedClient, Authentication principal) {
+        delegate.saveAuthorizedClient(authorizedClient, principal);
+        clients.invalidate(new Key(authorizedClient.getClientRegistration().getRegistrationId(), principal.getName()));
+    }
+
+    @Override
+    public void removeAuthorizedClient(String clientRegistrationId, String principalName) {
+        delegate.removeAuthorizedClient(clientRegistrationId, principalName);
+        clients.invalidate(new Key(clientRegistrationId, principalName));
+    }
+
+    /**
+     * Drop every cached client for a principal (all registrations). Used on logout.
+     */
+    public void evictPrincipal(String principalName) {
+        if (principalName == null) {
+            return;
+        }
+        clients.asMap().keySet().removeIf(k -> k.principalName().equals(principalName));
+        logger.debug("Evicted cached authorized clients for principal {}", principalName);
+    }
+
+    /**
+     * Cache statistics for health reporting.
+     */
+    public Map<String, Object> stats() {
+        CacheStats stats = clients.stats();
+        return Map.of(
+            "size", clients.estimatedSize(),
+            "hits", stats.hitCount(),
+            "misses", stats.missCount(),
+            "hitRatio", stats.hitRate()
+        );
+    }
+
+    private boolean isExpired(OAuth2AuthorizedClient client) {
+        OAuth2AccessToken token = client.getAccessToken();
+        if (token == null) {
+            return true;
+        }
+        Instant expiresAt = token.getExpiresAt();
+        return expiresAt != null && !expiresAt.isAfter(clock.instant());
+    }
+}
@@ -0,0 +1,313 @@
+package com.discordbot.web;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.session.MapSession;
+import org.springframework.session.Session;
+import org.springframework.session.SessionRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory tier in front of the durable (JDBC) Spring Session repository.
+ *
+ * Behavior:
+ * - Hot sessions are served from a bounded Caffeine cache; each request works on its own copy
+ * - Saves only reach the delegate when something other than lastAccessedTime changed, or when
+ *   lastAccessedTime has moved by at least the configured granularity since the last persisted write
+ * - Saves merge this request's changes into the current cached entry rather than replacing it, so
+ *   attributes set concurrently by another request (e.g. the security context at login) are kept
+ * - A cached entry is re-read from the delegate once it is a granularity old, so a logout or
+ *   deletion on another instance is seen within that interval
+ * - The delegate stays the source of truth, so sessions survive restarts; at most one granularity
+ *   of lastAccessedTime is lost when a cached entry is evicted or the process stops
+ *
+ * @param <S> session type of the delegate repository
+ */
+public class CachingSessionRepository<S extends Session> implements SessionRepository<CachingSessionRepository<S>.CachedSession> {
+
+    private static final Logger logger = LoggerFactory.getLogger(CachingSessionRepository.class);
+
+    static final Duration CACHE_IDLE = Duration.ofMinutes(10);
+    static final long MAX_ENTRIES = 10_000;
+
+    /**
+     * Immutable snapshot of a session, the lastAccessedTime the delegate currently holds, and the
+     * ticker reading when the snapshot was last read from or written to the delegate.
+     */
+    private record Entry(MapSession snapshot, Instant persistedLastAccessed, long validatedAt) {}
+
+    private final SessionRepository<S> delegate;
+    private final Duration touchGranularity;
+    private final Ticker ticker;
+    private final Cache<String, Entry> sessions;
+    private final AtomicLong writes = new AtomicLong();
+    private final AtomicLong skippedWrites = new AtomicLong();
+
+    public CachingSessionRepository(SessionRepository<S> delegate, Duration touchGranularity) {
+        this(delegate, touchGranularity, Ticker.systemTicker());
+    }
+
+    /**
+     * Visible for tests: allows a fake ticker to drive cache expiry.
+     */
+    public CachingSessionRepository(SessionRepository<S> delegate, Duration touchGranularity, Ticker ticker) {
+        this.delegate = delegate;
+        this.touchGranularity = touchGranularity;
+        this.ticker = ticker;
+        this.sessions = Caffeine.newBuilder()
+                .ticker(ticker)
+                .expireAfterAccess(CACHE_IDLE)
+                .maximumSize(MAX_ENTRIES)
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public CachedSession createSession() {
+        S created = delegate.createSession();
+        return new CachedSession(new MapSession(created), null, created);
+    }
+
+    @Override
+    public void save(CachedSession session) {
+        String id = session.getId();
+        boolean touchDue = session.persistedLastAccessed == null
+                || Duration.between(session.persistedLastAccessed, session.getLastAccessedTime()).compareTo(touchGranularity) >= 0;
+
+        Instant persisted = session.persistedLastAccessed;
+        boolean written = session.isDirty() || touchDue;
+        if (written) {
+            S target = session.delegateSession();
+            if (target == null) {
+                // Deleted underneath us (another request logged out or cleanup ran): don't resurrect it
+                logger.debug("Session {} no longer exists in the durable store; dropping cached copy", session.originalId);
+                sessions.invalidate(session.originalId);
+                return;
+            }
+            session.applyTo(target);
+            delegate.save(target);
+            persisted = session.getLastAccessedTime();
+            writes.incrementAndGet();
+        } else {
+            skippedWrites.incrementAndGet();
+        }
+
+        Entry previous = id.equals(session.originalId) ? null : sessions.asMap().remove(session.originalId);
+        Instant persistedAt = persisted;
+        long now = ticker.read();
+        sessions.asMap().compute(id, (key, current) ->
+            merge(current != null ? current : previous, session, persistedAt, written ? now : -1));
+        session.markSaved(persisted);
+    }
+
+    /**
+     * Apply one request's changes on top of the current cached entry. Only what this request changed
+     * is copied, so attributes written concurrently by other requests survive.
+     *
+     * @param validatedAt ticker reading if the delegate was just written, otherwise -1
+     */
+    private Entry merge(Entry current, CachedSession session, Instant persisted, long validatedAt) {
+        if (current == null) {
+            return new Entry(new MapSession(session.local), persisted, validatedAt >= 0 ? validatedAt : ticker.read());
+        }
+        MapSession merged = new MapSession(current.snapshot());
+        merged.setId(session.getId());
+        session.changedAttributes.forEach((name, value) -> {
+            if (value == null) {
+                merged.removeAttribute(name);
+            } else {
+                merged.setAttribute(name, value);
+            }
+        });
+        if (session.maxInactiveChanged) {
+            merged.setMaxInactiveInterval(session.getMaxInactiveInterval());
+        }
+        // A write just stored this request's access time; otherwise never move it backwards
+        if (validatedAt >= 0 || session.getLastAccessedTime().isAfter(merged.getLastAccessedTime())) {
+            merged.setLastAccessedTime(session.getLastAccessedTime());
+        }
+        Instant newestPersisted = current.persistedLastAccessed() == null
+                || (persisted != null && persisted.isAfter(current.persistedLastAccessed()))
+                ? persisted : current.persistedLastAccessed();
+        return new Entry(merged, newestPersisted, validatedAt >= 0 ? validatedAt : current.validatedAt());
+    }
+
+    @Override
+    public CachedSession findById(String id) {
+        Entry entry = sessions.getIfPresent(id);
+        S loaded = null;
+        if (entry == null || ticker.read() - entry.validatedAt() >= touchGranularity.toNanos()) {
+            // (Re)load from the durable store: it alone sees logouts and deletions made on other instances
+            loaded = delegate.findById(id);
+            if (loaded == null) {
+                sessions.invalidate(id);
+                return null;
+            }
+            entry = new Entry(new MapSession(loaded), loaded.getLastAccessedTime(), ticker.read());
+            sessions.put(id, entry);
+        }
+        if (entry.snapshot().isExpired()) {
+            deleteById(id);
+            return null;
+        }
+        return new CachedSession(new MapSession(entry.snapshot()), entry.persistedLastAccessed(), loaded);
+    }
+
+    @Override
+    public void deleteById(String id) {
+        sessions.invalidate(id);
+        delegate.deleteById(id);
+    }
+
+    /**
+     * Drop cached copies without touching the delegate (used after bulk expiry cleanup).
+     */
+    public void evictAll(Collection<String> sessionIds) {
+        sessions.invalidateAll(sessionIds);
+    }
+
+    /**
+     * Cache and write-coalescing statistics for health reporting.
+     */
+    public Map<String, Object> stats() {
+        CacheStats stats = sessions.stats();
+        return Map.of(
+            "size", sessions.estimatedSize(),
+            "hitRatio", stats.hitRate(),
+            "writes", writes.get(),
+            "skippedWrites", skippedWrites.get()
+        );
+    }
+
+    /**
+     * Per-request view of a session. Mutations are applied to a private copy and recorded so that
+     * {@link #save} can replay them onto the delegate's session only when a write is warranted.
+     */
+    public final class CachedSession implements Session {
+
+        private final MapSession local;
+        private final Map<String, Object> changedAttributes = new HashMap<>();
+        private String originalId;
+        private Instant persistedLastAccessed;
+        private boolean maxInactiveChanged;
+        private S delegateSession;
+
+        private CachedSession(MapSession local, Instant persistedLastAccessed, S delegateSession) {
+            this.local = local;
+            this.originalId = local.getId();
+            this.persistedLastAccessed = persistedLastAccessed;
+            this.delegateSession = delegateSession;
+        }
+
+        boolean isDirty() {
+            return persistedLastAccessed == null || !changedAttributes.isEmpty() || maxInactiveChanged
+                    || !local.getId().equals(originalId);
+        }
+
+        /** The delegate's session for this ID, loaded lazily the first time a write is needed. */
+        private S delegateSession() {
+            if (delegateSession == null) {
+                delegateSession = delegate.findById(originalId);
+            }
+            return delegateSession;
+        }
+
+        private void applyTo(S target) {
+            changedAttributes.forEach((name, value) -> {
+                if (value == null) {
+                    target.removeAttribute(name);
+                } else {
+                    target.setAttribute(name, value);
+                }
+            });
+            if (maxInactiveChanged) {
+                target.setMaxInactiveInterval(local.getMaxInactiveInterval());
+            }
+            target.setLastAccessedTime(local.getLastAccessedTime());
+        }
+
+        private void markSaved(Instant persisted) {
+            changedAttributes.clear();
+            maxInactiveChanged = false;
+            originalId = local.getId();
+            persistedLastAccessed = persisted;
+        }
+
+        @Override
+        public String getId() {
+            return local.getId();
+        }
+
+        @Override
+        public String changeSessionId() {
+            S target = delegateSession();
+            String newId = target != null ? target.changeSessionId() : local.changeSessionId();
+            local.setId(newId);
+            return newId;
+        }
+
+        @Override
+        public <T> T getAttribute(String attributeName) {
+            return local.getAttribute(attributeName);
+        }
+
+        @Override
+        public Set<String> getAttributeNames() {
+            return local.getAttributeNames();
+        }
+
+        @Override
+        public void setAttribute(String attributeName, Object attributeValue) {
+            local.setAttribute(attributeName, attributeValue);
+            changedAttributes.put(attributeName, attributeValue);
+        }
+
+        @Override
+        public void removeAttribute(String attributeName) {
+            local.removeAttribute(attributeName);
+            changedAttributes.put(attributeName, null);
+        }
+
+        @Override
+        public Instant getCreationTime() {
+            return local.getCreationTime();
+        }
+
+        @Override
+        public void setLastAccessedTime(Instant lastAccessedTime) {
+            local.setLastAccessedTime(lastAccessedTime);
+        }
+
+        @Override
+        public Instant getLastAccessedTime() {
+            return local.getLastAccessedTime();
+        }
+
+        @Override
+        public void setMaxInactiveInterval(Duration interval) {
+            local.setMaxInactiveInterval(interval);
+            maxInactiveChanged = true;
+        }
+
+        @Override
+        public Duration getMaxInactiveInterval() {
+            return local.getMaxInactiveInterval();
+        }
+
+        @Override
+        public boolean isExpired() {
+            return local.isExpired();
+        }
+    }
+}
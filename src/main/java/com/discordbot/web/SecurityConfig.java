@@ -5,6 +5,10 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.logout.LogoutHandler;
+import org.springframework.security.oauth2.core.user.OAuth2User;
+import com.discordbot.web.service.GuildAuthorizationCache;
+import com.discordbot.web.service.GuildsCache;
 import org.springframework.web.filter.ForwardedHeaderFilter;
 import jakarta.servlet.Filter;
 import jakarta.servlet.FilterChain;
@@ -56,7 +60,9 @@ public class SecurityConfig {
      * - Configures OAuth2 Login with Discord
      */
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, GuildAuthorizationCache authorizationCache,
+                                           GuildsCache guildsCache,
+                                           CachingOAuth2AuthorizedClientService authorizedClientService) throws Exception {
         final String adminPanelUrl = getAdminPanelUrl();
 
         http
@@ -81,6 +87,7 @@ public class SecurityConfig {
             )
             .logout(logout -> logout
                 .logoutUrl("/api/logout")
+                .addLogoutHandler(cacheEvictingLogoutHandler(authorizationCache, guildsCache, authorizedClientService))
                 .logoutSuccessUrl(adminPanelUrl)
                 .invalidateHttpSession(true)
                 .deleteCookies("JSESSIONID")
@@ -89,6 +96,25 @@ public class SecurityConfig {
         return http.build();
     }
 
+    /**
+     * Drops the user's cached authorization decisions, guild list and authorized client on logout
+     * so a subsequent login (possibly as a different account in the same browser) starts fresh.
+     */
+    public LogoutHandler cacheEvictingLogoutHandler(GuildAuthorizationCache authorizationCache, GuildsCache guildsCache,
+                                                    CachingOAuth2AuthorizedClientService authorizedClientService) {
+        return (request, response, authentication) -> {
+            if (authentication == null) {
+                return;
+            }
+            authorizedClientService.evictPrincipal(authentication.getName());
+            if (authentication.getPrincipal() instanceof OAuth2User oauth2User) {
+                String userId = oauth2User.getAttribute("id");
+                authorizationCache.evictUser(userId);
+                guildsCache.evictUser(userId);
+            }
+        };
+    }
+
     /**
      * Allows Spring to respect X-Forwarded-* headers when behind a reverse proxy
      * (e.g., Nginx, Cloudflare, Docker ingress), so redirect URIs are built correctly.
@@ -104,10 +130,12 @@ public class SecurityConfig {
      *
      * Storage uses Spring's JDBC schema. Spring Boot will auto-config schema creation
      * if enabled, or you can initialize it manually using Spring Security's DDL.
+     * An in-memory near-cache sits in front so per-request token lookups skip the database.
      */
     @Bean
-    public OAuth2AuthorizedClientService authorizedClientService(DataSource dataSource, ClientRegistrationRepository registrations) {
-        return new JdbcOAuth2AuthorizedClientService(new JdbcTemplate(dataSource), registrations);
+    public CachingOAuth2AuthorizedClientService authorizedClientService(DataSource dataSource, ClientRegistrationRepository registrations) {
+        return new CachingOAuth2AuthorizedClientService(
+            new JdbcOAuth2AuthorizedClientService(new JdbcTemplate(dataSource), registrations));
     }
 
     /**
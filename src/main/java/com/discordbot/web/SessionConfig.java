@@ -0,0 +1,45 @@
+package com.discordbot.web;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.session.config.annotation.web.http.EnableSpringHttpSession;
+import org.springframework.session.jdbc.JdbcIndexedSessionRepository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Spring Session wiring: JDBC stays the durable store (sessions survive restarts), with an
+ * in-memory tier in front that serves hot sessions and coalesces lastAccessedTime writes.
+ *
+ * Declaring our own SessionRepository makes Spring Boot's JDBC session auto-configuration back off,
+ * so the JDBC repository is built here with the same defaults (SPRING_SESSION tables,
+ * server.servlet.session.timeout). Its built-in every-minute cleanup is disabled in favor of
+ * {@link SessionExpiryCleanupJob}, which deletes expired rows in bounded chunks.
+ *
+ * lastAccessedTime is persisted at most once per {@code session.touch-granularity} unless the session
+ * otherwise changed; the cleanup job reads the same property.
+ */
+@Configuration
+@EnableSpringHttpSession
+public class SessionConfig {
+
+    @Bean
+    public CachingSessionRepository<?> sessionRepository(DataSource dataSource, PlatformTransactionManager transactionManager,
+                                                         ServerProperties serverProperties,
+                                                         @Value("${session.touch-granularity:PT1M}") Duration touchGranularity) {
+        JdbcIndexedSessionRepository jdbc = new JdbcIndexedSessionRepository(
+            new JdbcTemplate(dataSource), new TransactionTemplate(transactionManager));
+        Duration timeout = serverProperties.getServlet().getSession().getTimeout();
+        if (timeout != null) {
+            jdbc.setDefaultMaxInactiveInterval(timeout);
+        }
+        jdbc.setCleanupCron("-");
+        return new CachingSessionRepository<>(jdbc, touchGranularity);
+    }
+}
@@ -0,0 +1,98 @@
+package com.discordbot.web;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deletes expired Spring Session rows in bounded chunks instead of one unbounded DELETE,
+ * so a large backlog of 30-day sessions never holds a long table lock.
+ *
+ * Rows are only considered expired once EXPIRY_TIME is older than the touch granularity
+ * ({@code session.touch-granularity}), because
+ * {@link CachingSessionRepository} may hold a newer lastAccessedTime that hasn't been written yet.
+ * Attribute rows go with their session via ON DELETE CASCADE.
+ */
+@Component
+public class SessionExpiryCleanupJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(SessionExpiryCleanupJob.class);
+
+    static final int CHUNK_SIZE = 500;
+    static final int MAX_CHUNKS_PER_RUN = 20;
+
+    private record ExpiredSession(String primaryId, String sessionId) {}
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CachingSessionRepository<?> sessionRepository;
+    private final Duration touchGranularity;
+    private final Clock clock;
+
+    @Autowired
+    public SessionExpiryCleanupJob(JdbcTemplate jdbcTemplate, CachingSessionRepository<?> sessionRepository,
+                                   @Value("${session.touch-granularity:PT1M}") Duration touchGranularity) {
+        this(jdbcTemplate, sessionRepository, touchGranularity, Clock.systemUTC());
+    }
+
+    /**
+     * Visible for tests: allows a fixed clock.
+     */
+    public SessionExpiryCleanupJob(JdbcTemplate jdbcTemplate, CachingSessionRepository<?> sessionRepository,
+                                   Duration touchGranularity, Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.sessionRepository = sessionRepository;
+        this.touchGranularity = touchGranularity;
+        this.clock = clock;
+    }
+
+    @Scheduled(cron = "0 */5 * * * *")
+    public void cleanUpExpiredSessions() {
+        int deleted = purgeExpired();
+        if (deleted > 0) {
+            logger.info("Cleaned up {} expired session(s)", deleted);
+        }
+    }
+
+    /**
+     * Delete expired sessions chunk by chunk; returns the number of sessions deleted this run.
+     */
+    public int purgeExpired() {
+        long cutoff = clock.millis() - touchGranularity.toMillis();
+        int total = 0;
+        for (int chunk = 0; chunk < MAX_CHUNKS_PER_RUN; chunk++) {
+            List<ExpiredSession> expired = jdbcTemplate.query(
+                "SELECT PRIMARY_ID, SESSION_ID FROM SPRING_SESSION WHERE EXPIRY_TIME < ? ORDER BY EXPIRY_TIME FETCH FIRST " + CHUNK_SIZE + " ROWS ONLY",
+                (rs, i) -> new ExpiredSession(rs.getString(1), rs.getString(2)),
+                cutoff);
+            if (expired.isEmpty()) {
+                break;
+            }
+
+            // Re-check the expiry so a session touched since the SELECT survives
+            int[] results = jdbcTemplate.batchUpdate(
+                "DELETE FROM SPRING_SESSION WHERE PRIMARY_ID = ? AND EXPIRY_TIME < ?",
+                expired.stream().map(s -> new Object[]{s.primaryId(), cutoff}).toList());
+            for (int r : results) {
+                total += Math.max(r, 0);
+            }
+
+            List<String> sessionIds = new ArrayList<>(expired.size());
+            expired.forEach(s -> sessionIds.add(s.sessionId()));
+            sessionRepository.evictAll(sessionIds);
+
+            if (expired.size() < CHUNK_SIZE) {
+                break;
+            }
+        }
+        return total;
+    }
+}
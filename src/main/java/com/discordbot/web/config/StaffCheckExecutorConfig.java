@@ -0,0 +1,30 @@
+package com.discordbot.web.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Worker pool for the per-guild Staff role lookups fanned out by
+ * {@link com.discordbot.web.service.AdminService#getManageableGuilds}.
+ * Shut down with the application context so in-flight lookups are interrupted rather than leaked.
+ */
+@Configuration
+public class StaffCheckExecutorConfig {
+
+    // Bounded fan-out; lookups still running at the latency budget are cancelled to free their worker
+    private static final int STAFF_CHECK_CONCURRENCY = 8;
+
+    @Bean(name = "staffCheckExecutor", destroyMethod = "shutdownNow")
+    public ExecutorService staffCheckExecutor() {
+        AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newFixedThreadPool(STAFF_CHECK_CONCURRENCY, r -> {
+            Thread t = new Thread(r, "staff-check-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+}
@@ -1,8 +1,13 @@
 package com.discordbot.web.controller;
 
 import com.discordbot.entity.QotdStream;
+import com.discordbot.web.CachingOAuth2AuthorizedClientService;
+import com.discordbot.web.CachingSessionRepository;
 import com.discordbot.repository.QotdStreamRepository;
 import com.discordbot.web.service.AdminService;
+import com.discordbot.web.service.QotdSchedule;
+import com.discordbot.web.service.QotdThreadWarmup;
+import com.discordbot.web.service.ThreadRegistry;
 import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.entities.Guild;
 import net.dv8tion.jda.api.entities.channel.concrete.ThreadChannel;
@@ -22,19 +27,53 @@ public class DiagnosticsController {
     private final JDA jda;
     private final AdminService adminService;
     private final QotdStreamRepository streamRepository;
-
-    public DiagnosticsController(JDA jda, AdminService adminService, QotdStreamRepository streamRepository) {
+    private final ThreadRegistry threadRegistry;
+    private final QotdSchedule schedule;
+    private final QotdThreadWarmup threadWarmup;
+    private final CachingOAuth2AuthorizedClientService authorizedClientService;
+    private final CachingSessionRepository<?> sessionRepository;
+
+    public DiagnosticsController(JDA jda, AdminService adminService, QotdStreamRepository streamRepository,
+                                 ThreadRegistry threadRegistry, QotdSchedule schedule, QotdThreadWarmup threadWarmup,
+                                 CachingOAuth2AuthorizedClientService authorizedClientService,
+                                 CachingSessionRepository<?> sessionRepository) {
         this.jda = jda;
         this.adminService = adminService;
         this.streamRepository = streamRepository;
+        this.threadRegistry = threadRegistry;
+        this.schedule = schedule;
+        this.threadWarmup = threadWarmup;
+        this.authorizedClientService = authorizedClientService;
+        this.sessionRepository = sessionRepository;
+    }
+
+    /**
+     * Hit ratios and sizes of the authorized-client and session near-caches. The stats are
+     * process-wide; the guild only scopes who may read them, like the other endpoints here.
+     */
+    @GetMapping("/guilds/{guildId}/caches")
+    public ResponseEntity<Map<String, Object>> getCacheStats(
+            @PathVariable String guildId,
+            Authentication auth) {
+
+        if (auth == null || !adminService.canManageGuild(auth, guildId)) {
+            return ResponseEntity.status(403).build();
+        }
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("authorizedClients", authorizedClientService.stats());
+        result.put("sessions", sessionRepository.stats());
+        return ResponseEntity.ok(result);
     }
 
     /**
-     * Check what threads Discord API returns for a guild
+     * Check what active threads are known for a guild (from the thread registry;
+     * pass live=true to reconcile against the Discord API first)
      */
     @GetMapping("/guilds/{guildId}/threads")
     public ResponseEntity<Map<String, Object>> getActiveThreads(
             @PathVariable String guildId,
+            @RequestParam(defaultValue = "false") boolean live,
             Authentication auth) {
         
         if (auth == null || !adminService.canManageGuild(auth, guildId)) {
@@ -47,8 +86,11 @@ public class DiagnosticsController {
         }
 
         try {
-            List<ThreadChannel> activeThreads = guild.retrieveActiveThreads().complete();
+            List<ThreadChannel> activeThreads = live
+                ? threadRegistry.reconcileNow(guild)
+                : threadRegistry.getActiveThreads(guild);
             Map<String, Object> result = new HashMap<>();
+            result.put("source", live ? "discord" : "registry");
             result.put("threadCount", activeThreads.size());
             result.put("threads", activeThreads.stream()
                 .map(t -> Map.of(
@@ -113,11 +155,7 @@ public class DiagnosticsController {
         guild.getNewsChannels().forEach(c -> validIds.add(c.getId()));
         guild.getForumChannels().forEach(c -> validIds.add(c.getId()));
         
-        try {
-            guild.retrieveActiveThreads().complete().forEach(t -> validIds.add(t.getId()));
-        } catch (Exception e) {
-            // Thread retrieval failed, continue with what we have
-        }
+        threadRegistry.getActiveThreads(guild).forEach(t -> validIds.add(t.getId()));
 
         // Find orphaned streams
         List<Map<String, Object>> orphaned = new ArrayList<>();
@@ -140,6 +178,25 @@ public class DiagnosticsController {
         return ResponseEntity.ok(result);
     }
 
+    /**
+     * Streams due soon whose target thread is archived, missing, or couldn't be joined ahead of time
+     */
+    @GetMapping("/guilds/{guildId}/thread-warmup")
+    public ResponseEntity<Map<String, Object>> getThreadWarmupWarnings(
+            @PathVariable String guildId,
+            Authentication auth) {
+
+        if (auth == null || !adminService.canManageGuild(auth, guildId)) {
+            return ResponseEntity.status(403).build();
+        }
+
+        List<QotdThreadWarmup.Warning> warnings = threadWarmup.getWarnings(guildId);
+        Map<String, Object> result = new HashMap<>();
+        result.put("warningCount", warnings.size());
+        result.put("warnings", warnings);
+        return ResponseEntity.ok(result);
+    }
+
     /**
      * Delete orphaned streams for a guild
      */
@@ -166,8 +223,9 @@ public class DiagnosticsController {
         guild.getNewsChannels().forEach(c -> validIds.add(c.getId()));
         guild.getForumChannels().forEach(c -> validIds.add(c.getId()));
         
+        // Deleting is destructive, so check against Discord rather than the in-memory registry
         try {
-            guild.retrieveActiveThreads().complete().forEach(t -> validIds.add(t.getId()));
+            threadRegistry.reconcileNow(guild).forEach(t -> validIds.add(t.getId()));
         } catch (Exception e) {
             // Thread retrieval failed, continue with what we have
         }
@@ -178,6 +236,7 @@ public class DiagnosticsController {
         for (QotdStream stream : allStreams) {
             if (!validIds.contains(stream.getChannelId())) {
                 streamRepository.delete(stream);
+                schedule.remove(stream.getId());
                 deletedCount++;
                 deletedIds.add(stream.getId());
             }
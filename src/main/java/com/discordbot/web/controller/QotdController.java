@@ -3,6 +3,7 @@ package com.discordbot.web.controller;
 import com.discordbot.web.dto.qotd.QotdDtos;
 import com.discordbot.web.service.AdminService;
 import com.discordbot.web.service.QotdService;
+import com.discordbot.web.service.QotdStreamService;
 import com.discordbot.web.service.QotdSubmissionService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -42,11 +43,14 @@ public class QotdController {
 
     private final QotdService qotdService;
     private final QotdSubmissionService submissionService;
+    private final QotdStreamService streamService;
     private final AdminService adminService;
 
-    public QotdController(QotdService qotdService, QotdSubmissionService submissionService, AdminService adminService) {
+    public QotdController(QotdService qotdService, QotdSubmissionService submissionService, QotdStreamService streamService,
+                          AdminService adminService) {
         this.qotdService = qotdService;
         this.submissionService = submissionService;
+        this.streamService = streamService;
         this.adminService = adminService;
     }
 
@@ -61,6 +65,34 @@ public class QotdController {
         return ResponseEntity.ok(qotdService.listTextChannels(guildId));
     }
 
+    // Channel-level options (shared by every stream in the channel)
+    @GetMapping("/channels/{channelId}/qotd/settings")
+    public ResponseEntity<?> getChannelSettings(
+            @PathVariable String guildId,
+            @PathVariable String channelId,
+            Authentication authentication) {
+        if (!canManage(guildId, authentication)) return ResponseEntity.status(403).build();
+        try {
+            return ResponseEntity.ok(streamService.getChannelSettings(guildId, channelId));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @PutMapping("/channels/{channelId}/qotd/settings")
+    public ResponseEntity<?> updateChannelSettings(
+            @PathVariable String guildId,
+            @PathVariable String channelId,
+            @RequestBody QotdDtos.QotdChannelSettingsDto request,
+            Authentication authentication) {
+        if (!canManage(guildId, authentication)) return ResponseEntity.status(403).build();
+        try {
+            return ResponseEntity.ok(streamService.updateChannelSettings(guildId, channelId, request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     // Submissions API (guild-wide, but approval targets a specific channel)
     @GetMapping("/qotd/submissions")
     public ResponseEntity<List<QotdDtos.QotdSubmissionDto>> listPending(
@@ -2,6 +2,8 @@ package com.discordbot.web.controller;
 
 import com.discordbot.web.dto.qotd.QotdDtos.*;
 import com.discordbot.web.service.AdminService;
+import com.discordbot.web.service.GuildResourceVersions.Family;
+import com.discordbot.web.service.GuildResponseCache;
 import com.discordbot.web.service.QotdStreamService;
 import com.discordbot.web.service.RateLimitService;
 import org.slf4j.Logger;
@@ -11,6 +13,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.time.Instant;
 import java.util.List;
 
 /**
@@ -25,17 +28,28 @@ public class QotdStreamController {
     private final QotdStreamService streamService;
     private final AdminService adminService;
     private final RateLimitService rateLimitService;
+    private final GuildResponseCache responseCache;
 
-    public QotdStreamController(QotdStreamService streamService, AdminService adminService, RateLimitService rateLimitService) {
+    public QotdStreamController(QotdStreamService streamService, AdminService adminService, RateLimitService rateLimitService,
+                                GuildResponseCache responseCache) {
         this.streamService = streamService;
         this.adminService = adminService;
         this.rateLimitService = rateLimitService;
+        this.responseCache = responseCache;
     }
 
     private boolean canManage(String guildId, Authentication authentication) {
         return authentication != null && adminService.canManageGuild(authentication, guildId);
     }
 
+    private static Instant earliestNextRun(List<QotdStreamDto> streams) {
+        return streams.stream()
+                .filter(s -> s.nextRuns() != null && !s.nextRuns().isEmpty())
+                .map(s -> Instant.parse(s.nextRuns().get(0)))
+                .min(Instant::compareTo)
+                .orElse(null);
+    }
+
     // ==================== Stream Management ====================
 
     /**
@@ -52,7 +66,10 @@ public class QotdStreamController {
             return ResponseEntity.status(403).build();
         }
 
-        return ResponseEntity.ok(streamService.listStreams(guildId, channelId));
+        // Upcoming runs in the payload are time-derived, so the cached copy goes stale at the earliest one
+        return responseCache.serve(guildId, Family.STREAMS, "channel:" + channelId,
+                () -> streamService.listStreams(guildId, channelId),
+                QotdStreamController::earliestNextRun);
     }
 
     /**
@@ -161,7 +178,8 @@ public class QotdStreamController {
             return ResponseEntity.status(403).build();
         }
 
-        return ResponseEntity.ok(streamService.listQuestions(guildId, streamId));
+        return responseCache.serve(guildId, Family.QUESTIONS, "stream:" + streamId,
+                () -> streamService.listQuestions(guildId, streamId));
     }
 
     /**
@@ -225,6 +243,36 @@ public class QotdStreamController {
         return ResponseEntity.ok().build();
     }
 
+    // ==================== Posting History ====================
+
+    /**
+     * Questions already posted by a stream, newest first, keyset-paginated: pass the previous
+     * page's nextBefore/nextBeforeId to get the next one.
+     * GET /api/servers/{guildId}/channels/{channelId}/qotd/streams/{streamId}/history?before=&beforeId=&limit=
+     */
+    @GetMapping("/{streamId}/history")
+    public ResponseEntity<?> listHistory(
+            @PathVariable String guildId,
+            @PathVariable Long streamId,
+            @RequestParam(required = false) Instant before,
+            @RequestParam(required = false) Long beforeId,
+            @RequestParam(required = false) Integer limit,
+            Authentication authentication) {
+
+        if (!canManage(guildId, authentication)) {
+            return ResponseEntity.status(403).build();
+        }
+
+        try {
+            return ResponseEntity.ok(streamService.listPosted(guildId, streamId, before, beforeId, limit));
+        } catch (IllegalArgumentException e) {
+            if ("Stream not found".equals(e.getMessage())) {
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     /**
      * Upload CSV of questions to a stream.
      * POST /api/servers/{guildId}/channels/{channelId}/qotd/streams/{streamId}/upload-csv
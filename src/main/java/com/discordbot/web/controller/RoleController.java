@@ -8,7 +8,11 @@ import com.discordbot.web.dto.GachaRoleInfo;
 import com.discordbot.web.dto.RoleDeletionResult;
 import com.discordbot.web.dto.RoleHierarchyStatus;
 import com.discordbot.web.service.AdminService;
+import com.discordbot.web.service.CsvBatchParser;
+import com.discordbot.web.service.GuildResourceVersions.Family;
+import com.discordbot.web.service.GuildResponseCache;
 import com.discordbot.web.service.RateLimitService;
+import com.discordbot.web.service.RoleCsvParser;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -21,8 +25,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -34,10 +37,12 @@ public class RoleController {
 
     private final AdminService adminService;
     private final RateLimitService rateLimitService;
+    private final GuildResponseCache responseCache;
 
-    public RoleController(AdminService adminService, RateLimitService rateLimitService) {
+    public RoleController(AdminService adminService, RateLimitService rateLimitService, GuildResponseCache responseCache) {
         this.adminService = adminService;
         this.rateLimitService = rateLimitService;
+        this.responseCache = responseCache;
     }
 
     /**
@@ -90,10 +95,11 @@ public class RoleController {
             return ResponseEntity.status(403).build();
         }
 
-        logger.info("Fetching gatcha roles for guild: {}", guildId);
-        List<GachaRoleInfo> roles = adminService.getGatchaRoles(guildId);
-
-        return ResponseEntity.ok(roles);
+        // Served from the version-keyed cache; If-None-Match with the current ETag gets a 304
+        return responseCache.serve(guildId, Family.ROLES, "gatcha", () -> {
+            logger.info("Fetching gatcha roles for guild: {}", guildId);
+            return adminService.getGatchaRoles(guildId);
+        });
     }
 
     /**
@@ -187,10 +193,27 @@ public class RoleController {
         logger.info("Processing CSV upload for guild: {} (filename: {}, size: {} bytes)", 
             guildId, file.getOriginalFilename(), file.getSize());
 
-        try {
-            List<CreateRoleRequest> requests = parseCsv(file);
-            BulkRoleCreationResult result = adminService.createBulkGatchaRoles(guildId, requests);
-            return ResponseEntity.ok(result);
+        List<GachaRoleInfo> created = new ArrayList<>();
+        List<String> skipped = new ArrayList<>();
+        List<String> errors = new ArrayList<>();
+        int[] counts = new int[3]; // success, skipped, failed
+
+        try (InputStream in = file.getInputStream()) {
+            // Rows are validated while streaming and created a batch at a time
+            CsvBatchParser.Result parsed = RoleCsvParser.parse(in, RoleCsvParser.DEFAULT_BATCH_SIZE, 0, batch -> {
+                BulkRoleCreationResult result = adminService.createBulkGatchaRoles(guildId, batch);
+                counts[0] += result.successCount();
+                counts[1] += result.skippedCount();
+                counts[2] += result.failureCount();
+                created.addAll(result.createdRoles());
+                skipped.addAll(result.skippedRoles());
+                errors.addAll(result.errors());
+            });
+            logger.info("Parsed {} valid and {} invalid role rows from CSV", parsed.validRows(), parsed.invalidRows());
+
+            errors.addAll(0, parsed.errors());
+            return ResponseEntity.ok(new BulkRoleCreationResult(
+                counts[0], counts[1], counts[2] + parsed.invalidRows(), created, skipped, errors));
         } catch (Exception e) {
             logger.error("Failed to process CSV upload", e);
             return ResponseEntity.status(500).build();
@@ -227,59 +250,6 @@ public class RoleController {
         }
     }
 
-    /**
-     * Parse CSV file into CreateRoleRequest objects
-     */
-    private List<CreateRoleRequest> parseCsv(MultipartFile file) throws Exception {
-        List<CreateRoleRequest> requests = new ArrayList<>();
-
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(file.getInputStream()))) {
-            String line;
-            boolean firstLine = true;
-
-            while ((line = reader.readLine()) != null) {
-                // Skip header row
-                if (firstLine) {
-                    firstLine = false;
-                    continue;
-                }
-
-                // Skip empty lines
-                if (line.trim().isEmpty()) {
-                    continue;
-                }
-
-                String[] parts = line.split(",");
-                if (parts.length >= 3) {
-                    String name = parts[0].trim();
-                    String rarity = parts[1].trim();
-                    String colorHex = parts[2].trim();
-
-                    String secondary = null;
-                    String tertiary = null;
-                    if (parts.length >= 4) {
-                        secondary = parts[3].trim();
-                        if (secondary.isEmpty()) secondary = null;
-                    }
-                    if (parts.length >= 5) {
-                        tertiary = parts[4].trim();
-                        if (tertiary.isEmpty()) tertiary = null;
-                    }
-
-                    // Normalize empty primary color to null (AdminService defaults to white)
-                    if (colorHex.isEmpty()) {
-                        colorHex = null;
-                    }
-
-                    requests.add(new CreateRoleRequest(name, rarity, colorHex, secondary, tertiary));
-                }
-            }
-        }
-
-        logger.info("Parsed {} roles from CSV", requests.size());
-        return requests;
-    }
-
     /**
      * DELETE /api/servers/{guildId}/roles/{roleId}
      * Delete a single gacha role
@@ -0,0 +1,231 @@
+package com.discordbot.web.controller;
+
+import com.discordbot.web.dto.BulkRoleDeletionRequest;
+import com.discordbot.web.dto.CreateRoleRequest;
+import com.discordbot.web.dto.RoleJobDto;
+import com.discordbot.web.service.AdminService;
+import com.discordbot.web.service.RateLimitService;
+import com.discordbot.web.service.RoleCsvParser;
+import com.discordbot.web.service.RoleJobService;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.core.user.OAuth2User;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Background variants of the bulk role endpoints in {@link RoleController}.
+ *
+ * Submitting returns 202 with the queued job; clients poll {@code GET /jobs/{jobId}} for progress.
+ */
+@RestController
+@RequestMapping("/api/servers/{guildId}/roles/jobs")
+public class RoleJobController {
+
+    private static final Logger logger = LoggerFactory.getLogger(RoleJobController.class);
+
+    // Larger than the synchronous upload: the file is parsed in one streaming pass and the work runs in the background
+    private static final long MAX_CSV_SIZE = 8 * 1024 * 1024; // 8MB
+
+    private final AdminService adminService;
+    private final RateLimitService rateLimitService;
+    private final RoleJobService roleJobService;
+
+    public RoleJobController(AdminService adminService, RateLimitService rateLimitService, RoleJobService roleJobService) {
+        this.adminService = adminService;
+        this.rateLimitService = rateLimitService;
+        this.roleJobService = roleJobService;
+    }
+
+    /**
+     * POST /api/servers/{guildId}/roles/jobs/init-defaults
+     * Queue creation of the default gatcha roles
+     */
+    @PostMapping("/init-defaults")
+    public ResponseEntity<RoleJobDto> initializeDefaultRoles(
+            @PathVariable String guildId,
+            Authentication authentication) {
+
+        return submitBulk(guildId, authentication, "init-defaults",
+            () -> roleJobService.submitCreate(guildId, adminService.defaultRoleRequests(), userId(authentication)));
+    }
+
+    /**
+     * POST /api/servers/{guildId}/roles/jobs/upload-csv
+     * Queue creation of roles from a CSV file (same format as the synchronous upload)
+     */
+    @PostMapping("/upload-csv")
+    public ResponseEntity<RoleJobDto> uploadCsv(
+            @PathVariable String guildId,
+            @RequestParam("file") MultipartFile file,
+            Authentication authentication) {
+
+        ResponseEntity<RoleJobDto> denied = checkBulkAccess(guildId, authentication, "CSV upload job");
+        if (denied != null) {
+            return denied;
+        }
+
+        if (file.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (file.getSize() > MAX_CSV_SIZE) {
+            logger.warn("CSV file too large: {} bytes (max: {} bytes)", file.getSize(), MAX_CSV_SIZE);
+            return ResponseEntity.status(413).build(); // 413 Payload Too Large
+        }
+
+        return submit(guildId, "CSV upload job", () -> {
+            List<CreateRoleRequest> requests;
+            try {
+                try (InputStream in = file.getInputStream()) {
+                    requests = RoleCsvParser.parseAll(in, RoleJobService.MAX_ITEMS);
+                }
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Unreadable CSV: " + e.getMessage(), e);
+            }
+            return roleJobService.submitCreate(guildId, requests, userId(authentication));
+        });
+    }
+
+    /**
+     * POST /api/servers/{guildId}/roles/jobs/bulk-delete
+     * Queue deletion of gacha roles by ID
+     */
+    @PostMapping("/bulk-delete")
+    public ResponseEntity<RoleJobDto> bulkDeleteRoles(
+            @PathVariable String guildId,
+            @Valid @RequestBody BulkRoleDeletionRequest request,
+            Authentication authentication) {
+
+        return submitBulk(guildId, authentication, "bulk delete job",
+            () -> roleJobService.submitDelete(guildId, request.roleIds(), userId(authentication)));
+    }
+
+    /**
+     * POST /api/servers/{guildId}/roles/jobs/cleanup
+     * Queue deletion of every role using the gacha name prefix
+     */
+    @PostMapping("/cleanup")
+    public ResponseEntity<RoleJobDto> cleanupRoles(
+            @PathVariable String guildId,
+            Authentication authentication) {
+
+        return submitBulk(guildId, authentication, "cleanup job",
+            () -> roleJobService.submitDeleteByPrefix(guildId, "gacha:", userId(authentication)));
+    }
+
+    /**
+     * GET /api/servers/{guildId}/roles/jobs
+     * Most recent role jobs for the guild
+     */
+    @GetMapping
+    public ResponseEntity<List<RoleJobDto>> listJobs(
+            @PathVariable String guildId,
+            Authentication authentication) {
+
+        if (authentication == null) {
+            return ResponseEntity.status(401).build();
+        }
+
+        if (!adminService.canManageGuild(authentication, guildId)) {
+            return ResponseEntity.status(403).build();
+        }
+
+        return ResponseEntity.ok(roleJobService.listJobs(guildId));
+    }
+
+    /**
+     * GET /api/servers/{guildId}/roles/jobs/{jobId}
+     * Poll a job's progress
+     */
+    @GetMapping("/{jobId}")
+    public ResponseEntity<RoleJobDto> getJob(
+            @PathVariable String guildId,
+            @PathVariable Long jobId,
+            Authentication authentication) {
+
+        if (authentication == null) {
+            return ResponseEntity.status(401).build();
+        }
+
+        if (!adminService.canManageGuild(authentication, guildId)) {
+            return ResponseEntity.status(403).build();
+        }
+
+        return roleJobService.getJob(guildId, jobId)
+            .map(ResponseEntity::ok)
+            .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * POST /api/servers/{guildId}/roles/jobs/{jobId}/cancel
+     * Stop a job after its in-flight roles finish
+     */
+    @PostMapping("/{jobId}/cancel")
+    public ResponseEntity<RoleJobDto> cancelJob(
+            @PathVariable String guildId,
+            @PathVariable Long jobId,
+            Authentication authentication) {
+
+        if (authentication == null) {
+            return ResponseEntity.status(401).build();
+        }
+
+        if (!adminService.canManageGuild(authentication, guildId)) {
+            return ResponseEntity.status(403).build();
+        }
+
+        return roleJobService.cancel(guildId, jobId)
+            .map(ResponseEntity::ok)
+            .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    private ResponseEntity<RoleJobDto> submitBulk(String guildId, Authentication authentication,
+                                                  String operation, Supplier<RoleJobDto> submit) {
+        ResponseEntity<RoleJobDto> denied = checkBulkAccess(guildId, authentication, operation);
+        return denied != null ? denied : submit(guildId, operation, submit);
+    }
+
+    /**
+     * Auth, guild permission and bulk rate limit checks; returns the error response, or null if allowed.
+     */
+    private ResponseEntity<RoleJobDto> checkBulkAccess(String guildId, Authentication authentication, String operation) {
+        if (authentication == null) {
+            return ResponseEntity.status(401).build();
+        }
+
+        if (!adminService.canManageGuild(authentication, guildId)) {
+            return ResponseEntity.status(403).build();
+        }
+
+        // Rate limiting check for bulk operations
+        if (!rateLimitService.allowBulkOperation(authentication)) {
+            logger.warn("Rate limit exceeded for {}: guildId={}", operation, guildId);
+            return ResponseEntity.status(429).build(); // 429 Too Many Requests
+        }
+        return null;
+    }
+
+    private static ResponseEntity<RoleJobDto> submit(String guildId, String operation, Supplier<RoleJobDto> submit) {
+        try {
+            return ResponseEntity.accepted().body(submit.get());
+        } catch (IllegalArgumentException e) {
+            logger.warn("Rejected {} for guild {}: {}", operation, guildId, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    private static String userId(Authentication authentication) {
+        if (authentication.getPrincipal() instanceof OAuth2User oauth2User) {
+            return oauth2User.getAttribute("id");
+        }
+        return authentication.getName();
+    }
+}
@@ -1,11 +1,16 @@
 package com.discordbot.web.controller;
 
 import com.discordbot.web.dto.DiscordMemberDto;
+import com.discordbot.web.dto.DiscordMemberPage;
 import com.discordbot.web.dto.DiscordRoleDto;
 import com.discordbot.web.dto.GuildInfo;
+import com.discordbot.web.dto.GuildSnapshot;
 import com.discordbot.web.dto.qotd.QotdDtos.ChannelTreeNodeDto;
 import com.discordbot.web.dto.qotd.QotdDtos.ChannelStreamStatusDto;
 import com.discordbot.web.service.AdminService;
+import com.discordbot.web.service.GuildResourceVersions.Family;
+import com.discordbot.web.service.GuildResponseCache;
+import com.discordbot.web.service.GuildSnapshotService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
@@ -21,10 +26,16 @@ public class ServerController {
 
     private static final Logger logger = LoggerFactory.getLogger(ServerController.class);
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final AdminService adminService;
+    private final GuildSnapshotService snapshotService;
+    private final GuildResponseCache responseCache;
 
-    public ServerController(AdminService adminService) {
+    public ServerController(AdminService adminService, GuildSnapshotService snapshotService, GuildResponseCache responseCache) {
         this.adminService = adminService;
+        this.snapshotService = snapshotService;
+        this.responseCache = responseCache;
     }
 
     /**
@@ -68,8 +79,7 @@ public class ServerController {
             return ResponseEntity.status(403).build();
         }
 
-        List<ChannelTreeNodeDto> options = adminService.getChannelOptions(guildId);
-        return ResponseEntity.ok(options);
+        return responseCache.serve(guildId, Family.CHANNELS, "channel-options", () -> adminService.getChannelOptions(guildId));
     }
 
     /**
@@ -128,6 +138,30 @@ public class ServerController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    /**
+     * GET /api/servers/{guildId}/snapshot
+     * Returns guild info, channel tree, stream status, roles, members, gacha roles and the
+     * role hierarchy check in one response, with per-section timings.
+     * SECURED: Requires OAuth2 authentication + user must be admin in that server (checked once)
+     */
+    @GetMapping("/{guildId}/snapshot")
+    public ResponseEntity<GuildSnapshot> getSnapshot(
+            @PathVariable String guildId,
+            Authentication authentication) {
+
+        if (authentication == null) {
+            logger.warn("Unauthenticated request to /api/servers/{}/snapshot", guildId);
+            return ResponseEntity.status(401).build();
+        }
+
+        if (!adminService.canManageGuild(authentication, guildId)) {
+            logger.warn("Unauthorized access attempt to guild snapshot: {}", guildId);
+            return ResponseEntity.status(403).build();
+        }
+
+        return ResponseEntity.ok(snapshotService.buildSnapshot(authentication, guildId));
+    }
+
     /**
      * GET /api/servers/{guildId}/invite
      * Generate bot invite URL for a specific server
@@ -223,19 +257,22 @@ public class ServerController {
             return ResponseEntity.status(403).build();
         }
 
-        List<DiscordRoleDto> roles = adminService.getAllGuildRoles(guildId);
-        return ResponseEntity.ok(roles);
+        return responseCache.serve(guildId, Family.ROLES, "all-roles", () -> adminService.getAllGuildRoles(guildId));
     }
 
     /**
      * GET /api/servers/{guildId}/members
-     * Returns guild members (paginated) for mention dropdown
+     * Returns guild members (paginated) for mention dropdown.
+     * Optional query filters by display name prefix; when more results exist, the X-Next-Cursor
+     * response header carries the cursor to pass back for the next page.
      * SECURED: Requires OAuth2 authentication + user must be admin in that server
      */
     @GetMapping("/{guildId}/members")
     public ResponseEntity<List<DiscordMemberDto>> getGuildMembers(
             @PathVariable String guildId,
             @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(required = false) String query,
+            @RequestParam(required = false) String cursor,
             Authentication authentication) {
 
         if (authentication == null) {
@@ -248,7 +285,17 @@ public class ServerController {
             return ResponseEntity.status(403).build();
         }
 
-        List<DiscordMemberDto> members = adminService.getGuildMembers(guildId, limit);
-        return ResponseEntity.ok(members);
+        DiscordMemberPage page;
+        try {
+            page = adminService.searchGuildMembers(guildId, query, cursor, limit);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(page.members());
     }
 }
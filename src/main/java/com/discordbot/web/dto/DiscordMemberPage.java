@@ -0,0 +1,14 @@
+package com.discordbot.web.dto;
+
+import java.util.List;
+
+/**
+ * One page of guild members from a member search.
+ *
+ * @param members The members on this page, ordered by display name
+ * @param nextCursor Opaque cursor for the following page, or null if this is the last page
+ */
+public record DiscordMemberPage(
+    List<DiscordMemberDto> members,
+    String nextCursor
+) {}
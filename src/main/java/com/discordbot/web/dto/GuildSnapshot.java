@@ -0,0 +1,35 @@
+package com.discordbot.web.dto;
+
+import com.discordbot.web.dto.qotd.QotdDtos.ChannelStreamStatusDto;
+import com.discordbot.web.dto.qotd.QotdDtos.ChannelTreeNodeDto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Everything the admin panel needs to open a guild, assembled in one response.
+ *
+ * <p>Each section mirrors the payload of its standalone endpoint. A section that failed or
+ * did not finish within the time budget is {@code null} and has an entry in {@code errors}.</p>
+ *
+ * @param guild Guild info (as returned by {@code GET /api/servers/{guildId}})
+ * @param channelOptions Channel tree with nested threads
+ * @param streamStatus Configured/enabled QOTD stream flags per channel
+ * @param allRoles Mentionable roles
+ * @param members First page of guild members, with the cursor for the next one
+ * @param gachaRoles Gacha roles
+ * @param roleHierarchy Bot role position check
+ * @param timingsMs Wall-clock time spent building each section, in milliseconds
+ * @param errors Section name to error message for sections that are missing
+ */
+public record GuildSnapshot(
+    GuildInfo guild,
+    List<ChannelTreeNodeDto> channelOptions,
+    List<ChannelStreamStatusDto> streamStatus,
+    List<DiscordRoleDto> allRoles,
+    DiscordMemberPage members,
+    List<GachaRoleInfo> gachaRoles,
+    RoleHierarchyStatus roleHierarchy,
+    Map<String, Long> timingsMs,
+    Map<String, String> errors
+) {}
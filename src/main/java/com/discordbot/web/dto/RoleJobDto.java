@@ -0,0 +1,39 @@
+package com.discordbot.web.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Progress of a background bulk role job, as returned by the polling endpoint.
+ *
+ * @param id Job ID
+ * @param guildId Guild the job runs against
+ * @param type CREATE or DELETE
+ * @param status QUEUED, RUNNING, COMPLETED, CANCELLED or FAILED
+ * @param totalItems Number of roles in the job
+ * @param processedItems Number of roles handled so far (succeeded + skipped + failed)
+ * @param succeededCount Number of roles created or deleted
+ * @param skippedCount Number of roles skipped (already exist, or already gone)
+ * @param failedCount Number of roles that failed
+ * @param errors Error messages for failed roles (capped)
+ * @param cancelRequested Whether cancellation has been requested
+ * @param createdAt When the job was submitted
+ * @param updatedAt When progress was last recorded
+ * @param finishedAt When the job reached a final status, or null
+ */
+public record RoleJobDto(
+    Long id,
+    String guildId,
+    String type,
+    String status,
+    int totalItems,
+    int processedItems,
+    int succeededCount,
+    int skippedCount,
+    int failedCount,
+    List<String> errors,
+    boolean cancelRequested,
+    Instant createdAt,
+    Instant updatedAt,
+    Instant finishedAt
+) {}
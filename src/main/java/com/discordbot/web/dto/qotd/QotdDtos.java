@@ -7,6 +7,12 @@ import java.util.List;
 public class QotdDtos {
     public record QotdQuestionDto(Long id, String text, Instant createdAt, String authorUserId, String authorUsername) {}
 
+    public record QotdPostedDto(Long id, Long questionId, String text, String authorUserId, String authorUsername,
+                                String messageId, Instant postedAt) {}
+
+    /** A page of posting history, newest first; nextBefore/nextBeforeId are the cursor for the next page, null on the last. */
+    public record QotdPostedPageDto(List<QotdPostedDto> items, Instant nextBefore, Long nextBeforeId) {}
+
     public record QotdConfigDto(
             String channelId,
             boolean enabled,
@@ -23,7 +29,7 @@ public class QotdDtos {
 
     public record ReorderQuestionsRequest(List<Long> orderedIds) {}
 
-    public record UploadCsvResult(int successCount, int failureCount, List<String> errors) {}
+    public record UploadCsvResult(int successCount, int failureCount, int duplicateCount, List<String> errors) {}
 
     public record UpdateConfigRequest(
             boolean enabled,
@@ -62,7 +68,11 @@ public class QotdDtos {
     // Submissions
     public enum SubmissionStatus { PENDING, APPROVED, REJECTED }
 
-    public record QotdSubmissionDto(Long id, String text, String userId, String username, SubmissionStatus status, Instant createdAt, Long targetStreamId) {}
+    /** Closest existing question, pending submission or recent post to a submission (source is QUESTION, SUBMISSION or POSTED). */
+    public record NearDuplicateDto(String source, Long id, String text, double similarity) {}
+
+    public record QotdSubmissionDto(Long id, String text, String userId, String username, SubmissionStatus status, Instant createdAt, Long targetStreamId,
+                                    NearDuplicateDto similarTo) {}
 
     public record BulkIdsRequest(List<Long> ids) {}
 
@@ -113,6 +123,9 @@ public class QotdDtos {
             boolean autoApprove
     ) {}
 
+    // Per-channel options; coalescePosts posts streams due in the same tick as one multi-embed message
+    public record QotdChannelSettingsDto(boolean coalescePosts) {}
+
     // Stream status for batch endpoint
     public record ChannelStreamStatusDto(
         String channelId,
@@ -4,6 +4,7 @@ import com.discordbot.web.dto.BulkRoleCreationResult;
 import com.discordbot.web.dto.BulkRoleDeletionResult;
 import com.discordbot.web.dto.CreateRoleRequest;
 import com.discordbot.web.dto.DiscordMemberDto;
+import com.discordbot.web.dto.DiscordMemberPage;
 import com.discordbot.web.dto.DiscordRoleDto;
 import com.discordbot.web.dto.GachaRoleInfo;
 import com.discordbot.web.dto.GuildInfo;
@@ -13,6 +14,7 @@ import com.discordbot.web.dto.qotd.QotdDtos.ChannelTreeNodeDto;
 import com.discordbot.web.dto.qotd.QotdDtos.ChannelType;
 import com.discordbot.web.dto.qotd.QotdDtos.ChannelStreamStatusDto;
 import com.discordbot.repository.QotdStreamRepository;
+import com.discordbot.web.service.GuildResourceVersions.Family;
 import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.Permission;
 import net.dv8tion.jda.api.entities.Guild;
@@ -21,23 +23,29 @@ import net.dv8tion.jda.api.entities.channel.concrete.NewsChannel;
 import net.dv8tion.jda.api.entities.channel.concrete.TextChannel;
 import net.dv8tion.jda.api.entities.channel.concrete.ThreadChannel;
 import net.dv8tion.jda.api.entities.channel.unions.IThreadContainerUnion;
+import net.dv8tion.jda.api.requests.restaction.RoleAction;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
 import org.springframework.security.oauth2.client.OAuth2AuthorizedClientService;
 import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpMethod;
-import org.springframework.http.ResponseEntity;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
 @Service
@@ -45,24 +53,38 @@ public class AdminService {
 
     private static final Logger logger = LoggerFactory.getLogger(AdminService.class);
     private static final String GATCHA_PREFIX = "gacha:";
-    private static final String DISCORD_API_BASE = "https://discord.com/api/v10";
+    // Latency budget for the per-guild Staff role lookups in getManageableGuilds
+    private static final Duration STAFF_CHECK_BUDGET = Duration.ofSeconds(3);
 
     private final JDA jda;
-    private final RestTemplate restTemplate;
+    private final DiscordRestClient discordRestClient;
+    private final ThreadRegistry threadRegistry;
     private final OAuth2AuthorizedClientService authorizedClientService;
     private final GuildsCache guildsCache;
     private final WebSocketNotificationService webSocketNotificationService;
     private final QotdStreamRepository qotdStreamRepository;
+    private final GuildAuthorizationCache authorizationCache;
+    private final GuildResourceVersions resourceVersions;
+    private final GuildMemberIndex memberIndex;
+    private final ExecutorService staffCheckExecutor;
 
     public AdminService(JDA jda, OAuth2AuthorizedClientService authorizedClientService, 
                        GuildsCache guildsCache, WebSocketNotificationService webSocketNotificationService,
-                       QotdStreamRepository qotdStreamRepository) {
+                       QotdStreamRepository qotdStreamRepository, GuildAuthorizationCache authorizationCache,
+                       DiscordRestClient discordRestClient, ThreadRegistry threadRegistry,
+                       GuildResourceVersions resourceVersions, GuildMemberIndex memberIndex,
+                       @Qualifier("staffCheckExecutor") ExecutorService staffCheckExecutor) {
         this.jda = jda;
-        this.restTemplate = new RestTemplate();
+        this.discordRestClient = discordRestClient;
+        this.threadRegistry = threadRegistry;
         this.authorizedClientService = authorizedClientService;
         this.guildsCache = guildsCache;
         this.webSocketNotificationService = webSocketNotificationService;
         this.qotdStreamRepository = qotdStreamRepository;
+        this.authorizationCache = authorizationCache;
+        this.resourceVersions = resourceVersions;
+        this.memberIndex = memberIndex;
+        this.staffCheckExecutor = staffCheckExecutor;
     }
 
     /**
@@ -134,60 +156,127 @@ public class AdminService {
         }
 
         // Fetch user's guilds from Discord API
-        List<Map<String, Object>> userGuilds = getUserGuildsFromDiscord(accessToken);
-        List<GuildInfo> manageableGuilds = new ArrayList<>();
+        List<Map<String, Object>> userGuilds = getUserGuildsFromDiscord(userId, accessToken);
 
+        // Admins can manage regardless of roles; only non-admin guilds where the bot is present
+        // need a Staff role check, and those lookups may block on Discord, so fan them out.
+        Map<String, Future<Boolean>> staffChecks = new HashMap<>();
         for (Map<String, Object> userGuild : userGuilds) {
             String guildId = (String) userGuild.get("id");
-            String guildName = (String) userGuild.get("name");
-            String icon = (String) userGuild.get("icon");
-            Long permissions = Long.parseLong(userGuild.get("permissions").toString());
+            if (!hasAdminPermissionBits(userGuild) && jda.getGuildById(guildId) != null) {
+                staffChecks.computeIfAbsent(guildId, id -> staffCheckExecutor.submit(() -> hasStaffRole(userId, id)));
+            }
+        }
+        Map<String, Boolean> staffResults = awaitStaffChecks(userId, staffChecks);
 
-            // Check if user has admin permissions (using bitwise AND)
-            boolean isAdmin = (permissions & Permission.ADMINISTRATOR.getRawValue()) != 0 ||
-                             (permissions & Permission.MANAGE_SERVER.getRawValue()) != 0;
+        List<GuildInfo> manageableGuilds = new ArrayList<>();
+        for (Map<String, Object> userGuild : userGuilds) {
+            String guildId = (String) userGuild.get("id");
+            String guildName = (String) userGuild.get("name");
 
-            // Check if bot is in this guild first
+            boolean isAdmin = hasAdminPermissionBits(userGuild);
             Guild guild = jda.getGuildById(guildId);
             boolean botPresent = guild != null;
 
             // User can manage if they have admin permissions
-            // OR if bot is present AND user has Staff role
-            boolean hasStaff = false;
-            if (botPresent) {
-                hasStaff = hasStaffRole(userId, guildId);
-            }
+            // OR if bot is present AND user has Staff role (checks still pending at the deadline count as no)
+            boolean hasStaff = staffResults.getOrDefault(guildId, false);
             boolean canManage = isAdmin || hasStaff;
 
             if (!canManage) {
                 continue;
             }
 
-            logger.info("Checking guild - ID: {}, Name: {}, Bot present: {}", guildId, guildName, botPresent);
-            if (!botPresent) {
-                logger.info("Bot NOT found in guild {}. Available guild IDs in JDA: {}",
-                    guildId, jda.getGuilds().stream().map(Guild::getId).toList());
+            logger.debug("Manageable guild - ID: {}, Name: {}, Bot present: {}", guildId, guildName, botPresent);
+            manageableGuilds.add(toGuildInfo(userGuild, guild));
+        }
+
+        logger.info("User {} can manage {} guilds", userId, manageableGuilds.size());
+        return manageableGuilds;
+    }
+
+    /**
+     * Get info for a single guild the user can manage, without checking every other guild they belong to.
+     * Callers are expected to have verified {@link #canManageGuild} already.
+     */
+    public Optional<GuildInfo> getManageableGuild(Authentication authentication, String guildId) {
+        if (authentication == null || !(authentication.getPrincipal() instanceof OAuth2User oauth2User)) {
+            return Optional.empty();
+        }
+        String accessToken = getAccessToken(authentication);
+        if (accessToken == null) {
+            return Optional.empty();
+        }
+        return getUserGuildsFromDiscord(oauth2User.getAttribute("id"), accessToken).stream()
+            .filter(g -> guildId.equals(g.get("id")))
+            .findFirst()
+            .map(g -> toGuildInfo(g, jda.getGuildById(guildId)));
+    }
+
+    /**
+     * Build a GuildInfo from a Discord user-guild object and the bot's view of the guild (null if absent)
+     */
+    private GuildInfo toGuildInfo(Map<String, Object> userGuild, Guild guild) {
+        String guildId = (String) userGuild.get("id");
+        String guildName = (String) userGuild.get("name");
+        String icon = (String) userGuild.get("icon");
+        boolean botPresent = guild != null;
+
+        String iconUrl = icon != null ?
+            "https://cdn.discordapp.com/icons/" + guildId + "/" + icon + ".png" : null;
+
+        boolean supportsEnhanced = false;
+        try {
+            // Only check capability if the bot is present in the guild
+            if (botPresent) {
+                supportsEnhanced = guild.getFeatures().contains("ENHANCED_ROLE_COLORS") ||
+                                 guild.getFeatures().contains("ROLE_COLORS") ||
+                                 guild.getFeatures().contains("GUILD_ROLE_COLORS");
             }
+        } catch (Exception e) {
+            logger.debug("Failed to check enhanced role color capability for guild {}: {}", guildId, e.toString());
+        }
+        return new GuildInfo(guildId, guildName, iconUrl, true, botPresent, supportsEnhanced);
+    }
 
-            String iconUrl = icon != null ?
-                "https://cdn.discordapp.com/icons/" + guildId + "/" + icon + ".png" : null;
+    /**
+     * ADMINISTRATOR or MANAGE_SERVER in the permissions bitfield of a Discord user-guild object
+     */
+    private static boolean hasAdminPermissionBits(Map<String, Object> userGuild) {
+        long permissions = Long.parseLong(userGuild.get("permissions").toString());
+        return (permissions & Permission.ADMINISTRATOR.getRawValue()) != 0 ||
+               (permissions & Permission.MANAGE_SERVER.getRawValue()) != 0;
+    }
 
-            boolean supportsEnhanced = false;
+    /**
+     * Wait for concurrent Staff role checks up to the latency budget. Checks still running at the
+     * deadline are cancelled (interrupting their worker and its Discord request) and count as no.
+     */
+    private Map<String, Boolean> awaitStaffChecks(String userId, Map<String, Future<Boolean>> checks) {
+        Map<String, Boolean> results = new HashMap<>();
+        long deadline = System.nanoTime() + STAFF_CHECK_BUDGET.toNanos();
+        int timedOut = 0;
+        for (Map.Entry<String, Future<Boolean>> check : checks.entrySet()) {
             try {
-                // Only check capability if the bot is present in the guild
-                if (botPresent) {
-                    supportsEnhanced = guild.getFeatures().contains("ENHANCED_ROLE_COLORS") ||
-                                     guild.getFeatures().contains("ROLE_COLORS") ||
-                                     guild.getFeatures().contains("GUILD_ROLE_COLORS");
-                }
-            } catch (Exception e) {
-                logger.debug("Failed to check enhanced role color capability for guild {}: {}", guildId, e.toString());
+                long remaining = Math.max(0, deadline - System.nanoTime());
+                results.put(check.getKey(), check.getValue().get(remaining, TimeUnit.NANOSECONDS));
+            } catch (TimeoutException e) {
+                check.getValue().cancel(true);
+                timedOut++;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                checks.values().forEach(f -> f.cancel(true));
+                break;
+            } catch (ExecutionException e) {
+                logger.debug("Staff role check failed for user {} in guild {}: {}", userId, check.getKey(),
+                    e.getCause() != null ? e.getCause().toString() : e.toString());
             }
-            manageableGuilds.add(new GuildInfo(guildId, guildName, iconUrl, true, botPresent, supportsEnhanced));
         }
-
-        logger.info("User {} can manage {} guilds", userId, manageableGuilds.size());
-        return manageableGuilds;
+        if (timedOut > 0) {
+            logger.warn("Staff role checks for user {} exceeded {} ms budget; cancelled {} of {} guild(s)",
+                userId, STAFF_CHECK_BUDGET.toMillis(), timedOut, checks.size());
+        }
+        return results;
     }
 
     /**
@@ -201,14 +290,16 @@ public class AdminService {
 
         OAuth2User oauth2User = (OAuth2User) authentication.getPrincipal();
         String userId = oauth2User.getAttribute("id");
-        String accessToken = getAccessToken(authentication);
 
-        if (accessToken == null) {
-            return false;
-        }
-
-        // User is admin if they have actual permissions OR Staff role
-        return checkAdminPermissions(guildId, accessToken) || hasStaffRole(userId, guildId);
+        // Decisions are cached briefly per (user, guild) so a page load doesn't repeat the token/guild/member lookups
+        return authorizationCache.get(userId, guildId, () -> {
+            String accessToken = getAccessToken(authentication);
+            if (accessToken == null) {
+                return false;
+            }
+            // User is admin if they have actual permissions OR Staff role
+            return checkAdminPermissions(userId, guildId, accessToken) || hasStaffRole(userId, guildId);
+        });
     }
 
     /**
@@ -231,11 +322,21 @@ public class AdminService {
                     logger.debug("retrieveMemberById returned null for user {} in guild {}", userId, guildId);
                     return false;
                 }
-                member = restAction.complete();
+                // Wait interruptibly so a cancelled check frees its worker and drops the request
+                CompletableFuture<net.dv8tion.jda.api.entities.Member> pending = restAction.submit();
+                try {
+                    member = pending.get();
+                } catch (InterruptedException e) {
+                    pending.cancel(true);
+                    Thread.currentThread().interrupt();
+                    logger.debug("Staff role check for user {} in guild {} was cancelled", userId, guildId);
+                    return false;
+                }
                 logger.debug("Successfully retrieved member {} from guild {}", userId, guildId);
-            } catch (net.dv8tion.jda.api.exceptions.ErrorResponseException e) {
+            } catch (ExecutionException e) {
                 // Member not found or bot lacks permission
-                logger.debug("Failed to retrieve member {} from guild {}: {}", userId, guildId, e.getMessage());
+                logger.debug("Failed to retrieve member {} from guild {}: {}", userId, guildId,
+                    e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
                 return false;
             } catch (java.util.concurrent.RejectedExecutionException e) {
                 // Request execution rejected
@@ -267,21 +368,23 @@ public class AdminService {
             return false;
         }
 
+        OAuth2User oauth2User = (OAuth2User) authentication.getPrincipal();
+        String userId = oauth2User.getAttribute("id");
         String accessToken = getAccessToken(authentication);
 
         if (accessToken == null) {
             return false;
         }
 
-        return checkAdminPermissions(guildId, accessToken);
+        return checkAdminPermissions(userId, guildId, accessToken);
     }
 
     /**
      * Check if user has actual ADMINISTRATOR or MANAGE_SERVER permissions in a guild
      * Extracted as a helper to avoid duplication between permission checking methods
      */
-    private boolean checkAdminPermissions(String guildId, String accessToken) {
-        List<Map<String, Object>> userGuilds = getUserGuildsFromDiscord(accessToken);
+    private boolean checkAdminPermissions(String userId, String guildId, String accessToken) {
+        List<Map<String, Object>> userGuilds = getUserGuildsFromDiscord(userId, accessToken);
 
         for (Map<String, Object> userGuild : userGuilds) {
             if (guildId.equals(userGuild.get("id"))) {
@@ -407,7 +510,7 @@ public class AdminService {
         }
 
         // Build full role name: gatcha:rarity:displayName
-        String fullName = GATCHA_PREFIX + request.rarity() + ":" + request.name();
+        String fullName = gatchaRoleName(request);
 
         // Parse hex colors (DEFAULT_COLOR_RAW for not set)
         java.awt.Color primaryColor = parseHexColor(request.colorHex());
@@ -416,6 +519,8 @@ public class AdminService {
 
         try {
             Role createdRole = createRoleWithAppropriateMethod(guild, guildId, fullName, primaryColor, secondaryColorInt, tertiaryColorInt);
+            // Don't wait for the gateway's RoleCreateEvent before cached role lists go stale
+            resourceVersions.bump(guildId, Family.ROLES);
             
             // Notify connected clients so UIs refresh role list in real-time
             try {
@@ -448,7 +553,7 @@ public class AdminService {
         for (CreateRoleRequest request : requests) {
             try {
                 // Build full role name to check for duplicates
-                String fullName = GATCHA_PREFIX + request.rarity() + ":" + request.name();
+                String fullName = gatchaRoleName(request);
                 
                 // Check if role already exists
                 Role existingRole = guild.getRolesByName(fullName, true).stream().findFirst().orElse(null);
@@ -480,7 +585,7 @@ public class AdminService {
             skippedRoles,
             errors
         );
-        guildsCache.evictAll();
+        guildsCache.evictGuild(guildId);
         
         // Notify connected clients to refresh role list
         if (createdRoles.size() > 0) {
@@ -491,10 +596,10 @@ public class AdminService {
     }
 
     /**
-     * Initialize default gatcha roles in a guild
+     * The starter set of gatcha roles (two per rarity)
      */
-    public BulkRoleCreationResult initializeDefaultRoles(String guildId) {
-        List<CreateRoleRequest> defaultRoles = List.of(
+    public List<CreateRoleRequest> defaultRoleRequests() {
+        return List.of(
             // Legendary (2 roles)
             new CreateRoleRequest("Sunset Glow", "legendary", "#FF6B35", null, null),
             new CreateRoleRequest("Midnight Purple", "legendary", "#7209B7", null, null),
@@ -515,10 +620,17 @@ public class AdminService {
             new CreateRoleRequest("Mint Green", "common", "#98D8C8", null, null),
             new CreateRoleRequest("Soft Pink", "common", "#FFB3D9", null, null)
         );
+    }
+
+    /**
+     * Initialize default gatcha roles in a guild
+     */
+    public BulkRoleCreationResult initializeDefaultRoles(String guildId) {
+        List<CreateRoleRequest> defaultRoles = defaultRoleRequests();
 
         logger.info("Initializing {} default roles in guild {}", defaultRoles.size(), guildId);
         BulkRoleCreationResult result = createBulkGatchaRoles(guildId, defaultRoles);
-        guildsCache.evictAll();
+        guildsCache.evictGuild(guildId);
         return result;
     }
 
@@ -553,6 +665,9 @@ public class AdminService {
             }
         }
 
+        if (deletedCount > 0) {
+            resourceVersions.bump(guildId, Family.ROLES);
+        }
         logger.info("Deleted {} roles with prefix '{}' from guild {}",
             deletedCount, prefix, guild.getName());
         return deletedCount;
@@ -566,11 +681,13 @@ public class AdminService {
     }
 
     /**
-     * Evict the guilds cache for the current user's access token
+     * Evict the guilds cache for the current user
      */
     public void evictGuildsCache(Authentication authentication) {
-        String accessToken = getAccessToken(authentication);
-        guildsCache.evictForToken(accessToken);
+        if (authentication == null || !(authentication.getPrincipal() instanceof OAuth2User oauth2User)) {
+            return;
+        }
+        guildsCache.evictUser(oauth2User.getAttribute("id"));
     }
 
     /**
@@ -599,6 +716,7 @@ public class AdminService {
         try {
             // Use .complete() to wait for the deletion and catch errors synchronously
             role.delete().complete();
+            resourceVersions.bump(guildId, Family.ROLES);
             logger.info("Deleted role: {} (ID: {}) from guild: {}", roleName, roleId, guild.getName());
             return new RoleDeletionResult(roleId, roleName, true, null);
         } catch (Exception e) {
@@ -653,22 +771,12 @@ public class AdminService {
 
     // Helper methods
 
-    @SuppressWarnings("unchecked")
-    private List<Map<String, Object>> getUserGuildsFromDiscord(String accessToken) {
-        // Use Caffeine's get() with loader function to handle caching automatically
-        return guildsCache.get(accessToken, key -> {
-            HttpHeaders headers = new HttpHeaders();
-            headers.set("Authorization", "Bearer " + key);
-
+    private List<Map<String, Object>> getUserGuildsFromDiscord(String userId, String accessToken) {
+        // Cached per user; stale entries are served while the cache refreshes them in the background
+        return guildsCache.get(userId, accessToken, key -> {
             try {
-                ResponseEntity<List<Map<String, Object>>> response = restTemplate.exchange(
-                    DISCORD_API_BASE + "/users/@me/guilds",
-                    HttpMethod.GET,
-                    new HttpEntity<>(headers),
-                    (Class<List<Map<String, Object>>>) (Class<?>) List.class
-                );
-
-                List<Map<String, Object>> guilds = response.getBody();
+                // Pooled, rate-limit-aware client: queues on 429 and coalesces identical in-flight calls
+                List<Map<String, Object>> guilds = discordRestClient.getCurrentUserGuilds(key);
                 if (guilds == null) {
                     logger.warn("Discord API returned null guilds list");
                     guilds = new ArrayList<>();
@@ -677,7 +785,7 @@ public class AdminService {
                 return guilds;
             } catch (Exception e) {
                 logger.error("Failed to fetch user guilds from Discord API - this may indicate an invalid/expired token or API issue", e);
-                // Don't cache failures - let it retry on next request
+                // GuildsCache records the failure and backs off before the next attempt
                 throw new RuntimeException("Discord API call failed", e);
             }
         });
@@ -756,6 +864,57 @@ public class AdminService {
         }
     }
 
+    /**
+     * Full Discord role name for a gatcha role request (gacha:rarity:displayName).
+     */
+    public String gatchaRoleName(CreateRoleRequest request) {
+        return GATCHA_PREFIX + request.rarity() + ":" + request.name();
+    }
+
+    /**
+     * Queue creation of a gatcha role without blocking the caller (used by bulk role jobs).
+     * Follows the same style selection as {@link #createGatchaRole}; if Discord rejects an enhanced
+     * color style, the returned future falls back to a solid color role.
+     */
+    public CompletableFuture<Role> submitGatchaRole(Guild guild, CreateRoleRequest request) {
+        String fullName = gatchaRoleName(request);
+        java.awt.Color primaryColor = parseHexColor(request.colorHex());
+        int secondaryColorInt = request.secondaryColorHex() != null ? parseHexColor(request.secondaryColorHex()).getRGB() : net.dv8tion.jda.api.entities.Role.DEFAULT_COLOR_RAW;
+        int tertiaryColorInt = request.tertiaryColorHex() != null ? parseHexColor(request.tertiaryColorHex()).getRGB() : net.dv8tion.jda.api.entities.Role.DEFAULT_COLOR_RAW;
+
+        boolean wantsEnhanced = secondaryColorInt != net.dv8tion.jda.api.entities.Role.DEFAULT_COLOR_RAW
+                || tertiaryColorInt != net.dv8tion.jda.api.entities.Role.DEFAULT_COLOR_RAW;
+        if (!wantsEnhanced || !supportsEnhancedColors(guild)) {
+            return solidRoleAction(guild, fullName, primaryColor).submit();
+        }
+
+        RoleAction enhanced = guild.createRole()
+            .setName(fullName)
+            .setMentionable(false)
+            .setHoisted(false);
+        enhanced = tertiaryColorInt != net.dv8tion.jda.api.entities.Role.DEFAULT_COLOR_RAW
+            ? enhanced.setColor(primaryColor).useHolographicStyle()
+            : enhanced.setGradientColors(primaryColor, new java.awt.Color(secondaryColorInt));
+        return enhanced.submit().exceptionallyCompose(e -> {
+            logger.warn("Failed to create enhanced color role for {}: {}; falling back to solid color", fullName, e.toString());
+            return solidRoleAction(guild, fullName, primaryColor).submit();
+        });
+    }
+
+    private static RoleAction solidRoleAction(Guild guild, String fullName, java.awt.Color primaryColor) {
+        return guild.createRole()
+            .setName(fullName)
+            .setColor(primaryColor)
+            .setMentionable(false)
+            .setHoisted(false);
+    }
+
+    private static boolean supportsEnhancedColors(Guild guild) {
+        return guild.getFeatures().contains("ENHANCED_ROLE_COLORS") ||
+               guild.getFeatures().contains("ROLE_COLORS") ||
+               guild.getFeatures().contains("GUILD_ROLE_COLORS");
+    }
+
     /**
      * Create a role using the most appropriate method based on color requirements and guild capabilities.
      * 
@@ -767,9 +926,7 @@ public class AdminService {
     private Role createRoleWithAppropriateMethod(Guild guild, String guildId, String fullName, 
                                                  java.awt.Color primaryColor, int secondaryColorInt, int tertiaryColorInt) {
         // Check if guild supports enhanced role colors
-        boolean supportsEnhanced = guild.getFeatures().contains("ENHANCED_ROLE_COLORS") ||
-                                 guild.getFeatures().contains("ROLE_COLORS") ||
-                                 guild.getFeatures().contains("GUILD_ROLE_COLORS");
+        boolean supportsEnhanced = supportsEnhancedColors(guild);
         
         // Solid color request or guild doesn't support enhanced colors
         if (secondaryColorInt == net.dv8tion.jda.api.entities.Role.DEFAULT_COLOR_RAW && 
@@ -853,14 +1010,8 @@ public class AdminService {
             return Collections.emptyList();
         }
         
-        // Fetch active threads from Discord API (cache may be incomplete)
-        List<ThreadChannel> activeThreads;
-        try {
-            activeThreads = guild.retrieveActiveThreads().complete();
-        } catch (Exception e) {
-            logger.warn("Failed to retrieve active threads for guild {}: {}", guildId, e.getMessage());
-            activeThreads = Collections.emptyList();
-        }
+        // Active threads come from the event-maintained registry (no Discord round-trip)
+        List<ThreadChannel> activeThreads = threadRegistry.getActiveThreads(guild);
 
         // Group active threads by parent channel ID (exclude archived and orphaned)
         Map<String, List<ThreadChannel>> threadsByParent = activeThreads.stream()
@@ -972,14 +1123,8 @@ public class AdminService {
             statusList.add(new ChannelStreamStatusDto(forum.getId(), hasConfigured, hasEnabled));
         }
 
-        // Fetch active threads from Discord API (cache may be incomplete)
-        List<ThreadChannel> activeThreads;
-        try {
-            activeThreads = guild.retrieveActiveThreads().complete();
-        } catch (Exception e) {
-            logger.warn("Failed to retrieve active threads for guild {}: {}", guildId, e.getMessage());
-            activeThreads = Collections.emptyList();
-        }
+        // Active threads come from the event-maintained registry (no Discord round-trip)
+        List<ThreadChannel> activeThreads = threadRegistry.getActiveThreads(guild);
 
         // Check all threads (no filter - show all)
         for (ThreadChannel thread : activeThreads) {
@@ -1033,48 +1178,28 @@ public class AdminService {
      * @return List of member DTOs suitable for mention dropdown
      */
     public List<DiscordMemberDto> getGuildMembers(String guildId, int limit) {
+        return searchGuildMembers(guildId, null, null, limit).members();
+    }
+
+    /**
+     * Search guild members by display name prefix, one page at a time, from the in-memory member index.
+     *
+     * @param guildId The Discord guild ID
+     * @param query Display name prefix (case-insensitive), or null for all members
+     * @param cursor Cursor from the previous page, or null for the first page
+     * @param limit Maximum number of members to return (default 100, max 1000)
+     * @return Page of member DTOs sorted by display name, with the cursor for the next page
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public DiscordMemberPage searchGuildMembers(String guildId, String query, String cursor, int limit) {
         Guild guild = jda.getGuildById(guildId);
         if (guild == null) {
             logger.warn("Guild not found: {}", guildId);
-            return new ArrayList<>();
+            return new DiscordMemberPage(new ArrayList<>(), null);
         }
 
         // Clamp limit to reasonable range
         int effectiveLimit = Math.min(Math.max(limit, 1), 1000);
-
-        try {
-            // Load members from cache or retrieve from Discord API
-            List<net.dv8tion.jda.api.entities.Member> members = guild.getMembers();
-
-            // If cache is empty or incomplete, try to load more members
-            if (members.isEmpty() || members.size() < effectiveLimit) {
-                try {
-                    members = guild.loadMembers().get().stream()
-                        .limit(effectiveLimit)
-                        .collect(Collectors.toList());
-                } catch (Exception e) {
-                    logger.warn("Failed to load members for guild {}: {}", guildId, e.getMessage());
-                    // Fall back to cached members
-                }
-            }
-
-            return members.stream()
-                .filter(member -> !member.getUser().isBot()) // Exclude bots
-                .limit(effectiveLimit)
-                .map(member -> {
-                    String avatarUrl = member.getUser().getEffectiveAvatarUrl();
-                    return new DiscordMemberDto(
-                        member.getId(),
-                        member.getUser().getName(),
-                        member.getEffectiveName(), // Nickname or username
-                        avatarUrl
-                    );
-                })
-                .sorted((a, b) -> a.displayName().compareToIgnoreCase(b.displayName())) // Sort alphabetically
-                .collect(Collectors.toList());
-        } catch (Exception e) {
-            logger.error("Error fetching members for guild {}: {}", guildId, e.getMessage());
-            return new ArrayList<>();
-        }
+        return memberIndex.search(guild, query, cursor, effectiveLimit);
     }
 }
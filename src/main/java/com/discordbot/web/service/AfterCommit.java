@@ -0,0 +1,30 @@
+package com.discordbot.web.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Defers side effects of a write (in-memory caches, Discord sends) until the surrounding
+ * transaction commits, so a rollback leaves them untouched.
+ */
+final class AfterCommit {
+
+    private AfterCommit() {}
+
+    /**
+     * Run {@code action} once the active transaction commits (never on rollback), or immediately
+     * when there is no transaction.
+     */
+    static void run(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
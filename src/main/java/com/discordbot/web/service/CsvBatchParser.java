@@ -0,0 +1,119 @@
+package com.discordbot.web.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Parse loop shared by the streaming CSV uploads ({@link RoleCsvParser}, {@link QotdQuestionCsvParser}).
+ *
+ * <p>Rows are read with {@link CsvReader}, validated by the upload's {@link RowFormat} as they stream
+ * past and handed to the caller in batches, so only one batch is held in memory regardless of file
+ * size. Invalid rows (and CSV syntax errors) are reported with their line number and skipped; the
+ * rest of the file is still processed.</p>
+ */
+public final class CsvBatchParser {
+
+    static final int MAX_REPORTED_ERRORS = 100;
+
+    /**
+     * Outcome of a parse.
+     *
+     * @param validRows   rows handed to the sink
+     * @param invalidRows rows rejected by validation or CSV syntax
+     * @param errors      line-accurate messages for rejected rows (capped; a final entry notes any overflow)
+     */
+    public record Result(int validRows, int invalidRows, List<String> errors) {}
+
+    /** How one kind of upload reads its rows. */
+    interface RowFormat<T> {
+
+        /** Rows to pass over silently (blank lines, comments). */
+        boolean skip(CsvReader.Row row);
+
+        /** Whether the first row that isn't skipped is a header. */
+        boolean isHeader(CsvReader.Row row);
+
+        /** Validation error for a row, or null if it is valid. */
+        String validate(CsvReader.Row row);
+
+        /** The value for a valid row. */
+        T convert(CsvReader.Row row);
+    }
+
+    private CsvBatchParser() {}
+
+    /**
+     * Parse a CSV upload, delivering valid rows to {@code sink} in batches of up to {@code batchSize}.
+     *
+     * @param maxRows stop with an IllegalArgumentException once this many valid rows have been read
+     *                (0 for no limit); {@code rowNoun} names the rows in that message
+     */
+    static <T> Result parse(InputStream in, int batchSize, int maxRows, String rowNoun,
+                            RowFormat<T> format, Consumer<List<T>> sink) throws IOException {
+        List<T> batch = new ArrayList<>(batchSize);
+        List<String> errors = new ArrayList<>();
+        int valid = 0;
+        int invalid = 0;
+        boolean first = true;
+
+        try (CsvReader reader = new CsvReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            while (true) {
+                CsvReader.Row row;
+                try {
+                    row = reader.next();
+                } catch (CsvReader.CsvFormatException e) {
+                    invalid++;
+                    addError(errors, e.getMessage());
+                    continue;
+                }
+                if (row == null) {
+                    break;
+                }
+                if (format.skip(row)) {
+                    continue;
+                }
+                boolean header = first && format.isHeader(row);
+                first = false;
+                if (header) {
+                    continue;
+                }
+
+                String error = format.validate(row);
+                if (error != null) {
+                    invalid++;
+                    addError(errors, "Line " + row.line() + ": " + error);
+                    continue;
+                }
+                if (maxRows > 0 && valid == maxRows) {
+                    throw new IllegalArgumentException("Line " + row.line() + ": more than " + maxRows + " " + rowNoun + " in one file");
+                }
+
+                valid++;
+                batch.add(format.convert(row));
+                if (batch.size() == batchSize) {
+                    sink.accept(List.copyOf(batch));
+                    batch.clear();
+                }
+            }
+        }
+
+        if (!batch.isEmpty()) {
+            sink.accept(List.copyOf(batch));
+        }
+        if (invalid > MAX_REPORTED_ERRORS) {
+            errors.add("... and " + (invalid - MAX_REPORTED_ERRORS) + " more invalid row(s)");
+        }
+        return new Result(valid, invalid, errors);
+    }
+
+    private static void addError(List<String> errors, String message) {
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(message);
+        }
+    }
+}
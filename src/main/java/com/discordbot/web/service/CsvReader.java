@@ -0,0 +1,220 @@
+package com.discordbot.web.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming RFC 4180 CSV reader.
+ *
+ * <p>Reads one record at a time from the underlying reader, so memory use is bounded by the
+ * largest record rather than the file. Supports quoted fields with embedded commas, line breaks
+ * and doubled quotes, and both CRLF and LF line endings. Records report the physical line they
+ * start on so callers can produce line-accurate errors even when a quoted field spans lines.</p>
+ *
+ * <p>Malformed input (unterminated quote, text after a closing quote, or a field/record over the
+ * configured limits) throws {@link CsvFormatException} carrying the offending line number. The rest
+ * of that line is discarded, so callers may record the error and keep reading.</p>
+ */
+public final class CsvReader implements Closeable {
+
+    static final int DEFAULT_MAX_FIELD_LENGTH = 4096;
+    static final int DEFAULT_MAX_FIELDS = 64;
+
+    /**
+     * One parsed record.
+     *
+     * @param line   1-based physical line the record starts on
+     * @param fields field values, unquoted and unescaped (never trimmed)
+     */
+    public record Row(int line, List<String> fields) {
+
+        /** Field at {@code index}, trimmed, or {@code ""} if the record is shorter. */
+        public String field(int index) {
+            return index < fields.size() ? fields.get(index).trim() : "";
+        }
+
+        /** True for records with no content (blank lines or only whitespace/empty fields). */
+        public boolean isBlank() {
+            return fields.stream().allMatch(String::isBlank);
+        }
+    }
+
+    /** Malformed CSV, with the 1-based line where the problem was found. */
+    public static class CsvFormatException extends IllegalArgumentException {
+        private static final long serialVersionUID = 1L;
+
+        private final int line;
+
+        public CsvFormatException(int line, String message) {
+            super("Line " + line + ": " + message);
+            this.line = line;
+        }
+
+        public int getLine() {
+            return line;
+        }
+    }
+
+    private final Reader reader;
+    private final int maxFieldLength;
+    private final int maxFields;
+    private final char[] buffer = new char[8192];
+    private int position;
+    private int limit;
+    private int line = 1;
+    private boolean eof;
+
+    public CsvReader(Reader reader) {
+        this(reader, DEFAULT_MAX_FIELD_LENGTH, DEFAULT_MAX_FIELDS);
+    }
+
+    public CsvReader(Reader reader, int maxFieldLength, int maxFields) {
+        this.reader = reader;
+        this.maxFieldLength = maxFieldLength;
+        this.maxFields = maxFields;
+    }
+
+    /**
+     * Read the next record, or null at end of input.
+     *
+     * @throws CsvFormatException if the record is malformed
+     */
+    public Row next() throws IOException {
+        int c = read();
+        if (c < 0) {
+            return null;
+        }
+        // Skip a UTF-8 byte order mark at the very start of the input
+        if (c == '\uFEFF' && line == 1) {
+            c = read();
+            if (c < 0) {
+                return null;
+            }
+        }
+
+        int startLine = line;
+        try {
+            return readRecord(c, startLine);
+        } catch (CsvFormatException e) {
+            skipLine();
+            throw e;
+        }
+    }
+
+    private Row readRecord(int c, int startLine) throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+
+        while (true) {
+            if (c == '"' && field.isEmpty()) {
+                c = readQuoted(field, startLine);
+            } else {
+                while (c >= 0 && c != ',' && c != '\r' && c != '\n') {
+                    if (c == '"') {
+                        throw new CsvFormatException(line, "Quote inside an unquoted field");
+                    }
+                    append(field, (char) c);
+                    c = read();
+                }
+            }
+
+            addField(fields, field);
+            if (c == ',') {
+                if (fields.size() >= maxFields) {
+                    throw new CsvFormatException(line, "More than " + maxFields + " fields");
+                }
+                c = read();
+                continue;
+            }
+            endRecord(c);
+            return new Row(startLine, fields);
+        }
+    }
+
+    private void skipLine() throws IOException {
+        int c;
+        do {
+            c = read();
+        } while (c >= 0 && c != '\n');
+        if (c >= 0) {
+            line++;
+        }
+    }
+
+    /**
+     * Read a quoted field body (opening quote already consumed) and return the character after it.
+     */
+    private int readQuoted(StringBuilder field, int startLine) throws IOException {
+        while (true) {
+            int c = read();
+            if (c < 0) {
+                throw new CsvFormatException(startLine, "Unterminated quoted field");
+            }
+            if (c == '"') {
+                int after = read();
+                if (after != '"') {
+                    while (after == ' ' || after == '\t') {
+                        after = read();
+                    }
+                    if (after >= 0 && after != ',' && after != '\r' && after != '\n') {
+                        throw new CsvFormatException(line, "Unexpected text after closing quote");
+                    }
+                    return after;
+                }
+                // Doubled quote: literal '"'
+            }
+            if (c == '\n') {
+                line++;
+            }
+            append(field, (char) c);
+        }
+    }
+
+    private void append(StringBuilder field, char c) {
+        if (field.length() >= maxFieldLength) {
+            throw new CsvFormatException(line, "Field longer than " + maxFieldLength + " characters");
+        }
+        field.append(c);
+    }
+
+    private void addField(List<String> fields, StringBuilder field) {
+        fields.add(field.toString());
+        field.setLength(0);
+    }
+
+    private void endRecord(int c) throws IOException {
+        if (c == '\r') {
+            c = read();
+            if (c != '\n' && c >= 0) {
+                position--; // Bare CR: treat as a line break and keep the next character
+            }
+        }
+        if (c >= 0) {
+            line++;
+        }
+    }
+
+    private int read() throws IOException {
+        if (position == limit) {
+            if (eof) {
+                return -1;
+            }
+            limit = reader.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                eof = true;
+                return -1;
+            }
+        }
+        return buffer[position++];
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
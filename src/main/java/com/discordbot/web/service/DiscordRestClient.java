@@ -0,0 +1,276 @@
+package com.discordbot.web.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Minimal Discord REST client for calls made with a user's OAuth2 bearer token
+ * (JDA covers everything made with the bot token).
+ *
+ * Behavior:
+ * - One shared {@link HttpClient}, so connections are pooled and kept alive, with connect/request timeouts
+ * - Per-route rate limit buckets built from X-RateLimit-* response headers; an exhausted bucket makes
+ *   callers wait for its reset instead of sending a request that would be rejected. Buckets are keyed
+ *   by route and token, so they expire once idle rather than accumulating for every user who logged in
+ * - 429 responses are retried after Retry-After (a global 429 pauses every route)
+ * - Identical in-flight GETs (same route and token) are coalesced into a single HTTP request
+ */
+@Component
+public class DiscordRestClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(DiscordRestClient.class);
+
+    static final String DISCORD_API_BASE = "https://discord.com/api/v10";
+    static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(5);
+    static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+    static final int MAX_429_RETRIES = 3;
+    // Waiting longer than this for a bucket reset is treated as a failure rather than blocking the caller
+    static final Duration MAX_RATE_LIMIT_WAIT = Duration.ofSeconds(30);
+    // Well past any reset window, so dropping an idle bucket never forgets a limit still in force
+    static final Duration BUCKET_IDLE = Duration.ofMinutes(10);
+
+    /**
+     * Non-success response from Discord (after any rate limit retries).
+     */
+    public static class DiscordApiException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private final int status;
+
+        public DiscordApiException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+    }
+
+    /** Rate limit state for one route (and token); guarded by its own monitor. */
+    private static final class Bucket {
+        private int remaining = 1;
+        private long resetAtMillis;
+    }
+
+    private record RequestKey(String method, String path, String tokenHash) {}
+
+    private final String baseUrl;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Cache<String, Bucket> buckets;
+    private final Map<RequestKey, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+    private volatile long globalResetAtMillis;
+
+    @Autowired
+    public DiscordRestClient() {
+        this(DISCORD_API_BASE);
+    }
+
+    /**
+     * Visible for tests: point the client at a local stub server.
+     */
+    public DiscordRestClient(String baseUrl) {
+        this(baseUrl, Ticker.systemTicker());
+    }
+
+    /**
+     * Visible for tests: allows a fake ticker to drive bucket expiry.
+     */
+    public DiscordRestClient(String baseUrl, Ticker ticker) {
+        this.baseUrl = baseUrl;
+        this.buckets = Caffeine.newBuilder()
+                .ticker(ticker)
+                .expireAfterAccess(BUCKET_IDLE)
+                .build();
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(CONNECT_TIMEOUT)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+    }
+
+    /**
+     * GET /users/@me/guilds for the user owning the given OAuth2 access token.
+     */
+    public List<Map<String, Object>> getCurrentUserGuilds(String accessToken) {
+        return get("/users/@me/guilds", accessToken, new TypeReference<>() {});
+    }
+
+    /**
+     * GET a JSON resource with a bearer token, waiting out rate limits and sharing the
+     * response with concurrent identical requests.
+     */
+    public <T> T get(String path, String bearerToken, TypeReference<T> type) {
+        RequestKey key = new RequestKey("GET", path, hashToken(bearerToken));
+        CompletableFuture<String> mine = new CompletableFuture<>();
+        CompletableFuture<String> existing = inFlight.putIfAbsent(key, mine);
+        String body;
+        if (existing != null) {
+            logger.debug("Coalescing GET {} with an in-flight request", path);
+            body = join(existing);
+        } else {
+            try {
+                mine.complete(execute(key, bearerToken));
+            } catch (RuntimeException e) {
+                mine.completeExceptionally(e);
+            } finally {
+                inFlight.remove(key, mine);
+            }
+            body = join(mine);
+        }
+        try {
+            return objectMapper.readValue(body, type);
+        } catch (IOException e) {
+            throw new DiscordApiException(200, "Unparseable Discord response for " + path + ": " + e.getMessage());
+        }
+    }
+
+    /** Number of live rate limit buckets (for diagnostics and tests). */
+    public long bucketCount() {
+        buckets.cleanUp();
+        return buckets.estimatedSize();
+    }
+
+    private String execute(RequestKey key, String bearerToken) {
+        String route = key.method() + " " + key.path() + " " + key.tokenHash();
+        Bucket bucket = buckets.get(route, r -> new Bucket());
+
+        // Requests on the same route are serialized so the bucket's remaining count stays accurate
+        synchronized (bucket) {
+            for (int attempt = 0; ; attempt++) {
+                awaitCapacity(bucket, key.path());
+
+                HttpResponse<String> response = send(key, bearerToken);
+                updateBucket(bucket, response);
+
+                int status = response.statusCode();
+                if (status == 429) {
+                    long retryAfterMillis = retryAfterMillis(response);
+                    boolean global = response.headers().firstValue("X-RateLimit-Global").map(Boolean::parseBoolean).orElse(false);
+                    if (global) {
+                        globalResetAtMillis = System.currentTimeMillis() + retryAfterMillis;
+                    } else {
+                        bucket.remaining = 0;
+                        bucket.resetAtMillis = System.currentTimeMillis() + retryAfterMillis;
+                    }
+                    if (attempt >= MAX_429_RETRIES) {
+                        throw new DiscordApiException(429, "Rate limited on " + key.path() + " after " + attempt + " retries");
+                    }
+                    logger.warn("Discord 429 on {} ({}); retrying in {} ms", key.path(), global ? "global" : "route", retryAfterMillis);
+                    continue;
+                }
+                if (status < 200 || status >= 300) {
+                    throw new DiscordApiException(status, "Discord API " + key.method() + " " + key.path() + " returned " + status);
+                }
+                return response.body();
+            }
+        }
+    }
+
+    private HttpResponse<String> send(RequestKey key, String bearerToken) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + key.path()))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Authorization", "Bearer " + bearerToken)
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+        try {
+            return httpClient.send(request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new DiscordApiException(0, "Discord API " + key.method() + " " + key.path() + " failed: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DiscordApiException(0, "Interrupted calling Discord API " + key.path());
+        }
+    }
+
+    private void awaitCapacity(Bucket bucket, String path) {
+        long now = System.currentTimeMillis();
+        long waitUntil = Math.max(globalResetAtMillis, bucket.remaining <= 0 ? bucket.resetAtMillis : 0);
+        long waitMillis = waitUntil - now;
+        if (waitMillis <= 0) {
+            return;
+        }
+        if (waitMillis > MAX_RATE_LIMIT_WAIT.toMillis()) {
+            throw new DiscordApiException(429, "Rate limit on " + path + " resets in " + waitMillis + " ms; not waiting");
+        }
+        logger.debug("Bucket for {} exhausted; waiting {} ms", path, waitMillis);
+        try {
+            Thread.sleep(waitMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DiscordApiException(429, "Interrupted while waiting for rate limit on " + path);
+        }
+        // The bucket has reset; allow one request to rediscover the real limit
+        bucket.remaining = Math.max(bucket.remaining, 1);
+    }
+
+    private static void updateBucket(Bucket bucket, HttpResponse<?> response) {
+        Optional<String> remaining = response.headers().firstValue("X-RateLimit-Remaining");
+        Optional<String> resetAfter = response.headers().firstValue("X-RateLimit-Reset-After");
+        if (remaining.isEmpty() || resetAfter.isEmpty()) {
+            return;
+        }
+        try {
+            bucket.remaining = Integer.parseInt(remaining.get());
+            bucket.resetAtMillis = System.currentTimeMillis() + (long) (Double.parseDouble(resetAfter.get()) * 1000);
+        } catch (NumberFormatException e) {
+            logger.debug("Ignoring malformed rate limit headers: remaining={}, reset-after={}", remaining.get(), resetAfter.get());
+        }
+    }
+
+    private static long retryAfterMillis(HttpResponse<?> response) {
+        // Retry-After is in seconds; X-RateLimit-Reset-After carries sub-second precision when present
+        Optional<String> precise = response.headers().firstValue("X-RateLimit-Reset-After");
+        Optional<String> header = precise.isPresent() ? precise : response.headers().firstValue("Retry-After");
+        try {
+            return header.map(v -> (long) (Double.parseDouble(v) * 1000)).orElse(1000L);
+        } catch (NumberFormatException e) {
+            return 1000L;
+        }
+    }
+
+    private static String join(CompletableFuture<String> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw e;
+        }
+    }
+
+    private static String hashToken(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 12);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
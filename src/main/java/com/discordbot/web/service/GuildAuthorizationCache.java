@@ -0,0 +1,128 @@
+package com.discordbot.web.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import net.dv8tion.jda.api.events.guild.GuildLeaveEvent;
+import net.dv8tion.jda.api.events.guild.member.GuildMemberRemoveEvent;
+import net.dv8tion.jda.api.events.guild.member.GuildMemberRoleAddEvent;
+import net.dv8tion.jda.api.events.guild.member.GuildMemberRoleRemoveEvent;
+import net.dv8tion.jda.api.events.role.RoleDeleteEvent;
+import net.dv8tion.jda.api.events.role.update.RoleUpdateNameEvent;
+import net.dv8tion.jda.api.hooks.ListenerAdapter;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Short-lived cache of "can this user manage this guild" decisions.
+ *
+ * <p>Every {@code /api/servers/**} request checks authorization, and a single admin page load
+ * issues a dozen of them. Each check costs a JDBC token lookup, a guild-list lookup and possibly a
+ * member retrieval from Discord, so decisions are cached per (user, guild) for a few seconds.
+ * Entries are dropped early when the member's roles change, the member or bot leaves the guild,
+ * a role is renamed or deleted (Staff detection is name-based), or the user logs out.</p>
+ */
+@Component
+public class GuildAuthorizationCache extends ListenerAdapter {
+
+    private static final Logger logger = LoggerFactory.getLogger(GuildAuthorizationCache.class);
+
+    static final Duration TTL = Duration.ofSeconds(15);
+
+    private record Key(String userId, String guildId) {}
+
+    private final Cache<Key, Boolean> decisions;
+
+    @Autowired
+    public GuildAuthorizationCache() {
+        this(Ticker.systemTicker());
+    }
+
+    /**
+     * Visible for tests: allows a fake ticker to drive expiry.
+     */
+    public GuildAuthorizationCache(Ticker ticker) {
+        this.decisions = Caffeine.newBuilder()
+                .ticker(ticker)
+                .expireAfterWrite(TTL)
+                .maximumSize(10_000)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Return the cached decision for (user, guild), computing it with {@code decision} on miss.
+     * A null user ID bypasses the cache.
+     */
+    public boolean get(String userId, String guildId, BooleanSupplier decision) {
+        if (userId == null || guildId == null) {
+            return decision.getAsBoolean();
+        }
+        return decisions.get(new Key(userId, guildId), k -> decision.getAsBoolean());
+    }
+
+    /** Drop the decision for one member of one guild. */
+    public void evict(String userId, String guildId) {
+        decisions.invalidate(new Key(userId, guildId));
+    }
+
+    /** Drop every decision made for a user (e.g. on logout). */
+    public void evictUser(String userId) {
+        if (userId == null) {
+            return;
+        }
+        decisions.asMap().keySet().removeIf(k -> k.userId().equals(userId));
+        logger.debug("Evicted authorization decisions for user {}", userId);
+    }
+
+    /** Drop every decision made for a guild. */
+    public void evictGuild(String guildId) {
+        if (guildId == null) {
+            return;
+        }
+        decisions.asMap().keySet().removeIf(k -> k.guildId().equals(guildId));
+        logger.debug("Evicted authorization decisions for guild {}", guildId);
+    }
+
+    /** Number of cached decisions (for diagnostics and tests). */
+    public long size() {
+        decisions.cleanUp();
+        return decisions.estimatedSize();
+    }
+
+    @Override
+    public void onGuildMemberRoleAdd(@NotNull GuildMemberRoleAddEvent event) {
+        evict(event.getUser().getId(), event.getGuild().getId());
+    }
+
+    @Override
+    public void onGuildMemberRoleRemove(@NotNull GuildMemberRoleRemoveEvent event) {
+        evict(event.getUser().getId(), event.getGuild().getId());
+    }
+
+    @Override
+    public void onGuildMemberRemove(@NotNull GuildMemberRemoveEvent event) {
+        evict(event.getUser().getId(), event.getGuild().getId());
+    }
+
+    @Override
+    public void onRoleUpdateName(@NotNull RoleUpdateNameEvent event) {
+        evictGuild(event.getGuild().getId());
+    }
+
+    @Override
+    public void onRoleDelete(@NotNull RoleDeleteEvent event) {
+        evictGuild(event.getGuild().getId());
+    }
+
+    @Override
+    public void onGuildLeave(@NotNull GuildLeaveEvent event) {
+        evictGuild(event.getGuild().getId());
+    }
+}
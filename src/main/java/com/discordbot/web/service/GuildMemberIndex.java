@@ -0,0 +1,217 @@
+package com.discordbot.web.service;
+
+import com.discordbot.web.dto.DiscordMemberDto;
+import com.discordbot.web.dto.DiscordMemberPage;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.Member;
+import net.dv8tion.jda.api.entities.User;
+import net.dv8tion.jda.api.events.guild.GuildLeaveEvent;
+import net.dv8tion.jda.api.events.guild.GuildReadyEvent;
+import net.dv8tion.jda.api.events.guild.member.GuildMemberJoinEvent;
+import net.dv8tion.jda.api.events.guild.member.GuildMemberRemoveEvent;
+import net.dv8tion.jda.api.events.guild.member.update.GuildMemberUpdateNicknameEvent;
+import net.dv8tion.jda.api.events.user.update.UserUpdateAvatarEvent;
+import net.dv8tion.jda.api.events.user.update.UserUpdateGlobalNameEvent;
+import net.dv8tion.jda.api.events.user.update.UserUpdateNameEvent;
+import net.dv8tion.jda.api.hooks.ListenerAdapter;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Per-guild sorted index of (non-bot) members for the mention picker.
+ *
+ * <p>Members are kept in a skip list ordered by normalized display name (ties broken by user ID),
+ * so a prefix search is a range scan and a page is a walk from the cursor instead of a full scan
+ * and sort per request. Each guild is built from JDA's member cache the first time it is needed
+ * (or when the guild becomes ready) and kept current by member join/leave, nickname and user
+ * name/avatar events.</p>
+ */
+@Component
+public class GuildMemberIndex extends ListenerAdapter {
+
+    private static final Logger logger = LoggerFactory.getLogger(GuildMemberIndex.class);
+
+    // Separates the normalized name from the user ID in sort keys; sorts before any name character
+    private static final char KEY_SEPARATOR = '\u0000';
+
+    /** One guild's members, by sort key, plus the current sort key of each user. */
+    private static final class GuildMembers {
+        private final NavigableMap<String, DiscordMemberDto> byKey = new ConcurrentSkipListMap<>();
+        private final Map<String, String> keyByUserId = new ConcurrentHashMap<>();
+
+        private synchronized void put(DiscordMemberDto member) {
+            String key = sortKey(member.displayName(), member.id());
+            String previous = keyByUserId.put(member.id(), key);
+            if (previous != null && !previous.equals(key)) {
+                byKey.remove(previous);
+            }
+            byKey.put(key, member);
+        }
+
+        private synchronized void remove(String userId) {
+            String key = keyByUserId.remove(userId);
+            if (key != null) {
+                byKey.remove(key);
+            }
+        }
+    }
+
+    private final Map<String, GuildMembers> guilds = new ConcurrentHashMap<>();
+
+    /**
+     * Search a guild's members by display name prefix (case- and width-insensitive).
+     *
+     * @param query  display name prefix; null or blank lists every member
+     * @param cursor opaque cursor from a previous page's {@code nextCursor}, or null for the first page
+     * @param limit  page size (already clamped by the caller)
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public DiscordMemberPage search(Guild guild, String query, String cursor, int limit) {
+        GuildMembers members = guilds.computeIfAbsent(guild.getId(), id -> build(guild));
+
+        String prefix = query == null ? "" : normalize(query.trim());
+        NavigableMap<String, DiscordMemberDto> range = prefix.isEmpty()
+                ? members.byKey
+                : members.byKey.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+        if (cursor != null && !cursor.isBlank()) {
+            range = range.tailMap(decodeCursor(cursor), false);
+        }
+
+        List<DiscordMemberDto> page = new ArrayList<>(Math.min(limit, 256));
+        String lastKey = null;
+        boolean more = false;
+        for (Map.Entry<String, DiscordMemberDto> entry : range.entrySet()) {
+            if (page.size() == limit) {
+                more = true;
+                break;
+            }
+            page.add(entry.getValue());
+            lastKey = entry.getKey();
+        }
+        return new DiscordMemberPage(page, more ? encodeCursor(lastKey) : null);
+    }
+
+    /** Number of indexed members for a guild, or -1 if the guild hasn't been indexed (for diagnostics and tests). */
+    public int size(String guildId) {
+        GuildMembers members = guilds.get(guildId);
+        return members == null ? -1 : members.keyByUserId.size();
+    }
+
+    @Override
+    public void onGuildReady(@NotNull GuildReadyEvent event) {
+        Guild guild = event.getGuild();
+        guilds.put(guild.getId(), build(guild));
+    }
+
+    @Override
+    public void onGuildLeave(@NotNull GuildLeaveEvent event) {
+        guilds.remove(event.getGuild().getId());
+    }
+
+    @Override
+    public void onGuildMemberJoin(@NotNull GuildMemberJoinEvent event) {
+        put(event.getGuild().getId(), event.getMember());
+    }
+
+    @Override
+    public void onGuildMemberRemove(@NotNull GuildMemberRemoveEvent event) {
+        GuildMembers members = guilds.get(event.getGuild().getId());
+        if (members != null) {
+            members.remove(event.getUser().getId());
+        }
+    }
+
+    @Override
+    public void onGuildMemberUpdateNickname(@NotNull GuildMemberUpdateNicknameEvent event) {
+        put(event.getGuild().getId(), event.getMember());
+    }
+
+    @Override
+    public void onUserUpdateName(@NotNull UserUpdateNameEvent event) {
+        refreshUser(event.getUser());
+    }
+
+    @Override
+    public void onUserUpdateGlobalName(@NotNull UserUpdateGlobalNameEvent event) {
+        refreshUser(event.getUser());
+    }
+
+    @Override
+    public void onUserUpdateAvatar(@NotNull UserUpdateAvatarEvent event) {
+        refreshUser(event.getUser());
+    }
+
+    private void refreshUser(User user) {
+        for (Guild guild : user.getMutualGuilds()) {
+            Member member = guild.getMember(user);
+            if (member != null) {
+                put(guild.getId(), member);
+            }
+        }
+    }
+
+    private void put(String guildId, Member member) {
+        GuildMembers members = guilds.get(guildId);
+        // Unindexed guilds pick the member up from JDA's cache when they are first built
+        if (members != null && !member.getUser().isBot()) {
+            members.put(toDto(member));
+        }
+    }
+
+    private static GuildMembers build(Guild guild) {
+        GuildMembers members = new GuildMembers();
+        guild.getMemberCache().forEach(member -> {
+            if (!member.getUser().isBot()) {
+                members.put(toDto(member));
+            }
+        });
+        logger.debug("Indexed {} member(s) for guild {}", members.keyByUserId.size(), guild.getId());
+        return members;
+    }
+
+    private static DiscordMemberDto toDto(Member member) {
+        return new DiscordMemberDto(
+            member.getId(),
+            member.getUser().getName(),
+            member.getEffectiveName(), // Nickname or username
+            member.getUser().getEffectiveAvatarUrl()
+        );
+    }
+
+    static String normalize(String name) {
+        return Normalizer.normalize(name, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+    }
+
+    private static String sortKey(String displayName, String userId) {
+        return normalize(displayName) + KEY_SEPARATOR + userId;
+    }
+
+    private static String encodeCursor(String key) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decodeCursor(String cursor) {
+        try {
+            String key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (key.indexOf(KEY_SEPARATOR) < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return key;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
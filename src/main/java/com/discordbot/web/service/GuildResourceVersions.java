@@ -0,0 +1,231 @@
+package com.discordbot.web.service;
+
+import com.discordbot.repository.GuildResourceVersionRepository;
+import net.dv8tion.jda.api.events.channel.GenericChannelEvent;
+import net.dv8tion.jda.api.events.guild.GuildLeaveEvent;
+import net.dv8tion.jda.api.events.guild.member.GuildMemberRoleAddEvent;
+import net.dv8tion.jda.api.events.guild.member.GuildMemberRoleRemoveEvent;
+import net.dv8tion.jda.api.events.guild.override.GenericPermissionOverrideEvent;
+import net.dv8tion.jda.api.events.role.GenericRoleEvent;
+import net.dv8tion.jda.api.events.role.RoleDeleteEvent;
+import net.dv8tion.jda.api.events.role.update.RoleUpdatePermissionsEvent;
+import net.dv8tion.jda.api.events.thread.ThreadHiddenEvent;
+import net.dv8tion.jda.api.events.thread.ThreadRevealedEvent;
+import net.dv8tion.jda.api.hooks.ListenerAdapter;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Monotonic version counters per (guild, resource family).
+ *
+ * <p>A version changes whenever the data behind a family's read endpoints may have changed: Discord
+ * gateway events for roles and channels, and writes made through the admin panel or the QOTD
+ * services. {@link GuildResponseCache} keys cached payloads and ETags on these versions.</p>
+ *
+ * <p>Writes made inside a transaction bump after commit, so a concurrent reader can never cache
+ * pre-commit data under the new version.</p>
+ *
+ * <p>Several instances may serve the same guild. {@link #SHARED} families (those only changed by
+ * database writes) also keep a counter in {@code guild_resource_versions}: a bump increments it in
+ * the writer's transaction and {@link #current} reads it on every call (one unique-key lookup), so a
+ * write on one instance invalidates every instance's cache as soon as it commits. Roles and channels
+ * stay local, since every instance receives the same gateway events. ETags still carry a per-process
+ * epoch, so a client that moves between instances revalidates once with a full response.</p>
+ */
+@Component
+public class GuildResourceVersions extends ListenerAdapter {
+
+    public enum Family { ROLES, CHANNELS, STREAMS, QUESTIONS }
+
+    /** Families whose version is shared between instances through the database. */
+    static final Set<Family> SHARED = EnumSet.of(Family.STREAMS, Family.QUESTIONS);
+
+    private record Key(String guildId, Family family) {}
+
+    /** Counter plus an optional instant after which the cached payload goes stale on its own. */
+    private static final class Version {
+        private long value;
+        private Instant staleAfter;
+        // Last shared counter seen for the family; a different value means another instance wrote
+        private long shared;
+    }
+
+    private final Map<Key, Version> versions = new ConcurrentHashMap<>();
+    private final Clock clock;
+    private final GuildResourceVersionRepository sharedVersions;
+    // Distinguishes tags issued by this process from those of a previous run with restarted counters
+    private final String epoch;
+
+    @Autowired
+    public GuildResourceVersions(GuildResourceVersionRepository sharedVersions) {
+        this(Clock.systemUTC(), sharedVersions);
+    }
+
+    /**
+     * Visible for tests: versions local to this instance.
+     */
+    public GuildResourceVersions() {
+        this(Clock.systemUTC());
+    }
+
+    /**
+     * Visible for tests: allows a fake clock to drive time-based staleness.
+     */
+    public GuildResourceVersions(Clock clock) {
+        this(clock, null);
+    }
+
+    /**
+     * Visible for tests: fake clock plus a shared store; {@code sharedVersions} may be null.
+     */
+    public GuildResourceVersions(Clock clock, GuildResourceVersionRepository sharedVersions) {
+        this.clock = clock;
+        this.sharedVersions = sharedVersions;
+        this.epoch = Long.toString(clock.millis(), 36);
+    }
+
+    /**
+     * Current version for a guild's family. Versions whose stale-after instant has passed are bumped first.
+     */
+    public long current(String guildId, Family family) {
+        Long shared = isShared(family) ? sharedVersions.findVersion(guildId, family.name()) : null;
+        Version version = versions.computeIfAbsent(new Key(guildId, family), k -> new Version());
+        synchronized (version) {
+            if (shared != null && shared != version.shared) {
+                version.shared = shared;
+                version.value++;
+                version.staleAfter = null;
+            }
+            if (version.staleAfter != null && !clock.instant().isBefore(version.staleAfter)) {
+                version.value++;
+                version.staleAfter = null;
+            }
+            return version.value;
+        }
+    }
+
+    /**
+     * Strong entity tag for a guild's family at the given version.
+     */
+    public String etag(Family family, long version) {
+        return "\"" + epoch + "-" + family.name().toLowerCase() + "-" + version + "\"";
+    }
+
+    /**
+     * Mark a guild's family as changed. Inside an active transaction the bump is deferred until commit
+     * (and dropped on rollback); the shared counter is written as part of that transaction.
+     */
+    public void bump(String guildId, Family family) {
+        if (guildId == null) {
+            return;
+        }
+        if (isShared(family)) {
+            incrementShared(guildId, family);
+        }
+        AfterCommit.run(() -> increment(guildId, family));
+    }
+
+    /**
+     * Record that payloads built at the current version contain time-derived data (such as upcoming
+     * schedule runs) that is only valid until {@code instant}. The earliest instant wins.
+     */
+    public void staleAfter(String guildId, Family family, Instant instant) {
+        if (instant == null) {
+            return;
+        }
+        Version version = versions.computeIfAbsent(new Key(guildId, family), k -> new Version());
+        synchronized (version) {
+            if (version.staleAfter == null || instant.isBefore(version.staleAfter)) {
+                version.staleAfter = instant;
+            }
+        }
+    }
+
+    private boolean isShared(Family family) {
+        return sharedVersions != null && SHARED.contains(family);
+    }
+
+    private void incrementShared(String guildId, Family family) {
+        String name = family.name();
+        // Lost the insert race to another writer: its row exists now
+        if (sharedVersions.increment(guildId, name) == 0 && sharedVersions.insertIfAbsent(guildId, name) == 0) {
+            sharedVersions.increment(guildId, name);
+        }
+    }
+
+    private void increment(String guildId, Family family) {
+        Version version = versions.computeIfAbsent(new Key(guildId, family), k -> new Version());
+        synchronized (version) {
+            version.value++;
+            version.staleAfter = null;
+        }
+    }
+
+    @Override
+    public void onGenericRole(@NotNull GenericRoleEvent event) {
+        bump(event.getGuild().getId(), Family.ROLES);
+    }
+
+    @Override
+    public void onRoleUpdatePermissions(@NotNull RoleUpdatePermissionsEvent event) {
+        // Role permissions decide whether the bot can post in each channel
+        bump(event.getGuild().getId(), Family.CHANNELS);
+    }
+
+    @Override
+    public void onRoleDelete(@NotNull RoleDeleteEvent event) {
+        bump(event.getGuild().getId(), Family.CHANNELS);
+    }
+
+    @Override
+    public void onGuildMemberRoleAdd(@NotNull GuildMemberRoleAddEvent event) {
+        if (event.getMember().equals(event.getGuild().getSelfMember())) {
+            bump(event.getGuild().getId(), Family.CHANNELS);
+        }
+    }
+
+    @Override
+    public void onGuildMemberRoleRemove(@NotNull GuildMemberRoleRemoveEvent event) {
+        if (event.getMember().equals(event.getGuild().getSelfMember())) {
+            bump(event.getGuild().getId(), Family.CHANNELS);
+        }
+    }
+
+    @Override
+    public void onGenericChannel(@NotNull GenericChannelEvent event) {
+        if (event.isFromGuild()) {
+            bump(event.getGuild().getId(), Family.CHANNELS);
+        }
+    }
+
+    @Override
+    public void onGenericPermissionOverride(@NotNull GenericPermissionOverrideEvent event) {
+        bump(event.getGuild().getId(), Family.CHANNELS);
+    }
+
+    @Override
+    public void onThreadRevealed(@NotNull ThreadRevealedEvent event) {
+        bump(event.getGuild().getId(), Family.CHANNELS);
+    }
+
+    @Override
+    public void onThreadHidden(@NotNull ThreadHiddenEvent event) {
+        bump(event.getGuild().getId(), Family.CHANNELS);
+    }
+
+    @Override
+    public void onGuildLeave(@NotNull GuildLeaveEvent event) {
+        String guildId = event.getGuild().getId();
+        for (Family family : Family.values()) {
+            bump(guildId, family);
+        }
+    }
+}
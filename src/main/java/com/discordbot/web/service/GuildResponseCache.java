@@ -0,0 +1,137 @@
+package com.discordbot.web.service;
+
+import com.discordbot.web.service.GuildResourceVersions.Family;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Version-keyed cache of guild read payloads with ETag revalidation.
+ *
+ * Behavior:
+ * - Each payload is cached per (guild, family, variant) together with the family version it was built at
+ * - Responses carry a strong ETag derived from that version; a matching If-None-Match is answered with
+ *   304 before the payload is looked up or built, so revalidation never touches JDA or the database
+ * - A version bump (see {@link GuildResourceVersions}) makes the cached payload and outstanding ETags stale
+ *
+ * Callers must authorize the request before calling {@link #serve}; payloads are shared between users.
+ */
+@Component
+public class GuildResponseCache {
+
+    static final Duration IDLE = Duration.ofMinutes(10);
+    static final long MAX_ENTRIES = 5_000;
+    static final CacheControl CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+
+    private record Key(String guildId, Family family, String variant) {}
+
+    private record Entry(long version, Object body) {}
+
+    private final GuildResourceVersions versions;
+    private final Cache<Key, Entry> payloads;
+
+    @Autowired
+    public GuildResponseCache(GuildResourceVersions versions) {
+        this(versions, Ticker.systemTicker());
+    }
+
+    /**
+     * Visible for tests: allows a fake ticker to drive idle expiry.
+     */
+    public GuildResponseCache(GuildResourceVersions versions, Ticker ticker) {
+        this.versions = versions;
+        this.payloads = Caffeine.newBuilder()
+                .ticker(ticker)
+                .expireAfterAccess(IDLE)
+                .maximumSize(MAX_ENTRIES)
+                .build();
+    }
+
+    /**
+     * Serve a guild read payload, building it with {@code loader} only when no payload exists for the
+     * current version. {@code variant} distinguishes endpoints sharing a family (e.g. one per channel).
+     */
+    public <T> ResponseEntity<T> serve(String guildId, Family family, String variant, Supplier<T> loader) {
+        return serve(guildId, family, variant, loader, body -> null);
+    }
+
+    /**
+     * As {@link #serve(String, Family, String, Supplier)}, for payloads containing time-derived data:
+     * {@code validUntil} returns the instant after which a freshly built payload must be rebuilt (or null).
+     */
+    @SuppressWarnings("unchecked")
+    public <T> ResponseEntity<T> serve(String guildId, Family family, String variant, Supplier<T> loader,
+                                       Function<T, Instant> validUntil) {
+        // Read the version before building: a write landing mid-build then only ever makes this entry stale
+        long version = versions.current(guildId, family);
+        String etag = versions.etag(family, version);
+
+        if (matches(ifNoneMatch(), etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(CACHE_CONTROL).build();
+        }
+
+        Key key = new Key(guildId, family, variant);
+        Entry entry = payloads.getIfPresent(key);
+        T body;
+        if (entry != null && entry.version() == version) {
+            body = (T) entry.body();
+        } else {
+            body = loader.get();
+            versions.staleAfter(guildId, family, validUntil.apply(body));
+            payloads.put(key, new Entry(version, body));
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(CACHE_CONTROL).body(body);
+    }
+
+    /** Number of cached payloads (for diagnostics and tests). */
+    public long size() {
+        payloads.cleanUp();
+        return payloads.estimatedSize();
+    }
+
+    private static String ifNoneMatch() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servletAttributes) {
+            HttpServletRequest request = servletAttributes.getRequest();
+            return request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        }
+        return null;
+    }
+
+    /**
+     * If-None-Match uses weak comparison (RFC 9110 13.1.2): W/ prefixes are ignored.
+     */
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
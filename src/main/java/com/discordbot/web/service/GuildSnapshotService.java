@@ -0,0 +1,153 @@
+package com.discordbot.web.service;
+
+import com.discordbot.web.dto.DiscordMemberPage;
+import com.discordbot.web.dto.DiscordRoleDto;
+import com.discordbot.web.dto.GachaRoleInfo;
+import com.discordbot.web.dto.GuildInfo;
+import com.discordbot.web.dto.GuildSnapshot;
+import com.discordbot.web.dto.RoleHierarchyStatus;
+import com.discordbot.web.dto.qotd.QotdDtos.ChannelStreamStatusDto;
+import com.discordbot.web.dto.qotd.QotdDtos.ChannelTreeNodeDto;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Builds the guild dashboard snapshot: every section the admin panel loads when opening a guild,
+ * computed in parallel from in-process data (JDA cache, thread registry, repositories).
+ * Authorization is the caller's job and happens once for the whole snapshot.
+ */
+@Service
+public class GuildSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(GuildSnapshotService.class);
+
+    static final int SNAPSHOT_CONCURRENCY = 8;
+    static final Duration SNAPSHOT_BUDGET = Duration.ofSeconds(5);
+    static final int DEFAULT_MEMBER_LIMIT = 100;
+    private static final String TIMED_OUT = "timed out";
+
+    private final AdminService adminService;
+    private final Duration budget;
+    private final ExecutorService executor;
+
+    @Autowired
+    public GuildSnapshotService(AdminService adminService) {
+        this(adminService, SNAPSHOT_BUDGET);
+    }
+
+    /**
+     * Visible for tests: allows a short time budget.
+     */
+    public GuildSnapshotService(AdminService adminService, Duration budget) {
+        this.adminService = adminService;
+        this.budget = budget;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(SNAPSHOT_CONCURRENCY, r -> {
+            Thread t = new Thread(r, "guild-snapshot-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Build the snapshot for a guild the authenticated user has already been authorized for.
+     * Sections still running when the budget runs out are cancelled (interrupting their worker)
+     * and reported as timed out.
+     */
+    public GuildSnapshot buildSnapshot(Authentication authentication, String guildId) {
+        Map<String, Long> timings = new ConcurrentHashMap<>();
+        Map<String, String> errors = new ConcurrentHashMap<>();
+
+        Future<GuildInfo> guild = section("guild", timings, errors,
+            () -> adminService.getManageableGuild(authentication, guildId).orElse(null));
+        Future<List<ChannelTreeNodeDto>> channelOptions = section("channelOptions", timings, errors,
+            () -> adminService.getChannelOptions(guildId));
+        Future<List<ChannelStreamStatusDto>> streamStatus = section("streamStatus", timings, errors,
+            () -> adminService.getStreamStatusForAllChannels(guildId));
+        Future<List<DiscordRoleDto>> allRoles = section("allRoles", timings, errors,
+            () -> adminService.getAllGuildRoles(guildId));
+        Future<DiscordMemberPage> members = section("members", timings, errors,
+            () -> adminService.searchGuildMembers(guildId, null, null, DEFAULT_MEMBER_LIMIT));
+        Future<List<GachaRoleInfo>> gachaRoles = section("gachaRoles", timings, errors,
+            () -> adminService.getGatchaRoles(guildId));
+        Future<RoleHierarchyStatus> roleHierarchy = section("roleHierarchy", timings, errors,
+            () -> adminService.checkRoleHierarchy(guildId));
+
+        long deadline = System.nanoTime() + budget.toNanos();
+        GuildSnapshot snapshot = new GuildSnapshot(
+            await("guild", guild, deadline, errors),
+            await("channelOptions", channelOptions, deadline, errors),
+            await("streamStatus", streamStatus, deadline, errors),
+            await("allRoles", allRoles, deadline, errors),
+            await("members", members, deadline, errors),
+            await("gachaRoles", gachaRoles, deadline, errors),
+            await("roleHierarchy", roleHierarchy, deadline, errors),
+            new LinkedHashMap<>(timings),
+            new LinkedHashMap<>(errors)
+        );
+        if (snapshot.errors().containsValue(TIMED_OUT)) {
+            logger.warn("Snapshot for guild {} exceeded {} ms budget; returning partial result", guildId, budget.toMillis());
+        }
+        return snapshot;
+    }
+
+    private <T> Future<T> section(String name, Map<String, Long> timings, Map<String, String> errors,
+                                  Supplier<T> supplier) {
+        return executor.submit(() -> {
+            long start = System.nanoTime();
+            try {
+                return supplier.get();
+            } catch (RuntimeException e) {
+                logger.warn("Snapshot section {} failed: {}", name, e.getMessage());
+                errors.put(name, e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+                return null;
+            } finally {
+                timings.put(name, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            }
+        });
+    }
+
+    /**
+     * Wait for a section until the shared deadline; a section that misses it is cancelled so it
+     * doesn't keep holding a pool thread.
+     */
+    private static <T> T await(String name, Future<T> future, long deadline, Map<String, String> errors) {
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            errors.put(name, TIMED_OUT);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            errors.put(name, TIMED_OUT);
+        } catch (ExecutionException | CancellationException e) {
+            // Section failures are recorded in errors by the section itself
+        }
+        return null;
+    }
+}
@@ -2,56 +2,223 @@ package com.discordbot.web.service;
 
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Ticker;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.TimeUnit;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Function;
 
 /**
  * Centralized cache for Discord user guilds, shared between services and listeners.
  * This breaks bean cycles by decoupling cache eviction from AdminService.
+ *
+ * <p>Entries are keyed by Discord user ID and refreshed ahead of time: once an entry is
+ * older than {@link #REFRESH_AFTER} the next read returns the cached list immediately and
+ * triggers an asynchronous reload (stale-while-revalidate). A guild → users index lets
+ * guild-level changes evict only the users that belong to that guild, and failed loads are
+ * negatively cached with exponential backoff so a Discord outage doesn't turn every admin
+ * request into another failing API call.</p>
  */
 @Component
 public class GuildsCache {
 
     private static final Logger logger = LoggerFactory.getLogger(GuildsCache.class);
 
-    private final Cache<String, List<Map<String, Object>>> guildsCache = Caffeine.newBuilder()
-            .expireAfterWrite(10, TimeUnit.SECONDS)
-            .maximumSize(1000)
-            .recordStats()
-            .build();
+    static final Duration REFRESH_AFTER = Duration.ofSeconds(10);
+    static final Duration EXPIRE_AFTER = Duration.ofMinutes(5);
+    static final Duration MIN_BACKOFF = Duration.ofSeconds(1);
+    static final Duration MAX_BACKOFF = Duration.ofSeconds(60);
+
+    /** Latest token and loader seen for a user; used by background refreshes. */
+    private record Credentials(String accessToken, Function<String, List<Map<String, Object>>> loader) {}
+
+    /** Negative cache entry: number of consecutive failures and when the next attempt is allowed. */
+    private record Failure(int attempts, long retryAtNanos) {}
+
+    private final Ticker ticker;
+    private final LoadingCache<String, List<Map<String, Object>>> guildsCache;
+    // Expire with the entry they refresh (get() rewrites them), so users whose loads keep failing
+    // don't accumulate; dropped at once on logout
+    private final Cache<String, Credentials> credentials;
+    private final Cache<String, Failure> failures;
+
+    // guildId -> userIds whose cached guild list contains that guild (and the reverse mapping)
+    private final Map<String, Set<String>> usersByGuild = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> guildsByUser = new ConcurrentHashMap<>();
+
+    @Autowired
+    public GuildsCache() {
+        this(Ticker.systemTicker(), ForkJoinPool.commonPool());
+    }
 
     /**
-     * Get cached guilds by token, or fetch using provided loader on miss.
+     * Visible for tests: allows a fake ticker and a same-thread executor for deterministic refreshes.
      */
-    public List<Map<String, Object>> get(String accessToken,
+    public GuildsCache(Ticker ticker, Executor refreshExecutor) {
+        this.ticker = ticker;
+        this.credentials = Caffeine.newBuilder()
+                .ticker(ticker)
+                .expireAfterWrite(EXPIRE_AFTER)
+                .maximumSize(10_000)
+                .build();
+        this.failures = Caffeine.newBuilder()
+                .ticker(ticker)
+                .expireAfterWrite(MAX_BACKOFF.multipliedBy(2))
+                .maximumSize(10_000)
+                .build();
+        this.guildsCache = Caffeine.newBuilder()
+                .ticker(ticker)
+                .executor(refreshExecutor)
+                .refreshAfterWrite(REFRESH_AFTER)
+                .expireAfterWrite(EXPIRE_AFTER)
+                .maximumSize(1000)
+                .removalListener((String userId, List<Map<String, Object>> guilds, RemovalCause cause) -> {
+                    if (userId != null && cause.wasEvicted()) {
+                        unindexUser(userId);
+                    }
+                })
+                .recordStats()
+                .build(this::load);
+    }
+
+    /**
+     * Get cached guilds for a user, or fetch them with the provided loader on miss.
+     * The access token and loader are remembered so that stale entries can be refreshed
+     * in the background with the user's most recent token.
+     */
+    public List<Map<String, Object>> get(String userId, String accessToken,
                                          Function<String, List<Map<String, Object>>> loader) {
-        return guildsCache.get(accessToken, key -> {
-            logger.debug("Cache miss - fetching guilds from Discord API");
-            List<Map<String, Object>> result = loader.apply(key);
-            logger.debug("Fetched and cached {} guilds (TTL: 10 seconds)", result != null ? result.size() : 0);
-            return result;
-        });
+        credentials.put(userId, new Credentials(accessToken, loader));
+        return guildsCache.get(userId);
     }
 
-    /** Evict cache entry for a specific access token. */
-    public void evictForToken(String accessToken) {
-        if (accessToken != null) {
-            guildsCache.invalidate(accessToken);
-            // Log only a fingerprint to avoid exposing sensitive tokens
-            logger.info("Evicted guilds cache for token ending in: {}", 
-                accessToken.length() > 4 ? "..." + accessToken.substring(accessToken.length() - 4) : "****");
+    /** Evict the cache entry (and any negative entry) for a specific user. */
+    public void evictUser(String userId) {
+        if (userId == null) {
+            return;
         }
+        guildsCache.invalidate(userId);
+        failures.invalidate(userId);
+        credentials.invalidate(userId);
+        unindexUser(userId);
+        logger.info("Evicted guilds cache for user {}", userId);
+    }
+
+    /**
+     * Evict only the users whose cached guild list contains the given guild.
+     * Used on guild join/leave and after bulk operations instead of wiping every admin's entry.
+     */
+    public void evictGuild(String guildId) {
+        if (guildId == null) {
+            return;
+        }
+        Set<String> users = usersByGuild.remove(guildId);
+        if (users == null || users.isEmpty()) {
+            logger.debug("No cached users indexed for guild {}", guildId);
+            return;
+        }
+        for (String userId : users) {
+            guildsCache.invalidate(userId);
+            unindexUser(userId);
+        }
+        logger.info("Evicted guilds cache for {} user(s) of guild {}", users.size(), guildId);
     }
 
     /** Evict all cache entries. */
     public void evictAll() {
         guildsCache.invalidateAll();
+        failures.invalidateAll();
+        credentials.invalidateAll();
+        usersByGuild.clear();
+        guildsByUser.clear();
         logger.info("Evicted all guilds cache entries");
     }
+
+    /** Number of users whose access token is held for background refreshes (for diagnostics and tests). */
+    public long credentialCount() {
+        credentials.cleanUp();
+        return credentials.estimatedSize();
+    }
+
+    /** User IDs currently indexed under a guild (for diagnostics and tests). */
+    public Set<String> usersForGuild(String guildId) {
+        Set<String> users = usersByGuild.get(guildId);
+        return users != null ? Set.copyOf(users) : Collections.emptySet();
+    }
+
+    private List<Map<String, Object>> load(String userId) {
+        Failure failure = failures.getIfPresent(userId);
+        if (failure != null && ticker.read() < failure.retryAtNanos()) {
+            throw new IllegalStateException("Discord guild fetch for user " + userId + " is backing off after "
+                    + failure.attempts() + " failure(s)");
+        }
+
+        Credentials creds = credentials.getIfPresent(userId);
+        if (creds == null) {
+            throw new IllegalStateException("No credentials available to load guilds for user " + userId);
+        }
+
+        logger.debug("Loading guilds for user {} from Discord API", userId);
+        try {
+            List<Map<String, Object>> result = creds.loader().apply(creds.accessToken());
+            failures.invalidate(userId);
+            index(userId, result);
+            logger.debug("Fetched and cached {} guilds for user {} (refresh after {}s)",
+                    result != null ? result.size() : 0, userId, REFRESH_AFTER.toSeconds());
+            return result;
+        } catch (RuntimeException e) {
+            recordFailure(userId, failure);
+            throw e;
+        }
+    }
+
+    private void recordFailure(String userId, Failure previous) {
+        int attempts = previous != null ? previous.attempts() + 1 : 1;
+        long backoffMillis = Math.min(MAX_BACKOFF.toMillis(), MIN_BACKOFF.toMillis() << Math.min(attempts - 1, 16));
+        failures.put(userId, new Failure(attempts, ticker.read() + Duration.ofMillis(backoffMillis).toNanos()));
+        logger.warn("Guild fetch failed for user {} ({} consecutive); backing off {} ms", userId, attempts, backoffMillis);
+    }
+
+    private void index(String userId, List<Map<String, Object>> guilds) {
+        unindexUser(userId);
+        if (guilds == null) {
+            return;
+        }
+        Set<String> guildIds = ConcurrentHashMap.newKeySet();
+        for (Map<String, Object> guild : guilds) {
+            Object id = guild.get("id");
+            if (id != null) {
+                guildIds.add(id.toString());
+            }
+        }
+        guildsByUser.put(userId, guildIds);
+        for (String guildId : guildIds) {
+            usersByGuild.computeIfAbsent(guildId, k -> ConcurrentHashMap.newKeySet()).add(userId);
+        }
+    }
+
+    private void unindexUser(String userId) {
+        Set<String> guildIds = guildsByUser.remove(userId);
+        if (guildIds == null) {
+            return;
+        }
+        for (String guildId : guildIds) {
+            usersByGuild.computeIfPresent(guildId, (k, users) -> {
+                users.remove(userId);
+                return users.isEmpty() ? null : users;
+            });
+        }
+    }
 }
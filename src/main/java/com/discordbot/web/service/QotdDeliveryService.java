@@ -0,0 +1,518 @@
+package com.discordbot.web.service;
+
+import com.discordbot.entity.QotdDelivery;
+import com.discordbot.entity.QotdPosted;
+import com.discordbot.entity.QotdQuestion;
+import com.discordbot.entity.QotdStream;
+import com.discordbot.repository.QotdDeliveryRepository;
+import com.discordbot.repository.QotdPostedRepository;
+import com.discordbot.repository.QotdQuestionRepository;
+import com.discordbot.repository.QotdStreamRepository;
+import com.discordbot.web.service.GuildResourceVersions.Family;
+import net.dv8tion.jda.api.EmbedBuilder;
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.entities.MessageEmbed;
+import net.dv8tion.jda.api.entities.channel.concrete.TextChannel;
+import net.dv8tion.jda.api.entities.channel.concrete.ThreadChannel;
+import net.dv8tion.jda.api.entities.channel.middleman.MessageChannel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Acknowledged delivery of QOTD posts.
+ *
+ * Behavior:
+ * - Posting reserves the selected question as a {@link QotdDelivery} (SENDING, ack deadline
+ *   {@link #ACK_TIMEOUT} away) in the caller's transaction; the send starts after commit
+ * - Several streams of one channel can be reserved as a batch ({@link #reserveBatch}): they go out as
+ *   one message with one embed per stream, and are claimed and retried together. A batch over
+ *   Discord's per-message limits (10 embeds, 6000 embed characters; 2000 characters of plain-text
+ *   fallback) is sent as several messages in order, each acknowledged as it lands
+ * - Every Discord call is queued, thread joins included, so no scheduler or request thread waits on Discord
+ * - On acknowledgement one transaction updates the stream (lastPostedAt, nextIndex, next run),
+ *   archives the question with its message id and removes it and the delivery (for a batch, every
+ *   stream in it)
+ * - A failed send backs off exponentially from {@link #RETRY_BASE} up to {@link #MAX_BACKOFF};
+ *   after {@link #MAX_ATTEMPTS} the delivery is dropped and the question stays queued
+ * - A poller resends deliveries whose backoff or ack deadline has passed (the latter covers an
+ *   instance that died mid-send); claims are conditional, so one instance resends each. Delivery is
+ *   at least once: an ack lost after Discord accepted the message can lead to a repeat post
+ */
+@Service
+public class QotdDeliveryService {
+    private static final Logger log = LoggerFactory.getLogger(QotdDeliveryService.class);
+
+    static final Duration ACK_TIMEOUT = Duration.ofMinutes(2);
+    static final Duration RETRY_BASE = Duration.ofSeconds(30);
+    static final Duration MAX_BACKOFF = Duration.ofHours(1);
+    static final int MAX_ATTEMPTS = 8;
+    static final int RETRY_BATCH = 50;
+    private static final int MAX_ERROR_LENGTH = 500;
+    private static final String PLAIN_SEPARATOR = "\n\n";
+
+    private final QotdDeliveryRepository deliveryRepository;
+    private final QotdStreamRepository streamRepository;
+    private final QotdQuestionRepository questionRepository;
+    private final QotdPostedRepository postedRepository;
+    private final JDA jda;
+    private final GuildResourceVersions resourceVersions;
+    private final QotdSchedule schedule;
+    private final QotdNearDuplicateIndex nearDuplicates;
+    private final TransactionTemplate transactions;
+    private final Clock clock;
+
+    @Autowired
+    public QotdDeliveryService(
+            QotdDeliveryRepository deliveryRepository,
+            QotdStreamRepository streamRepository,
+            QotdQuestionRepository questionRepository,
+            QotdPostedRepository postedRepository,
+            JDA jda,
+            GuildResourceVersions resourceVersions,
+            QotdSchedule schedule,
+            QotdNearDuplicateIndex nearDuplicates,
+            PlatformTransactionManager transactionManager) {
+        this(deliveryRepository, streamRepository, questionRepository, postedRepository, jda, resourceVersions,
+                schedule, nearDuplicates, transactionManager, Clock.systemUTC());
+    }
+
+    /**
+     * Visible for tests: allows a fixed clock.
+     */
+    public QotdDeliveryService(
+            QotdDeliveryRepository deliveryRepository,
+            QotdStreamRepository streamRepository,
+            QotdQuestionRepository questionRepository,
+            QotdPostedRepository postedRepository,
+            JDA jda,
+            GuildResourceVersions resourceVersions,
+            QotdSchedule schedule,
+            QotdNearDuplicateIndex nearDuplicates,
+            PlatformTransactionManager transactionManager,
+            Clock clock) {
+        this.deliveryRepository = deliveryRepository;
+        this.streamRepository = streamRepository;
+        this.questionRepository = questionRepository;
+        this.postedRepository = postedRepository;
+        this.jda = jda;
+        this.resourceVersions = resourceVersions;
+        this.schedule = schedule;
+        this.nearDuplicates = nearDuplicates;
+        // State changes run from JDA threads and afterCommit callbacks, where a joined transaction
+        // would never commit
+        this.transactions = new TransactionTemplate(transactionManager);
+        this.transactions.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.clock = clock;
+    }
+
+    /**
+     * A question selected for a stream, with the stream's nextIndex after the post (null to leave it unchanged).
+     */
+    public record Reservation(QotdStream stream, QotdQuestion question, Integer nextIndex) {}
+
+    // One delivery of a send, in embed order
+    private record Part(Long deliveryId, QotdStream stream, QotdQuestion question) {}
+
+    // One send attempt: a single delivery (batchId null) or every delivery of a batch; all target one channel
+    private record Send(String batchId, List<Part> parts, int attempt) {
+        QotdStream lead() {
+            return parts.get(0).stream();
+        }
+
+        String describe() {
+            if (batchId == null) {
+                return "QOTD delivery " + parts.get(0).deliveryId() + " for stream " + lead().getId();
+            }
+            return "QOTD batch " + batchId + " for streams " + parts.stream().map(p -> p.stream().getId()).toList();
+        }
+    }
+
+    /** Backoff before attempt {@code failedAttempt + 1}. */
+    static Duration backoff(int failedAttempt) {
+        int doublings = Math.min(failedAttempt - 1, 20);
+        Duration delay = RETRY_BASE.multipliedBy(1L << doublings);
+        return delay.compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : delay;
+    }
+
+    /**
+     * Delivery still outstanding for a stream, if any.
+     */
+    public QotdDelivery findOutstanding(Long streamId) {
+        return deliveryRepository.findByStreamId(streamId).orElse(null);
+    }
+
+    /**
+     * Reserve {@code question} for posting and send it once the caller's transaction commits.
+     *
+     * @param nextIndex the stream's nextIndex after this post, or null to leave it unchanged
+     */
+    public void reserve(QotdStream stream, QotdQuestion question, Integer nextIndex) {
+        Instant now = clock.instant();
+        QotdDelivery delivery = deliveryRepository.save(
+                new QotdDelivery(stream.getId(), question.getId(), nextIndex, now, now.plus(ACK_TIMEOUT)));
+        Send send = new Send(null, List.of(new Part(delivery.getId(), stream, question)), 1);
+        AfterCommit.run(() -> send(send));
+    }
+
+    /**
+     * Reserve questions of several streams in one channel and, once the caller's transaction commits,
+     * send them as a single message with one embed per stream (in the given order).
+     */
+    public void reserveBatch(List<Reservation> reservations) {
+        if (reservations.size() == 1) {
+            Reservation only = reservations.get(0);
+            reserve(only.stream(), only.question(), only.nextIndex());
+            return;
+        }
+        Instant now = clock.instant();
+        String batchId = UUID.randomUUID().toString();
+        List<Part> parts = new ArrayList<>();
+        for (Reservation r : reservations) {
+            QotdDelivery delivery = deliveryRepository.save(new QotdDelivery(r.stream().getId(), r.question().getId(),
+                    r.nextIndex(), batchId, now, now.plus(ACK_TIMEOUT)));
+            parts.add(new Part(delivery.getId(), r.stream(), r.question()));
+        }
+        Send send = new Send(batchId, parts, 1);
+        AfterCommit.run(() -> send(send));
+    }
+
+    /**
+     * Whether a delivery's last attempt is still waiting for Discord (sent, ack deadline not yet passed).
+     */
+    public boolean isInFlight(QotdDelivery delivery) {
+        return delivery.getStatus() == QotdDelivery.Status.SENDING && delivery.getNextAttemptAt().isAfter(clock.instant());
+    }
+
+    /**
+     * Send an outstanding delivery again now instead of waiting for its backoff (e.g. the stream's
+     * next firing came round first). No-op if the delivery is still in flight or another attempt
+     * has started meanwhile.
+     */
+    public void retryNow(QotdDelivery delivery) {
+        AfterCommit.run(() -> resend(delivery));
+    }
+
+    /**
+     * Resend deliveries whose backoff or ack deadline has passed.
+     */
+    @Scheduled(cron = "*/15 * * * * *")
+    public void retryDueDeliveries() {
+        List<QotdDelivery> due = deliveryRepository.findDue(clock.instant(), PageRequest.of(0, RETRY_BATCH));
+        for (QotdDelivery delivery : due) {
+            try {
+                resend(delivery);
+            } catch (Exception e) {
+                log.error("Failed to retry QOTD delivery {}: {}", delivery.getId(), e.getMessage(), e);
+            }
+        }
+    }
+
+    private void resend(QotdDelivery delivery) {
+        Instant now = clock.instant();
+        Instant ackDeadline = now.plus(ACK_TIMEOUT);
+        String batchId = delivery.getBatchId();
+        Integer claimed = transactions.execute(status -> batchId == null
+                ? deliveryRepository.claim(delivery.getId(), delivery.getNextAttemptAt(), now, ackDeadline)
+                : deliveryRepository.claimBatch(batchId, delivery.getNextAttemptAt(), now, ackDeadline));
+        if (claimed == null || claimed == 0) {
+            log.debug("QOTD delivery {} was claimed by another attempt", delivery.getId());
+            return;
+        }
+        int attempt = delivery.getAttempts() + 1;
+        List<QotdDelivery> members = batchId == null ? List.of(delivery) : deliveryRepository.findByBatchIdOrderByIdAsc(batchId);
+        List<Part> parts = new ArrayList<>();
+        for (QotdDelivery member : members) {
+            QotdStream stream = streamRepository.findById(member.getStreamId()).orElse(null);
+            QotdQuestion question = questionRepository.findById(member.getQuestionId()).orElse(null);
+            // Cascades remove a delivery with its stream or question; nothing left to send for it
+            if (stream != null && question != null) {
+                parts.add(new Part(member.getId(), stream, question));
+            }
+        }
+        if (parts.isEmpty()) {
+            return;
+        }
+        Send send = new Send(batchId, parts, attempt);
+        log.info("Retrying {} (attempt {}/{})", send.describe(), attempt, MAX_ATTEMPTS);
+        send(send);
+    }
+
+    /**
+     * Start one send attempt. Returns once the request is queued; the outcome arrives through
+     * {@link #acknowledge} or {@link #fail}.
+     */
+    private void send(Send send) {
+        QotdStream stream = send.lead();
+        try {
+            Guild guild = jda.getGuildById(stream.getGuildId());
+            if (guild == null) {
+                fail(send, "Guild not found: " + stream.getGuildId());
+                return;
+            }
+
+            // Try to get as TextChannel first, then as ThreadChannel
+            TextChannel textChannel = guild.getTextChannelById(stream.getChannelId());
+            if (textChannel != null) {
+                sendMessage(send, textChannel);
+                return;
+            }
+            ThreadChannel threadChannel = guild.getThreadChannelById(stream.getChannelId());
+            if (threadChannel == null) {
+                fail(send, "Channel not found: " + stream.getChannelId());
+                return;
+            }
+            if (threadChannel.isJoined()) {
+                sendMessage(send, threadChannel);
+                return;
+            }
+            // Bot must be a member of the thread to post; QotdThreadWarmup normally joined it well before now
+            log.info("Joining thread {} to post QOTD", threadChannel.getName());
+            threadChannel.join().queue(
+                joined -> sendMessage(send, threadChannel),
+                error -> fail(send, "Failed to join thread " + threadChannel.getId() + ": " + error.getMessage()));
+        } catch (Exception e) {
+            fail(send, e.getMessage());
+        }
+    }
+
+    private void sendMessage(Send send, MessageChannel channel) {
+        List<Post> posts = send.parts().stream().map(QotdDeliveryService::render).toList();
+        List<Send> messages = split(send, posts.stream().map(post -> post.embed().getLength()).toList(),
+                MessageEmbed.EMBED_MAX_LENGTH_BOT, 0);
+        sendInOrder(messages, (message, next) -> sendEmbeds(message, channel, next), () -> {});
+    }
+
+    /** One stream's part of a message: its embed and the plain-text fallback. */
+    private record Post(MessageEmbed embed, String plain, boolean mentions) {}
+
+    private static Post render(Part part) {
+        QotdStream stream = part.stream();
+        QotdQuestion question = part.question();
+        String bannerText = stream.getBannerText() != null ? stream.getBannerText() : QotdStreamService.DEFAULT_BANNER;
+        String mention = stream.getMentionTarget() != null ? stream.getMentionTarget() : "";
+        Integer embedColor = stream.getEmbedColor() != null ? stream.getEmbedColor() : QotdStreamService.DEFAULT_COLOR;
+
+        // Include mention in embed description (MEE6-style)
+        // Discord allows mentions in embed body with proper allowed_mentions configuration
+        String description = mention.isEmpty() ? question.getText() : mention + " " + question.getText();
+
+        EmbedBuilder embed = new EmbedBuilder()
+                .setTitle(truncate(bannerText, MessageEmbed.TITLE_MAX_LENGTH))
+                .setDescription(truncate(description, MessageEmbed.DESCRIPTION_MAX_LENGTH))
+                .setColor(embedColor);
+        if (question.getAuthorUsername() != null) {
+            embed.setFooter(truncate("Suggested by " + question.getAuthorUsername(), MessageEmbed.TEXT_MAX_LENGTH));
+        }
+        String plain = truncate(bannerText + "\n\n" + description, Message.MAX_CONTENT_LENGTH);
+        return new Post(embed.build(), plain, !mention.isEmpty());
+    }
+
+    /**
+     * Split a send into consecutive messages within Discord's per-message limits: at most
+     * {@link Message#MAX_EMBED_COUNT} parts and {@code maxChars} in total, counting {@code separator}
+     * between parts. A part never exceeds the limit on its own (see {@link #render}).
+     */
+    private static List<Send> split(Send send, List<Integer> lengths, int maxChars, int separator) {
+        List<Send> messages = new ArrayList<>();
+        List<Part> current = new ArrayList<>();
+        int chars = 0;
+        for (int i = 0; i < send.parts().size(); i++) {
+            int length = lengths.get(i) + (current.isEmpty() ? 0 : separator);
+            if (!current.isEmpty() && (current.size() == Message.MAX_EMBED_COUNT || chars + length > maxChars)) {
+                messages.add(new Send(send.batchId(), List.copyOf(current), send.attempt()));
+                current.clear();
+                length = lengths.get(i);
+                chars = 0;
+            }
+            current.add(send.parts().get(i));
+            chars += length;
+        }
+        messages.add(new Send(send.batchId(), List.copyOf(current), send.attempt()));
+        return messages;
+    }
+
+    /**
+     * Send {@code messages} one at a time, each once the previous one is acknowledged, then run {@code done}.
+     * A failure stops the sequence: {@link #fail} backs off every delivery of the batch still outstanding,
+     * so the retry resends exactly the messages that didn't go out.
+     */
+    private void sendInOrder(List<Send> messages, MessageSender sender, Runnable done) {
+        if (messages.isEmpty()) {
+            done.run();
+            return;
+        }
+        sender.send(messages.get(0), () -> sendInOrder(messages.subList(1, messages.size()), sender, done));
+    }
+
+    @FunctionalInterface
+    private interface MessageSender {
+        /** Send one message and run {@code next} once it is acknowledged. */
+        void send(Send message, Runnable next);
+    }
+
+    private void sendEmbeds(Send send, MessageChannel channel, Runnable next) {
+        List<Post> posts = send.parts().stream().map(QotdDeliveryService::render).toList();
+        try {
+            // One message, one embed per stream
+            List<MessageEmbed> embeds = posts.stream().map(Post::embed).toList();
+            var action = channel.sendMessageEmbeds(embeds.get(0),
+                    embeds.subList(1, embeds.size()).toArray(new MessageEmbed[0]));
+
+            // Enable mentions for roles, users, and @everyone/@here (MEE6-style: mentions in embed trigger pings)
+            if (posts.stream().anyMatch(Post::mentions)) {
+                action = action.setAllowedMentions(List.of(
+                    Message.MentionType.ROLE,
+                    Message.MentionType.USER,
+                    Message.MentionType.EVERYONE
+                ));
+            }
+
+            action.queue(
+                message -> {
+                    log.debug("Successfully posted QOTD embed for {} in channel {}", send.describe(), channel.getName());
+                    acknowledge(send, message.getId());
+                    next.run();
+                },
+                error -> {
+                    log.error("Failed to send QOTD embed for {}: {}", send.describe(), error.getMessage(), error);
+                    sendPlain(send, channel, posts, next);
+                }
+            );
+        } catch (Exception e) {
+            log.error("Exception building/sending QOTD embed for {}: {}", send.describe(), e.getMessage(), e);
+            sendPlain(send, channel, posts, next);
+        }
+    }
+
+    private void sendPlain(Send send, MessageChannel channel, List<Post> posts, Runnable next) {
+        List<Send> messages = split(send, posts.stream().map(post -> post.plain().length()).toList(),
+                Message.MAX_CONTENT_LENGTH, PLAIN_SEPARATOR.length());
+        sendInOrder(messages, (message, then) -> sendPlainMessage(message, channel, then), next);
+    }
+
+    private void sendPlainMessage(Send send, MessageChannel channel, Runnable next) {
+        try {
+            String content = String.join(PLAIN_SEPARATOR,
+                    send.parts().stream().map(part -> render(part).plain()).toList());
+            channel.sendMessage(content).queue(
+                message -> {
+                    log.info("Sent QOTD as plain text fallback for {}", send.describe());
+                    acknowledge(send, message.getId());
+                    next.run();
+                },
+                error -> fail(send, error.getMessage()));
+        } catch (Exception e) {
+            fail(send, e.getMessage());
+        }
+    }
+
+    private static String truncate(String text, int max) {
+        return text.length() <= max ? text : text.substring(0, max - 1) + "\u2026";
+    }
+
+    /**
+     * Discord accepted the message: commit the post, for every stream in it at once.
+     */
+    private void acknowledge(Send send, String messageId) {
+        try {
+            transactions.executeWithoutResult(status -> {
+                for (Part part : send.parts()) {
+                    complete(part.deliveryId(), messageId);
+                }
+            });
+        } catch (Exception e) {
+            // The delivery stays outstanding and will be resent once its ack deadline passes
+            log.error("Failed to record {} (message {}): {}", send.describe(), messageId, e.getMessage(), e);
+        }
+    }
+
+    private void complete(Long deliveryId, String messageId) {
+        QotdDelivery delivery = deliveryRepository.findById(deliveryId).orElse(null);
+        if (delivery == null) {
+            log.warn("QOTD message {} acknowledged for delivery {}, which is no longer outstanding "
+                    + "(already acknowledged, abandoned or its question was deleted)", messageId, deliveryId);
+            return;
+        }
+        QotdStream stream = streamRepository.findById(delivery.getStreamId()).orElse(null);
+        QotdQuestion question = questionRepository.findById(delivery.getQuestionId()).orElse(null);
+        if (stream == null || question == null) {
+            deliveryRepository.delete(delivery);
+            return;
+        }
+
+        // Update stream state (a manual post also pushes the next run past the duplicate-post window)
+        Instant postedAt = clock.instant();
+        stream.setLastPostedAt(postedAt);
+        if (delivery.getNextIndex() != null) {
+            stream.setNextIndex(delivery.getNextIndex());
+        }
+        stream.setNextRunAt(QotdSchedule.nextRunAt(stream, postedAt));
+        streamRepository.save(stream);
+        schedule.upsert(stream);
+
+        // Move the question into the archive
+        QotdPosted posted = new QotdPosted(stream, question, postedAt);
+        posted.setMessageId(messageId);
+        posted = postedRepository.save(posted);
+        deliveryRepository.delete(delivery);
+        questionRepository.deleteById(question.getId());
+        nearDuplicates.questionPosted(stream.getGuildId(), question.getId(), posted.getId(), question.getText());
+        resourceVersions.bump(stream.getGuildId(), Family.STREAMS);
+        resourceVersions.bump(stream.getGuildId(), Family.QUESTIONS);
+
+        log.info("Posted QOTD for stream {} ({}) as message {} after {} attempt(s)",
+                stream.getId(), stream.getStreamName(), messageId, delivery.getAttempts());
+    }
+
+    /**
+     * A send attempt failed: back off, or give up after {@link #MAX_ATTEMPTS}.
+     */
+    private void fail(Send send, String error) {
+        String reason = error == null ? "unknown error"
+                : error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+        int attempt = send.attempt();
+        Long deliveryId = send.parts().get(0).deliveryId();
+        String batchId = send.batchId();
+        try {
+            transactions.executeWithoutResult(status -> {
+                if (attempt >= MAX_ATTEMPTS) {
+                    int abandoned = batchId == null
+                            ? deliveryRepository.abandon(deliveryId, attempt)
+                            : deliveryRepository.abandonBatch(batchId, attempt);
+                    if (abandoned > 0) {
+                        log.error("Giving up on {} after {} attempts: {}; the question stays queued",
+                                send.describe(), attempt, reason);
+                    }
+                    return;
+                }
+                Instant retryAt = clock.instant().plus(backoff(attempt));
+                int scheduled = batchId == null
+                        ? deliveryRepository.scheduleRetry(deliveryId, attempt, retryAt, reason)
+                        : deliveryRepository.scheduleBatchRetry(batchId, attempt, retryAt, reason);
+                if (scheduled > 0) {
+                    log.warn("{} failed (attempt {}/{}): {}; retrying at {}",
+                            send.describe(), attempt, MAX_ATTEMPTS, reason, retryAt);
+                }
+            });
+        } catch (Exception e) {
+            // Left as is, the delivery is resent once its ack deadline passes
+            log.error("Failed to record failure of {}: {}", send.describe(), e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.discordbot.web.service;
+
+import com.discordbot.entity.QotdQuestion;
+
+import java.util.Arrays;
+import java.util.regex.Pattern;
+
+/**
+ * MinHash signatures of QOTD question text, for near-duplicate detection.
+ *
+ * Behavior:
+ * - Text is normalized like {@link QotdQuestion#normalizeText(String)}, with punctuation folded to
+ *   spaces, then split into overlapping character {@link #SHINGLE_LENGTH}-grams; these survive
+ *   small rewordings ("what's" / "what is", "favorite" / "favourite") better than word shingles
+ * - A signature keeps the minimum of {@link #SIGNATURES} seeded hashes over the shingles; the
+ *   fraction of equal slots estimates the Jaccard similarity of the shingle sets
+ * - For LSH the signature is cut into {@link #BANDS} bands of {@link #ROWS} slots; texts sharing
+ *   any band are candidates. With 16 x 4, pairs at 0.6 similarity collide with ~90% probability
+ *   and pairs at 0.3 with ~12%
+ */
+public final class QotdMinHash {
+
+    static final int SHINGLE_LENGTH = 3;
+    public static final int SIGNATURES = 64;
+    public static final int BANDS = 16;
+    static final int ROWS = SIGNATURES / BANDS;
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+    // Slot i hashes a shingle as the high 32 bits of (h * MULTIPLIERS[i] + ADDENDS[i]), h being its mixed hash
+    private static final long[] MULTIPLIERS = new long[SIGNATURES];
+    private static final long[] ADDENDS = new long[SIGNATURES];
+
+    static {
+        long seed = 0x9E3779B97F4A7C15L;
+        for (int i = 0; i < SIGNATURES; i++) {
+            seed = mix(seed + i);
+            MULTIPLIERS[i] = seed | 1;
+            seed = mix(seed + i);
+            ADDENDS[i] = seed;
+        }
+    }
+
+    private QotdMinHash() {}
+
+    /** Text reduced to lower-case letters and digits separated by single spaces. */
+    static String shingleText(String text) {
+        return NON_WORD.matcher(QotdQuestion.normalizeText(text)).replaceAll(" ").trim();
+    }
+
+    /**
+     * MinHash signature of {@code text}. Texts with no letters or digits share one signature.
+     */
+    public static int[] signature(String text) {
+        String s = shingleText(text);
+        int[] signature = new int[SIGNATURES];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        int shingles = Math.max(1, s.length() - SHINGLE_LENGTH + 1);
+        for (int start = 0; start < shingles; start++) {
+            long shingle = mix(shingleHash(s, start, Math.min(s.length(), start + SHINGLE_LENGTH)));
+            for (int i = 0; i < SIGNATURES; i++) {
+                int h = (int) ((shingle * MULTIPLIERS[i] + ADDENDS[i]) >>> 33);
+                if (h < signature[i]) {
+                    signature[i] = h;
+                }
+            }
+        }
+        return signature;
+    }
+
+    /** Estimated Jaccard similarity of two signatures, in [0, 1]. */
+    public static double similarity(int[] a, int[] b) {
+        int equal = 0;
+        for (int i = 0; i < SIGNATURES; i++) {
+            if (a[i] == b[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / SIGNATURES;
+    }
+
+    /** One bucket key per band; equal keys in the same band position mean the texts are LSH candidates. */
+    public static long[] bandKeys(int[] signature) {
+        long[] keys = new long[BANDS];
+        for (int band = 0; band < BANDS; band++) {
+            long h = band;
+            for (int row = 0; row < ROWS; row++) {
+                h = mix(h * 31 + signature[band * ROWS + row]);
+            }
+            keys[band] = h;
+        }
+        return keys;
+    }
+
+    private static long shingleHash(String s, int from, int to) {
+        long h = 1125899906842597L;
+        for (int i = from; i < to; i++) {
+            h = 31 * h + s.charAt(i);
+        }
+        return h;
+    }
+
+    /** 64-bit finalizer from MurmurHash3. */
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,212 @@
+package com.discordbot.web.service;
+
+import com.discordbot.entity.QotdSubmission;
+import com.discordbot.repository.QotdPostedRepository;
+import com.discordbot.repository.QotdQuestionRepository;
+import com.discordbot.repository.QotdSubmissionRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+
+/**
+ * In-memory LSH index of each guild's QOTD questions, pending submissions and recently posted
+ * questions, used to flag submissions that are trivially reworded copies of something already
+ * queued, awaiting review or asked within the last {@link #RECENT_POSTED}.
+ *
+ * Behavior:
+ * - A guild's index is built on first use from one query each over its questions, its pending
+ *   submissions and its recent posts (guild_id, posted_at index); afterwards the services keep it current with add/remove calls, applied
+ *   after commit (and dropped on rollback)
+ * - A lookup hashes the text once ({@link QotdMinHash}) and compares only against entries sharing an
+ *   LSH band, so cost depends on the number of similar entries, not the size of the guild
+ * - Indexes are rebuilt in the background once they are {@link #REBUILD_AFTER} old (on the next
+ *   lookup) or after a bulk change ({@link #rebuild}); lookups keep using the current index until
+ *   the new one is ready, so only a guild's first lookup waits for a build. This bounds how long
+ *   writes made by another instance go unseen; a change committed while a rebuild is reading may
+ *   be missed until the next one
+ * - Posting moves a question from QUESTION to POSTED; posts older than {@link #RECENT_POSTED} drop
+ *   out when the index is next rebuilt
+ */
+@Component
+public class QotdNearDuplicateIndex {
+
+    /** Estimated Jaccard similarity at or above which a submission is flagged. */
+    public static final double THRESHOLD = 0.6;
+    static final Duration REBUILD_AFTER = Duration.ofMinutes(30);
+    static final Duration RECENT_POSTED = Duration.ofDays(90);
+    private static final int MAX_GUILDS = 1_000;
+
+    public enum Source { QUESTION, SUBMISSION, POSTED }
+
+    /** Closest indexed entry to a looked-up text. */
+    public record Match(Source source, long id, String text, double similarity) {}
+
+    private record Key(Source source, long id) {}
+
+    private record Entry(String text, int[] signature, long[] bandKeys) {}
+
+    /** One guild's entries and LSH buckets; guarded by its own monitor. */
+    private static final class GuildIndex {
+        private final Map<Key, Entry> entries = new HashMap<>();
+        private final Map<Long, Set<Key>> buckets = new HashMap<>();
+
+        synchronized void put(Key key, String text) {
+            remove(key);
+            int[] signature = QotdMinHash.signature(text);
+            Entry entry = new Entry(text, signature, QotdMinHash.bandKeys(signature));
+            entries.put(key, entry);
+            for (long band : entry.bandKeys()) {
+                buckets.computeIfAbsent(band, b -> new HashSet<>()).add(key);
+            }
+        }
+
+        synchronized void remove(Key key) {
+            Entry entry = entries.remove(key);
+            if (entry == null) {
+                return;
+            }
+            for (long band : entry.bandKeys()) {
+                Set<Key> bucket = buckets.get(band);
+                if (bucket != null && bucket.remove(key) && bucket.isEmpty()) {
+                    buckets.remove(band);
+                }
+            }
+        }
+
+        synchronized Match best(String text, Key exclude) {
+            int[] signature = QotdMinHash.signature(text);
+            Set<Key> seen = new HashSet<>();
+            Match best = null;
+            for (long band : QotdMinHash.bandKeys(signature)) {
+                Set<Key> bucket = buckets.get(band);
+                if (bucket == null) {
+                    continue;
+                }
+                for (Key key : bucket) {
+                    if (key.equals(exclude) || !seen.add(key)) {
+                        continue;
+                    }
+                    Entry entry = entries.get(key);
+                    double similarity = QotdMinHash.similarity(signature, entry.signature());
+                    if (similarity >= THRESHOLD && (best == null || similarity > best.similarity())) {
+                        best = new Match(key.source(), key.id(), entry.text(), similarity);
+                    }
+                }
+            }
+            return best;
+        }
+    }
+
+    private final QotdQuestionRepository questionRepository;
+    private final QotdSubmissionRepository submissionRepository;
+    private final QotdPostedRepository postedRepository;
+    private final LoadingCache<String, GuildIndex> guilds;
+
+    @Autowired
+    public QotdNearDuplicateIndex(QotdQuestionRepository questionRepository, QotdSubmissionRepository submissionRepository,
+                                  QotdPostedRepository postedRepository) {
+        this(questionRepository, submissionRepository, postedRepository, Ticker.systemTicker(), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Visible for tests: allows a fake ticker and a controllable executor for rebuilds.
+     */
+    public QotdNearDuplicateIndex(QotdQuestionRepository questionRepository, QotdSubmissionRepository submissionRepository,
+                                  QotdPostedRepository postedRepository, Ticker ticker, Executor rebuildExecutor) {
+        this.questionRepository = questionRepository;
+        this.submissionRepository = submissionRepository;
+        this.postedRepository = postedRepository;
+        this.guilds = Caffeine.newBuilder()
+                .ticker(ticker)
+                .executor(rebuildExecutor)
+                .maximumSize(MAX_GUILDS)
+                .refreshAfterWrite(REBUILD_AFTER)
+                .build(this::load);
+    }
+
+    /**
+     * Most similar question, pending submission or recent post in the guild at or above {@link #THRESHOLD}.
+     *
+     * @param excludeSubmissionId a submission to ignore (the one being checked), or null
+     */
+    public Optional<Match> findSimilar(String guildId, String text, Long excludeSubmissionId) {
+        Key exclude = excludeSubmissionId != null ? new Key(Source.SUBMISSION, excludeSubmissionId) : null;
+        return Optional.ofNullable(index(guildId).best(text, exclude));
+    }
+
+    public void questionAdded(String guildId, Long questionId, String text) {
+        AfterCommit.run(() -> update(guildId, index -> index.put(new Key(Source.QUESTION, questionId), text)));
+    }
+
+    public void questionRemoved(String guildId, Long questionId) {
+        AfterCommit.run(() -> update(guildId, index -> index.remove(new Key(Source.QUESTION, questionId))));
+    }
+
+    /** A question was posted: it leaves the queue and is indexed from the archive instead. */
+    public void questionPosted(String guildId, Long questionId, Long postedId, String text) {
+        AfterCommit.run(() -> update(guildId, index -> {
+            index.remove(new Key(Source.QUESTION, questionId));
+            index.put(new Key(Source.POSTED, postedId), text);
+        }));
+    }
+
+    public void submissionAdded(String guildId, Long submissionId, String text) {
+        AfterCommit.run(() -> update(guildId, index -> index.put(new Key(Source.SUBMISSION, submissionId), text)));
+    }
+
+    public void submissionRemoved(String guildId, Long submissionId) {
+        AfterCommit.run(() -> update(guildId, index -> index.remove(new Key(Source.SUBMISSION, submissionId))));
+    }
+
+    /**
+     * Rebuild a loaded guild index in the background after a bulk change (CSV import, stream deletion).
+     */
+    public void rebuild(String guildId) {
+        AfterCommit.run(() -> {
+            if (guilds.asMap().containsKey(guildId)) {
+                guilds.refresh(guildId);
+            }
+        });
+    }
+
+    private GuildIndex index(String guildId) {
+        return guilds.get(guildId);
+    }
+
+    private GuildIndex load(String guildId) {
+        GuildIndex index = new GuildIndex();
+        for (QotdQuestionRepository.QuestionText question : questionRepository.findTextByGuildId(guildId)) {
+            index.put(new Key(Source.QUESTION, question.getId()), question.getText());
+        }
+        for (QotdSubmission submission : submissionRepository.findByGuildIdAndStatusOrderByCreatedAtAsc(
+                guildId, QotdSubmission.Status.PENDING)) {
+            index.put(new Key(Source.SUBMISSION, submission.getId()), submission.getText());
+        }
+        for (QotdQuestionRepository.QuestionText posted : postedRepository.findTextByGuildIdPostedSince(
+                guildId, Instant.now().minus(RECENT_POSTED))) {
+            index.put(new Key(Source.POSTED, posted.getId()), posted.getText());
+        }
+        return index;
+    }
+
+    /** Apply a change to a loaded index; unloaded guilds pick it up when they are built. */
+    private void update(String guildId, Consumer<GuildIndex> change) {
+        GuildIndex index = guilds.asMap().get(guildId);
+        if (index != null) {
+            change.accept(index);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.discordbot.web.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Runs QOTD posts on a bounded executor while capping how many run at once per guild and per
+ * channel, so a popular cron fans out across guilds without bursting any single Discord route.
+ *
+ * Behavior:
+ * - A post whose guild or channel is at its cap waits in a FIFO queue instead of occupying a
+ *   worker; it is started as soon as a post on the same guild/channel finishes
+ * - Posts for other guilds/channels overtake a blocked one, so one busy guild can't stall the rest
+ * - Lateness (start time minus cron fire time) of every post is logged and aggregated
+ */
+public final class QotdPostDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(QotdPostDispatcher.class);
+
+    /** Aggregate lateness of the posts started so far. */
+    public record LatenessStats(long posts, Duration max, Duration mean) {}
+
+    private record Task(long streamId, String guildId, String channelId, Runnable post) {}
+
+    private final Executor executor;
+    private final Clock clock;
+    private final int perGuild;
+    private final int perChannel;
+
+    private final Deque<Task> waiting = new ArrayDeque<>();
+    private final Map<String, Integer> activeByGuild = new HashMap<>();
+    private final Map<String, Integer> activeByChannel = new HashMap<>();
+
+    private long posts;
+    private long totalLatenessMs;
+    private long maxLatenessMs;
+
+    public QotdPostDispatcher(Executor executor, Clock clock, int perGuild, int perChannel) {
+        this.executor = executor;
+        this.clock = clock;
+        this.perGuild = perGuild;
+        this.perChannel = perChannel;
+    }
+
+    /**
+     * Queue a post; it starts once its guild and channel are under their caps.
+     *
+     * @param scheduledAt the cron fire time the post belongs to; lateness is measured against it
+     */
+    public void submit(long streamId, String guildId, String channelId, Instant scheduledAt, Runnable post) {
+        Runnable timed = () -> {
+            recordLateness(streamId, Duration.between(scheduledAt, clock.instant()));
+            post.run();
+        };
+        synchronized (this) {
+            waiting.add(new Task(streamId, guildId, channelId, timed));
+        }
+        drain();
+    }
+
+    /**
+     * Number of posts waiting for a guild or channel slot.
+     */
+    public synchronized int waitingCount() {
+        return waiting.size();
+    }
+
+    public synchronized LatenessStats latenessStats() {
+        return new LatenessStats(posts, Duration.ofMillis(maxLatenessMs),
+                Duration.ofMillis(posts == 0 ? 0 : totalLatenessMs / posts));
+    }
+
+    private void drain() {
+        while (true) {
+            Task next;
+            synchronized (this) {
+                next = takeRunnable();
+                if (next == null) {
+                    return;
+                }
+                activeByGuild.merge(next.guildId(), 1, Integer::sum);
+                activeByChannel.merge(next.channelId(), 1, Integer::sum);
+            }
+            Task task = next;
+            try {
+                executor.execute(() -> {
+                    try {
+                        task.post().run();
+                    } finally {
+                        release(task);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                logger.warn("QOTD post for stream {} rejected (shutting down?)", task.streamId());
+                synchronized (this) {
+                    decrement(task);
+                }
+                return;
+            }
+        }
+    }
+
+    /** First waiting task whose guild and channel both have a free slot (caller holds the lock). */
+    private Task takeRunnable() {
+        Iterator<Task> it = waiting.iterator();
+        while (it.hasNext()) {
+            Task task = it.next();
+            if (activeByGuild.getOrDefault(task.guildId(), 0) < perGuild
+                    && activeByChannel.getOrDefault(task.channelId(), 0) < perChannel) {
+                it.remove();
+                return task;
+            }
+        }
+        return null;
+    }
+
+    private void release(Task task) {
+        synchronized (this) {
+            decrement(task);
+        }
+        drain();
+    }
+
+    private void decrement(Task task) {
+        activeByGuild.computeIfPresent(task.guildId(), (k, v) -> v > 1 ? v - 1 : null);
+        activeByChannel.computeIfPresent(task.channelId(), (k, v) -> v > 1 ? v - 1 : null);
+    }
+
+    private void recordLateness(long streamId, Duration lateness) {
+        long ms = Math.max(0, lateness.toMillis());
+        synchronized (this) {
+            posts++;
+            totalLatenessMs += ms;
+            maxLatenessMs = Math.max(maxLatenessMs, ms);
+        }
+        logger.info("QOTD post for stream {} started {} ms after its scheduled time", streamId, ms);
+    }
+}
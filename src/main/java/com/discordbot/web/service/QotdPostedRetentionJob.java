@@ -0,0 +1,83 @@
+package com.discordbot.web.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Prunes the posted-question archive ({@code qotd_posted}) past {@link #RETENTION}, in bounded
+ * chunks so a large backlog never turns into one long-running DELETE.
+ *
+ * Each chunk selects the oldest expired ids through the posted_at index and deletes them in one
+ * batch; the archive has no foreign keys, so nothing else is touched. The live queue
+ * ({@code qotd_questions}) never reads this table.
+ */
+@Component
+public class QotdPostedRetentionJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(QotdPostedRetentionJob.class);
+
+    static final Duration RETENTION = Duration.ofDays(365);
+    static final int CHUNK_SIZE = 500;
+    static final int MAX_CHUNKS_PER_RUN = 20;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Clock clock;
+
+    @Autowired
+    public QotdPostedRetentionJob(JdbcTemplate jdbcTemplate) {
+        this(jdbcTemplate, Clock.systemUTC());
+    }
+
+    /**
+     * Visible for tests: allows a fixed clock.
+     */
+    public QotdPostedRetentionJob(JdbcTemplate jdbcTemplate, Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.clock = clock;
+    }
+
+    @Scheduled(cron = "0 15 * * * *")
+    public void pruneExpiredPosts() {
+        int deleted = purgeExpired();
+        if (deleted > 0) {
+            logger.info("Pruned {} archived QOTD post(s) older than {} days", deleted, RETENTION.toDays());
+        }
+    }
+
+    /**
+     * Delete expired archive rows chunk by chunk; returns the number deleted this run.
+     */
+    public int purgeExpired() {
+        Timestamp cutoff = Timestamp.from(clock.instant().minus(RETENTION));
+        int total = 0;
+        for (int chunk = 0; chunk < MAX_CHUNKS_PER_RUN; chunk++) {
+            List<Long> expired = jdbcTemplate.queryForList(
+                "SELECT id FROM qotd_posted WHERE posted_at < ? ORDER BY posted_at FETCH FIRST " + CHUNK_SIZE + " ROWS ONLY",
+                Long.class, cutoff);
+            if (expired.isEmpty()) {
+                break;
+            }
+
+            int[] results = jdbcTemplate.batchUpdate(
+                "DELETE FROM qotd_posted WHERE id = ?",
+                expired.stream().map(id -> new Object[]{id}).toList());
+            for (int r : results) {
+                total += Math.max(r, 0);
+            }
+
+            if (expired.size() < CHUNK_SIZE) {
+                break;
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,74 @@
+package com.discordbot.web.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Single-pass parser for QOTD question CSV uploads (question[,author_username[,author_userid]]).
+ *
+ * <p>Rows stream through {@link CsvBatchParser} (RFC 4180: quoted commas, doubled quotes and line
+ * breaks inside quotes): validated as they are read and handed to the caller in batches, with invalid
+ * rows reported by line number and skipped.</p>
+ *
+ * <p>The first non-blank record is the header (as in example-qotd.csv) and is always skipped; blank
+ * lines are ignored.</p>
+ */
+public final class QotdQuestionCsvParser {
+
+    public static final int DEFAULT_BATCH_SIZE = 500;
+
+    static final int MAX_TEXT_LENGTH = 2000;
+    static final int MAX_AUTHOR_LENGTH = 255;
+
+    /** A validated question row; author fields are null when absent. */
+    public record Question(String text, String authorUsername, String authorUserId) {}
+
+    private static final CsvBatchParser.RowFormat<Question> FORMAT = new CsvBatchParser.RowFormat<>() {
+        @Override
+        public boolean skip(CsvReader.Row row) {
+            return row.isBlank();
+        }
+
+        @Override
+        public boolean isHeader(CsvReader.Row row) {
+            return true;
+        }
+
+        @Override
+        public String validate(CsvReader.Row row) {
+            return QotdQuestionCsvParser.validate(row);
+        }
+
+        @Override
+        public Question convert(CsvReader.Row row) {
+            return new Question(row.field(0), emptyToNull(row.field(1)), emptyToNull(row.field(2)));
+        }
+    };
+
+    private QotdQuestionCsvParser() {}
+
+    /**
+     * Parse a question CSV, delivering validated rows to {@code sink} in batches of up to {@code batchSize}.
+     */
+    public static CsvBatchParser.Result parse(InputStream in, int batchSize, Consumer<List<Question>> sink) throws IOException {
+        return CsvBatchParser.parse(in, batchSize, 0, "questions", FORMAT, sink);
+    }
+
+    /** Validation error for a row, or null if it is valid. */
+    private static String validate(CsvReader.Row row) {
+        String text = row.field(0);
+        if (text.isEmpty() || text.length() > MAX_TEXT_LENGTH) {
+            return "Invalid question length";
+        }
+        if (row.field(1).length() > MAX_AUTHOR_LENGTH || row.field(2).length() > MAX_AUTHOR_LENGTH) {
+            return "Author fields must be at most " + MAX_AUTHOR_LENGTH + " characters";
+        }
+        return null;
+    }
+
+    private static String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+}
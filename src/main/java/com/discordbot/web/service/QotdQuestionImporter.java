@@ -0,0 +1,139 @@
+package com.discordbot.web.service;
+
+import com.discordbot.entity.QotdQuestion;
+import com.discordbot.entity.QotdStream;
+import com.discordbot.repository.QotdQuestionRepository;
+import com.discordbot.web.service.QotdQuestionCsvParser.Question;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Bulk import of QOTD questions from CSV.
+ *
+ * Behavior:
+ * - The file is parsed in one pass by {@link QotdQuestionCsvParser}; each batch of valid rows is
+ *   written with one JDBC batch insert, so memory is bounded by the batch and no entities are
+ *   left in the persistence context (nothing is carried from one batch to the next)
+ * - Rows go through JdbcTemplate rather than {@code save()}: questions use IDENTITY ids, which
+ *   stop Hibernate from batching inserts
+ * - Each batch reserves its block of display orders ({@link QotdQuestionOrdering#GAP} apart) after
+ *   the stream's current last question, preserving file order
+ * - Questions whose normalized text is already in the stream, or earlier in the same file, are
+ *   skipped and counted as duplicates (one indexed hash lookup per batch; earlier batches are
+ *   already inserted in this transaction, so the lookup covers them too)
+ * - Runs in the caller's transaction; an upload is all-or-nothing at the database level
+ */
+@Component
+public class QotdQuestionImporter {
+
+    private static final Logger log = LoggerFactory.getLogger(QotdQuestionImporter.class);
+
+    static final int BATCH_SIZE = QotdQuestionCsvParser.DEFAULT_BATCH_SIZE;
+
+    /**
+     * Outcome of an import.
+     *
+     * @param imported   questions inserted
+     * @param duplicates valid rows skipped because the question was already in the stream or the file
+     * @param invalid    rows rejected by the parser
+     * @param errors     parser messages for rejected rows
+     */
+    public record Result(int imported, int duplicates, int invalid, List<String> errors) {}
+
+    private static final String INSERT_SQL = """
+            INSERT INTO qotd_questions
+                (guild_id, channel_id, stream_id, text, text_hash, author_user_id, author_username, display_order, created_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final QotdQuestionRepository questionRepository;
+
+    public QotdQuestionImporter(JdbcTemplate jdbcTemplate, QotdQuestionRepository questionRepository) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.questionRepository = questionRepository;
+    }
+
+    /**
+     * Append the questions in a CSV file to the end of a stream's queue.
+     */
+    public Result importCsv(QotdStream stream, InputStream in) throws IOException {
+        long started = System.nanoTime();
+        Timestamp createdAt = Timestamp.from(Instant.now());
+        int[] imported = new int[1];
+        CsvBatchParser.Result parsed = QotdQuestionCsvParser.parse(in, BATCH_SIZE,
+                batch -> imported[0] += insertBatch(stream, batch, createdAt));
+        Result result = new Result(imported[0], parsed.validRows() - imported[0], parsed.invalidRows(), parsed.errors());
+        log.info("Imported {} questions into stream {} ({} duplicates, {} invalid rows) in {} ms",
+                result.imported(), stream.getId(), result.duplicates(), result.invalid(),
+                (System.nanoTime() - started) / 1_000_000);
+        return result;
+    }
+
+    /** Insert the rows of {@code parsed} not already in the stream or earlier in the batch; returns the number inserted. */
+    private int insertBatch(QotdStream stream, List<Question> parsed, Timestamp createdAt) {
+        Set<String> seen = new HashSet<>(parsed.size() * 2);
+        List<Question> unseen = new ArrayList<>(parsed.size());
+        List<String> unseenHashes = new ArrayList<>(parsed.size());
+        for (Question question : parsed) {
+            String hash = QotdQuestion.hashText(question.text());
+            if (seen.add(hash)) {
+                unseen.add(question);
+                unseenHashes.add(hash);
+            }
+        }
+        if (unseen.isEmpty()) {
+            return 0;
+        }
+
+        Set<String> existing = new HashSet<>(questionRepository.findTextHashes(stream.getId(), unseenHashes));
+        List<Question> batch = new ArrayList<>(unseen.size());
+        List<String> hashes = new ArrayList<>(unseen.size());
+        for (int i = 0; i < unseen.size(); i++) {
+            if (!existing.contains(unseenHashes.get(i))) {
+                batch.add(unseen.get(i));
+                hashes.add(unseenHashes.get(i));
+            }
+        }
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        int firstOrder = QotdQuestionOrdering.reserveAppend(questionRepository, stream.getId(), batch.size());
+        jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Question question = batch.get(i);
+                ps.setString(1, stream.getGuildId());
+                ps.setString(2, stream.getChannelId());
+                ps.setLong(3, stream.getId());
+                ps.setString(4, question.text());
+                ps.setString(5, hashes.get(i));
+                ps.setString(6, question.authorUserId());
+                ps.setString(7, question.authorUsername());
+                ps.setInt(8, firstOrder + i * QotdQuestionOrdering.GAP);
+                ps.setTimestamp(9, createdAt);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return batch.size();
+            }
+        });
+        return batch.size();
+    }
+}
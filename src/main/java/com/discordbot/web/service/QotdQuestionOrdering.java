@@ -0,0 +1,225 @@
+package com.discordbot.web.service;
+
+import com.discordbot.repository.QotdQuestionRepository;
+import com.discordbot.repository.QotdQuestionRepository.QuestionOrder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Sparse {@code display_order} values for QOTD questions.
+ *
+ * Behavior:
+ * - Questions are spaced {@link #GAP} apart, so an append is {@code MAX(display_order) + GAP} (one
+ *   aggregate query) and a moved question takes a value between its new neighbours
+ * - A reorder keeps the longest run of questions already in the requested relative order where
+ *   they are and writes only the rest, so moving one question in a large stream updates one row
+ * - The stream is respaced only when a gap is used up or appends approach the int range;
+ *   legacy dense values (1, 2, 3, ...) are respaced the first time a move needs room between them
+ */
+public final class QotdQuestionOrdering {
+
+    private static final Logger log = LoggerFactory.getLogger(QotdQuestionOrdering.class);
+
+    public static final int GAP = 1024;
+
+    private QotdQuestionOrdering() {}
+
+    /**
+     * Display order for one question appended to the end of a stream's queue.
+     */
+    public static int nextAppendOrder(QotdQuestionRepository repository, Long streamId) {
+        return reserveAppend(repository, streamId, 1);
+    }
+
+    /**
+     * First of {@code count} display orders, {@link #GAP} apart, for questions appended to a stream.
+     * Respaces the stream first if the values would overflow.
+     */
+    public static int reserveAppend(QotdQuestionRepository repository, Long streamId, int count) {
+        long first = appendStart(repository.findMaxDisplayOrder(streamId));
+        if (first + (long) GAP * Math.max(0, count - 1) > Integer.MAX_VALUE) {
+            renumber(repository, streamId);
+            first = appendStart(repository.findMaxDisplayOrder(streamId));
+            if (first + (long) GAP * Math.max(0, count - 1) > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Too many questions in stream " + streamId);
+            }
+        }
+        return (int) first;
+    }
+
+    private static long appendStart(Integer max) {
+        return max == null ? GAP : (long) max + GAP;
+    }
+
+    /**
+     * Put a stream's questions in the given order, writing only the rows that have to move.
+     * Ids not in the stream are ignored; questions missing from {@code orderedIds} keep their
+     * relative order after the listed ones.
+     *
+     * @return number of rows written
+     */
+    public static int reorder(QotdQuestionRepository repository, Long streamId, List<Long> orderedIds) {
+        List<QuestionOrder> current = repository.findOrderByStreamId(streamId);
+        List<Long> currentIds = new ArrayList<>(current.size());
+        int[] currentOrders = new int[current.size()];
+        for (int i = 0; i < current.size(); i++) {
+            currentIds.add(current.get(i).getId());
+            currentOrders[i] = current.get(i).getDisplayOrder();
+        }
+
+        Set<Long> known = new LinkedHashSet<>(currentIds);
+        Set<Long> desired = new LinkedHashSet<>();
+        for (Long id : orderedIds) {
+            if (known.contains(id)) {
+                desired.add(id);
+            }
+        }
+        desired.addAll(known);
+
+        Map<Long, Integer> moves = planMoves(currentIds, currentOrders, new ArrayList<>(desired));
+        if (moves == null) {
+            log.info("Respacing display order of stream {} ({} questions)", streamId, currentIds.size());
+            moves = respace(currentIds, currentOrders, new ArrayList<>(desired));
+        }
+        moves.forEach((id, order) -> repository.updateDisplayOrder(id, streamId, order));
+        return moves.size();
+    }
+
+    /**
+     * Respace a stream's questions {@link #GAP} apart in their current order.
+     *
+     * @return number of rows written
+     */
+    public static int renumber(QotdQuestionRepository repository, Long streamId) {
+        List<QuestionOrder> current = repository.findOrderByStreamId(streamId);
+        List<Long> ids = new ArrayList<>(current.size());
+        int[] orders = new int[current.size()];
+        for (int i = 0; i < current.size(); i++) {
+            ids.add(current.get(i).getId());
+            orders[i] = current.get(i).getDisplayOrder();
+        }
+        Map<Long, Integer> moves = respace(ids, orders, ids);
+        moves.forEach((id, order) -> repository.updateDisplayOrder(id, streamId, order));
+        log.info("Respaced display order of stream {}: {} of {} rows rewritten", streamId, moves.size(), ids.size());
+        return moves.size();
+    }
+
+    /**
+     * Minimal display-order changes that turn the current order into {@code desired}, or null if
+     * some moved question has no free value between its new neighbours (the caller respaces).
+     *
+     * @param currentIds    question ids in current order
+     * @param currentOrders their display orders (non-decreasing)
+     * @param desired       the same ids in the requested order
+     */
+    public static Map<Long, Integer> planMoves(List<Long> currentIds, int[] currentOrders, List<Long> desired) {
+        int n = desired.size();
+        Map<Long, Integer> rankOf = new HashMap<>();
+        for (int i = 0; i < currentIds.size(); i++) {
+            rankOf.put(currentIds.get(i), i);
+        }
+        int[] ranks = new int[n];
+        for (int i = 0; i < n; i++) {
+            ranks[i] = rankOf.get(desired.get(i));
+        }
+        boolean[] keep = longestIncreasing(ranks);
+
+        Map<Long, Integer> moves = new LinkedHashMap<>();
+        Long prev = null; // Display order of the previous question in the new order
+        int i = 0;
+        while (i < n) {
+            if (keep[i]) {
+                prev = (long) currentOrders[ranks[i]];
+                i++;
+                continue;
+            }
+            int runEnd = i;
+            while (runEnd < n && !keep[runEnd]) {
+                runEnd++;
+            }
+            int k = runEnd - i;
+            Long next = runEnd < n ? (long) currentOrders[ranks[runEnd]] : null;
+
+            long start;
+            long step;
+            if (prev != null && next != null) {
+                step = (next - prev) / (k + 1);
+                if (step < 1) {
+                    return null;
+                }
+                start = prev + step;
+            } else if (next != null) {
+                step = GAP;
+                start = next - (long) GAP * k;
+            } else {
+                step = GAP;
+                start = prev + GAP;
+            }
+            long last = start + step * (k - 1);
+            if (start < Integer.MIN_VALUE || last > Integer.MAX_VALUE) {
+                return null;
+            }
+            for (int m = 0; m < k; m++) {
+                int order = (int) (start + step * m);
+                int rank = ranks[i + m];
+                if (currentOrders[rank] != order) {
+                    moves.put(desired.get(i + m), order);
+                }
+            }
+            prev = last;
+            i = runEnd;
+        }
+        return moves;
+    }
+
+    /** Changes that space {@code desired} {@link #GAP} apart starting at GAP. */
+    private static Map<Long, Integer> respace(List<Long> currentIds, int[] currentOrders, List<Long> desired) {
+        Map<Long, Integer> currentOrder = new HashMap<>();
+        for (int i = 0; i < currentIds.size(); i++) {
+            currentOrder.put(currentIds.get(i), currentOrders[i]);
+        }
+        Map<Long, Integer> moves = new LinkedHashMap<>();
+        for (int i = 0; i < desired.size(); i++) {
+            int order = Math.multiplyExact(i + 1, GAP);
+            if (currentOrder.get(desired.get(i)) != order) {
+                moves.put(desired.get(i), order);
+            }
+        }
+        return moves;
+    }
+
+    /** Marks one longest strictly increasing subsequence of {@code values} (patience sorting, O(n log n)). */
+    static boolean[] longestIncreasing(int[] values) {
+        int n = values.length;
+        int[] tailIndex = new int[n];
+        int[] tails = new int[n];
+        int[] parent = new int[n];
+        int length = 0;
+        for (int i = 0; i < n; i++) {
+            int pos = Arrays.binarySearch(tails, 0, length, values[i]);
+            if (pos < 0) {
+                pos = -pos - 1;
+            }
+            tails[pos] = values[i];
+            tailIndex[pos] = i;
+            parent[i] = pos > 0 ? tailIndex[pos - 1] : -1;
+            if (pos == length) {
+                length++;
+            }
+        }
+        boolean[] keep = new boolean[n];
+        for (int i = length > 0 ? tailIndex[length - 1] : -1; i >= 0; i = parent[i]) {
+            keep[i] = true;
+        }
+        return keep;
+    }
+}
@@ -0,0 +1,256 @@
+package com.discordbot.web.service;
+
+import com.discordbot.entity.QotdStream;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * In-memory mirror of the stored next fire instant ({@code qotd_streams.next_run_at}) of every
+ * enabled, scheduled QOTD stream, plus the shared compiled-cron cache.
+ *
+ * Behavior:
+ * - Cron expressions are compiled once (cached by expression + time zone), not per tick or per DTO;
+ *   each compiled expression also memoizes its upcoming run list until the first run passes
+ * - {@link #nextRunAt} is the single rule for a stream's next fire; it is persisted whenever a
+ *   stream is saved or posted, and the scheduler selects due streams by that column
+ * - The earliest fire instant is a heap peek, used to arm the scheduler's timer without querying;
+ *   QotdStreamService keeps it current on create/update/delete/post (applied after commit) and
+ *   superseded heap entries are discarded lazily when they reach the head
+ * - A stream fires at most once per {@link #MIN_POST_INTERVAL}, matching the old duplicate-post guard
+ */
+@Component
+public class QotdSchedule {
+
+    private static final Logger logger = LoggerFactory.getLogger(QotdSchedule.class);
+
+    static final Duration MIN_POST_INTERVAL = Duration.ofMinutes(2);
+    private static final int COMPILED_CACHE_SIZE = 1024;
+
+    /**
+     * A parsed cron expression bound to its time zone.
+     */
+    public static final class CompiledCron {
+        private final CronExpression cron;
+        private final ZoneId zone;
+        // Shared by every stream on this schedule; recomputed once its first run has passed
+        private volatile List<Instant> upcoming = List.of();
+
+        private CompiledCron(CronExpression cron, ZoneId zone) {
+            this.cron = cron;
+            this.zone = zone;
+        }
+
+        /** First fire instant strictly after {@code after}, or null if the expression never fires again. */
+        public Instant next(Instant after) {
+            ZonedDateTime next = cron.next(after.atZone(zone));
+            return next == null ? null : next.toInstant();
+        }
+
+        /** Up to {@code count} fire instants after {@code now}. */
+        public List<Instant> upcoming(Instant now, int count) {
+            List<Instant> runs = upcoming;
+            if (runs.size() >= count && runs.get(0).isAfter(now)) {
+                return runs.size() == count ? runs : runs.subList(0, count);
+            }
+            List<Instant> computed = new ArrayList<>(count);
+            Instant current = now;
+            while (computed.size() < count && (current = next(current)) != null) {
+                computed.add(current);
+            }
+            runs = List.copyOf(computed);
+            upcoming = runs;
+            return runs;
+        }
+    }
+
+    private record CronKey(String cron, String timezone) {}
+
+    private static final Cache<CronKey, CompiledCron> COMPILED = Caffeine.newBuilder()
+            .maximumSize(COMPILED_CACHE_SIZE)
+            .build();
+
+    /** One scheduled fire; replaced (not mutated) when the stream is rescheduled. */
+    private record Entry(long streamId, Instant fireAt) {}
+
+    private final PriorityQueue<Entry> queue = new PriorityQueue<>(
+            Comparator.comparing(Entry::fireAt).thenComparingLong(Entry::streamId));
+    private final Map<Long, Entry> current = new HashMap<>();
+    private final List<Runnable> changeListeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Compile a stream cron expression (cached). A null or blank time zone means UTC.
+     *
+     * @throws IllegalArgumentException if the expression or time zone is invalid
+     */
+    public static CompiledCron compile(String cron, String timezone) {
+        String zone = timezone == null || timezone.isBlank() ? "UTC" : timezone;
+        return COMPILED.get(new CronKey(cron, zone), key -> {
+            try {
+                return new CompiledCron(CronExpression.parse(key.cron()), ZoneId.of(key.timezone()));
+            } catch (java.time.DateTimeException e) {
+                throw new IllegalArgumentException("Invalid time zone: " + key.timezone(), e);
+            }
+        });
+    }
+
+    /**
+     * Register a callback run whenever the earliest fire instant may have changed.
+     */
+    public void onChange(Runnable listener) {
+        changeListeners.add(listener);
+    }
+
+    /**
+     * Next fire instant for a stream's current settings, strictly after {@code after}: null when the
+     * stream is disabled, unscheduled or has an invalid schedule, and never within
+     * {@link #MIN_POST_INTERVAL} of its last post.
+     */
+    public static Instant nextRunAt(QotdStream stream, Instant after) {
+        if (!Boolean.TRUE.equals(stream.getEnabled())
+                || stream.getScheduleCron() == null || stream.getScheduleCron().isBlank()) {
+            return null;
+        }
+        CompiledCron compiled;
+        try {
+            compiled = compile(stream.getScheduleCron(), stream.getTimezone());
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid cron for stream {}: {}", stream.getId(), e.getMessage());
+            return null;
+        }
+        if (stream.getLastPostedAt() != null) {
+            Instant windowEnd = stream.getLastPostedAt().plus(MIN_POST_INTERVAL).minusSeconds(1);
+            if (windowEnd.isAfter(after)) {
+                after = windowEnd;
+            }
+        }
+        return compiled.next(after);
+    }
+
+    /**
+     * Rebuild the queue from the given streams' stored next run instants.
+     */
+    public void replaceAll(Collection<QotdStream> streams) {
+        synchronized (this) {
+            queue.clear();
+            current.clear();
+            for (QotdStream stream : streams) {
+                put(stream);
+            }
+        }
+        logger.info("QOTD schedule loaded: {} stream(s), next fire at {}", size(), nextFireAt());
+        notifyChanged();
+    }
+
+    /**
+     * Track a stream's stored next run (removing it if null). Inside a transaction this applies after commit.
+     */
+    public void upsert(QotdStream stream) {
+        AfterCommit.run(() -> {
+            synchronized (this) {
+                put(stream);
+            }
+            notifyChanged();
+        });
+    }
+
+    /**
+     * Stop scheduling a stream. Inside a transaction this applies after commit.
+     */
+    public void remove(Long streamId) {
+        AfterCommit.run(() -> {
+            synchronized (this) {
+                current.remove(streamId);
+            }
+            notifyChanged();
+        });
+    }
+
+    /**
+     * Earliest pending fire instant, or null if nothing is scheduled.
+     */
+    public synchronized Instant nextFireAt() {
+        while (!queue.isEmpty() && current.get(queue.peek().streamId()) != queue.peek()) {
+            queue.poll();
+        }
+        return queue.isEmpty() ? null : queue.peek().fireAt();
+    }
+
+    /**
+     * Streams whose mirrored fire instant is at or before {@code now}.
+     */
+    public synchronized List<Long> dueIds(Instant now) {
+        List<Long> due = new ArrayList<>();
+        List<Entry> live = new ArrayList<>();
+        while (!queue.isEmpty() && !queue.peek().fireAt().isAfter(now)) {
+            Entry entry = queue.poll();
+            if (current.get(entry.streamId()) == entry) {
+                due.add(entry.streamId());
+                live.add(entry);
+            }
+        }
+        queue.addAll(live);
+        return due;
+    }
+
+    /**
+     * Next fire instant of one stream, or null if it isn't scheduled.
+     */
+    public synchronized Instant nextFireAt(Long streamId) {
+        Entry entry = current.get(streamId);
+        return entry == null ? null : entry.fireAt();
+    }
+
+    /**
+     * Number of scheduled streams.
+     */
+    public synchronized int size() {
+        return current.size();
+    }
+
+    private void put(QotdStream stream) {
+        Long id = stream.getId();
+        if (id == null) {
+            return;
+        }
+        Instant fireAt = Boolean.TRUE.equals(stream.getEnabled()) ? stream.getNextRunAt() : null;
+        if (fireAt == null) {
+            current.remove(id);
+            return;
+        }
+        Entry entry = new Entry(id, fireAt);
+        current.put(id, entry);
+        queue.add(entry);
+        // Compact once superseded entries outnumber live ones (frequent edits to far-off schedules)
+        if (queue.size() > 2 * current.size() + 16) {
+            queue.clear();
+            queue.addAll(current.values());
+        }
+    }
+
+    private void notifyChanged() {
+        for (Runnable listener : changeListeners) {
+            try {
+                listener.run();
+            } catch (RuntimeException e) {
+                logger.warn("QOTD schedule listener failed: {}", e.getMessage());
+            }
+        }
+    }
+}
@@ -1,94 +1,421 @@
 package com.discordbot.web.service;
 
 import com.discordbot.entity.QotdStream;
+import com.discordbot.repository.QotdChannelSettingsRepository;
 import com.discordbot.repository.QotdStreamRepository;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
-import org.springframework.scheduling.support.CronExpression;
 
-import java.time.ZoneId;
-import java.time.ZonedDateTime;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Scheduler for QOTD posting.
  * Supports stream-based scheduling only (legacy config-based system deprecated).
+ *
+ * Behavior:
+ * - Each stream's next fire is stored in {@code next_run_at}; a tick selects only due rows
+ *   ({@code enabled AND next_run_at <= now}, indexed)
+ * - Safe to run on several instances sharing one database: a due firing is posted only by the
+ *   instance holding its {@link QotdStreamLeases lease}. The holder parks next_run_at at the lease
+ *   expiry while posting and advances it afterwards, so if the holder dies the row comes due again
+ *   and another instance takes the expired lease over
+ * - {@link QotdSchedule} mirrors the stored instants in memory; a single timer is armed for the
+ *   earliest one, so streams post when due and an idle scheduler does no per-stream work
+ * - The timer is re-armed whenever the schedule changes and wakes at least every
+ *   {@link #MAX_SLEEP}, which bounds how long a change made through another instance (or a
+ *   failover) can go unnoticed
+ * - Claimed posts are handed to {@link QotdPostDispatcher}: up to {@link #POST_WORKERS} run in
+ *   parallel, at most {@link #POSTS_PER_GUILD} per guild and {@link #POSTS_PER_CHANNEL} per channel,
+ *   so streams sharing a popular cron don't queue behind one another. A post only reserves its
+ *   question; {@link QotdDeliveryService} sends it and retries failures, so workers never wait on Discord
+ * - In channels that opt into coalesced posts, streams claimed in the same tick are dispatched as one
+ *   post: a single message with one embed per stream, acknowledged for all of them together
+ * - Runs missed by more than {@link #MISSED_RUN_GRACE} (e.g. while the bot was down) are skipped
+ *   rather than posted late; streams saved before next_run_at existed are backfilled on startup
  */
 @Component
 public class QotdScheduler {
     private static final Logger logger = LoggerFactory.getLogger(QotdScheduler.class);
 
+    static final Duration MAX_SLEEP = Duration.ofMinutes(1);
+    static final Duration MISSED_RUN_GRACE = Duration.ofMinutes(10);
+    static final int POST_WORKERS = 8;
+    static final int POSTS_PER_GUILD = 2;
+    static final int POSTS_PER_CHANNEL = 1;
+
     // Stream-based scheduling
     private final QotdStreamRepository streamRepository;
     private final QotdStreamService streamService;
+    private final QotdSchedule schedule;
+    private final QotdStreamLeases leases;
+    private final QotdChannelSettingsRepository channelSettingsRepository;
+    private final Clock clock;
+    private final ScheduledExecutorService timer;
+    private final Executor postExecutor;
+    private final QotdPostDispatcher dispatcher;
+
+    private final Object armLock = new Object();
+    private ScheduledFuture<?> armed;
+    private Instant armedFor;
+    private volatile boolean loaded;
+    private volatile boolean started;
+
+    @Autowired
+    public QotdScheduler(
+            QotdStreamRepository streamRepository,
+            QotdStreamService streamService,
+            QotdSchedule schedule,
+            QotdStreamLeases leases,
+            QotdChannelSettingsRepository channelSettingsRepository) {
+        this(streamRepository, streamService, schedule, leases, channelSettingsRepository, Clock.systemUTC(), Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "qotd-scheduler");
+            t.setDaemon(true);
+            return t;
+        }), newPostPool());
+    }
 
+    /**
+     * Visible for tests: supply a clock, a timer (null to drive {@link #tick()} manually) and the
+     * executor posts run on (e.g. the calling thread).
+     */
     public QotdScheduler(
             QotdStreamRepository streamRepository,
-            QotdStreamService streamService) {
+            QotdStreamService streamService,
+            QotdSchedule schedule,
+            QotdStreamLeases leases,
+            QotdChannelSettingsRepository channelSettingsRepository,
+            Clock clock,
+            ScheduledExecutorService timer,
+            Executor postExecutor) {
         this.streamRepository = streamRepository;
         this.streamService = streamService;
+        this.schedule = schedule;
+        this.leases = leases;
+        this.channelSettingsRepository = channelSettingsRepository;
+        this.clock = clock;
+        this.timer = timer;
+        this.postExecutor = postExecutor;
+        this.dispatcher = new QotdPostDispatcher(postExecutor, clock, POSTS_PER_GUILD, POSTS_PER_CHANNEL);
+        schedule.onChange(this::arm);
+    }
+
+    private static ExecutorService newPostPool() {
+        AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newFixedThreadPool(POST_WORKERS, r -> {
+            Thread t = new Thread(r, "qotd-post-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        started = true;
+        try {
+            ensureLoaded(clock.instant());
+        } catch (Exception e) {
+            // The first tick retries the load
+            logger.error("Failed to load QOTD schedule: {}", e.getMessage(), e);
+        } finally {
+            arm();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (timer != null) {
+            timer.shutdownNow();
+        }
+        if (postExecutor instanceof ExecutorService pool) {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Lateness of QOTD posts relative to their cron fire time, since startup.
+     */
+    public QotdPostDispatcher.LatenessStats latenessStats() {
+        return dispatcher.latenessStats();
     }
 
-    @Scheduled(cron = "0 * * * * *")
+    // A due firing this instance holds the lease for
+    private record Claimed(QotdStream stream, QotdStreamLeases.Lease lease) {}
+
+    /**
+     * Lease every stream that is due now and dispatch its post, then re-arm the timer for the next fire.
+     * The timer is re-armed even if the tick fails, so a database outage can't stop the scheduler.
+     */
     public void tick() {
-        tickStreams();
+        synchronized (armLock) {
+            armed = null; // This run consumes the pending wake-up
+        }
+        try {
+            Instant now = clock.instant();
+            ensureLoaded(now);
+
+            Set<Long> handled = new HashSet<>();
+            List<Claimed> claimed = new ArrayList<>();
+            for (QotdStream stream : streamRepository.findByEnabledTrueAndNextRunAtLessThanEqualOrderByNextRunAtAsc(now)) {
+                Long streamId = stream.getId();
+                handled.add(streamId);
+                try {
+                    Claimed claim = claim(stream, now);
+                    if (claim != null) {
+                        claimed.add(claim);
+                    }
+                } catch (Exception e) {
+                    logger.error("Failed to process stream {}: {}", streamId, e.getMessage(), e);
+                }
+            }
+            dispatch(claimed);
+            refreshStale(now, handled);
+        } catch (Exception e) {
+            logger.error("QOTD scheduler tick failed: {}", e.getMessage(), e);
+        } finally {
+            arm();
+        }
     }
 
     /**
-     * Process stream-based QOTD schedules.
-     * Each stream can have independent schedules within the same channel.
+     * Take the lease on a due firing and park the row; null if there is nothing for this instance to post.
      */
-    private void tickStreams() {
-        List<QotdStream> streams = streamRepository.findByEnabledTrue();
+    private Claimed claim(QotdStream stream, Instant now) {
+        Long streamId = stream.getId();
+        Instant due = stream.getNextRunAt();
+        QotdStreamLeases.Lease lease = leases.tryAcquire(streamId, due, now);
+        if (lease == null) {
+            // Another instance is posting this firing; look again when its lease would lapse
+            logger.debug("Stream {} firing at {} is leased by another instance", streamId, due);
+            Instant heldUntil = leases.heldUntil(streamId);
+            stream.setNextRunAt(heldUntil != null ? heldUntil : now.plus(MAX_SLEEP));
+            schedule.upsert(stream);
+            return null;
+        }
+        // Park the row at the lease expiry: not due while we post, due again if we die
+        if (streamRepository.advanceNextRun(streamId, due, lease.expiresAt()) == 0) {
+            logger.debug("Stream {} was rescheduled before its run at {} was claimed", streamId, due);
+            leases.release(streamId);
+            return null;
+        }
+        stream.setNextRunAt(lease.expiresAt());
+        schedule.upsert(stream);
+
+        Instant fireAt = lease.fireAt();
+        if (QotdSchedule.nextRunAt(stream, now) == null) {
+            logger.warn("Stream {} no longer has a valid schedule; cleared its next run", streamId);
+            finish(streamId, lease);
+            return null;
+        }
+        if (fireAt.isBefore(now.minus(MISSED_RUN_GRACE))) {
+            logger.info("Skipping missed QOTD run for stream {} (was due {})", streamId, fireAt);
+            finish(streamId, lease);
+            return null;
+        }
+        logger.info("QOTD due for stream {} ({}) in channel {} at {}",
+                streamId, stream.getStreamName(), stream.getChannelId(), fireAt);
+        return new Claimed(stream, lease);
+    }
+
+    /**
+     * Hand claimed firings to the dispatcher: one post per stream, or one per channel for channels
+     * that coalesce posts and have several streams due in this tick.
+     */
+    private void dispatch(List<Claimed> claimed) {
+        Map<String, List<Claimed>> byChannel = new LinkedHashMap<>();
+        for (Claimed claim : claimed) {
+            QotdStream stream = claim.stream();
+            byChannel.computeIfAbsent(stream.getGuildId() + "/" + stream.getChannelId(), k -> new ArrayList<>()).add(claim);
+        }
+        for (List<Claimed> group : byChannel.values()) {
+            if (group.size() > 1 && coalesces(group.get(0).stream())) {
+                dispatchTogether(group);
+            } else {
+                group.forEach(this::dispatchOne);
+            }
+        }
+    }
 
-        for (QotdStream stream : streams) {
-            if (stream.getScheduleCron() == null || stream.getScheduleCron().isBlank()) {
-                continue;
+    private boolean coalesces(QotdStream stream) {
+        try {
+            return channelSettingsRepository.existsByGuildIdAndChannelIdAndCoalescePostsTrue(
+                    stream.getGuildId(), stream.getChannelId());
+        } catch (Exception e) {
+            logger.warn("Failed to read QOTD settings of channel {}; posting streams separately: {}",
+                    stream.getChannelId(), e.getMessage());
+            return false;
+        }
+    }
+
+    private void dispatchOne(Claimed claim) {
+        QotdStream stream = claim.stream();
+        Long streamId = stream.getId();
+        dispatcher.submit(streamId, stream.getGuildId(), stream.getChannelId(), claim.lease().fireAt(), () -> {
+            try {
+                post(streamId);
+            } finally {
+                finish(streamId, claim.lease());
             }
+        });
+    }
 
+    private void dispatchTogether(List<Claimed> group) {
+        // Claims arrive in due order, so the first has the earliest fire time
+        Claimed first = group.get(0);
+        QotdStream lead = first.stream();
+        List<Long> streamIds = group.stream().map(c -> c.stream().getId()).sorted(Comparator.naturalOrder()).toList();
+        logger.info("Coalescing QOTD posts for streams {} in channel {}", streamIds, lead.getChannelId());
+        dispatcher.submit(lead.getId(), lead.getGuildId(), lead.getChannelId(), first.lease().fireAt(), () -> {
             try {
-                if (shouldPostNow(stream)) {
-                    logger.info("QOTD due for stream {} ({}) in channel {} at {}",
-                            stream.getId(), stream.getStreamName(), stream.getChannelId(), ZonedDateTime.now());
-                    streamService.postNextQuestion(stream.getId());
-                }
+                streamService.postNextQuestions(streamIds);
             } catch (Exception e) {
-                logger.error("Failed to process stream {}: {}", stream.getId(), e.getMessage(), e);
+                logger.error("Failed to post coalesced QOTD for streams {}: {}", streamIds, e.getMessage(), e);
+            } finally {
+                for (Claimed claim : group) {
+                    finish(claim.stream().getId(), claim.lease());
+                }
             }
+        });
+    }
+
+    private void post(Long streamId) {
+        try {
+            streamService.postNextQuestion(streamId);
+        } catch (IllegalArgumentException e) {
+            // Stream deleted between the query and the post
+            logger.warn("Dropping stream {} from schedule: {}", streamId, e.getMessage());
+            schedule.remove(streamId);
+        } catch (Exception e) {
+            logger.error("Failed to post QOTD for stream {}: {}", streamId, e.getMessage(), e);
         }
     }
 
     /**
-     * Check if a stream should post now based on cron schedule and last posted time.
+     * Move a leased stream from its parked instant to its real next run (unless a post or an edit
+     * already did), then release the lease.
      */
-    private boolean shouldPostNow(QotdStream stream) {
+    private void finish(Long streamId, QotdStreamLeases.Lease lease) {
         try {
-            CronExpression expr = CronExpression.parse(stream.getScheduleCron());
-            ZoneId zone = ZoneId.of(stream.getTimezone() != null ? stream.getTimezone() : "UTC");
-            ZonedDateTime now = ZonedDateTime.now(zone).withSecond(0).withNano(0);
-            ZonedDateTime last = now.minusMinutes(1);
-            ZonedDateTime nextAfterLast = expr.next(last);
-
-            if (nextAfterLast == null || nextAfterLast.isAfter(now)) {
-                return false; // Not due yet
+            QotdStream current = streamRepository.findById(streamId).orElse(null);
+            if (current == null) {
+                schedule.remove(streamId);
+                return;
+            }
+            if (lease.expiresAt().equals(current.getNextRunAt())) {
+                Instant next = QotdSchedule.nextRunAt(current, clock.instant());
+                streamRepository.advanceNextRun(streamId, lease.expiresAt(), next);
+                current.setNextRunAt(next);
             }
+            schedule.upsert(current);
+        } catch (Exception e) {
+            // The row stays parked; it comes due again when the lease lapses
+            logger.error("Failed to reschedule stream {}: {}", streamId, e.getMessage(), e);
+        } finally {
+            leases.release(streamId);
+        }
+    }
 
-            // Prevent duplicate posts within 2-minute window
-            if (stream.getLastPostedAt() != null) {
-                ZonedDateTime lastPosted = stream.getLastPostedAt().atZone(zone);
-                if (lastPosted.isAfter(now.minusMinutes(2))) {
-                    logger.debug("Stream {} already posted recently, skipping", stream.getId());
-                    return false;
-                }
+    /**
+     * Re-read streams the in-memory mirror thinks are due but the database didn't return (posted or
+     * edited through another instance), so a stale entry can't keep the timer firing immediately.
+     */
+    private void refreshStale(Instant now, Set<Long> handled) {
+        List<Long> stale = new ArrayList<>();
+        for (Long id : schedule.dueIds(now)) {
+            if (!handled.contains(id)) {
+                stale.add(id);
+            }
+        }
+        if (stale.isEmpty()) {
+            return;
+        }
+        Set<Long> found = new HashSet<>();
+        for (QotdStream stream : streamRepository.findAllById(stale)) {
+            found.add(stream.getId());
+            schedule.upsert(stream);
+        }
+        for (Long id : stale) {
+            if (!found.contains(id)) {
+                schedule.remove(id);
             }
+        }
+    }
 
-            return true;
+    private void ensureLoaded(Instant now) {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (!loaded) {
+                backfillNextRuns(now);
+                schedule.replaceAll(streamRepository.findByEnabledTrue());
+                loaded = true;
+            }
+        }
+    }
 
-        } catch (Exception e) {
-            logger.warn("Invalid cron for stream {}: {}", stream.getId(), e.getMessage());
-            return false;
+    /**
+     * Store next_run_at for streams saved before the column existed. A fire instant within the
+     * minute before startup still counts as due, matching the previous per-minute scan.
+     */
+    private void backfillNextRuns(Instant now) {
+        Instant catchUp = now.truncatedTo(ChronoUnit.MINUTES).minus(Duration.ofMinutes(1));
+        int filled = 0;
+        for (QotdStream stream : streamRepository.findByEnabledTrueAndNextRunAtIsNull()) {
+            Instant next = QotdSchedule.nextRunAt(stream, catchUp);
+            if (next != null) {
+                streamRepository.updateNextRun(stream.getId(), next);
+                filled++;
+            }
+        }
+        if (filled > 0) {
+            logger.info("Backfilled next_run_at for {} QOTD stream(s)", filled);
+        }
+    }
+
+    /**
+     * Point the timer at the earliest fire instant (no-op if it already is). Until the schedule has
+     * loaded this wakes after {@link #MAX_SLEEP} to retry.
+     */
+    private void arm() {
+        if (timer == null || !started) {
+            return;
+        }
+        Instant next = schedule.nextFireAt();
+        Instant now = clock.instant();
+        Instant wake = next == null || next.isAfter(now.plus(MAX_SLEEP)) ? now.plus(MAX_SLEEP) : next;
+
+        synchronized (armLock) {
+            if (armed != null && !armed.isDone()) {
+                if (!armedFor.isAfter(wake)) {
+                    return; // An earlier wake-up is pending; that tick re-arms
+                }
+                armed.cancel(false);
+            }
+            long delayMs = Math.max(0, Duration.between(now, wake).toMillis());
+            armedFor = wake;
+            armed = timer.schedule(this::tick, delayMs, TimeUnit.MILLISECONDS);
         }
     }
 }
@@ -0,0 +1,118 @@
+package com.discordbot.web.service;
+
+import com.discordbot.entity.QotdStreamLease;
+import com.discordbot.repository.QotdStreamLeaseRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+/**
+ * Per-stream scheduler leases in {@code qotd_stream_leases}, so that when several instances share
+ * the database exactly one of them posts each stream firing.
+ *
+ * Behavior:
+ * - A lease is taken with a single conditional insert/update, so racing instances can't both win;
+ *   the insert locks the stream row first and is then a no-op, never a constraint violation, when
+ *   another instance already holds the lease
+ * - Leases expire after {@link #LEASE_TTL}; an expired lease is taken over by whichever instance
+ *   next finds the stream due, which is how a firing fails over when its holder dies mid-post
+ * - On takeover of an unfinished firing the original cron time is kept, so lateness and the
+ *   missed-run grace period are judged against when the question was actually due
+ */
+@Component
+public class QotdStreamLeases {
+
+    private static final Logger logger = LoggerFactory.getLogger(QotdStreamLeases.class);
+
+    static final Duration LEASE_TTL = Duration.ofMinutes(5);
+
+    /** A held lease: the firing being posted and when the lease lapses. */
+    public record Lease(long streamId, Instant fireAt, Instant expiresAt) {}
+
+    private final QotdStreamLeaseRepository repository;
+    private final TransactionTemplate transactions;
+    private final String owner;
+
+    @Autowired
+    public QotdStreamLeases(QotdStreamLeaseRepository repository, PlatformTransactionManager transactionManager) {
+        this(repository, transactionManager, defaultOwner());
+    }
+
+    /**
+     * Visible for tests: supply the instance identity (one per simulated node).
+     */
+    public QotdStreamLeases(QotdStreamLeaseRepository repository, PlatformTransactionManager transactionManager,
+                            String owner) {
+        this.repository = repository;
+        this.transactions = new TransactionTemplate(transactionManager);
+        this.owner = owner;
+    }
+
+    /**
+     * Identity of this instance, for rows that record which instance holds them.
+     */
+    static String defaultOwner() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "node";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    public String owner() {
+        return owner;
+    }
+
+    /**
+     * Try to take the lease for a stream's due firing.
+     *
+     * @param due the stream's stored next run
+     * @return the lease, or null if another live instance holds it
+     */
+    public Lease tryAcquire(long streamId, Instant due, Instant now) {
+        // Whole seconds so the instant survives a round trip through any timestamp column
+        Instant expiresAt = now.plus(LEASE_TTL).truncatedTo(ChronoUnit.SECONDS);
+        QotdStreamLease existing = repository.findById(streamId).orElse(null);
+        if (existing == null) {
+            // 0: another instance inserted first (or the stream was just deleted)
+            Integer inserted = transactions.execute(status -> repository.lockStream(streamId) == null
+                ? 0 : repository.insertIfAbsent(streamId, owner, due, expiresAt));
+            return inserted != null && inserted == 1 ? new Lease(streamId, due, expiresAt) : null;
+        }
+        if (existing.getExpiresAt().isAfter(now)) {
+            return null;
+        }
+        // The holder parks next_run_at at its lease expiry; a row still parked there is its unfinished firing
+        Instant fireAt = existing.getExpiresAt().equals(due) ? existing.getFireAt() : due;
+        if (repository.takeOver(streamId, existing.getOwner(), existing.getExpiresAt(), owner, fireAt, expiresAt) == 0) {
+            return null;
+        }
+        logger.info("Took over expired QOTD lease on stream {} from {} (firing due {})", streamId, existing.getOwner(), fireAt);
+        return new Lease(streamId, fireAt, expiresAt);
+    }
+
+    /**
+     * When the current lease on a stream lapses, or null if there is none.
+     */
+    public Instant heldUntil(long streamId) {
+        return repository.findById(streamId).map(QotdStreamLease::getExpiresAt).orElse(null);
+    }
+
+    /**
+     * Drop this instance's lease on a stream (no-op if it lost the lease meanwhile).
+     */
+    public void release(long streamId) {
+        repository.release(streamId, owner);
+    }
+}
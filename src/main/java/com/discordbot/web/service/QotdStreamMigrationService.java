@@ -26,12 +26,15 @@ public class QotdStreamMigrationService {
 
     private final QotdStreamRepository streamRepository;
     private final JdbcTemplate jdbcTemplate;
+    private final QotdSchedule schedule;
 
     public QotdStreamMigrationService(
             QotdStreamRepository streamRepository,
-            JdbcTemplate jdbcTemplate) {
+            JdbcTemplate jdbcTemplate,
+            QotdSchedule schedule) {
         this.streamRepository = streamRepository;
         this.jdbcTemplate = jdbcTemplate;
+        this.schedule = schedule;
     }
 
     @EventListener(ApplicationReadyEvent.class)
@@ -129,8 +132,10 @@ public class QotdStreamMigrationService {
             stream.setMentionTarget((String) row.get("mention_target"));
 
             stream.setCreatedAt(Instant.now());
+            stream.setNextRunAt(QotdSchedule.nextRunAt(stream, Instant.now()));
 
             QotdStream saved = streamRepository.save(stream);
+            schedule.upsert(saved);
 
             // Check how many questions exist for this channel BEFORE migration
             Integer totalQuestions = jdbcTemplate.queryForObject(
@@ -1,29 +1,34 @@
 package com.discordbot.web.service;
 
+import com.discordbot.entity.QotdChannelSettings;
+import com.discordbot.entity.QotdDelivery;
+import com.discordbot.entity.QotdPosted;
 import com.discordbot.entity.QotdQuestion;
 import com.discordbot.entity.QotdStream;
+import com.discordbot.repository.QotdChannelSettingsRepository;
+import com.discordbot.repository.QotdPostedRepository;
 import com.discordbot.repository.QotdQuestionRepository;
 import com.discordbot.repository.QotdStreamRepository;
 import com.discordbot.web.dto.qotd.QotdDtos.*;
-import net.dv8tion.jda.api.EmbedBuilder;
+import com.discordbot.web.service.GuildResourceVersions.Family;
 import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.entities.Guild;
 import net.dv8tion.jda.api.entities.Member;
 import net.dv8tion.jda.api.entities.channel.concrete.TextChannel;
 import net.dv8tion.jda.api.entities.channel.concrete.ThreadChannel;
-import net.dv8tion.jda.api.entities.channel.middleman.MessageChannel;
 import net.dv8tion.jda.api.Permission;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.scheduling.support.CronExpression;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.*;
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Collectors;
 
 /**
@@ -36,22 +41,45 @@ public class QotdStreamService {
 
     private final QotdStreamRepository streamRepository;
     private final QotdQuestionRepository questionRepository;
+    private final QotdPostedRepository postedRepository;
+    private final QotdChannelSettingsRepository channelSettingsRepository;
     private final JDA jda;
     private final WebSocketNotificationService wsNotificationService;
-
-    private static final String DEFAULT_BANNER = "❓❓ Question of the Day ❓❓";
-    private static final int DEFAULT_COLOR = 0x9B59B6; // Discord purple
+    private final GuildResourceVersions resourceVersions;
+    private final QotdSchedule schedule;
+    private final QotdQuestionImporter questionImporter;
+    private final QotdNearDuplicateIndex nearDuplicates;
+    private final QotdDeliveryService deliveries;
+
+    static final String DEFAULT_BANNER = "❓❓ Question of the Day ❓❓";
+    static final int DEFAULT_COLOR = 0x9B59B6; // Discord purple
     private static final int MAX_STREAMS_PER_CHANNEL = 5;
+    static final int DEFAULT_HISTORY_PAGE = 50;
+    static final int MAX_HISTORY_PAGE = 200;
 
     public QotdStreamService(
             QotdStreamRepository streamRepository,
             QotdQuestionRepository questionRepository,
+            QotdPostedRepository postedRepository,
+            QotdChannelSettingsRepository channelSettingsRepository,
             JDA jda,
-            WebSocketNotificationService wsNotificationService) {
+            WebSocketNotificationService wsNotificationService,
+            GuildResourceVersions resourceVersions,
+            QotdSchedule schedule,
+            QotdQuestionImporter questionImporter,
+            QotdNearDuplicateIndex nearDuplicates,
+            QotdDeliveryService deliveries) {
         this.streamRepository = streamRepository;
         this.questionRepository = questionRepository;
+        this.postedRepository = postedRepository;
+        this.channelSettingsRepository = channelSettingsRepository;
         this.jda = jda;
         this.wsNotificationService = wsNotificationService;
+        this.resourceVersions = resourceVersions;
+        this.schedule = schedule;
+        this.questionImporter = questionImporter;
+        this.nearDuplicates = nearDuplicates;
+        this.deliveries = deliveries;
     }
 
     // ==================== Stream Management ====================
@@ -111,6 +139,7 @@ public class QotdStreamService {
         stream.setEmbedColor(request.embedColor());
         stream.setMentionTarget(request.mentionTarget());
         stream.setCreatedAt(Instant.now());
+        stream.setNextRunAt(QotdSchedule.nextRunAt(stream, Instant.now()));
 
         QotdStream saved = streamRepository.save(stream);
         // If enabled, ensure the bot can post to the target (join threads if needed)
@@ -121,6 +150,8 @@ public class QotdStreamService {
                         saved.getStreamName(), saved.getChannelId());
             }
         }
+        schedule.upsert(saved);
+        resourceVersions.bump(guildId, Family.STREAMS);
         wsNotificationService.notifyQotdStreamChanged(guildId, channelId, saved.getId(), "created");
 
         return toDto(saved);
@@ -151,6 +182,7 @@ public class QotdStreamService {
         stream.setRandomize(request.randomize());
         stream.setAutoApprove(request.autoApprove());
         stream.setUpdatedAt(Instant.now());
+        stream.setNextRunAt(QotdSchedule.nextRunAt(stream, Instant.now()));
 
         QotdStream saved = streamRepository.save(stream);
         // If enabled, ensure the bot can post to the target (join threads if needed)
@@ -161,6 +193,8 @@ public class QotdStreamService {
                         saved.getStreamName(), saved.getChannelId());
             }
         }
+        schedule.upsert(saved);
+        resourceVersions.bump(stream.getGuildId(), Family.STREAMS);
         wsNotificationService.notifyQotdStreamChanged(stream.getGuildId(), stream.getChannelId(), streamId, "updated");
 
         return toDto(saved);
@@ -178,6 +212,10 @@ public class QotdStreamService {
         String channelId = stream.getChannelId();
 
         streamRepository.deleteById(streamId);  // CASCADE will delete questions
+        schedule.remove(streamId);
+        nearDuplicates.rebuild(guildId);
+        resourceVersions.bump(guildId, Family.STREAMS);
+        resourceVersions.bump(guildId, Family.QUESTIONS);
         wsNotificationService.notifyQotdStreamChanged(guildId, channelId, streamId, "deleted");
     }
 
@@ -188,7 +226,7 @@ public class QotdStreamService {
      */
     public List<QotdQuestionDto> listQuestions(String guildId, Long streamId) {
         validateStreamBelongsToGuild(streamId, guildId);
-        return questionRepository.findByStreamIdOrderByDisplayOrderAsc(streamId)
+        return questionRepository.findByStreamIdOrderByDisplayOrderAscIdAsc(streamId)
                 .stream()
                 .map(q -> new QotdQuestionDto(q.getId(), q.getText(), q.getCreatedAt(),
                         q.getAuthorUserId(), q.getAuthorUsername()))
@@ -204,8 +242,11 @@ public class QotdStreamService {
         QotdStream stream = streamRepository.findById(streamId)
                 .orElseThrow(() -> new IllegalArgumentException("Stream not found: " + streamId));
 
-        List<QotdQuestion> existing = questionRepository.findByStreamIdOrderByDisplayOrderAsc(streamId);
-        int nextOrder = existing.isEmpty() ? 1 : existing.get(existing.size() - 1).getDisplayOrder() + 1;
+        if (questionRepository.existsByStreamIdAndTextHash(streamId, QotdQuestion.hashText(text))) {
+            throw new IllegalArgumentException("This question is already in the stream");
+        }
+
+        int nextOrder = QotdQuestionOrdering.nextAppendOrder(questionRepository, streamId);
 
         QotdQuestion question = new QotdQuestion();
         question.setStreamId(streamId);
@@ -216,6 +257,8 @@ public class QotdStreamService {
         question.setCreatedAt(Instant.now());
 
         QotdQuestion saved = questionRepository.save(question);
+        nearDuplicates.questionAdded(stream.getGuildId(), saved.getId(), saved.getText());
+        resourceVersions.bump(stream.getGuildId(), Family.QUESTIONS);
         wsNotificationService.notifyQotdQuestionsChanged(stream.getGuildId(), stream.getChannelId(), "added");
 
         return new QotdQuestionDto(saved.getId(), saved.getText(), saved.getCreatedAt(),
@@ -232,6 +275,8 @@ public class QotdStreamService {
                 .orElseThrow(() -> new IllegalArgumentException("Stream not found: " + streamId));
 
         questionRepository.deleteByIdAndStreamId(questionId, streamId);
+        nearDuplicates.questionRemoved(stream.getGuildId(), questionId);
+        resourceVersions.bump(stream.getGuildId(), Family.QUESTIONS);
         wsNotificationService.notifyQotdQuestionsChanged(stream.getGuildId(), stream.getChannelId(), "deleted");
     }
 
@@ -244,19 +289,11 @@ public class QotdStreamService {
         QotdStream stream = streamRepository.findById(streamId)
                 .orElseThrow(() -> new IllegalArgumentException("Stream not found: " + streamId));
 
-        List<QotdQuestion> questions = questionRepository.findByStreamIdOrderByDisplayOrderAsc(streamId);
-        Map<Long, QotdQuestion> questionMap = questions.stream()
-                .collect(Collectors.toMap(QotdQuestion::getId, q -> q));
-
-        for (int i = 0; i < orderedIds.size(); i++) {
-            Long questionId = orderedIds.get(i);
-            QotdQuestion question = questionMap.get(questionId);
-            if (question != null) {
-                question.setDisplayOrder(i + 1);
-                questionRepository.save(question);
-            }
-        }
+        // Only questions that actually move are written (display_order is sparse)
+        int written = QotdQuestionOrdering.reorder(questionRepository, streamId, orderedIds);
+        log.debug("Reordered stream {}: {} question(s) moved", streamId, written);
 
+        resourceVersions.bump(stream.getGuildId(), Family.QUESTIONS);
         wsNotificationService.notifyQotdQuestionsChanged(stream.getGuildId(), stream.getChannelId(), "reordered");
     }
 
@@ -269,68 +306,22 @@ public class QotdStreamService {
         QotdStream stream = streamRepository.findById(streamId)
                 .orElseThrow(() -> new IllegalArgumentException("Stream not found: " + streamId));
 
-        List<QotdQuestion> existing = questionRepository.findByStreamIdOrderByDisplayOrderAsc(streamId);
-        int nextOrder = existing.isEmpty() ? 1 : existing.get(existing.size() - 1).getDisplayOrder() + 1;
-
-        int successCount = 0;
-        int failureCount = 0;
-        List<String> errors = new ArrayList<>();
-
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(file.getInputStream()))) {
-            String line;
-            int lineNumber = 0;
-
-            while ((line = reader.readLine()) != null) {
-                lineNumber++;
-                line = line.trim();
-
-                if (line.isEmpty() || lineNumber == 1) continue; // Skip header or empty lines
-
-                try {
-                    String[] parts = parseCsvLine(line);
-                    if (parts.length == 0) continue;
-
-                    String questionText = parts[0].trim();
-                    if (questionText.isEmpty() || questionText.length() > 2000) {
-                        failureCount++;
-                        errors.add("Line " + lineNumber + ": Invalid question length");
-                        continue;
-                    }
-
-                    QotdQuestion question = new QotdQuestion();
-                    question.setStreamId(streamId);
-                    question.setGuildId(stream.getGuildId());
-                    question.setChannelId(stream.getChannelId());
-                    question.setText(questionText);
-                    question.setDisplayOrder(nextOrder++);
-                    question.setCreatedAt(Instant.now());
-
-                    // Optional author info (if CSV has 2+ columns)
-                    if (parts.length >= 2 && !parts[1].trim().isEmpty()) {
-                        question.setAuthorUsername(parts[1].trim());
-                    }
-                    if (parts.length >= 3 && !parts[2].trim().isEmpty()) {
-                        question.setAuthorUserId(parts[2].trim());
-                    }
-
-                    questionRepository.save(question);
-                    successCount++;
-
-                } catch (Exception e) {
-                    failureCount++;
-                    errors.add("Line " + lineNumber + ": " + e.getMessage());
-                }
-            }
-        } catch (Exception e) {
+        QotdQuestionImporter.Result result;
+        try (InputStream in = file.getInputStream()) {
+            result = questionImporter.importCsv(stream, in);
+        } catch (IOException e) {
             log.error("Failed to upload CSV", e);
             throw new RuntimeException("Failed to upload CSV: " + e.getMessage());
         }
+        int successCount = result.imported();
 
         if (successCount > 0) {
+            nearDuplicates.rebuild(stream.getGuildId());
+            resourceVersions.bump(stream.getGuildId(), Family.QUESTIONS);
             wsNotificationService.notifyQotdQuestionsChanged(stream.getGuildId(), stream.getChannelId(), "uploaded");
         }
 
-        return new UploadCsvResult(successCount, failureCount, errors);
+        return new UploadCsvResult(successCount, result.invalid(), result.duplicates(), result.errors());
     }
 
     // ==================== Banner Management (Stream-Scoped) ====================
@@ -349,6 +340,7 @@ public class QotdStreamService {
                 .orElseThrow(() -> new IllegalArgumentException("Stream not found: " + streamId));
         stream.setBannerText(bannerText);
         streamRepository.save(stream);
+        resourceVersions.bump(stream.getGuildId(), Family.STREAMS);
     }
 
     public Integer getBannerColor(String guildId, Long streamId) {
@@ -365,6 +357,7 @@ public class QotdStreamService {
                 .orElseThrow(() -> new IllegalArgumentException("Stream not found: " + streamId));
         stream.setEmbedColor(color);
         streamRepository.save(stream);
+        resourceVersions.bump(stream.getGuildId(), Family.STREAMS);
     }
 
     public String getBannerMention(String guildId, Long streamId) {
@@ -387,6 +380,7 @@ public class QotdStreamService {
                 .orElseThrow(() -> new IllegalArgumentException("Stream not found: " + streamId));
         stream.setMentionTarget(mention);
         streamRepository.save(stream);
+        resourceVersions.bump(stream.getGuildId(), Family.STREAMS);
     }
 
     @Transactional
@@ -397,6 +391,7 @@ public class QotdStreamService {
         stream.setBannerText(DEFAULT_BANNER);
         stream.setEmbedColor(DEFAULT_COLOR);
         streamRepository.save(stream);
+        resourceVersions.bump(stream.getGuildId(), Family.STREAMS);
     }
 
     // ==================== Posting Logic ====================
@@ -414,154 +409,162 @@ public class QotdStreamService {
     /**
      * Post the next question for a stream to Discord.
      * Called by scheduler.
+     *
+     * Only reserves the question; {@link QotdDeliveryService} sends it after commit and updates the
+     * stream and the queue once Discord acknowledges. If the stream's previous post is still
+     * outstanding, that one is sent again instead of picking another question.
      */
     @Transactional
     public void postNextQuestion(Long streamId) {
         QotdStream stream = streamRepository.findById(streamId)
                 .orElseThrow(() -> new IllegalArgumentException("Stream not found: " + streamId));
 
-        List<QotdQuestion> questions = questionRepository.findByStreamIdOrderByDisplayOrderAsc(streamId);
+        QotdDeliveryService.Reservation next = selectNext(stream);
+        if (next != null) {
+            deliveries.reserve(next.stream(), next.question(), next.nextIndex());
+        }
+    }
+
+    /**
+     * Post the next question of several streams sharing a channel as one message, one embed per
+     * stream in the given order. Called by the scheduler for channels that coalesce posts.
+     *
+     * Streams whose previous post is still outstanding send that again instead and are left out of
+     * the new message; streams deleted meanwhile are skipped.
+     */
+    @Transactional
+    public void postNextQuestions(List<Long> streamIds) {
+        List<QotdDeliveryService.Reservation> reservations = new ArrayList<>();
+        for (QotdStream stream : streamRepository.findAllById(streamIds).stream()
+                .sorted(Comparator.comparingInt(s -> streamIds.indexOf(s.getId())))
+                .toList()) {
+            QotdDeliveryService.Reservation next = selectNext(stream);
+            if (next != null) {
+                reservations.add(next);
+            }
+        }
+        if (!reservations.isEmpty()) {
+            deliveries.reserveBatch(reservations);
+        }
+    }
 
-        if (questions.isEmpty()) {
+    /**
+     * Pick the question a stream posts next, or null if there is none (or its previous post is
+     * still outstanding, which is resent instead unless it is in flight).
+     */
+    private QotdDeliveryService.Reservation selectNext(QotdStream stream) {
+        Long streamId = stream.getId();
+        QotdDelivery outstanding = deliveries.findOutstanding(streamId);
+        if (outstanding != null && deliveries.isInFlight(outstanding)) {
+            log.info("Previous QOTD for stream {} ({}) is still awaiting Discord's response; not posting again",
+                    streamId, stream.getStreamName());
+            return null;
+        }
+        if (outstanding != null) {
+            log.info("Previous QOTD for stream {} ({}) is still undelivered after {} attempt(s); sending it again",
+                    streamId, stream.getStreamName(), outstanding.getAttempts());
+            deliveries.retryNow(outstanding);
+            return null;
+        }
+
+        // Count, then fetch just the selected row (the queue can hold thousands of imported questions)
+        long count = questionRepository.countByStreamId(streamId);
+
+        if (count == 0) {
             log.warn("No questions available for stream {} ({})", streamId, stream.getStreamName());
-            return;
+            return null;
         }
 
         // Select question based on randomize flag
-        QotdQuestion selectedQuestion;
-        int nextIdx;
+        int size = (int) Math.min(count, Integer.MAX_VALUE);
+        int selectedIdx;
+        Integer nextIdx;
 
         if (stream.getRandomize()) {
-            int randomIdx = new Random().nextInt(questions.size());
-            selectedQuestion = questions.get(randomIdx);
-            nextIdx = stream.getNextIndex(); // Don't increment in random mode
+            selectedIdx = ThreadLocalRandom.current().nextInt(size);
+            nextIdx = null; // Don't increment in random mode
         } else {
-            int currentIdx = stream.getNextIndex();
-            if (currentIdx >= questions.size()) {
-                currentIdx = 0; // Wrap around
+            selectedIdx = stream.getNextIndex();
+            if (selectedIdx >= size) {
+                selectedIdx = 0; // Wrap around
             }
-            selectedQuestion = questions.get(currentIdx);
-            nextIdx = (currentIdx + 1) % questions.size();
+            nextIdx = (selectedIdx + 1) % size;
         }
 
-        // Post to Discord
-        try {
-            Guild guild = jda.getGuildById(stream.getGuildId());
-            if (guild == null) {
-                log.error("Guild not found: {}", stream.getGuildId());
-                return;
-            }
-
-            // Try to get as TextChannel first, then as ThreadChannel
-            MessageChannel channel = null;
-            TextChannel textChannel = guild.getTextChannelById(stream.getChannelId());
-            ThreadChannel threadChannel = null;
-            
-            if (textChannel != null) {
-                channel = textChannel;
-            } else {
-                // Try as a thread channel
-                threadChannel = guild.getThreadChannelById(stream.getChannelId());
-                if (threadChannel != null) {
-                    channel = threadChannel;
-                    
-                    // Bot must be a member of the thread to post
-                    if (!threadChannel.isJoined()) {
-                        log.info("Joining thread {} to post QOTD", threadChannel.getName());
-                        try {
-                            threadChannel.join().complete();
-                        } catch (Exception e) {
-                            log.error("Failed to join thread {} ({}) to post QOTD: {}", 
-                                threadChannel.getName(), threadChannel.getId(), e.getMessage());
-                            return;
-                        }
-                    }
-                }
-            }
-            
-            if (channel == null) {
-                log.error("Channel not found: {}", stream.getChannelId());
-                return;
-            }
-
-            // Build embed
-            String bannerText = stream.getBannerText() != null ? stream.getBannerText() : DEFAULT_BANNER;
-            Integer embedColor = stream.getEmbedColor() != null ? stream.getEmbedColor() : DEFAULT_COLOR;
-            String mention = stream.getMentionTarget() != null ? stream.getMentionTarget() : "";
-
-            // Include mention in embed description (MEE6-style)
-            // Discord allows mentions in embed body with proper allowed_mentions configuration
-            String description = mention.isEmpty()
-                ? selectedQuestion.getText()
-                : mention + " " + selectedQuestion.getText();
-
-            EmbedBuilder embed = new EmbedBuilder()
-                    .setTitle(bannerText)
-                    .setDescription(description)
-                    .setColor(embedColor);
+        List<QotdQuestion> page = questionRepository.findByStreamIdOrderByDisplayOrderAscIdAsc(
+                streamId, PageRequest.of(selectedIdx, 1));
+        if (page.isEmpty()) {
+            // Questions were removed between the count and the fetch
+            log.warn("Question {} of stream {} disappeared before posting; skipping", selectedIdx, streamId);
+            return null;
+        }
+        QotdQuestion selectedQuestion = page.get(0);
 
-            if (selectedQuestion.getAuthorUsername() != null) {
-                embed.setFooter("Suggested by " + selectedQuestion.getAuthorUsername());
-            }
+        log.info("Reserved question {} for QOTD of stream {} ({}) in channel {}",
+                selectedQuestion.getId(), streamId, stream.getStreamName(), stream.getChannelId());
+        return new QotdDeliveryService.Reservation(stream, selectedQuestion, nextIdx);
+    }
 
-            // Send embed with allowed mentions enabled (MEE6-style: mentions in embed trigger pings)
-            // Make channel final for lambda usage
-            final MessageChannel finalChannel = channel;
-            final String finalDescription = description;
-            final String finalBannerText = bannerText;
-
-            try {
-                var action = finalChannel.sendMessageEmbeds(embed.build());
-
-                // Enable mentions for roles, users, and @everyone/@here
-                if (!mention.isEmpty()) {
-                    action = action.setAllowedMentions(java.util.List.of(
-                        net.dv8tion.jda.api.entities.Message.MentionType.ROLE,
-                        net.dv8tion.jda.api.entities.Message.MentionType.USER,
-                        net.dv8tion.jda.api.entities.Message.MentionType.EVERYONE
-                    ));
-                }
+    // ==================== Channel Settings ====================
 
-                action.queue(
-                    success -> log.debug("Successfully posted QOTD embed for stream {} in channel {}",
-                                        streamId, finalChannel.getName()),
-                    error -> {
-                        log.error("Failed to send QOTD embed for stream {}: {}", streamId, error.getMessage(), error);
-                        // Fallback to plain text
-                        try {
-                            String plainMessage = finalBannerText + "\n\n" + finalDescription;
-                            finalChannel.sendMessage(plainMessage).queue();
-                            log.info("Sent QOTD as plain text fallback for stream {}", streamId);
-                        } catch (Exception fallbackError) {
-                            log.error("Failed to send QOTD even as plain text for stream {}: {}",
-                                     streamId, fallbackError.getMessage(), fallbackError);
-                        }
-                    }
-                );
-            } catch (Exception e) {
-                log.error("Exception building/sending QOTD embed for stream {}: {}", streamId, e.getMessage(), e);
-                // Fallback to plain text
-                try {
-                    String plainMessage = finalBannerText + "\n\n" + finalDescription;
-                    finalChannel.sendMessage(plainMessage).queue();
-                } catch (Exception fallbackError) {
-                    log.error("Failed plain text fallback for stream {}: {}", streamId, fallbackError.getMessage(), fallbackError);
-                }
-            }
-
-            // Update stream state
-            stream.setLastPostedAt(Instant.now());
-            stream.setNextIndex(nextIdx);
-            streamRepository.save(stream);
+    /**
+     * QOTD options for a channel (defaults if never set).
+     */
+    public QotdChannelSettingsDto getChannelSettings(String guildId, String channelId) {
+        validateChannelBelongsToGuild(guildId, channelId);
+        return channelSettingsRepository.findByGuildIdAndChannelId(guildId, channelId)
+                .map(settings -> new QotdChannelSettingsDto(Boolean.TRUE.equals(settings.getCoalescePosts())))
+                .orElseGet(() -> new QotdChannelSettingsDto(false));
+    }
 
-            // Delete the question after posting
-            questionRepository.deleteById(selectedQuestion.getId());
+    /**
+     * Update QOTD options for a channel.
+     */
+    @Transactional
+    public QotdChannelSettingsDto updateChannelSettings(String guildId, String channelId, QotdChannelSettingsDto request) {
+        validateChannelBelongsToGuild(guildId, channelId);
+        QotdChannelSettings settings = channelSettingsRepository.findByGuildIdAndChannelId(guildId, channelId)
+                .orElseGet(() -> new QotdChannelSettings(guildId, channelId));
+        settings.setCoalescePosts(request.coalescePosts());
+        channelSettingsRepository.save(settings);
+        log.info("QOTD channel {} in guild {} now {} posts", channelId, guildId,
+                request.coalescePosts() ? "coalesces" : "separates");
+        return new QotdChannelSettingsDto(request.coalescePosts());
+    }
 
-            log.info("Posted QOTD for stream {} ({}) in channel {}", streamId, stream.getStreamName(), channel.getName());
+    // ==================== Posting History ====================
 
-        } catch (Exception e) {
-            log.error("Failed to post QOTD for stream " + streamId, e);
+    /**
+     * A page of a stream's posted questions, newest first.
+     *
+     * @param before   postedAt of the last row of the previous page, or null for the first page
+     * @param beforeId id of the last row of the previous page; required with {@code before}
+     * @param limit    page size, clamped to 1..{@value #MAX_HISTORY_PAGE}; null for the default
+     */
+    public QotdPostedPageDto listPosted(String guildId, Long streamId, Instant before, Long beforeId, Integer limit) {
+        validateStreamBelongsToGuild(streamId, guildId);
+        if ((before == null) != (beforeId == null)) {
+            throw new IllegalArgumentException("before and beforeId must be given together");
         }
+        int size = limit == null ? DEFAULT_HISTORY_PAGE : Math.max(1, Math.min(limit, MAX_HISTORY_PAGE));
+        // One extra row tells whether another page follows
+        PageRequest page = PageRequest.of(0, size + 1);
+        List<QotdPosted> rows = before == null
+                ? postedRepository.findByStreamIdOrderByPostedAtDescIdDesc(streamId, page)
+                : postedRepository.findPageBefore(streamId, before, beforeId, page);
+
+        boolean more = rows.size() > size;
+        List<QotdPosted> items = more ? rows.subList(0, size) : rows;
+        QotdPosted last = more ? items.get(items.size() - 1) : null;
+        return new QotdPostedPageDto(
+                items.stream().map(QotdStreamService::toPostedDto).collect(Collectors.toList()),
+                last != null ? last.getPostedAt() : null,
+                last != null ? last.getId() : null);
+    }
+
+    private static QotdPostedDto toPostedDto(QotdPosted p) {
+        return new QotdPostedDto(p.getId(), p.getQuestionId(), p.getText(), p.getAuthorUserId(),
+                p.getAuthorUsername(), p.getMessageId(), p.getPostedAt());
     }
 
     // ==================== Helper Methods ====================
@@ -659,18 +662,16 @@ public class QotdStreamService {
             ThreadChannel thread = guild.getThreadChannelById(channelId);
             if (thread != null) {
                 if (!thread.isJoined()) {
-                    try {
-                        // Verify bot has MANAGE_THREADS permission before attempting to join
-                        if (self == null || !self.hasPermission(thread, Permission.MANAGE_THREADS)) {
-                            log.error("Bot lacks MANAGE_THREADS permission to join thread {} ({})", thread.getName(), thread.getId());
-                            return false;
-                        }
-                        log.info("Joining thread {} to enable stream posting", thread.getName());
-                        thread.join().complete();
-                    } catch (Exception e) {
-                        log.error("Failed to join thread {} ({}): {}", thread.getName(), thread.getId(), e.getMessage());
+                    // Verify bot has MANAGE_THREADS permission before attempting to join
+                    if (self == null || !self.hasPermission(thread, Permission.MANAGE_THREADS)) {
+                        log.error("Bot lacks MANAGE_THREADS permission to join thread {} ({})", thread.getName(), thread.getId());
                         return false;
                     }
+                    // Queued, not awaited: posting joins again if this hasn't landed by then
+                    log.info("Joining thread {} to enable stream posting", thread.getName());
+                    thread.join().queue(
+                        ok -> log.debug("Joined thread {} ({})", thread.getName(), thread.getId()),
+                        e -> log.error("Failed to join thread {} ({}): {}", thread.getName(), thread.getId(), e.getMessage()));
                 }
                 boolean canSend = self != null ? self.hasPermission(thread, Permission.MESSAGE_SEND_IN_THREADS) : thread.canTalk();
                 if (!canSend) {
@@ -715,17 +716,11 @@ public class QotdStreamService {
         }
 
         try {
-            CronExpression expr = CronExpression.parse(stream.getScheduleCron());
-            ZoneId zone = ZoneId.of(stream.getTimezone() != null ? stream.getTimezone() : "UTC");
-            ZonedDateTime current = ZonedDateTime.now(zone);
-
-            List<String> runs = new ArrayList<>();
-            for (int i = 0; i < count; i++) {
-                current = expr.next(current);
-                if (current == null) break;
-                runs.add(current.toInstant().toString());
-            }
-            return runs;
+            return QotdSchedule.compile(stream.getScheduleCron(), stream.getTimezone())
+                    .upcoming(Instant.now(), count)
+                    .stream()
+                    .map(Instant::toString)
+                    .collect(Collectors.toList());
         } catch (Exception e) {
             log.warn("Failed to compute next runs for stream {}", stream.getId(), e);
             return Collections.emptyList();
@@ -757,24 +752,4 @@ public class QotdStreamService {
 
         return cronExpression;
     }
-
-    private String[] parseCsvLine(String line) {
-        List<String> result = new ArrayList<>();
-        boolean inQuotes = false;
-        StringBuilder current = new StringBuilder();
-
-        for (char c : line.toCharArray()) {
-            if (c == '"') {
-                inQuotes = !inQuotes;
-            } else if (c == ',' && !inQuotes) {
-                result.add(current.toString());
-                current = new StringBuilder();
-            } else {
-                current.append(c);
-            }
-        }
-        result.add(current.toString());
-
-        return result.toArray(new String[0]);
-    }
 }
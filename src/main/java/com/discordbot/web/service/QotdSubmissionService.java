@@ -7,6 +7,7 @@ import com.discordbot.repository.QotdQuestionRepository;
 import com.discordbot.repository.QotdStreamRepository;
 import com.discordbot.repository.QotdSubmissionRepository;
 import com.discordbot.web.dto.qotd.QotdDtos;
+import com.discordbot.web.service.GuildResourceVersions.Family;
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import io.github.bucket4j.Bandwidth;
@@ -24,16 +25,21 @@ public class QotdSubmissionService {
     private final QotdQuestionRepository questionRepo;
     private final QotdStreamRepository streamRepo;
     private final WebSocketNotificationService wsNotificationService;
+    private final GuildResourceVersions resourceVersions;
+    private final QotdNearDuplicateIndex nearDuplicates;
 
     // Simple per guild:user rate limiter: 3 submissions per hour
     private final Cache<String, Bucket> buckets;
 
     public QotdSubmissionService(QotdSubmissionRepository submissionRepo, QotdQuestionRepository questionRepo,
-                                  QotdStreamRepository streamRepo, WebSocketNotificationService wsNotificationService) {
+                                  QotdStreamRepository streamRepo, WebSocketNotificationService wsNotificationService,
+                                  GuildResourceVersions resourceVersions, QotdNearDuplicateIndex nearDuplicates) {
         this.submissionRepo = submissionRepo;
         this.questionRepo = questionRepo;
         this.streamRepo = streamRepo;
         this.wsNotificationService = wsNotificationService;
+        this.resourceVersions = resourceVersions;
+        this.nearDuplicates = nearDuplicates;
         this.buckets = Caffeine.newBuilder()
                 .maximumSize(50_000)
                 .expireAfterAccess(Duration.ofHours(2))
@@ -61,6 +67,9 @@ public class QotdSubmissionService {
             }
         }
 
+        // Flag rewordings of queued questions and pending submissions (checked before this one is indexed)
+        Optional<QotdNearDuplicateIndex.Match> similar = nearDuplicates.findSimilar(guildId, trimmed, null);
+
         QotdSubmission sub = new QotdSubmission(guildId, userId, username, trimmed);
         sub.setTargetStreamId(targetStreamId);
 
@@ -82,17 +91,21 @@ public class QotdSubmissionService {
 
         if (!autoApproveStreams.isEmpty()) {
             // Auto-approve: add to streams with autoApprove enabled and mark as approved
+            String textHash = QotdQuestion.hashText(trimmed);
             for (QotdStream stream : autoApproveStreams) {
+                // Already queued in this stream; the submission still counts as approved
+                if (questionRepo.existsByStreamIdAndTextHash(stream.getId(), textHash)) {
+                    continue;
+                }
                 QotdQuestion question = new QotdQuestion(guildId, stream.getChannelId(), trimmed, userId, username);
                 question.setStreamId(stream.getId());
 
                 // Set display_order to add to END of queue (bottom)
-                List<QotdQuestion> existingQuestions = questionRepo.findByStreamIdOrderByDisplayOrderAsc(stream.getId());
-                int nextOrder = existingQuestions.isEmpty() ? 1 :
-                        existingQuestions.get(existingQuestions.size() - 1).getDisplayOrder() + 1;
-                question.setDisplayOrder(nextOrder);
+                question.setDisplayOrder(QotdQuestionOrdering.nextAppendOrder(questionRepo, stream.getId()));
 
-                questionRepo.save(question);
+                QotdQuestion saved = questionRepo.save(question);
+                nearDuplicates.questionAdded(guildId, saved.getId(), trimmed);
+                resourceVersions.bump(guildId, Family.QUESTIONS);
                 wsNotificationService.notifyQotdQuestionsChanged(guildId, stream.getChannelId(), "auto-approved");
             }
             sub.setStatus(QotdSubmission.Status.APPROVED);
@@ -102,13 +115,18 @@ public class QotdSubmissionService {
         }
 
         sub = submissionRepo.save(sub);
+        if (sub.getStatus() == QotdSubmission.Status.PENDING) {
+            nearDuplicates.submissionAdded(guildId, sub.getId(), trimmed);
+        }
         wsNotificationService.notifyQotdSubmissionsChanged(guildId, "submitted");
-        return toDto(sub);
+        return toDto(sub, similar.orElse(null));
     }
 
     public List<QotdDtos.QotdSubmissionDto> listPending(String guildId) {
         return submissionRepo.findByGuildIdAndStatusOrderByCreatedAtAsc(guildId, QotdSubmission.Status.PENDING)
-                .stream().map(this::toDto).collect(Collectors.toList());
+                .stream()
+                .map(s -> toDto(s, nearDuplicates.findSimilar(guildId, s.getText(), s.getId()).orElse(null)))
+                .collect(Collectors.toList());
     }
 
     public QotdDtos.QotdSubmissionDto approve(String guildId, String channelId, Long id, Long streamId, String approverId, String approverUsername) {
@@ -122,17 +140,18 @@ public class QotdSubmissionService {
 
         // Set the stream ID if provided, otherwise leave null (will be picked up by migration service)
         if (streamId != null) {
+            if (questionRepo.existsByStreamIdAndTextHash(streamId, QotdQuestion.hashText(sub.getText()))) {
+                throw new IllegalStateException("Question is already in this stream");
+            }
             question.setStreamId(streamId);
 
             // Set display_order to add to END of queue (bottom)
-            // Find the highest display_order in this stream and add 1
-            List<QotdQuestion> existingQuestions = questionRepo.findByStreamIdOrderByDisplayOrderAsc(streamId);
-            int nextOrder = existingQuestions.isEmpty() ? 1 :
-                            existingQuestions.get(existingQuestions.size() - 1).getDisplayOrder() + 1;
-            question.setDisplayOrder(nextOrder);
+            question.setDisplayOrder(QotdQuestionOrdering.nextAppendOrder(questionRepo, streamId));
         }
 
-        questionRepo.save(question);
+        QotdQuestion saved = questionRepo.save(question);
+        nearDuplicates.submissionRemoved(guildId, id);
+        nearDuplicates.questionAdded(guildId, saved.getId(), saved.getText());
 
         // Mark approved
         sub.setStatus(QotdSubmission.Status.APPROVED);
@@ -142,6 +161,7 @@ public class QotdSubmissionService {
         submissionRepo.save(sub);
 
         // Notify clients
+        resourceVersions.bump(guildId, Family.QUESTIONS);
         wsNotificationService.notifyQotdQuestionsChanged(guildId, channelId, "approved");
         wsNotificationService.notifyQotdSubmissionsChanged(guildId, "approved");
 
@@ -169,6 +189,7 @@ public class QotdSubmissionService {
         if (sub.getStatus() != QotdSubmission.Status.PENDING) throw new IllegalStateException("Already processed");
 
         sub.setStatus(QotdSubmission.Status.REJECTED);
+        nearDuplicates.submissionRemoved(guildId, id);
         sub.setApprovedByUserId(approverId);
         sub.setApprovedByUsername(approverUsername);
         sub.setApprovedAt(Instant.now());
@@ -194,10 +215,16 @@ public class QotdSubmissionService {
     }
 
     private QotdDtos.QotdSubmissionDto toDto(QotdSubmission s) {
+        return toDto(s, null);
+    }
+
+    private QotdDtos.QotdSubmissionDto toDto(QotdSubmission s, QotdNearDuplicateIndex.Match similar) {
+        QotdDtos.NearDuplicateDto similarTo = similar == null ? null : new QotdDtos.NearDuplicateDto(
+                similar.source().name(), similar.id(), similar.text(), similar.similarity());
         return new QotdDtos.QotdSubmissionDto(
                 s.getId(), s.getText(), s.getUserId(), s.getUsername(),
                 QotdDtos.SubmissionStatus.valueOf(s.getStatus().name()), s.getCreatedAt(),
-                s.getTargetStreamId()
+                s.getTargetStreamId(), similarTo
         );
     }
 
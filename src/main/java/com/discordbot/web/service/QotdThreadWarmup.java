@@ -0,0 +1,231 @@
+package com.discordbot.web.service;
+
+import com.discordbot.entity.QotdStream;
+import com.discordbot.repository.QotdStreamRepository;
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.channel.concrete.ThreadChannel;
+import net.dv8tion.jda.api.entities.channel.unions.ChannelUnion;
+import net.dv8tion.jda.api.events.channel.ChannelDeleteEvent;
+import net.dv8tion.jda.api.events.channel.update.ChannelUpdateArchivedEvent;
+import net.dv8tion.jda.api.events.guild.GuildJoinEvent;
+import net.dv8tion.jda.api.events.guild.GuildLeaveEvent;
+import net.dv8tion.jda.api.events.guild.GuildReadyEvent;
+import net.dv8tion.jda.api.events.thread.ThreadHiddenEvent;
+import net.dv8tion.jda.api.events.thread.member.ThreadMemberJoinEvent;
+import net.dv8tion.jda.api.events.thread.member.ThreadMemberLeaveEvent;
+import net.dv8tion.jda.api.hooks.ListenerAdapter;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Joins the target threads of QOTD streams ahead of their fire time, so delivery never has to
+ * join at the moment it posts.
+ *
+ * Behavior:
+ * - Every minute, streams whose mirrored fire instant ({@link QotdSchedule}) falls within the
+ *   horizon ({@code qotd.thread-warmup.horizon}) are checked; threads the bot isn't a member of
+ *   are joined in the background
+ * - The bot's own thread membership is tracked from thread member join/leave events, so a
+ *   thread is joined once rather than on every pass while JDA's member cache catches up
+ * - Streams whose thread is archived, gone, or can't be joined are flagged with a reason until
+ *   the thread is reachable again or the stream leaves the horizon; each flag is logged once
+ */
+@Component
+public class QotdThreadWarmup extends ListenerAdapter {
+
+    private static final Logger logger = LoggerFactory.getLogger(QotdThreadWarmup.class);
+
+    public enum Reason { GUILD_UNAVAILABLE, CHANNEL_NOT_FOUND, THREAD_ARCHIVED, JOIN_FAILED }
+
+    /**
+     * A stream due soon whose target thread can't currently be posted to.
+     */
+    public record Warning(Long streamId, String guildId, String channelId, Reason reason, String detail,
+                          Instant fireAt, Instant detectedAt) {}
+
+    private final QotdSchedule schedule;
+    private final QotdStreamRepository streamRepository;
+    private final Duration horizon;
+    private final Clock clock;
+
+    // Thread ids the bot is a member of (or has a join in flight for)
+    private final Set<String> joinedThreads = ConcurrentHashMap.newKeySet();
+    private final Map<Long, Warning> warnings = new ConcurrentHashMap<>();
+
+    // Captured from gateway events; the JDA bean itself depends on this listener
+    private volatile JDA jda;
+
+    @Autowired
+    public QotdThreadWarmup(QotdSchedule schedule, QotdStreamRepository streamRepository,
+                            @Value("${qotd.thread-warmup.horizon:PT1H}") Duration horizon) {
+        this(schedule, streamRepository, horizon, Clock.systemUTC());
+    }
+
+    /**
+     * Visible for tests: allows a fixed clock.
+     */
+    public QotdThreadWarmup(QotdSchedule schedule, QotdStreamRepository streamRepository, Duration horizon, Clock clock) {
+        this.schedule = schedule;
+        this.streamRepository = streamRepository;
+        this.horizon = horizon;
+        this.clock = clock;
+    }
+
+    @Scheduled(cron = "30 * * * * *")
+    public void warmUpDueThreads() {
+        JDA current = jda;
+        if (current == null) {
+            return;
+        }
+        Instant now = clock.instant();
+        List<Long> due = schedule.dueIds(now.plus(horizon));
+        Set<Long> checked = new HashSet<>();
+        if (!due.isEmpty()) {
+            for (QotdStream stream : streamRepository.findAllById(due)) {
+                if (!Boolean.TRUE.equals(stream.getEnabled())) {
+                    continue;
+                }
+                checked.add(stream.getId());
+                warmUp(current, stream, schedule.nextFireAt(stream.getId()), now);
+            }
+        }
+        // Streams that left the horizon (posted, rescheduled, disabled or deleted) are no longer flagged
+        warnings.keySet().retainAll(checked);
+    }
+
+    /**
+     * Current warnings for a guild, soonest fire time first.
+     */
+    public List<Warning> getWarnings(String guildId) {
+        return warnings.values().stream()
+            .filter(w -> w.guildId().equals(guildId))
+            .sorted(Comparator.comparing(Warning::fireAt, Comparator.nullsLast(Comparator.naturalOrder())))
+            .toList();
+    }
+
+    @Override
+    public void onGuildReady(@NotNull GuildReadyEvent event) {
+        jda = event.getJDA();
+    }
+
+    @Override
+    public void onGuildJoin(@NotNull GuildJoinEvent event) {
+        jda = event.getJDA();
+    }
+
+    @Override
+    public void onGuildLeave(@NotNull GuildLeaveEvent event) {
+        String guildId = event.getGuild().getId();
+        warnings.values().removeIf(w -> w.guildId().equals(guildId));
+    }
+
+    @Override
+    public void onThreadMemberJoin(@NotNull ThreadMemberJoinEvent event) {
+        if (isSelf(event.getJDA(), event.getThreadMemberIdLong())) {
+            joinedThreads.add(event.getThread().getId());
+        }
+    }
+
+    @Override
+    public void onThreadMemberLeave(@NotNull ThreadMemberLeaveEvent event) {
+        if (isSelf(event.getJDA(), event.getThreadMemberIdLong())) {
+            joinedThreads.remove(event.getThread().getId());
+        }
+    }
+
+    @Override
+    public void onThreadHidden(@NotNull ThreadHiddenEvent event) {
+        joinedThreads.remove(event.getThread().getId());
+    }
+
+    @Override
+    public void onChannelDelete(@NotNull ChannelDeleteEvent event) {
+        ThreadChannel thread = asThread(event.getChannel());
+        if (thread != null) {
+            joinedThreads.remove(thread.getId());
+        }
+    }
+
+    @Override
+    public void onChannelUpdateArchived(@NotNull ChannelUpdateArchivedEvent event) {
+        ThreadChannel thread = asThread(event.getChannel());
+        // Membership survives archiving, but the next pass should look at the thread again
+        if (thread != null && Boolean.TRUE.equals(event.getNewValue())) {
+            joinedThreads.remove(thread.getId());
+        }
+    }
+
+    private void warmUp(JDA current, QotdStream stream, Instant fireAt, Instant now) {
+        Guild guild = current.getGuildById(stream.getGuildId());
+        if (guild == null) {
+            flag(stream, Reason.GUILD_UNAVAILABLE, "Guild not available", fireAt, now);
+            return;
+        }
+        if (guild.getTextChannelById(stream.getChannelId()) != null) {
+            warnings.remove(stream.getId());
+            return;
+        }
+        ThreadChannel thread = guild.getThreadChannelById(stream.getChannelId());
+        if (thread == null) {
+            flag(stream, Reason.CHANNEL_NOT_FOUND, "Channel or thread not found", fireAt, now);
+            return;
+        }
+        if (thread.isArchived()) {
+            flag(stream, Reason.THREAD_ARCHIVED, "Thread " + thread.getName() + " is archived", fireAt, now);
+            return;
+        }
+        if (thread.isJoined() || !joinedThreads.add(thread.getId())) {
+            warnings.remove(stream.getId());
+            return;
+        }
+
+        logger.info("Joining thread {} ({}) ahead of QOTD stream {} firing at {}",
+            thread.getName(), thread.getId(), stream.getId(), fireAt);
+        try {
+            thread.join().queue(
+                ok -> warnings.remove(stream.getId()),
+                error -> {
+                    joinedThreads.remove(thread.getId());
+                    flag(stream, Reason.JOIN_FAILED, error.getMessage(), fireAt, clock.instant());
+                });
+        } catch (Exception e) {
+            joinedThreads.remove(thread.getId());
+            flag(stream, Reason.JOIN_FAILED, e.getMessage(), fireAt, now);
+        }
+    }
+
+    private void flag(QotdStream stream, Reason reason, String detail, Instant fireAt, Instant now) {
+        Warning previous = warnings.get(stream.getId());
+        if (previous != null && previous.reason() == reason) {
+            return;
+        }
+        warnings.put(stream.getId(), new Warning(stream.getId(), stream.getGuildId(), stream.getChannelId(),
+            reason, detail, fireAt, now));
+        logger.warn("QOTD stream {} in guild {} may not post at {}: {} ({})",
+            stream.getId(), stream.getGuildId(), fireAt, reason, detail);
+    }
+
+    private static boolean isSelf(JDA jda, long userId) {
+        return jda.getSelfUser().getIdLong() == userId;
+    }
+
+    private static ThreadChannel asThread(ChannelUnion channel) {
+        return channel.getType().isThread() ? channel.asThreadChannel() : null;
+    }
+}
@@ -0,0 +1,127 @@
+package com.discordbot.web.service;
+
+import com.discordbot.web.dto.CreateRoleRequest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Single-pass parser for gatcha role CSV uploads (name,rarity,colorHex[,secondaryColorHex[,tertiaryColorHex]]).
+ *
+ * <p>Rows stream through {@link CsvBatchParser}: validated as they are read and handed to the caller in
+ * batches, with invalid rows reported by line number and skipped.</p>
+ *
+ * <p>Accepted input: an optional header row (first column "name"), blank lines and {@code #} comment
+ * lines are skipped. Rarity is case-insensitive and normalized to lower case. Colors may be written
+ * with or without {@code #} and are normalized to {@code #RRGGBB}; an empty primary color means white.</p>
+ */
+public final class RoleCsvParser {
+
+    public static final int DEFAULT_BATCH_SIZE = 100;
+
+    // Discord's role name limit applies to the full "gacha:rarity:name" string
+    private static final int MAX_ROLE_NAME_LENGTH = 100;
+    private static final Set<String> RARITIES = Set.of("legendary", "epic", "rare", "uncommon", "common");
+    private static final String[] COLOR_COLUMNS = {"colorHex", "secondaryColorHex", "tertiaryColorHex"};
+
+    private static final CsvBatchParser.RowFormat<CreateRoleRequest> FORMAT = new CsvBatchParser.RowFormat<>() {
+        @Override
+        public boolean skip(CsvReader.Row row) {
+            return row.isBlank() || row.field(0).startsWith("#");
+        }
+
+        @Override
+        public boolean isHeader(CsvReader.Row row) {
+            return row.field(0).equalsIgnoreCase("name");
+        }
+
+        @Override
+        public String validate(CsvReader.Row row) {
+            return RoleCsvParser.validate(row);
+        }
+
+        @Override
+        public CreateRoleRequest convert(CsvReader.Row row) {
+            return toRequest(row);
+        }
+    };
+
+    private RoleCsvParser() {}
+
+    /**
+     * Parse a role CSV, delivering validated rows to {@code sink} in batches of up to {@code batchSize}.
+     *
+     * @param maxRows stop with an error once this many valid rows have been read (0 for no limit)
+     */
+    public static CsvBatchParser.Result parse(InputStream in, int batchSize, int maxRows,
+                                              Consumer<List<CreateRoleRequest>> sink) throws IOException {
+        return CsvBatchParser.parse(in, batchSize, maxRows, "roles", FORMAT, sink);
+    }
+
+    /**
+     * Parse a whole file into a list (for callers that need every row up front, e.g. job submission).
+     */
+    public static List<CreateRoleRequest> parseAll(InputStream in, int maxRows) throws IOException {
+        List<CreateRoleRequest> all = new ArrayList<>();
+        parse(in, DEFAULT_BATCH_SIZE, maxRows, all::addAll);
+        return all;
+    }
+
+    /** Validation error for a row, or null if it is valid. */
+    private static String validate(CsvReader.Row row) {
+        if (row.fields().size() < 3) {
+            return "Expected at least 3 columns (name,rarity,colorHex), found " + row.fields().size();
+        }
+        String name = row.field(0);
+        if (name.isEmpty()) {
+            return "Role name is required";
+        }
+        String rarity = row.field(1).toLowerCase(Locale.ROOT);
+        if (!RARITIES.contains(rarity)) {
+            return "Rarity must be one of: legendary, epic, rare, uncommon, common (got '" + row.field(1) + "')";
+        }
+        if (("gacha:" + rarity + ":" + name).length() > MAX_ROLE_NAME_LENGTH) {
+            return "Role name too long (full name must be at most " + MAX_ROLE_NAME_LENGTH + " characters)";
+        }
+        for (int i = 0; i < COLOR_COLUMNS.length; i++) {
+            String color = row.field(2 + i);
+            if (!color.isEmpty() && normalizeColor(color) == null) {
+                return COLOR_COLUMNS[i] + " must be a hex color like #FF5733 (got '" + color + "')";
+            }
+        }
+        return null;
+    }
+
+    private static CreateRoleRequest toRequest(CsvReader.Row row) {
+        return new CreateRoleRequest(
+            row.field(0),
+            row.field(1).toLowerCase(Locale.ROOT),
+            colorOrNull(row.field(2)),
+            colorOrNull(row.field(3)),
+            colorOrNull(row.field(4))
+        );
+    }
+
+    private static String colorOrNull(String value) {
+        return value.isEmpty() ? null : normalizeColor(value);
+    }
+
+    /** "#RRGGBB" for a 6-digit hex color with or without '#', else null. */
+    static String normalizeColor(String value) {
+        String hex = value.startsWith("#") ? value.substring(1) : value;
+        if (hex.length() != 6) {
+            return null;
+        }
+        for (int i = 0; i < 6; i++) {
+            if (Character.digit(hex.charAt(i), 16) < 0) {
+                return null;
+            }
+        }
+        return "#" + hex.toUpperCase(Locale.ROOT);
+    }
+}
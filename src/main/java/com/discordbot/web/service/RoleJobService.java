@@ -0,0 +1,504 @@
+package com.discordbot.web.service;
+
+import com.discordbot.entity.RoleJob;
+import com.discordbot.repository.RoleJobRepository;
+import com.discordbot.web.dto.CreateRoleRequest;
+import com.discordbot.web.dto.RoleJobDto;
+import com.discordbot.web.service.GuildResourceVersions.Family;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.Role;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs bulk role operations (CSV import, default roles, bulk delete) as persisted background jobs.
+ *
+ * Behavior:
+ * - Submitting a job stores it and returns immediately; a small worker pool executes it
+ * - Up to {@link #PIPELINE_DEPTH} role actions are in flight at once; JDA's requester spaces them
+ *   to Discord's per-route rate limits instead of each one blocking on {@code complete()}
+ * - Duplicate names are checked against a name set built once per run, not a scan per role
+ * - Progress is checkpointed every few items, and at least every {@link #HEARTBEAT} while waiting
+ *   on Discord. A QUEUED/RUNNING job with no checkpoint for {@link #STALE_AFTER} is resumed from its
+ *   checkpoint by whichever instance claims it first (re-run creates are skipped as duplicates,
+ *   re-run deletes find the role gone)
+ * - Cancellation stops submitting new items; in-flight actions finish and are counted
+ */
+@Service
+public class RoleJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RoleJobService.class);
+
+    static final int PIPELINE_DEPTH = 5;
+    static final int CHECKPOINT_EVERY = 5;
+    public static final int MAX_ITEMS = 1000;
+    static final int MAX_ERRORS = 50;
+    static final int WORKERS = 2;
+    static final String DELETE_PREFIX = "gacha:";
+    static final Duration HEARTBEAT = Duration.ofMinutes(1);
+    static final Duration STALE_AFTER = Duration.ofMinutes(5);
+    private static final List<RoleJob.Status> OPEN = List.of(RoleJob.Status.QUEUED, RoleJob.Status.RUNNING);
+
+    private enum Outcome { SUCCEEDED, SKIPPED, FAILED }
+
+    /** Counters for one run, updated from RestAction callback threads. */
+    private static final class Progress {
+        private final BitSet done = new BitSet();
+        private final List<String> errors;
+        private int nextItem;
+        private int succeeded;
+        private int skipped;
+        private int failed;
+        private int sinceCheckpoint;
+
+        private Progress(RoleJob job, List<String> errors) {
+            this.nextItem = job.getNextItem();
+            this.succeeded = job.getSucceededCount();
+            this.skipped = job.getSkippedCount();
+            this.failed = job.getFailedCount();
+            this.errors = errors;
+        }
+
+        private synchronized void record(int index, Outcome outcome, String error) {
+            switch (outcome) {
+                case SUCCEEDED -> succeeded++;
+                case SKIPPED -> skipped++;
+                case FAILED -> failed++;
+            }
+            if (error != null && errors.size() < MAX_ERRORS) {
+                errors.add(error);
+            }
+            // Items complete out of order; the checkpoint only advances over a contiguous prefix
+            done.set(index);
+            while (done.get(nextItem)) {
+                nextItem++;
+            }
+            sinceCheckpoint++;
+        }
+
+        private synchronized boolean checkpointDue() {
+            return sinceCheckpoint >= CHECKPOINT_EVERY;
+        }
+    }
+
+    private final RoleJobRepository repository;
+    private final AdminService adminService;
+    private final JDA jda;
+    private final GuildResourceVersions resourceVersions;
+    private final GuildsCache guildsCache;
+    private final WebSocketNotificationService webSocketNotificationService;
+    private final Executor executor;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<Long, AtomicBoolean> cancelFlags = new ConcurrentHashMap<>();
+    // Jobs queued or running on this instance
+    private final Set<Long> active = ConcurrentHashMap.newKeySet();
+    private final String owner;
+
+    @Autowired
+    public RoleJobService(RoleJobRepository repository, AdminService adminService, JDA jda,
+                          GuildResourceVersions resourceVersions, GuildsCache guildsCache,
+                          WebSocketNotificationService webSocketNotificationService) {
+        this(repository, adminService, jda, resourceVersions, guildsCache, webSocketNotificationService, newWorkerPool(),
+            QotdStreamLeases.defaultOwner());
+    }
+
+    /**
+     * Visible for tests: run jobs on the given executor (e.g. the calling thread) as the given instance.
+     */
+    public RoleJobService(RoleJobRepository repository, AdminService adminService, JDA jda,
+                          GuildResourceVersions resourceVersions, GuildsCache guildsCache,
+                          WebSocketNotificationService webSocketNotificationService, Executor executor, String owner) {
+        this.repository = repository;
+        this.adminService = adminService;
+        this.jda = jda;
+        this.resourceVersions = resourceVersions;
+        this.guildsCache = guildsCache;
+        this.webSocketNotificationService = webSocketNotificationService;
+        this.executor = executor;
+        this.owner = owner;
+    }
+
+    private static ExecutorService newWorkerPool() {
+        AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newFixedThreadPool(WORKERS, r -> {
+            Thread t = new Thread(r, "role-job-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        // Unfinished jobs stay QUEUED/RUNNING in the database and resume on the next start
+        if (executor instanceof ExecutorService pool) {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Queue creation of gatcha roles. Roles whose full name already exists are skipped.
+     */
+    public RoleJobDto submitCreate(String guildId, List<CreateRoleRequest> requests, String requestedBy) {
+        return submit(guildId, RoleJob.Type.CREATE, requests, null, requestedBy);
+    }
+
+    /**
+     * Queue deletion of gatcha roles by ID. Only roles named with the gatcha prefix are deleted.
+     */
+    public RoleJobDto submitDelete(String guildId, List<String> roleIds, String requestedBy) {
+        return submit(guildId, RoleJob.Type.DELETE, roleIds, DELETE_PREFIX, requestedBy);
+    }
+
+    /**
+     * Queue deletion of every role whose name starts with {@code prefix} (case-insensitive).
+     */
+    public RoleJobDto submitDeleteByPrefix(String guildId, String prefix, String requestedBy) {
+        Guild guild = requireGuild(guildId);
+        String lower = prefix.toLowerCase(Locale.ROOT);
+        List<String> roleIds = guild.getRoles().stream()
+            .filter(role -> role.getName().toLowerCase(Locale.ROOT).startsWith(lower))
+            .map(Role::getId)
+            .toList();
+        return submit(guildId, RoleJob.Type.DELETE, roleIds, prefix, requestedBy);
+    }
+
+    public Optional<RoleJobDto> getJob(String guildId, Long jobId) {
+        return repository.findByIdAndGuildId(jobId, guildId).map(this::toDto);
+    }
+
+    public List<RoleJobDto> listJobs(String guildId) {
+        return repository.findTop20ByGuildIdOrderByCreatedAtDesc(guildId).stream().map(this::toDto).toList();
+    }
+
+    /**
+     * Request cancellation. Items already submitted to Discord still complete; the job then ends CANCELLED.
+     */
+    public Optional<RoleJobDto> cancel(String guildId, Long jobId) {
+        Optional<RoleJob> job = repository.findByIdAndGuildId(jobId, guildId);
+        if (job.isEmpty()) {
+            return Optional.empty();
+        }
+        if (!job.get().isFinished()) {
+            cancelFlags.computeIfAbsent(jobId, id -> new AtomicBoolean()).set(true);
+            // Targeted update: don't overwrite the worker's progress columns with this stale copy
+            repository.requestCancel(jobId);
+            job.get().setCancelRequested(true);
+            logger.info("Cancellation requested for role job {} in guild {}", jobId, guildId);
+        }
+        return job.map(this::toDto);
+    }
+
+    /**
+     * Resume unfinished jobs whose holder stopped checkpointing (it crashed or was restarted), on startup
+     * and every minute after. Each job is claimed with a conditional update first, so with several
+     * instances sharing the database only one of them resumes it.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "0 * * * * *")
+    public void resumeUnfinished() {
+        Instant now = Instant.now();
+        for (RoleJob job : repository.findByStatusInOrderByIdAsc(OPEN)) {
+            Long id = job.getId();
+            if (active.contains(id) || repository.claim(id, OPEN, owner, now, now.minus(STALE_AFTER)) == 0) {
+                continue;
+            }
+            logger.info("Resuming role job {} for guild {} at item {}/{}", id, job.getGuildId(), job.getNextItem(), job.getTotalItems());
+            start(id);
+        }
+    }
+
+    private void start(Long jobId) {
+        active.add(jobId);
+        executor.execute(() -> {
+            try {
+                run(jobId);
+            } finally {
+                active.remove(jobId);
+            }
+        });
+    }
+
+    private RoleJobDto submit(String guildId, RoleJob.Type type, List<?> items, String namePrefix, String requestedBy) {
+        requireGuild(guildId);
+        if (items == null || items.isEmpty()) {
+            throw new IllegalArgumentException("No roles to process");
+        }
+        if (items.size() > MAX_ITEMS) {
+            throw new IllegalArgumentException("Cannot process more than " + MAX_ITEMS + " roles in one job");
+        }
+
+        RoleJob job = new RoleJob(guildId, type, requestedBy, writeJson(items), items.size());
+        job.setNamePrefix(namePrefix);
+        job.setClaimedBy(owner);
+        job.setUpdatedAt(Instant.now());
+        job = repository.save(job);
+        logger.info("Queued {} role job {} for guild {} ({} item(s))", type, job.getId(), guildId, items.size());
+
+        start(job.getId());
+        return toDto(job);
+    }
+
+    private void run(Long jobId) {
+        RoleJob job = repository.findById(jobId).orElse(null);
+        // Waited in the queue long enough for another instance to take it over
+        if (job == null || job.isFinished() || !owner.equals(job.getClaimedBy())) {
+            return;
+        }
+        AtomicBoolean cancelled = cancelFlags.computeIfAbsent(jobId, id -> new AtomicBoolean());
+        if (job.isCancelRequested()) {
+            cancelled.set(true);
+        }
+
+        Progress progress = new Progress(job, readErrors(job.getErrors()));
+        try {
+            Guild guild = jda.getGuildById(job.getGuildId());
+            if (guild == null) {
+                progress.errors.add("Guild not available");
+                finish(job, progress, RoleJob.Status.FAILED, cancelled);
+                return;
+            }
+
+            job.setStatus(RoleJob.Status.RUNNING);
+            job = checkpoint(job, progress, cancelled);
+
+            int total = job.getTotalItems();
+            RoleJob.Type type = job.getType();
+            String namePrefix = job.getNamePrefix();
+            List<?> items = readItems(job);
+            Set<String> existingNames = type == RoleJob.Type.CREATE ? roleNameIndex(guild) : Set.of();
+            Semaphore window = new Semaphore(PIPELINE_DEPTH);
+
+            for (int i = job.getNextItem(); i < total && !cancelled.get(); i++) {
+                job = acquire(window, 1, job, progress, cancelled);
+                int index = i;
+                startItem(guild, type, namePrefix, items.get(i), existingNames).whenComplete((outcome, error) -> {
+                    // Callback runs on a JDA thread: record only, never block
+                    if (error != null) {
+                        progress.record(index, Outcome.FAILED, describe(type, items.get(index), error));
+                    } else {
+                        progress.record(index, outcome.kind(), outcome.message());
+                    }
+                    window.release();
+                });
+                if (progress.checkpointDue()) {
+                    job = checkpoint(job, progress, cancelled);
+                }
+            }
+
+            // Wait for in-flight actions before deciding the final status
+            job = acquire(window, PIPELINE_DEPTH, job, progress, cancelled);
+            boolean stoppedEarly = cancelled.get() && progress.nextItem < total;
+            finish(job, progress, stoppedEarly ? RoleJob.Status.CANCELLED : RoleJob.Status.COMPLETED, cancelled);
+        } catch (RuntimeException e) {
+            logger.error("Role job {} failed: {}", jobId, e.getMessage(), e);
+            progress.errors.add("Job failed: " + e.getMessage());
+            finish(job, progress, RoleJob.Status.FAILED, cancelled);
+        } finally {
+            cancelFlags.remove(jobId);
+        }
+    }
+
+    /**
+     * Take pipeline permits, checkpointing every {@link #HEARTBEAT} while Discord's rate limits hold
+     * them so other instances don't take the job for abandoned.
+     */
+    private RoleJob acquire(Semaphore window, int permits, RoleJob job, Progress progress, AtomicBoolean cancelled) {
+        while (true) {
+            try {
+                if (window.tryAcquire(permits, HEARTBEAT.toMillis(), TimeUnit.MILLISECONDS)) {
+                    return job;
+                }
+            } catch (InterruptedException e) {
+                // Shutting down: finish waiting for in-flight actions as before
+                Thread.currentThread().interrupt();
+                window.acquireUninterruptibly(permits);
+                return job;
+            }
+            job = checkpoint(job, progress, cancelled);
+        }
+    }
+
+    private record ItemResult(Outcome kind, String message) {}
+
+    private CompletableFuture<ItemResult> startItem(Guild guild, RoleJob.Type type, String prefix,
+                                                   Object item, Set<String> existingNames) {
+        try {
+            if (type == RoleJob.Type.CREATE) {
+                CreateRoleRequest request = (CreateRoleRequest) item;
+                String name = adminService.gatchaRoleName(request).toLowerCase(Locale.ROOT);
+                // Also catches duplicates within the same job
+                if (!existingNames.add(name)) {
+                    return CompletableFuture.completedFuture(new ItemResult(Outcome.SKIPPED, null));
+                }
+                return adminService.submitGatchaRole(guild, request).handle((role, error) -> {
+                    if (error != null) {
+                        existingNames.remove(name);
+                        throw new CompletionException(error);
+                    }
+                    return new ItemResult(Outcome.SUCCEEDED, null);
+                });
+            }
+
+            String roleId = (String) item;
+            Role role = guild.getRoleById(roleId);
+            if (role == null) {
+                return CompletableFuture.completedFuture(new ItemResult(Outcome.SKIPPED, null));
+            }
+            if (prefix != null && !role.getName().toLowerCase(Locale.ROOT).startsWith(prefix.toLowerCase(Locale.ROOT))) {
+                return CompletableFuture.completedFuture(new ItemResult(Outcome.FAILED,
+                    "Role " + roleId + ": Can only delete roles starting with " + prefix));
+            }
+            return role.delete().submit().thenApply(v -> new ItemResult(Outcome.SUCCEEDED, null));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private static Set<String> roleNameIndex(Guild guild) {
+        Set<String> names = ConcurrentHashMap.newKeySet();
+        for (Role role : guild.getRoles()) {
+            names.add(role.getName().toLowerCase(Locale.ROOT));
+        }
+        return names;
+    }
+
+    private static String describe(RoleJob.Type type, Object item, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        String message = cause.getMessage();
+        if (message != null && (message.contains("Missing Permissions") || message.contains("50013"))) {
+            message = "Bot lacks permission (role hierarchy issue - bot's role must be above this role)";
+        }
+        return type == RoleJob.Type.CREATE
+            ? "Failed to create '" + ((CreateRoleRequest) item).name() + "': " + message
+            : "Failed to delete role " + item + ": " + message;
+    }
+
+    private RoleJob checkpoint(RoleJob job, Progress progress, AtomicBoolean cancelled) {
+        int succeededBefore = job.getSucceededCount();
+        synchronized (progress) {
+            job.setNextItem(progress.nextItem);
+            job.setSucceededCount(progress.succeeded);
+            job.setSkippedCount(progress.skipped);
+            job.setFailedCount(progress.failed);
+            job.setErrors(writeJson(new ArrayList<>(progress.errors)));
+            progress.sinceCheckpoint = 0;
+        }
+        // Another instance may have taken the cancel request; the flag itself is only ever set by cancel()
+        if (repository.isCancelRequested(job.getId())) {
+            cancelled.set(true);
+        }
+        job.setCancelRequested(cancelled.get());
+        job.setUpdatedAt(Instant.now());
+        if (job.getSucceededCount() > succeededBefore) {
+            resourceVersions.bump(job.getGuildId(), Family.ROLES);
+        }
+        repository.saveProgress(job.getId(), job.getStatus(), job.getNextItem(), job.getSucceededCount(),
+            job.getSkippedCount(), job.getFailedCount(), job.getErrors(), job.getUpdatedAt(), job.getFinishedAt());
+        return job;
+    }
+
+    private void finish(RoleJob job, Progress progress, RoleJob.Status status, AtomicBoolean cancelled) {
+        job.setStatus(status);
+        job.setFinishedAt(Instant.now());
+        job = checkpoint(job, progress, cancelled);
+        logger.info("Role job {} for guild {} {}: {} succeeded, {} skipped, {} failed",
+            job.getId(), job.getGuildId(), status, job.getSucceededCount(), job.getSkippedCount(), job.getFailedCount());
+
+        if (job.getSucceededCount() > 0) {
+            guildsCache.evictGuild(job.getGuildId());
+            try {
+                webSocketNotificationService.notifyRolesChanged(job.getGuildId(),
+                    job.getType() == RoleJob.Type.CREATE ? "created" : "deleted");
+            } catch (Exception e) {
+                logger.warn("Failed to send websocket notification for role job {}: {}", job.getId(), e.getMessage());
+            }
+        }
+    }
+
+    private Guild requireGuild(String guildId) {
+        Guild guild = jda.getGuildById(guildId);
+        if (guild == null) {
+            throw new IllegalArgumentException("Guild not found: " + guildId);
+        }
+        return guild;
+    }
+
+    private List<?> readItems(RoleJob job) {
+        try {
+            return job.getType() == RoleJob.Type.CREATE
+                ? objectMapper.readValue(job.getPayload(), new TypeReference<List<CreateRoleRequest>>() {})
+                : objectMapper.readValue(job.getPayload(), new TypeReference<List<String>>() {});
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable payload for role job " + job.getId(), e);
+        }
+    }
+
+    private List<String> readErrors(String json) {
+        if (json == null || json.isBlank()) {
+            return new ArrayList<>();
+        }
+        try {
+            return new ArrayList<>(objectMapper.readValue(json, new TypeReference<List<String>>() {}));
+        } catch (JsonProcessingException e) {
+            return new ArrayList<>();
+        }
+    }
+
+    private String writeJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize role job data: " + e.getMessage(), e);
+        }
+    }
+
+    private RoleJobDto toDto(RoleJob job) {
+        return new RoleJobDto(
+            job.getId(),
+            job.getGuildId(),
+            job.getType().name(),
+            job.getStatus().name(),
+            job.getTotalItems(),
+            job.getSucceededCount() + job.getSkippedCount() + job.getFailedCount(),
+            job.getSucceededCount(),
+            job.getSkippedCount(),
+            job.getFailedCount(),
+            readErrors(job.getErrors()),
+            job.isCancelRequested(),
+            job.getCreatedAt(),
+            job.getUpdatedAt(),
+            job.getFinishedAt()
+        );
+    }
+}
@@ -0,0 +1,248 @@
+package com.discordbot.web.service;
+
+import com.discordbot.web.service.GuildResourceVersions.Family;
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.channel.concrete.ThreadChannel;
+import net.dv8tion.jda.api.entities.channel.unions.ChannelUnion;
+import net.dv8tion.jda.api.events.channel.ChannelCreateEvent;
+import net.dv8tion.jda.api.events.channel.ChannelDeleteEvent;
+import net.dv8tion.jda.api.events.channel.update.ChannelUpdateArchivedEvent;
+import net.dv8tion.jda.api.events.guild.GuildJoinEvent;
+import net.dv8tion.jda.api.events.guild.GuildLeaveEvent;
+import net.dv8tion.jda.api.events.guild.GuildReadyEvent;
+import net.dv8tion.jda.api.events.thread.ThreadHiddenEvent;
+import net.dv8tion.jda.api.events.thread.ThreadRevealedEvent;
+import net.dv8tion.jda.api.hooks.ListenerAdapter;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory registry of active (non-archived) threads per guild.
+ *
+ * The admin panel's channel tree and stream status used to call
+ * {@code guild.retrieveActiveThreads().complete()} on every request. Instead, each guild is seeded
+ * asynchronously once (on guild ready/join), kept current from thread create/delete/archive and
+ * hidden/revealed events, and reconciled against Discord periodically in the background.
+ * Reads never make a Discord round-trip.
+ *
+ * A seed or reconcile that changes a guild's thread list bumps its CHANNELS version, so channel
+ * payloads built from the JDA-cache fallback don't outlive the seed. At most one seed per guild is
+ * in flight, and a guild whose seed failed isn't retried until its backoff has passed.
+ */
+@Component
+public class ThreadRegistry extends ListenerAdapter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ThreadRegistry.class);
+
+    static final Duration SEED_RETRY_MIN = Duration.ofSeconds(30);
+    static final Duration SEED_RETRY_MAX = Duration.ofMinutes(15);
+
+    /** Seed bookkeeping for one guild; guarded by its own monitor. */
+    private static final class SeedState {
+        private boolean inFlight;
+        private int failures;
+        private Instant retryAt;
+    }
+
+    // guildId -> (threadId -> thread)
+    private final Map<String, Map<String, ThreadChannel>> threadsByGuild = new ConcurrentHashMap<>();
+    private final Map<String, SeedState> seeds = new ConcurrentHashMap<>();
+    private final GuildResourceVersions resourceVersions;
+    private final Clock clock;
+
+    // Captured from gateway events; the JDA bean itself depends on this listener
+    private volatile JDA jda;
+
+    @Autowired
+    public ThreadRegistry(GuildResourceVersions resourceVersions) {
+        this(resourceVersions, Clock.systemUTC());
+    }
+
+    /**
+     * Visible for tests: allows a fixed clock to drive seed backoff.
+     */
+    public ThreadRegistry(GuildResourceVersions resourceVersions, Clock clock) {
+        this.resourceVersions = resourceVersions;
+        this.clock = clock;
+    }
+
+    /**
+     * Active threads for a guild, from memory. If the guild hasn't been seeded yet, falls back to
+     * JDA's own thread cache and schedules a seed in the background (unless one is already in flight
+     * or backing off after a failure).
+     */
+    public List<ThreadChannel> getActiveThreads(Guild guild) {
+        Map<String, ThreadChannel> threads = threadsByGuild.get(guild.getId());
+        if (threads == null) {
+            seedAsync(guild);
+            return guild.getThreadChannels().stream().filter(t -> !t.isArchived()).toList();
+        }
+        return new ArrayList<>(threads.values());
+    }
+
+    /**
+     * Fetch the authoritative active thread list from Discord (blocking), replacing the registry's view.
+     * Reserved for callers that must not act on stale data, such as deleting orphaned streams.
+     */
+    public List<ThreadChannel> reconcileNow(Guild guild) {
+        List<ThreadChannel> threads = guild.retrieveActiveThreads().complete();
+        replace(guild.getId(), threads);
+        return threads;
+    }
+
+    @Scheduled(cron = "0 */15 * * * *")
+    public void reconcileAll() {
+        JDA current = jda;
+        if (current == null) {
+            return;
+        }
+        for (Guild guild : current.getGuilds()) {
+            seedAsync(guild);
+        }
+    }
+
+    @Override
+    public void onGuildReady(@NotNull GuildReadyEvent event) {
+        jda = event.getJDA();
+        seedAsync(event.getGuild());
+    }
+
+    @Override
+    public void onGuildJoin(@NotNull GuildJoinEvent event) {
+        jda = event.getJDA();
+        seedAsync(event.getGuild());
+    }
+
+    @Override
+    public void onGuildLeave(@NotNull GuildLeaveEvent event) {
+        threadsByGuild.remove(event.getGuild().getId());
+        seeds.remove(event.getGuild().getId());
+    }
+
+    @Override
+    public void onChannelCreate(@NotNull ChannelCreateEvent event) {
+        ThreadChannel thread = asThread(event.getChannel());
+        if (thread != null && !thread.isArchived()) {
+            add(thread);
+        }
+    }
+
+    @Override
+    public void onChannelDelete(@NotNull ChannelDeleteEvent event) {
+        ThreadChannel thread = asThread(event.getChannel());
+        if (thread != null) {
+            remove(thread);
+        }
+    }
+
+    @Override
+    public void onChannelUpdateArchived(@NotNull ChannelUpdateArchivedEvent event) {
+        ThreadChannel thread = asThread(event.getChannel());
+        if (thread == null) {
+            return;
+        }
+        if (Boolean.TRUE.equals(event.getNewValue())) {
+            remove(thread);
+        } else {
+            add(thread);
+        }
+    }
+
+    @Override
+    public void onThreadRevealed(@NotNull ThreadRevealedEvent event) {
+        if (!event.getThread().isArchived()) {
+            add(event.getThread());
+        }
+    }
+
+    @Override
+    public void onThreadHidden(@NotNull ThreadHiddenEvent event) {
+        remove(event.getThread());
+    }
+
+    private void seedAsync(Guild guild) {
+        String guildId = guild.getId();
+        SeedState state = seeds.computeIfAbsent(guildId, id -> new SeedState());
+        synchronized (state) {
+            if (state.inFlight || (state.retryAt != null && clock.instant().isBefore(state.retryAt))) {
+                return;
+            }
+            state.inFlight = true;
+        }
+        try {
+            guild.retrieveActiveThreads().queue(
+                threads -> {
+                    replace(guildId, threads);
+                    synchronized (state) {
+                        state.inFlight = false;
+                        state.failures = 0;
+                        state.retryAt = null;
+                    }
+                },
+                error -> seedFailed(guildId, state, error.getMessage())
+            );
+        } catch (Exception e) {
+            seedFailed(guildId, state, e.getMessage());
+        }
+    }
+
+    private void seedFailed(String guildId, SeedState state, String error) {
+        Instant retryAt;
+        synchronized (state) {
+            state.inFlight = false;
+            state.failures++;
+            long factor = 1L << Math.min(state.failures - 1, 10);
+            Duration backoff = SEED_RETRY_MIN.multipliedBy(factor);
+            state.retryAt = clock.instant().plus(backoff.compareTo(SEED_RETRY_MAX) > 0 ? SEED_RETRY_MAX : backoff);
+            retryAt = state.retryAt;
+        }
+        logger.warn("Failed to seed active threads for guild {}; not retrying before {}: {}", guildId, retryAt, error);
+    }
+
+    private void replace(String guildId, List<ThreadChannel> threads) {
+        Map<String, ThreadChannel> fresh = new ConcurrentHashMap<>();
+        for (ThreadChannel thread : threads) {
+            if (!thread.isArchived()) {
+                fresh.put(thread.getId(), thread);
+            }
+        }
+        Map<String, ThreadChannel> previous = threadsByGuild.put(guildId, fresh);
+        // Payloads built before the first seed came from JDA's cache, so always invalidate on seed
+        if (previous == null || !previous.keySet().equals(fresh.keySet())) {
+            resourceVersions.bump(guildId, Family.CHANNELS);
+        }
+        logger.debug("Thread registry for guild {} now holds {} active thread(s)", guildId, fresh.size());
+    }
+
+    private void add(ThreadChannel thread) {
+        Map<String, ThreadChannel> threads = threadsByGuild.get(thread.getGuild().getId());
+        // Unseeded guilds pick the thread up when their seed completes
+        if (threads != null) {
+            threads.put(thread.getId(), thread);
+        }
+    }
+
+    private void remove(ThreadChannel thread) {
+        Map<String, ThreadChannel> threads = threadsByGuild.get(thread.getGuild().getId());
+        if (threads != null) {
+            threads.remove(thread.getId());
+        }
+    }
+
+    private static ThreadChannel asThread(ChannelUnion channel) {
+        return channel.getType().isThread() ? channel.asThreadChannel() : null;
+    }
+}
@@ -4,7 +4,12 @@ import com.discordbot.web.dto.BulkRoleDeletionResult;
 import com.discordbot.web.dto.RoleDeletionResult;
 import com.discordbot.web.dto.RoleHierarchyStatus;
 import com.discordbot.web.service.AdminService;
+import com.discordbot.web.service.DiscordRestClient;
+import com.discordbot.web.service.GuildAuthorizationCache;
+import com.discordbot.web.service.GuildMemberIndex;
+import com.discordbot.web.service.GuildResourceVersions;
 import com.discordbot.web.service.GuildsCache;
+import com.discordbot.web.service.ThreadRegistry;
 import com.discordbot.web.service.WebSocketNotificationService;
 import com.discordbot.repository.QotdStreamRepository;
 import net.dv8tion.jda.api.JDA;
@@ -26,6 +31,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executors;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -47,7 +53,7 @@ class AdminServiceBranchesTest {
         cache = mock(GuildsCache.class);
         ws = mock(WebSocketNotificationService.class);
         qotdStreamRepository = mock(QotdStreamRepository.class);
-        service = new AdminService(jda, clients, cache, ws, qotdStreamRepository);
+        service = new AdminService(jda, clients, cache, ws, qotdStreamRepository, new GuildAuthorizationCache(), mock(DiscordRestClient.class), mock(ThreadRegistry.class), new GuildResourceVersions(), new GuildMemberIndex(), Executors.newCachedThreadPool());
     }
 
     @Test
@@ -99,7 +105,7 @@ class AdminServiceBranchesTest {
         guildAdmin.put("id", "g1");
         guildAdmin.put("name", "G");
         guildAdmin.put("permissions", String.valueOf(net.dv8tion.jda.api.Permission.ADMINISTRATOR.getRawValue()));
-        when(cache.get(eq("tok"), any())).thenReturn(List.of(guildAdmin));
+        when(cache.get(eq("user1"), eq("tok"), any())).thenReturn(List.of(guildAdmin));
 
         assertTrue(service.isUserAdminInGuild(auth, "g1"));
 
@@ -107,7 +113,7 @@ class AdminServiceBranchesTest {
         guildNo.put("id", "g2");
         guildNo.put("name", "G2");
         guildNo.put("permissions", "0");
-        when(cache.get(eq("tok"), any())).thenReturn(List.of(guildNo));
+        when(cache.get(eq("user1"), eq("tok"), any())).thenReturn(List.of(guildNo));
 
         assertFalse(service.isUserAdminInGuild(auth, "g2"));
     }
@@ -267,7 +273,7 @@ class AdminServiceBranchesTest {
         guild.put("id", "g1");
         guild.put("name", "G");
         guild.put("permissions", "0");
-        when(cache.get(eq("tok"), any())).thenReturn(List.of(guild));
+        when(cache.get(eq("user1"), eq("tok"), any())).thenReturn(List.of(guild));
 
         // Mock guild and member with Staff role
         Guild mockGuild = mock(Guild.class);
@@ -294,7 +300,7 @@ class AdminServiceBranchesTest {
         guild.put("id", "g1");
         guild.put("name", "G");
         guild.put("permissions", "0");
-        when(cache.get(eq("tok"), any())).thenReturn(List.of(guild));
+        when(cache.get(eq("user1"), eq("tok"), any())).thenReturn(List.of(guild));
 
         // Mock guild and member with no Staff role
         Guild mockGuild = mock(Guild.class);
@@ -320,7 +326,7 @@ class AdminServiceBranchesTest {
         guildAdmin.put("id", "g1");
         guildAdmin.put("name", "G");
         guildAdmin.put("permissions", String.valueOf(net.dv8tion.jda.api.Permission.ADMINISTRATOR.getRawValue()));
-        when(cache.get(eq("tok"), any())).thenReturn(List.of(guildAdmin));
+        when(cache.get(eq("user1"), eq("tok"), any())).thenReturn(List.of(guildAdmin));
 
         assertTrue(service.isUserActualAdminInGuild(auth, "g1"));
     }
@@ -337,7 +343,7 @@ class AdminServiceBranchesTest {
         guild.put("id", "g1");
         guild.put("name", "G");
         guild.put("permissions", "0");
-        when(cache.get(eq("tok"), any())).thenReturn(List.of(guild));
+        when(cache.get(eq("user1"), eq("tok"), any())).thenReturn(List.of(guild));
 
         // Mock guild and member with Staff role to prove Staff alone is insufficient
         Guild mockGuild = mock(Guild.class);
@@ -363,7 +369,7 @@ class AdminServiceBranchesTest {
         guild.put("id", "g1");
         guild.put("name", "G");
         guild.put("permissions", "not-a-number");
-        when(cache.get(eq("tok"), any())).thenReturn(List.of(guild));
+        when(cache.get(eq("user1"), eq("tok"), any())).thenReturn(List.of(guild));
 
         assertFalse(service.isUserActualAdminInGuild(auth, "g1"));
     }
@@ -4,7 +4,12 @@ import com.discordbot.web.dto.qotd.QotdDtos.ChannelTreeNodeDto;
 import com.discordbot.web.dto.qotd.QotdDtos.ChannelType;
 import com.discordbot.web.dto.qotd.QotdDtos.ChannelStreamStatusDto;
 import com.discordbot.web.service.AdminService;
+import com.discordbot.web.service.DiscordRestClient;
+import com.discordbot.web.service.GuildAuthorizationCache;
+import com.discordbot.web.service.GuildMemberIndex;
+import com.discordbot.web.service.GuildResourceVersions;
 import com.discordbot.web.service.GuildsCache;
+import com.discordbot.web.service.ThreadRegistry;
 import com.discordbot.web.service.WebSocketNotificationService;
 import com.discordbot.repository.QotdStreamRepository;
 import com.discordbot.entity.QotdStream;
@@ -22,6 +27,7 @@ import org.springframework.security.oauth2.client.OAuth2AuthorizedClientService;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Executors;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -59,7 +65,13 @@ class AdminServiceChannelOptionsTest {
         threadChannel2 = mock(ThreadChannel.class);
         parentChannel = mock(IThreadContainerUnion.class);
         
-        adminService = new AdminService(jda, authorizedClientService, guildsCache, webSocketService, qotdStreamRepository);
+        // Registry serves whatever the guild's active thread list holds
+        ThreadRegistry threadRegistry = mock(ThreadRegistry.class);
+        when(threadRegistry.getActiveThreads(any())).thenAnswer(inv ->
+            ((Guild) inv.getArgument(0)).retrieveActiveThreads().complete());
+
+        adminService = new AdminService(jda, authorizedClientService, guildsCache, webSocketService, qotdStreamRepository,
+            new GuildAuthorizationCache(), mock(DiscordRestClient.class), threadRegistry, new GuildResourceVersions(), new GuildMemberIndex(), Executors.newCachedThreadPool());
     }
     
     @Test
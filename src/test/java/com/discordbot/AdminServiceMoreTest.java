@@ -4,7 +4,12 @@ import com.discordbot.web.dto.BulkRoleCreationResult;
 import com.discordbot.web.dto.GachaRoleInfo;
 import com.discordbot.web.dto.RoleDeletionResult;
 import com.discordbot.web.service.AdminService;
+import com.discordbot.web.service.DiscordRestClient;
+import com.discordbot.web.service.GuildAuthorizationCache;
+import com.discordbot.web.service.GuildMemberIndex;
+import com.discordbot.web.service.GuildResourceVersions;
 import com.discordbot.web.service.GuildsCache;
+import com.discordbot.web.service.ThreadRegistry;
 import com.discordbot.web.service.WebSocketNotificationService;
 import com.discordbot.repository.QotdStreamRepository;
 import net.dv8tion.jda.api.JDA;
@@ -24,6 +29,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executors;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -45,7 +51,7 @@ class AdminServiceMoreTest {
         guildsCache = mock(GuildsCache.class);
         ws = mock(WebSocketNotificationService.class);
         qotdStreamRepository = mock(QotdStreamRepository.class);
-        service = new AdminService(jda, authorizedClientService, guildsCache, ws, qotdStreamRepository);
+        service = new AdminService(jda, authorizedClientService, guildsCache, ws, qotdStreamRepository, new GuildAuthorizationCache(), mock(DiscordRestClient.class), mock(ThreadRegistry.class), new GuildResourceVersions(), new GuildMemberIndex(), Executors.newCachedThreadPool());
     }
 
     @Test
@@ -71,7 +77,7 @@ class AdminServiceMoreTest {
         nonAdmin.put("name", "Guild Three");
         nonAdmin.put("permissions", "0");
 
-        when(guildsCache.get(eq("tok-1"), any())).thenReturn(List.of(adminPresent, adminAbsent, nonAdmin));
+        when(guildsCache.get(eq("user1"), eq("tok-1"), any())).thenReturn(List.of(adminPresent, adminAbsent, nonAdmin));
 
         Guild g1 = mock(Guild.class);
         when(jda.getGuildById("g1")).thenReturn(g1);
@@ -93,6 +99,103 @@ class AdminServiceMoreTest {
         assertNull(second.iconUrl());
     }
 
+    @Test
+    @DisplayName("getManageableGuild: builds info for one guild from the cached list")
+    void getManageableGuild_single() {
+        Authentication auth = mockAuth("user1");
+        mockAccessToken("user1", "tok-1");
+        Map<String, Object> g1 = new HashMap<>();
+        g1.put("id", "g1");
+        g1.put("name", "Guild One");
+        g1.put("icon", "abc");
+        g1.put("permissions", "0");
+        Map<String, Object> g2 = new HashMap<>();
+        g2.put("id", "g2");
+        g2.put("name", "Guild Two");
+        g2.put("permissions", "0");
+        when(guildsCache.get(eq("user1"), eq("tok-1"), any())).thenReturn(List.of(g1, g2));
+        Guild guild = mock(Guild.class);
+        when(jda.getGuildById("g1")).thenReturn(guild);
+
+        var info = service.getManageableGuild(auth, "g1").orElseThrow();
+        assertEquals("Guild One", info.name());
+        assertTrue(info.botIsPresent());
+        assertTrue(info.iconUrl().endsWith("/icons/g1/abc.png"));
+        assertTrue(service.getManageableGuild(auth, "missing").isEmpty());
+        // No Staff role lookups for the single-guild path
+        verify(guild, never()).getMemberById(anyString());
+    }
+
+    @Test
+    @DisplayName("getManageableGuilds: Staff role checks run concurrently and are skipped for admins")
+    void getManageableGuilds_staffChecksConcurrent() {
+        Authentication auth = mockAuth("user1");
+        mockAccessToken("user1", "tok-1");
+
+        Map<String, Object> admin = new HashMap<>();
+        admin.put("id", "g1");
+        admin.put("name", "Admin Guild");
+        admin.put("permissions", String.valueOf(net.dv8tion.jda.api.Permission.ADMINISTRATOR.getRawValue()));
+        Map<String, Object> staffA = new HashMap<>();
+        staffA.put("id", "g2");
+        staffA.put("name", "Staff A");
+        staffA.put("permissions", "0");
+        Map<String, Object> staffB = new HashMap<>();
+        staffB.put("id", "g3");
+        staffB.put("name", "Staff B");
+        staffB.put("permissions", "0");
+        when(guildsCache.get(eq("user1"), eq("tok-1"), any())).thenReturn(List.of(admin, staffA, staffB));
+
+        Role staffRole = mock(Role.class);
+        when(staffRole.getName()).thenReturn("Staff");
+        net.dv8tion.jda.api.entities.Member member = mock(net.dv8tion.jda.api.entities.Member.class);
+        when(member.getRoles()).thenReturn(List.of(staffRole));
+
+        // Each lookup waits until both are in flight; a sequential implementation would time out
+        java.util.concurrent.CountDownLatch bothStarted = new java.util.concurrent.CountDownLatch(2);
+        Guild g1 = mock(Guild.class);
+        when(jda.getGuildById("g1")).thenReturn(g1);
+        for (String id : List.of("g2", "g3")) {
+            Guild g = mock(Guild.class);
+            when(jda.getGuildById(id)).thenReturn(g);
+            when(g.getMemberById("user1")).thenAnswer(inv -> {
+                bothStarted.countDown();
+                return bothStarted.await(2, java.util.concurrent.TimeUnit.SECONDS) ? member : null;
+            });
+        }
+
+        var list = service.getManageableGuilds(auth);
+        assertEquals(List.of("g1", "g2", "g3"), list.stream().map(g -> g.id()).toList());
+        verify(g1, never()).getMemberById(anyString());
+    }
+
+    @Test
+    @DisplayName("getManageableGuilds: a Staff role check still running at the budget is cancelled and counts as no")
+    void getManageableGuilds_hungStaffCheckCancelled() throws Exception {
+        Authentication auth = mockAuth("user1");
+        mockAccessToken("user1", "tok-1");
+        Map<String, Object> hung = new HashMap<>();
+        hung.put("id", "g2");
+        hung.put("name", "Hung");
+        hung.put("permissions", "0");
+        when(guildsCache.get(eq("user1"), eq("tok-1"), any())).thenReturn(List.of(hung));
+
+        java.util.concurrent.CountDownLatch interrupted = new java.util.concurrent.CountDownLatch(1);
+        Guild g = mock(Guild.class);
+        when(jda.getGuildById("g2")).thenReturn(g);
+        when(g.getMemberById("user1")).thenAnswer(inv -> {
+            try {
+                new java.util.concurrent.CountDownLatch(1).await();
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return null;
+        });
+
+        assertTrue(service.getManageableGuilds(auth).isEmpty());
+        assertTrue(interrupted.await(2, java.util.concurrent.TimeUnit.SECONDS), "worker should be interrupted");
+    }
+
     @Test
     @DisplayName("deleteRolesByPrefix: deletion errors are handled and not counted")
     void deleteRolesByPrefix_deleteErrorHandled() {
@@ -320,7 +423,7 @@ class AdminServiceMoreTest {
 
         BulkRoleCreationResult result = spy.initializeDefaultRoles("g1");
         assertEquals(11, result.successCount());
-        verify(guildsCache, atLeastOnce()).evictAll();
+        verify(guildsCache, atLeastOnce()).evictGuild("g1");
     }
 
     @Test
@@ -482,12 +585,11 @@ class AdminServiceMoreTest {
     }
 
     @Test
-    @DisplayName("evictGuildsCache uses access token from authorized client")
-    void evictGuildsCache_usesToken() {
+    @DisplayName("evictGuildsCache evicts the current user's entry")
+    void evictGuildsCache_evictsUser() {
         Authentication auth = mockAuth("user123");
-        mockAccessToken("user123", "token-abc");
         service.evictGuildsCache(auth);
-        verify(guildsCache).evictForToken("token-abc");
+        verify(guildsCache).evictUser("user123");
     }
 
     @Test
@@ -531,7 +633,7 @@ class AdminServiceMoreTest {
         );
 
         spy.createBulkGatchaRoles("g1", reqs);
-        verify(guildsCache, times(1)).evictAll();
+        verify(guildsCache, times(1)).evictGuild("g1");
     }
 
     @Test
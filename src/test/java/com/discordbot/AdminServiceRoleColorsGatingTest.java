@@ -1,13 +1,20 @@
 package com.discordbot;
 
 import com.discordbot.web.service.AdminService;
+import com.discordbot.web.service.DiscordRestClient;
+import com.discordbot.web.service.GuildAuthorizationCache;
+import com.discordbot.web.service.GuildMemberIndex;
+import com.discordbot.web.service.GuildResourceVersions;
 import com.discordbot.web.service.GuildsCache;
+import com.discordbot.web.service.ThreadRegistry;
 import com.discordbot.web.service.WebSocketNotificationService;
 import com.discordbot.repository.QotdStreamRepository;
 import net.dv8tion.jda.api.JDA;
 import org.junit.jupiter.api.BeforeEach;
 import org.springframework.security.oauth2.client.OAuth2AuthorizedClientService;
 
+import java.util.concurrent.Executors;
+
 import static org.mockito.Mockito.*;
 
 class AdminServiceRoleColorsGatingTest {
@@ -28,7 +35,7 @@ class AdminServiceRoleColorsGatingTest {
         guildsCache = mock(GuildsCache.class);
         ws = mock(WebSocketNotificationService.class);
         qotdStreamRepository = mock(QotdStreamRepository.class);
-        service = new AdminService(jda, authorizedClientService, guildsCache, ws, qotdStreamRepository);
+        service = new AdminService(jda, authorizedClientService, guildsCache, ws, qotdStreamRepository, new GuildAuthorizationCache(), mock(DiscordRestClient.class), mock(ThreadRegistry.class), new GuildResourceVersions(), new GuildMemberIndex(), Executors.newCachedThreadPool());
     }
 }
 
@@ -2,7 +2,12 @@ package com.discordbot;
 
 import com.discordbot.web.dto.GuildInfo;
 import com.discordbot.web.service.AdminService;
+import com.discordbot.web.service.DiscordRestClient;
+import com.discordbot.web.service.GuildAuthorizationCache;
+import com.discordbot.web.service.GuildMemberIndex;
+import com.discordbot.web.service.GuildResourceVersions;
 import com.discordbot.web.service.GuildsCache;
+import com.discordbot.web.service.ThreadRegistry;
 import com.discordbot.web.service.WebSocketNotificationService;
 import com.discordbot.repository.QotdStreamRepository;
 import net.dv8tion.jda.api.JDA;
@@ -20,6 +25,7 @@ import org.springframework.security.oauth2.core.user.DefaultOAuth2User;
 import org.springframework.security.oauth2.core.user.OAuth2User;
 
 import java.util.*;
+import java.util.concurrent.Executors;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -44,7 +50,7 @@ class AdminServiceTest {
         webSocketService = mock(WebSocketNotificationService.class);
         qotdStreamRepository = mock(QotdStreamRepository.class);
 
-        adminService = new AdminService(jda, authorizedClientService, guildsCache, webSocketService, qotdStreamRepository);
+        adminService = new AdminService(jda, authorizedClientService, guildsCache, webSocketService, qotdStreamRepository, new GuildAuthorizationCache(), mock(DiscordRestClient.class), mock(ThreadRegistry.class), new GuildResourceVersions(), new GuildMemberIndex(), Executors.newCachedThreadPool());
     }
 
     @Test
@@ -71,7 +77,7 @@ class AdminServiceTest {
         guild.put("permissions", "0"); // No permissions
         userGuilds.add(guild);
 
-        when(guildsCache.get(eq("mock-token"), any())).thenReturn(userGuilds);
+        when(guildsCache.get(eq("user123"), eq("mock-token"), any())).thenReturn(userGuilds);
 
         boolean result = adminService.canManageGuild(auth, "guild123");
         assertFalse(result, "Should return false when user lacks admin permissions");
@@ -95,7 +101,7 @@ class AdminServiceTest {
         guild.put("permissions", String.valueOf(adminPermissions));
         userGuilds.add(guild);
 
-        when(guildsCache.get(eq("mock-token"), any())).thenReturn(userGuilds);
+        when(guildsCache.get(eq("user123"), eq("mock-token"), any())).thenReturn(userGuilds);
 
         // Bot is NOT in this guild
         when(jda.getGuildById("guild123")).thenReturn(null);
@@ -122,7 +128,7 @@ class AdminServiceTest {
         guild.put("permissions", String.valueOf(adminPermissions));
         userGuilds.add(guild);
 
-        when(guildsCache.get(eq("mock-token"), any())).thenReturn(userGuilds);
+        when(guildsCache.get(eq("user123"), eq("mock-token"), any())).thenReturn(userGuilds);
 
         // Bot IS in this guild
         Guild mockGuild = mock(Guild.class);
@@ -149,7 +155,7 @@ class AdminServiceTest {
         guild.put("permissions", String.valueOf(manageServerPermissions));
         userGuilds.add(guild);
 
-        when(guildsCache.get(eq("mock-token"), any())).thenReturn(userGuilds);
+        when(guildsCache.get(eq("user123"), eq("mock-token"), any())).thenReturn(userGuilds);
 
         Guild mockGuild = mock(Guild.class);
         when(jda.getGuildById("guild123")).thenReturn(mockGuild);
@@ -217,7 +223,7 @@ class AdminServiceTest {
         guild2.put("permissions", "0");
         userGuilds.add(guild2);
 
-        when(guildsCache.get(eq("mock-token"), any())).thenReturn(userGuilds);
+        when(guildsCache.get(eq("user123"), eq("mock-token"), any())).thenReturn(userGuilds);
 
         // Mock JDA guilds
         Guild mockGuild1 = mock(Guild.class);
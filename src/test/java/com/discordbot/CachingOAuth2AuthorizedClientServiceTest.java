@@ -0,0 +1,115 @@
+package com.discordbot;
+
+import com.discordbot.web.CachingOAuth2AuthorizedClientService;
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClientService;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CachingOAuth2AuthorizedClientServiceTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-01T00:00:00Z");
+
+    private OAuth2AuthorizedClientService delegate;
+    private AtomicLong nanos;
+    private CachingOAuth2AuthorizedClientService service;
+    private ClientRegistration registration;
+
+    @BeforeEach
+    void setup() {
+        delegate = mock(OAuth2AuthorizedClientService.class);
+        nanos = new AtomicLong();
+        Ticker ticker = nanos::get;
+        service = new CachingOAuth2AuthorizedClientService(delegate, ticker, Clock.fixed(NOW, ZoneOffset.UTC));
+        registration = ClientRegistration.withRegistrationId("discord")
+            .clientId("id")
+            .authorizationGrantType(AuthorizationGrantType.AUTHORIZATION_CODE)
+            .redirectUri("http://localhost/callback")
+            .authorizationUri("http://localhost/auth")
+            .tokenUri("http://localhost/token")
+            .build();
+    }
+
+    private OAuth2AuthorizedClient client(String principal, Instant expiresAt) {
+        OAuth2AccessToken token = new OAuth2AccessToken(OAuth2AccessToken.TokenType.BEARER, "tok-" + principal,
+            NOW.minusSeconds(60), expiresAt);
+        return new OAuth2AuthorizedClient(registration, principal, token);
+    }
+
+    @Test
+    @DisplayName("Repeated loads are served from memory and recorded as hits")
+    void loadsAreCached() {
+        OAuth2AuthorizedClient c = client("u1", NOW.plusSeconds(3600));
+        when(delegate.loadAuthorizedClient("discord", "u1")).thenReturn(c);
+
+        assertSame(c, service.loadAuthorizedClient("discord", "u1"));
+        assertSame(c, service.loadAuthorizedClient("discord", "u1"));
+        assertSame(c, service.loadAuthorizedClient("discord", "u1"));
+        verify(delegate, times(1)).loadAuthorizedClient("discord", "u1");
+
+        assertEquals(2L, service.stats().get("hits"));
+        assertEquals(1L, service.stats().get("misses"));
+    }
+
+    @Test
+    @DisplayName("Missing clients are not cached")
+    void missesNotCached() {
+        assertNull(service.loadAuthorizedClient("discord", "u1"));
+        assertNull(service.loadAuthorizedClient("discord", "u1"));
+        verify(delegate, times(2)).loadAuthorizedClient("discord", "u1");
+    }
+
+    @Test
+    @DisplayName("Entries expire after the TTL and expired tokens are never served")
+    void expiry() {
+        when(delegate.loadAuthorizedClient("discord", "u1")).thenReturn(client("u1", NOW.plusSeconds(3600)));
+        service.loadAuthorizedClient("discord", "u1");
+        nanos.addAndGet(Duration.ofMinutes(6).toNanos());
+        service.loadAuthorizedClient("discord", "u1");
+        verify(delegate, times(2)).loadAuthorizedClient("discord", "u1");
+
+        when(delegate.loadAuthorizedClient("discord", "u2")).thenReturn(client("u2", NOW.minusSeconds(1)));
+        service.loadAuthorizedClient("discord", "u2");
+        service.loadAuthorizedClient("discord", "u2");
+        verify(delegate, times(2)).loadAuthorizedClient("discord", "u2");
+    }
+
+    @Test
+    @DisplayName("Save writes through and evicts; remove and evictPrincipal evict")
+    void writeThroughAndEvict() {
+        OAuth2AuthorizedClient c = client("u1", NOW.plusSeconds(3600));
+        when(delegate.loadAuthorizedClient("discord", "u1")).thenReturn(c);
+        Authentication auth = mock(Authentication.class);
+        when(auth.getName()).thenReturn("u1");
+
+        service.loadAuthorizedClient("discord", "u1");
+        service.saveAuthorizedClient(c, auth);
+        verify(delegate).saveAuthorizedClient(c, auth);
+        service.loadAuthorizedClient("discord", "u1");
+        verify(delegate, times(2)).loadAuthorizedClient("discord", "u1");
+
+        service.removeAuthorizedClient("discord", "u1");
+        verify(delegate).removeAuthorizedClient("discord", "u1");
+        service.loadAuthorizedClient("discord", "u1");
+        verify(delegate, times(3)).loadAuthorizedClient("discord", "u1");
+
+        service.evictPrincipal("u1");
+        service.loadAuthorizedClient("discord", "u1");
+        verify(delegate, times(4)).loadAuthorizedClient("discord", "u1");
+    }
+}
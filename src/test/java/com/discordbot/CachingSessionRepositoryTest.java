@@ -0,0 +1,162 @@
+package com.discordbot;
+
+import com.discordbot.web.CachingSessionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.session.MapSession;
+import org.springframework.session.MapSessionRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CachingSessionRepositoryTest {
+
+    private MapSessionRepository delegate;
+    private CachingSessionRepository<MapSession> repo;
+    private final AtomicLong nanos = new AtomicLong();
+
+    @BeforeEach
+    void setup() {
+        delegate = spy(new MapSessionRepository(new ConcurrentHashMap<>()));
+        repo = new CachingSessionRepository<>(delegate, Duration.ofMinutes(1), nanos::get);
+    }
+
+    private String createSaved() {
+        var session = repo.createSession();
+        session.setAttribute("user", "u1");
+        repo.save(session);
+        return session.getId();
+    }
+
+    @Test
+    @DisplayName("New sessions are written through and then served from memory")
+    void createAndRead() {
+        String id = createSaved();
+        verify(delegate, times(1)).save(any());
+
+        var found = repo.findById(id);
+        assertNotNull(found);
+        assertEquals("u1", found.getAttribute("user"));
+        // The delegate isn't read again once the session is cached
+        verify(delegate, never()).findById(id);
+    }
+
+    @Test
+    @DisplayName("lastAccessedTime-only changes are coalesced within the granularity")
+    void touchesCoalesced() {
+        String id = createSaved();
+        Instant base = repo.findById(id).getLastAccessedTime();
+
+        var s1 = repo.findById(id);
+        s1.setLastAccessedTime(base.plusSeconds(20));
+        repo.save(s1);
+        var s2 = repo.findById(id);
+        s2.setLastAccessedTime(base.plusSeconds(40));
+        repo.save(s2);
+        verify(delegate, times(1)).save(any());
+        // The cached copy still reflects the newest access time
+        assertEquals(base.plusSeconds(40), repo.findById(id).getLastAccessedTime());
+
+        var s3 = repo.findById(id);
+        s3.setLastAccessedTime(base.plusSeconds(61));
+        repo.save(s3);
+        verify(delegate, times(2)).save(any());
+        assertEquals(base.plusSeconds(61), delegate.findById(id).getLastAccessedTime());
+        assertEquals(2L, repo.stats().get("skippedWrites"));
+    }
+
+    @Test
+    @DisplayName("Attribute changes are always persisted")
+    void attributeChangesPersisted() {
+        String id = createSaved();
+        var s = repo.findById(id);
+        s.setAttribute("csrf", "abc");
+        s.removeAttribute("user");
+        repo.save(s);
+
+        MapSession durable = delegate.findById(id);
+        assertEquals("abc", durable.getAttribute("csrf"));
+        assertNull(durable.getAttribute("user"));
+        assertNull(repo.findById(id).getAttribute("user"));
+    }
+
+    @Test
+    @DisplayName("A touch-only save keeps attributes another request saved meanwhile")
+    void concurrentAttributeKept() {
+        String id = createSaved();
+        var login = repo.findById(id);
+        var poll = repo.findById(id);
+
+        login.setAttribute("SPRING_SECURITY_CONTEXT", "ctx");
+        repo.save(login);
+        poll.setLastAccessedTime(poll.getLastAccessedTime().plusSeconds(5));
+        repo.save(poll);
+
+        assertEquals("ctx", repo.findById(id).getAttribute("SPRING_SECURITY_CONTEXT"));
+        assertEquals("ctx", delegate.findById(id).getAttribute("SPRING_SECURITY_CONTEXT"));
+    }
+
+    @Test
+    @DisplayName("Cached sessions are revalidated once a granularity old, so deletions elsewhere are seen")
+    void revalidatesAgainstDelegate() {
+        String id = createSaved();
+        // Another instance logs the user out: only the durable store knows
+        delegate.deleteById(id);
+
+        nanos.addAndGet(Duration.ofSeconds(30).toNanos());
+        assertNotNull(repo.findById(id));
+        nanos.addAndGet(Duration.ofSeconds(30).toNanos());
+        assertNull(repo.findById(id));
+    }
+
+    @Test
+    @DisplayName("changeSessionId moves the durable row and the cached entry")
+    void changeSessionId() {
+        String id = createSaved();
+        var s = repo.findById(id);
+        String newId = s.changeSessionId();
+        repo.save(s);
+
+        assertNotEquals(id, newId);
+        assertNull(delegate.findById(id));
+        assertNotNull(delegate.findById(newId));
+        assertEquals("u1", repo.findById(newId).getAttribute("user"));
+    }
+
+    @Test
+    @DisplayName("Deleted and expired sessions are not served or resurrected")
+    void deleteAndExpiry() {
+        String id = createSaved();
+        var stale = repo.findById(id);
+        repo.deleteById(id);
+        assertNull(repo.findById(id));
+
+        // A request that loaded the session before logout must not write it back
+        stale.setAttribute("x", "y");
+        repo.save(stale);
+        assertNull(delegate.findById(id));
+
+        String expiring = createSaved();
+        var s = repo.findById(expiring);
+        s.setMaxInactiveInterval(Duration.ofSeconds(1));
+        s.setLastAccessedTime(Instant.now().minusSeconds(60));
+        repo.save(s);
+        assertNull(repo.findById(expiring));
+        assertNull(delegate.findById(expiring));
+    }
+
+    @Test
+    @DisplayName("evictAll drops cached copies so the delegate is consulted")
+    void evictAll() {
+        String id = createSaved();
+        repo.evictAll(java.util.List.of(id));
+        assertNotNull(repo.findById(id));
+        verify(delegate, times(1)).findById(id);
+    }
+}
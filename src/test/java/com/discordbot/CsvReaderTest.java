@@ -0,0 +1,88 @@
+package com.discordbot;
+
+import com.discordbot.web.service.CsvReader;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvReaderTest {
+
+    private static List<CsvReader.Row> readAll(String csv) throws IOException {
+        List<CsvReader.Row> rows = new ArrayList<>();
+        try (CsvReader reader = new CsvReader(new StringReader(csv))) {
+            CsvReader.Row row;
+            while ((row = reader.next()) != null) {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+
+    @Test
+    @DisplayName("Quoted fields keep commas, doubled quotes and line breaks")
+    void quotedFields() throws IOException {
+        List<CsvReader.Row> rows = readAll("a,\"b, c\",\"say \"\"hi\"\"\"\r\n\"multi\nline\",x\n");
+
+        assertEquals(2, rows.size());
+        assertEquals(List.of("a", "b, c", "say \"hi\""), rows.get(0).fields());
+        assertEquals(List.of("multi\nline", "x"), rows.get(1).fields());
+    }
+
+    @Test
+    @DisplayName("Rows report the physical line they start on")
+    void lineNumbers() throws IOException {
+        List<CsvReader.Row> rows = readAll("h1,h2\n\"two\nlines\",y\n\nlast,z");
+
+        assertEquals(1, rows.get(0).line());
+        assertEquals(2, rows.get(1).line());
+        assertTrue(rows.get(2).isBlank());
+        assertEquals(4, rows.get(2).line());
+        assertEquals(5, rows.get(3).line());
+        assertEquals("z", rows.get(3).field(1));
+        assertEquals("", rows.get(3).field(7));
+    }
+
+    @Test
+    @DisplayName("Malformed rows throw with the line number and reading continues on the next line")
+    void malformedRowsRecover() throws IOException {
+        try (CsvReader reader = new CsvReader(new StringReader("ok,1\nbad\"quote,2\n\"closed\"junk,3\nfine,4\n"))) {
+            assertEquals("ok", reader.next().field(0));
+
+            CsvReader.CsvFormatException quote = assertThrows(CsvReader.CsvFormatException.class, reader::next);
+            assertEquals(2, quote.getLine());
+
+            CsvReader.CsvFormatException junk = assertThrows(CsvReader.CsvFormatException.class, reader::next);
+            assertEquals(3, junk.getLine());
+
+            CsvReader.Row fine = reader.next();
+            assertEquals(4, fine.line());
+            assertEquals(List.of("fine", "4"), fine.fields());
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    @DisplayName("Unterminated quotes and oversized fields are rejected")
+    void limits() {
+        CsvReader.CsvFormatException unterminated = assertThrows(CsvReader.CsvFormatException.class,
+            () -> readAll("a,b\nc,\"never closed\nmore"));
+        assertEquals(2, unterminated.getLine());
+
+        assertThrows(CsvReader.CsvFormatException.class,
+            () -> new CsvReader(new StringReader("x".repeat(20)), 10, 5).next());
+        assertThrows(CsvReader.CsvFormatException.class,
+            () -> new CsvReader(new StringReader("a,b,c,d,e,f"), 10, 5).next());
+    }
+
+    @Test
+    @DisplayName("A leading byte order mark is ignored")
+    void byteOrderMark() throws IOException {
+        assertEquals("name", readAll("\uFEFFname,rarity").get(0).field(0));
+    }
+}
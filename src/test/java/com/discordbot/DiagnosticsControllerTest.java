@@ -0,0 +1,68 @@
+package com.discordbot;
+
+import com.discordbot.repository.QotdStreamRepository;
+import com.discordbot.web.CachingOAuth2AuthorizedClientService;
+import com.discordbot.web.CachingSessionRepository;
+import com.discordbot.web.controller.DiagnosticsController;
+import com.discordbot.web.service.AdminService;
+import com.discordbot.web.service.QotdSchedule;
+import com.discordbot.web.service.QotdThreadWarmup;
+import com.discordbot.web.service.ThreadRegistry;
+import net.dv8tion.jda.api.JDA;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class DiagnosticsControllerTest {
+
+    private DiagnosticsController controller;
+    private AdminService adminService;
+
+    @BeforeEach
+    void setup() {
+        CachingOAuth2AuthorizedClientService clients = mock(CachingOAuth2AuthorizedClientService.class);
+        when(clients.stats()).thenReturn(Map.of("hitRatio", 0.75));
+
+        CachingSessionRepository<?> sessions = mock(CachingSessionRepository.class);
+        when(sessions.stats()).thenReturn(Map.of("skippedWrites", 3L));
+
+        adminService = mock(AdminService.class);
+        controller = new DiagnosticsController(mock(JDA.class), adminService,
+            mock(QotdStreamRepository.class), mock(ThreadRegistry.class), mock(QotdSchedule.class),
+            mock(QotdThreadWarmup.class), clients, sessions);
+    }
+
+    @Test
+    @DisplayName("/api/diagnostics/guilds/{id}/caches requires a guild admin")
+    void cacheStats_requiresAdmin() {
+        assertEquals(403, controller.getCacheStats("1", null).getStatusCode().value());
+
+        Authentication member = mock(Authentication.class);
+        when(member.isAuthenticated()).thenReturn(true);
+        when(adminService.canManageGuild(member, "1")).thenReturn(false);
+        assertEquals(403, controller.getCacheStats("1", member).getStatusCode().value());
+        verify(adminService).canManageGuild(member, "1");
+    }
+
+    @Test
+    @DisplayName("/api/diagnostics/guilds/{id}/caches returns near-cache stats")
+    void cacheStats_ok() {
+        Authentication auth = mock(Authentication.class);
+        when(auth.isAuthenticated()).thenReturn(true);
+        when(adminService.canManageGuild(auth, "1")).thenReturn(true);
+
+        ResponseEntity<Map<String, Object>> res = controller.getCacheStats("1", auth);
+        assertEquals(200, res.getStatusCode().value());
+        Map<String, Object> body = res.getBody();
+        assertNotNull(body);
+        assertEquals(0.75, ((Map<?,?>) body.get("authorizedClients")).get("hitRatio"));
+        assertEquals(3L, ((Map<?,?>) body.get("sessions")).get("skippedWrites"));
+    }
+}
@@ -0,0 +1,172 @@
+package com.discordbot;
+
+import com.discordbot.web.service.DiscordRestClient;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DiscordRestClientTest {
+
+    private static final String GUILDS_JSON = "[{\"id\":\"g1\",\"name\":\"Guild One\",\"permissions\":\"8\"}]";
+
+    private HttpServer server;
+    private DiscordRestClient client;
+    private final AtomicInteger requests = new AtomicInteger();
+    private volatile Handler handler;
+
+    @FunctionalInterface
+    private interface Handler {
+        void handle(HttpExchange exchange, int requestNumber) throws IOException;
+    }
+
+    @BeforeEach
+    void setup() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/", exchange -> handler.handle(exchange, requests.incrementAndGet()));
+        server.start();
+        client = new DiscordRestClient("http://127.0.0.1:" + server.getAddress().getPort());
+    }
+
+    @AfterEach
+    void teardown() {
+        server.stop(0);
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body, Map<String, String> headers) throws IOException {
+        headers.forEach((k, v) -> exchange.getResponseHeaders().add(k, v));
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(bytes);
+        }
+    }
+
+    @Test
+    @DisplayName("Parses guild list and sends the bearer token")
+    void fetchesGuilds() {
+        List<String> auth = new ArrayList<>();
+        handler = (ex, n) -> {
+            auth.add(ex.getRequestHeaders().getFirst("Authorization"));
+            respond(ex, 200, GUILDS_JSON, Map.of());
+        };
+
+        List<Map<String, Object>> guilds = client.getCurrentUserGuilds("tok");
+        assertEquals(1, guilds.size());
+        assertEquals("g1", guilds.get(0).get("id"));
+        assertEquals(List.of("Bearer tok"), auth);
+    }
+
+    @Test
+    @DisplayName("Rate limit buckets of idle routes and tokens expire instead of accumulating")
+    void idleBucketsExpire() {
+        AtomicLong nanos = new AtomicLong();
+        DiscordRestClient ticking = new DiscordRestClient("http://127.0.0.1:" + server.getAddress().getPort(), nanos::get);
+        handler = (ex, n) -> respond(ex, 200, GUILDS_JSON, Map.of());
+
+        ticking.getCurrentUserGuilds("tok-a");
+        ticking.getCurrentUserGuilds("tok-b");
+        assertEquals(2, ticking.bucketCount());
+
+        nanos.addAndGet(Duration.ofMinutes(11).toNanos());
+        assertEquals(0, ticking.bucketCount());
+    }
+
+    @Test
+    @DisplayName("429 responses are retried after Retry-After instead of failing")
+    void retriesOn429() {
+        handler = (ex, n) -> {
+            if (n == 1) {
+                respond(ex, 429, "{\"retry_after\":0.2}", Map.of("Retry-After", "0.2"));
+            } else {
+                respond(ex, 200, GUILDS_JSON, Map.of());
+            }
+        };
+
+        long start = System.nanoTime();
+        assertEquals(1, client.getCurrentUserGuilds("tok").size());
+        assertEquals(2, requests.get());
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 190);
+    }
+
+    @Test
+    @DisplayName("Exhausted bucket makes the next call wait for the reset instead of hitting a 429")
+    void waitsForBucketReset() {
+        AtomicInteger rejected = new AtomicInteger();
+        long[] resetAt = new long[1];
+        handler = (ex, n) -> {
+            if (n > 1 && System.currentTimeMillis() < resetAt[0]) {
+                rejected.incrementAndGet();
+                respond(ex, 429, "{}", Map.of("Retry-After", "1"));
+                return;
+            }
+            resetAt[0] = System.currentTimeMillis() + 300;
+            respond(ex, 200, GUILDS_JSON, Map.of("X-RateLimit-Remaining", "0", "X-RateLimit-Reset-After", "0.3"));
+        };
+
+        client.getCurrentUserGuilds("tok");
+        client.getCurrentUserGuilds("tok");
+        assertEquals(2, requests.get());
+        assertEquals(0, rejected.get());
+    }
+
+    @Test
+    @DisplayName("Identical concurrent requests are coalesced into one HTTP call")
+    void coalescesInFlight() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        handler = (ex, n) -> {
+            try {
+                release.await(2, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(ex, 200, GUILDS_JSON, Map.of());
+        };
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<List<Map<String, Object>>>> results = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                results.add(pool.submit(() -> client.getCurrentUserGuilds("tok")));
+            }
+            Thread.sleep(200);
+            release.countDown();
+            for (var f : results) {
+                assertEquals(1, f.get(5, TimeUnit.SECONDS).size());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    @DisplayName("Non-success responses surface as DiscordApiException with the status")
+    void errorsSurface() {
+        handler = (ex, n) -> respond(ex, 401, "{\"message\":\"401: Unauthorized\"}", Map.of());
+        DiscordRestClient.DiscordApiException e = assertThrows(DiscordRestClient.DiscordApiException.class,
+            () -> client.getCurrentUserGuilds("bad"));
+        assertEquals(401, e.getStatus());
+    }
+}
@@ -0,0 +1,100 @@
+package com.discordbot;
+
+import com.discordbot.web.service.GuildAuthorizationCache;
+import com.github.benmanes.caffeine.cache.Ticker;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.User;
+import net.dv8tion.jda.api.events.guild.GuildLeaveEvent;
+import net.dv8tion.jda.api.events.guild.member.GuildMemberRoleRemoveEvent;
+import net.dv8tion.jda.api.events.role.RoleDeleteEvent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class GuildAuthorizationCacheTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final Ticker ticker = nanos::get;
+
+    @Test
+    @DisplayName("Decisions are cached per (user, guild) until the TTL elapses")
+    void cachesUntilTtl() {
+        GuildAuthorizationCache cache = new GuildAuthorizationCache(ticker);
+        AtomicInteger calls = new AtomicInteger();
+
+        assertTrue(cache.get("u1", "g1", () -> calls.incrementAndGet() > 0));
+        assertTrue(cache.get("u1", "g1", () -> calls.incrementAndGet() > 0));
+        assertEquals(1, calls.get());
+
+        // Different guild is a different decision
+        assertFalse(cache.get("u1", "g2", () -> calls.incrementAndGet() < 0));
+        assertEquals(2, calls.get());
+
+        nanos.addAndGet(Duration.ofSeconds(16).toNanos());
+        cache.get("u1", "g1", () -> calls.incrementAndGet() > 0);
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    @DisplayName("Null user bypasses the cache")
+    void nullUserBypasses() {
+        GuildAuthorizationCache cache = new GuildAuthorizationCache(ticker);
+        AtomicInteger calls = new AtomicInteger();
+        cache.get(null, "g1", () -> calls.incrementAndGet() > 0);
+        cache.get(null, "g1", () -> calls.incrementAndGet() > 0);
+        assertEquals(2, calls.get());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    @DisplayName("evictUser and evictGuild drop only matching decisions")
+    void targetedEviction() {
+        GuildAuthorizationCache cache = new GuildAuthorizationCache(ticker);
+        cache.get("u1", "g1", () -> true);
+        cache.get("u1", "g2", () -> true);
+        cache.get("u2", "g1", () -> true);
+        assertEquals(3, cache.size());
+
+        cache.evictUser("u1");
+        assertEquals(1, cache.size());
+
+        cache.get("u1", "g2", () -> true);
+        cache.evictGuild("g1");
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    @DisplayName("Role removal, role deletion and guild leave events invalidate decisions")
+    void eventsInvalidate() {
+        GuildAuthorizationCache cache = new GuildAuthorizationCache(ticker);
+        Guild guild = mock(Guild.class);
+        when(guild.getId()).thenReturn("g1");
+        User user = mock(User.class);
+        when(user.getId()).thenReturn("u1");
+
+        cache.get("u1", "g1", () -> true);
+        cache.get("u2", "g1", () -> true);
+        GuildMemberRoleRemoveEvent roleRemove = mock(GuildMemberRoleRemoveEvent.class);
+        when(roleRemove.getGuild()).thenReturn(guild);
+        when(roleRemove.getUser()).thenReturn(user);
+        cache.onGuildMemberRoleRemove(roleRemove);
+        assertEquals(1, cache.size());
+
+        RoleDeleteEvent roleDelete = mock(RoleDeleteEvent.class);
+        when(roleDelete.getGuild()).thenReturn(guild);
+        cache.onRoleDelete(roleDelete);
+        assertEquals(0, cache.size());
+
+        cache.get("u1", "g1", () -> true);
+        GuildLeaveEvent leave = mock(GuildLeaveEvent.class);
+        when(leave.getGuild()).thenReturn(guild);
+        cache.onGuildLeave(leave);
+        assertEquals(0, cache.size());
+    }
+}
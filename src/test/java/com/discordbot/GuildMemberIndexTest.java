@@ -0,0 +1,156 @@
+package com.discordbot;
+
+import com.discordbot.web.dto.DiscordMemberDto;
+import com.discordbot.web.dto.DiscordMemberPage;
+import com.discordbot.web.service.GuildMemberIndex;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.Member;
+import net.dv8tion.jda.api.entities.User;
+import net.dv8tion.jda.api.events.guild.member.GuildMemberJoinEvent;
+import net.dv8tion.jda.api.events.guild.member.GuildMemberRemoveEvent;
+import net.dv8tion.jda.api.events.guild.member.update.GuildMemberUpdateNicknameEvent;
+import net.dv8tion.jda.api.utils.cache.MemberCacheView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class GuildMemberIndexTest {
+
+    private GuildMemberIndex index;
+    private Guild guild;
+    private final List<Member> cached = new ArrayList<>();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setup() {
+        index = new GuildMemberIndex();
+        guild = mock(Guild.class);
+        when(guild.getId()).thenReturn("g1");
+        MemberCacheView view = mock(MemberCacheView.class);
+        doAnswer(inv -> {
+            cached.forEach(inv.getArgument(0, Consumer.class));
+            return null;
+        }).when(view).forEach(any());
+        when(guild.getMemberCache()).thenReturn(view);
+    }
+
+    private static Member member(String id, String displayName, boolean bot) {
+        User user = mock(User.class);
+        when(user.getId()).thenReturn(id);
+        when(user.getName()).thenReturn(displayName.toLowerCase());
+        when(user.isBot()).thenReturn(bot);
+        Member member = mock(Member.class);
+        when(member.getId()).thenReturn(id);
+        when(member.getUser()).thenReturn(user);
+        when(member.getEffectiveName()).thenReturn(displayName);
+        return member;
+    }
+
+    private static List<String> names(DiscordMemberPage page) {
+        return page.members().stream().map(DiscordMemberDto::displayName).toList();
+    }
+
+    @Test
+    @DisplayName("Lists non-bot members sorted case-insensitively by display name")
+    void sortedWithoutBots() {
+        cached.add(member("1", "charlie", false));
+        cached.add(member("2", "Alice", false));
+        cached.add(member("3", "bob", false));
+        cached.add(member("4", "Aardvark Bot", true));
+
+        DiscordMemberPage page = index.search(guild, null, null, 100);
+
+        assertEquals(List.of("Alice", "bob", "charlie"), names(page));
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    @DisplayName("Query matches display name prefixes only")
+    void prefixSearch() {
+        cached.add(member("1", "Alice", false));
+        cached.add(member("2", "alfred", false));
+        cached.add(member("3", "Bob", false));
+        cached.add(member("4", "Malice", false));
+
+        assertEquals(List.of("alfred", "Alice"), names(index.search(guild, "AL", null, 100)));
+        assertEquals(List.of("Alice"), names(index.search(guild, "ali", null, 100)));
+        assertTrue(index.search(guild, "zed", null, 100).members().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Cursor walks pages without repeats, including duplicate display names")
+    void cursorPagination() {
+        cached.add(member("1", "sam", false));
+        cached.add(member("2", "Sam", false));
+        cached.add(member("3", "sam", false));
+        cached.add(member("4", "zoe", false));
+
+        DiscordMemberPage first = index.search(guild, "s", null, 2);
+        assertEquals(2, first.members().size());
+        assertNotNull(first.nextCursor());
+
+        DiscordMemberPage second = index.search(guild, "s", first.nextCursor(), 2);
+        assertEquals(1, second.members().size());
+        assertNull(second.nextCursor());
+
+        List<String> ids = new ArrayList<>();
+        first.members().forEach(m -> ids.add(m.id()));
+        second.members().forEach(m -> ids.add(m.id()));
+        assertEquals(List.of("1", "2", "3"), ids);
+    }
+
+    @Test
+    @DisplayName("Malformed cursors are rejected")
+    void invalidCursor() {
+        assertThrows(IllegalArgumentException.class, () -> index.search(guild, null, "%%%", 10));
+        assertThrows(IllegalArgumentException.class, () -> index.search(guild, null, "YWJj", 10));
+    }
+
+    @Test
+    @DisplayName("Join, nickname and leave events keep the index current")
+    void eventsUpdateIndex() {
+        cached.add(member("1", "Alice", false));
+        index.search(guild, null, null, 10);
+
+        Member joined = member("2", "Bob", false);
+        GuildMemberJoinEvent join = mock(GuildMemberJoinEvent.class);
+        when(join.getGuild()).thenReturn(guild);
+        when(join.getMember()).thenReturn(joined);
+        index.onGuildMemberJoin(join);
+        assertEquals(List.of("Alice", "Bob"), names(index.search(guild, null, null, 10)));
+
+        Member renamed = member("1", "Zara", false);
+        GuildMemberUpdateNicknameEvent nick = mock(GuildMemberUpdateNicknameEvent.class);
+        when(nick.getGuild()).thenReturn(guild);
+        when(nick.getMember()).thenReturn(renamed);
+        index.onGuildMemberUpdateNickname(nick);
+        assertEquals(List.of("Bob", "Zara"), names(index.search(guild, null, null, 10)));
+        assertTrue(index.search(guild, "ali", null, 10).members().isEmpty());
+
+        User joinedUser = joined.getUser();
+        GuildMemberRemoveEvent leave = mock(GuildMemberRemoveEvent.class);
+        when(leave.getGuild()).thenReturn(guild);
+        when(leave.getUser()).thenReturn(joinedUser);
+        index.onGuildMemberRemove(leave);
+        assertEquals(List.of("Zara"), names(index.search(guild, null, null, 10)));
+        assertEquals(1, index.size("g1"));
+    }
+
+    @Test
+    @DisplayName("Guilds are indexed once, not rebuilt per search")
+    void builtOnce() {
+        cached.add(member("1", "Alice", false));
+        index.search(guild, null, null, 10);
+        index.search(guild, "a", null, 10);
+
+        verify(guild, times(1)).getMemberCache();
+    }
+}
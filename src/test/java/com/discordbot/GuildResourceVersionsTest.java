@@ -0,0 +1,230 @@
+package com.discordbot;
+
+import com.discordbot.repository.GuildResourceVersionRepository;
+import com.discordbot.web.service.GuildResourceVersions;
+import com.discordbot.web.service.GuildResourceVersions.Family;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.Member;
+import net.dv8tion.jda.api.entities.SelfMember;
+import net.dv8tion.jda.api.events.guild.GuildLeaveEvent;
+import net.dv8tion.jda.api.events.guild.member.GuildMemberRoleAddEvent;
+import net.dv8tion.jda.api.events.role.RoleCreateEvent;
+import net.dv8tion.jda.api.events.role.update.RoleUpdatePermissionsEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class GuildResourceVersionsTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T09:00:00Z");
+
+    /** Clock whose instant can be moved forward by the test. */
+    private static final class MutableClock extends Clock {
+        private Instant instant = NOW;
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Versions are independent per guild and family")
+    void independentCounters() {
+        GuildResourceVersions versions = new GuildResourceVersions();
+
+        versions.bump("g1", Family.ROLES);
+        versions.bump("g1", Family.ROLES);
+
+        assertEquals(2, versions.current("g1", Family.ROLES));
+        assertEquals(0, versions.current("g1", Family.CHANNELS));
+        assertEquals(0, versions.current("g2", Family.ROLES));
+    }
+
+    @Test
+    @DisplayName("ETags are quoted, strong and change with the version")
+    void etagFormat() {
+        GuildResourceVersions versions = new GuildResourceVersions();
+        String v0 = versions.etag(Family.STREAMS, 0);
+
+        assertTrue(v0.startsWith("\"") && v0.endsWith("\""));
+        assertFalse(v0.startsWith("W/"));
+        assertNotEquals(v0, versions.etag(Family.STREAMS, 1));
+        assertNotEquals(v0, versions.etag(Family.QUESTIONS, 0));
+    }
+
+    @Test
+    @DisplayName("Bumps inside a transaction apply after commit only")
+    void bumpDeferredUntilCommit() {
+        GuildResourceVersions versions = new GuildResourceVersions();
+        TransactionSynchronizationManager.initSynchronization();
+
+        versions.bump("g1", Family.QUESTIONS);
+        assertEquals(0, versions.current("g1", Family.QUESTIONS));
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertEquals(1, versions.current("g1", Family.QUESTIONS));
+    }
+
+    @Test
+    @DisplayName("A stale-after instant bumps the version once it passes")
+    void staleAfterBumps() {
+        MutableClock clock = new MutableClock();
+        GuildResourceVersions versions = new GuildResourceVersions(clock);
+
+        versions.staleAfter("g1", Family.STREAMS, NOW.plus(Duration.ofMinutes(10)));
+        versions.staleAfter("g1", Family.STREAMS, NOW.plus(Duration.ofMinutes(5)));
+
+        clock.instant = NOW.plus(Duration.ofMinutes(4));
+        assertEquals(0, versions.current("g1", Family.STREAMS));
+
+        clock.instant = NOW.plus(Duration.ofMinutes(5));
+        assertEquals(1, versions.current("g1", Family.STREAMS));
+
+        // Consumed: no further bumps until a new instant is recorded
+        clock.instant = NOW.plus(Duration.ofMinutes(30));
+        assertEquals(1, versions.current("g1", Family.STREAMS));
+    }
+
+    @Test
+    @DisplayName("Role events bump ROLES; permission changes and bot role changes bump CHANNELS")
+    void eventsBumpFamilies() {
+        GuildResourceVersions versions = new GuildResourceVersions();
+        Guild guild = mock(Guild.class);
+        when(guild.getId()).thenReturn("g1");
+        SelfMember self = mock(SelfMember.class);
+        Member other = mock(Member.class);
+        when(guild.getSelfMember()).thenReturn(self);
+
+        RoleCreateEvent created = mock(RoleCreateEvent.class);
+        when(created.getGuild()).thenReturn(guild);
+        versions.onGenericRole(created);
+        assertEquals(1, versions.current("g1", Family.ROLES));
+        assertEquals(0, versions.current("g1", Family.CHANNELS));
+
+        RoleUpdatePermissionsEvent permissions = mock(RoleUpdatePermissionsEvent.class);
+        when(permissions.getGuild()).thenReturn(guild);
+        versions.onRoleUpdatePermissions(permissions);
+        assertEquals(1, versions.current("g1", Family.CHANNELS));
+
+        GuildMemberRoleAddEvent otherRoleAdd = mock(GuildMemberRoleAddEvent.class);
+        when(otherRoleAdd.getGuild()).thenReturn(guild);
+        when(otherRoleAdd.getMember()).thenReturn(other);
+        versions.onGuildMemberRoleAdd(otherRoleAdd);
+        assertEquals(1, versions.current("g1", Family.CHANNELS));
+
+        GuildMemberRoleAddEvent selfRoleAdd = mock(GuildMemberRoleAddEvent.class);
+        when(selfRoleAdd.getGuild()).thenReturn(guild);
+        when(selfRoleAdd.getMember()).thenReturn(self);
+        versions.onGuildMemberRoleAdd(selfRoleAdd);
+        assertEquals(2, versions.current("g1", Family.CHANNELS));
+    }
+
+    @Test
+    @DisplayName("Leaving a guild bumps every family")
+    void guildLeaveBumpsAll() {
+        GuildResourceVersions versions = new GuildResourceVersions();
+        Guild guild = mock(Guild.class);
+        when(guild.getId()).thenReturn("g1");
+        GuildLeaveEvent leave = mock(GuildLeaveEvent.class);
+        when(leave.getGuild()).thenReturn(guild);
+
+        versions.onGuildLeave(leave);
+
+        for (Family family : Family.values()) {
+            assertEquals(1, versions.current("g1", family));
+        }
+    }
+
+    /** Repository mock backed by a map, standing in for the shared table. */
+    private static GuildResourceVersionRepository sharedStore() {
+        Map<String, Long> rows = new ConcurrentHashMap<>();
+        GuildResourceVersionRepository repository = mock(GuildResourceVersionRepository.class);
+        when(repository.findVersion(anyString(), anyString()))
+                .thenAnswer(inv -> rows.get(inv.getArgument(0) + "/" + inv.getArgument(1)));
+        when(repository.increment(anyString(), anyString()))
+                .thenAnswer(inv -> rows.computeIfPresent(inv.getArgument(0) + "/" + inv.getArgument(1),
+                        (k, v) -> v + 1) == null ? 0 : 1);
+        when(repository.insertIfAbsent(anyString(), anyString()))
+                .thenAnswer(inv -> rows.putIfAbsent(inv.getArgument(0) + "/" + inv.getArgument(1), 1L) == null ? 1 : 0);
+        return repository;
+    }
+
+    @Test
+    @DisplayName("A stream or question write on one instance changes the version on another")
+    void sharedFamiliesSeenAcrossInstances() {
+        GuildResourceVersionRepository store = sharedStore();
+        GuildResourceVersions nodeA = new GuildResourceVersions(Clock.systemUTC(), store);
+        GuildResourceVersions nodeB = new GuildResourceVersions(Clock.systemUTC(), store);
+        long before = nodeA.current("g1", Family.STREAMS);
+
+        nodeB.bump("g1", Family.STREAMS);
+        long afterFirst = nodeA.current("g1", Family.STREAMS);
+        nodeB.bump("g1", Family.STREAMS);
+        long afterSecond = nodeA.current("g1", Family.STREAMS);
+
+        assertNotEquals(before, afterFirst);
+        assertNotEquals(afterFirst, afterSecond);
+        // Unchanged shared counter: the version holds
+        assertEquals(afterSecond, nodeA.current("g1", Family.STREAMS));
+        assertEquals(0, nodeA.current("g1", Family.QUESTIONS));
+    }
+
+    @Test
+    @DisplayName("The shared counter is written inside the caller's transaction, not deferred")
+    void sharedWriteJoinsTransaction() {
+        GuildResourceVersionRepository store = sharedStore();
+        GuildResourceVersions versions = new GuildResourceVersions(Clock.systemUTC(), store);
+        TransactionSynchronizationManager.initSynchronization();
+
+        versions.bump("g1", Family.QUESTIONS);
+
+        verify(store).increment("g1", "QUESTIONS");
+        verify(store).insertIfAbsent("g1", "QUESTIONS");
+        assertEquals(1L, store.findVersion("g1", "QUESTIONS"));
+    }
+
+    @Test
+    @DisplayName("Roles and channels never touch the shared store")
+    void gatewayFamiliesStayLocal() {
+        GuildResourceVersionRepository store = sharedStore();
+        GuildResourceVersions versions = new GuildResourceVersions(Clock.systemUTC(), store);
+
+        versions.bump("g1", Family.ROLES);
+        versions.current("g1", Family.CHANNELS);
+
+        assertEquals(1, versions.current("g1", Family.ROLES));
+        verifyNoInteractions(store);
+    }
+}
@@ -0,0 +1,118 @@
+package com.discordbot;
+
+import com.discordbot.web.service.GuildResourceVersions;
+import com.discordbot.web.service.GuildResourceVersions.Family;
+import com.discordbot.web.service.GuildResponseCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GuildResponseCacheTest {
+
+    private final GuildResourceVersions versions = new GuildResourceVersions();
+    private final GuildResponseCache cache = new GuildResponseCache(versions);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @AfterEach
+    void resetRequest() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    private List<String> load() {
+        loads.incrementAndGet();
+        return List.of("role-" + loads.get());
+    }
+
+    private static void ifNoneMatch(String value) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/servers/g1/roles");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, value);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @Test
+    @DisplayName("Payload is built once per version and served with an ETag")
+    void cachesPerVersion() {
+        ResponseEntity<List<String>> first = cache.serve("g1", Family.ROLES, "gatcha", this::load);
+        ResponseEntity<List<String>> second = cache.serve("g1", Family.ROLES, "gatcha", this::load);
+
+        assertEquals(HttpStatus.OK, first.getStatusCode());
+        assertEquals(1, loads.get());
+        assertEquals(first.getBody(), second.getBody());
+        assertNotNull(first.getHeaders().getETag());
+        assertEquals(first.getHeaders().getETag(), second.getHeaders().getETag());
+        assertTrue(first.getHeaders().getCacheControl().contains("no-cache"));
+    }
+
+    @Test
+    @DisplayName("A bump rebuilds the payload and changes the ETag")
+    void bumpInvalidates() {
+        ResponseEntity<List<String>> before = cache.serve("g1", Family.ROLES, "gatcha", this::load);
+        versions.bump("g1", Family.ROLES);
+        ResponseEntity<List<String>> after = cache.serve("g1", Family.ROLES, "gatcha", this::load);
+
+        assertEquals(2, loads.get());
+        assertEquals(List.of("role-2"), after.getBody());
+        assertNotEquals(before.getHeaders().getETag(), after.getHeaders().getETag());
+    }
+
+    @Test
+    @DisplayName("Variants and guilds are cached separately")
+    void variantsSeparate() {
+        cache.serve("g1", Family.STREAMS, "channel:c1", this::load);
+        cache.serve("g1", Family.STREAMS, "channel:c2", this::load);
+        cache.serve("g2", Family.STREAMS, "channel:c1", this::load);
+
+        assertEquals(3, loads.get());
+        assertEquals(3, cache.size());
+    }
+
+    @Test
+    @DisplayName("Matching If-None-Match returns 304 without building the payload")
+    void notModified() {
+        String etag = versions.etag(Family.ROLES, versions.current("g1", Family.ROLES));
+        ifNoneMatch(etag);
+
+        ResponseEntity<List<String>> response = cache.serve("g1", Family.ROLES, "gatcha", this::load);
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertNull(response.getBody());
+        assertEquals(etag, response.getHeaders().getETag());
+        assertEquals(0, loads.get());
+    }
+
+    @Test
+    @DisplayName("Outdated or weak-prefixed tags are compared correctly")
+    void tagComparison() {
+        String etag = versions.etag(Family.ROLES, 0);
+        ifNoneMatch(etag);
+        versions.bump("g1", Family.ROLES);
+
+        assertEquals(HttpStatus.OK, cache.serve("g1", Family.ROLES, "gatcha", this::load).getStatusCode());
+
+        String current = versions.etag(Family.ROLES, 1);
+        ifNoneMatch("\"other\", W/" + current);
+        assertEquals(HttpStatus.NOT_MODIFIED, cache.serve("g1", Family.ROLES, "gatcha", this::load).getStatusCode());
+    }
+
+    @Test
+    @DisplayName("A past validity instant from the payload forces a rebuild")
+    void timeDerivedPayload() {
+        cache.serve("g1", Family.STREAMS, "channel:c1", this::load, body -> Instant.EPOCH);
+        cache.serve("g1", Family.STREAMS, "channel:c1", this::load, body -> null);
+
+        assertEquals(2, loads.get());
+        assertEquals(1, versions.current("g1", Family.STREAMS));
+    }
+}
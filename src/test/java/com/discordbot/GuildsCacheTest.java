@@ -1,54 +1,196 @@
 package com.discordbot;
 
 import com.discordbot.web.service.GuildsCache;
+import com.github.benmanes.caffeine.cache.Ticker;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 class GuildsCacheTest {
 
-    @Test
-    @DisplayName("GuildsCache caches loader results per token and supports eviction")
-    void cacheAndEvict() {
-        GuildsCache cache = new GuildsCache();
-        AtomicInteger calls = new AtomicInteger();
+    private static class FakeTicker implements Ticker {
+        private final AtomicLong nanos = new AtomicLong();
+
+        @Override
+        public long read() {
+            return nanos.get();
+        }
 
-        var loader = (java.util.function.Function<String, List<Map<String, Object>>>) token -> {
+        void advance(Duration d) {
+            nanos.addAndGet(d.toNanos());
+        }
+    }
+
+    private static Function<String, List<Map<String, Object>>> loaderFor(AtomicInteger calls, String... guildIds) {
+        return token -> {
             calls.incrementAndGet();
             List<Map<String, Object>> list = new ArrayList<>();
-            list.add(Map.of("id", "g1", "name", "Guild One"));
+            for (String id : guildIds) {
+                list.add(Map.of("id", id, "name", "Guild " + id));
+            }
             return list;
         };
+    }
+
+    @Test
+    @DisplayName("GuildsCache caches loader results per user and supports eviction")
+    void cacheAndEvict() {
+        GuildsCache cache = new GuildsCache(new FakeTicker(), Runnable::run);
+        AtomicInteger calls = new AtomicInteger();
+        var loader = loaderFor(calls, "g1");
 
         // First call should invoke loader
-        List<Map<String, Object>> first = cache.get("tokenA", loader);
+        List<Map<String, Object>> first = cache.get("userA", "tokenA", loader);
         assertEquals(1, calls.get());
         assertEquals(1, first.size());
 
-        // Second call with same tokenA should use cache
-        List<Map<String, Object>> second = cache.get("tokenA", loader);
+        // Second call for same user should use cache, even with a rotated token
+        List<Map<String, Object>> second = cache.get("userA", "tokenA2", loader);
         assertSame(first, second);
         assertEquals(1, calls.get());
 
-        // Different token should call loader again
-        cache.get("tokenB", loader);
+        // Different user should call loader again
+        cache.get("userB", "tokenB", loader);
         assertEquals(2, calls.get());
 
-        // Evict tokenA and ensure reload occurs
-        cache.evictForToken("tokenA");
-        cache.get("tokenA", loader);
+        // Evict userA and ensure reload occurs
+        cache.evictUser("userA");
+        cache.get("userA", "tokenA", loader);
         assertEquals(3, calls.get());
 
-        // Evict all and ensure reload occurs for both tokens
+        // Evict all and ensure reload occurs for both users
         cache.evictAll();
-        cache.get("tokenA", loader);
-        cache.get("tokenB", loader);
+        cache.get("userA", "tokenA", loader);
+        cache.get("userB", "tokenB", loader);
         assertEquals(5, calls.get());
     }
+
+    @Test
+    @DisplayName("Access tokens are dropped on logout, on evictAll and once they could no longer be used")
+    void credentialsAreBounded() {
+        FakeTicker ticker = new FakeTicker();
+        GuildsCache cache = new GuildsCache(ticker, Runnable::run);
+        AtomicInteger calls = new AtomicInteger();
+        Function<String, List<Map<String, Object>>> failing = token -> {
+            throw new RuntimeException("discord down");
+        };
+
+        cache.get("userA", "tokA", loaderFor(calls, "g1"));
+        cache.get("userB", "tokB", loaderFor(calls, "g1"));
+        assertThrows(RuntimeException.class, () -> cache.get("userC", "tokC", failing));
+        assertEquals(3, cache.credentialCount());
+
+        cache.evictUser("userA");
+        assertEquals(2, cache.credentialCount());
+
+        // userC never got a cache entry, so only expiry removes its token
+        ticker.advance(Duration.ofMinutes(6));
+        cache.get("userB", "tokB", loaderFor(calls, "g1"));
+        assertEquals(1, cache.credentialCount());
+
+        cache.evictAll();
+        assertEquals(0, cache.credentialCount());
+    }
+
+    @Test
+    @DisplayName("evictGuild only evicts users whose cached list contains the guild")
+    void evictGuild_targetsIndexedUsers() {
+        GuildsCache cache = new GuildsCache(new FakeTicker(), Runnable::run);
+        AtomicInteger callsA = new AtomicInteger();
+        AtomicInteger callsB = new AtomicInteger();
+        var loaderA = loaderFor(callsA, "g1", "g2");
+        var loaderB = loaderFor(callsB, "g3");
+
+        cache.get("userA", "tokA", loaderA);
+        cache.get("userB", "tokB", loaderB);
+        assertEquals(Set.of("userA"), cache.usersForGuild("g1"));
+        assertEquals(Set.of("userB"), cache.usersForGuild("g3"));
+
+        cache.evictGuild("g1");
+        assertTrue(cache.usersForGuild("g1").isEmpty());
+        // userA's other guild index is dropped along with the entry
+        assertTrue(cache.usersForGuild("g2").isEmpty());
+
+        cache.get("userA", "tokA", loaderA);
+        cache.get("userB", "tokB", loaderB);
+        assertEquals(2, callsA.get());
+        assertEquals(1, callsB.get());
+
+        // Unknown guild is a no-op
+        cache.evictGuild("unknown");
+        cache.evictGuild(null);
+        cache.get("userB", "tokB", loaderB);
+        assertEquals(1, callsB.get());
+    }
+
+    @Test
+    @DisplayName("Entries older than the refresh interval are reloaded with the latest token")
+    void refreshAhead_servesStaleAndReloads() {
+        FakeTicker ticker = new FakeTicker();
+        GuildsCache cache = new GuildsCache(ticker, Runnable::run);
+        AtomicInteger calls = new AtomicInteger();
+        List<String> tokens = new ArrayList<>();
+        Function<String, List<Map<String, Object>>> loader = token -> {
+            tokens.add(token);
+            calls.incrementAndGet();
+            return List.of(Map.of("id", "g" + calls.get()));
+        };
+
+        List<Map<String, Object>> first = cache.get("userA", "tok1", loader);
+        assertEquals("g1", first.get(0).get("id"));
+
+        ticker.advance(Duration.ofSeconds(11));
+        // Read after refreshAfterWrite triggers a reload (synchronous here via Runnable::run)
+        cache.get("userA", "tok2", loader);
+        assertEquals(List.of("tok1", "tok2"), tokens);
+
+        List<Map<String, Object>> fresh = cache.get("userA", "tok2", loader);
+        assertEquals("g2", fresh.get(0).get("id"));
+        assertEquals(Set.of("userA"), cache.usersForGuild("g2"));
+        assertTrue(cache.usersForGuild("g1").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Failed loads are negatively cached with exponential backoff")
+    void failures_backOff() {
+        FakeTicker ticker = new FakeTicker();
+        GuildsCache cache = new GuildsCache(ticker, Runnable::run);
+        AtomicInteger calls = new AtomicInteger();
+        Function<String, List<Map<String, Object>>> failing = token -> {
+            calls.incrementAndGet();
+            throw new RuntimeException("discord down");
+        };
+
+        assertThrows(RuntimeException.class, () -> cache.get("userA", "tok", failing));
+        assertEquals(1, calls.get());
+
+        // Within the 1s backoff window the loader is not called again
+        assertThrows(IllegalStateException.class, () -> cache.get("userA", "tok", failing));
+        assertEquals(1, calls.get());
+
+        ticker.advance(Duration.ofMillis(1100));
+        assertThrows(RuntimeException.class, () -> cache.get("userA", "tok", failing));
+        assertEquals(2, calls.get());
+
+        // Second failure doubles the backoff to 2s
+        ticker.advance(Duration.ofMillis(1100));
+        assertThrows(IllegalStateException.class, () -> cache.get("userA", "tok", failing));
+        assertEquals(2, calls.get());
+
+        // Explicit eviction clears the backoff
+        cache.evictUser("userA");
+        AtomicInteger ok = new AtomicInteger();
+        assertEquals(1, cache.get("userA", "tok", loaderFor(ok, "g1")).size());
+        assertEquals(1, ok.get());
+    }
 }
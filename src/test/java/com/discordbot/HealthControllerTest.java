@@ -49,5 +49,7 @@ class HealthControllerTest {
         assertEquals(Status.CONNECTED.name(), bot.get("connected"));
         assertEquals("TestBot", bot.get("username"));
         assertEquals(1, bot.get("guilds"));
+        // Cache internals are only served from the authenticated diagnostics endpoint
+        assertFalse(body.containsKey("caches"));
     }
 }
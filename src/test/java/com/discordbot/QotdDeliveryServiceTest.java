@@ -0,0 +1,470 @@
+package com.discordbot;
+
+import com.discordbot.entity.QotdDelivery;
+import com.discordbot.entity.QotdPosted;
+import com.discordbot.entity.QotdQuestion;
+import com.discordbot.entity.QotdStream;
+import com.discordbot.repository.QotdDeliveryRepository;
+import com.discordbot.repository.QotdPostedRepository;
+import com.discordbot.repository.QotdQuestionRepository;
+import com.discordbot.repository.QotdStreamRepository;
+import com.discordbot.web.service.GuildResourceVersions;
+import com.discordbot.web.service.QotdDeliveryService;
+import com.discordbot.web.service.QotdDeliveryService.Reservation;
+import com.discordbot.web.service.QotdNearDuplicateIndex;
+import com.discordbot.web.service.QotdSchedule;
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.entities.MessageEmbed;
+import net.dv8tion.jda.api.entities.channel.concrete.TextChannel;
+import net.dv8tion.jda.api.entities.channel.concrete.ThreadChannel;
+import net.dv8tion.jda.api.requests.RestAction;
+import net.dv8tion.jda.api.requests.restaction.MessageCreateAction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class QotdDeliveryServiceTest {
+
+    private static final Instant NOW = Instant.parse("2025-03-01T09:00:00Z");
+
+    private QotdDeliveryRepository deliveryRepo;
+    private QotdStreamRepository streamRepo;
+    private QotdQuestionRepository questionRepo;
+    private QotdPostedRepository postedRepo;
+    private QotdNearDuplicateIndex nearDuplicates;
+    private JDA jda;
+    private Guild guild;
+    private QotdDeliveryService service;
+
+    private QotdStream stream;
+    private QotdQuestion question;
+    private QotdDelivery delivery;
+
+    @BeforeEach
+    void setup() {
+        deliveryRepo = mock(QotdDeliveryRepository.class);
+        streamRepo = mock(QotdStreamRepository.class);
+        questionRepo = mock(QotdQuestionRepository.class);
+        postedRepo = mock(QotdPostedRepository.class);
+        nearDuplicates = mock(QotdNearDuplicateIndex.class);
+        jda = mock(JDA.class);
+        guild = mock(Guild.class);
+        when(jda.getGuildById("g1")).thenReturn(guild);
+        service = new QotdDeliveryService(deliveryRepo, streamRepo, questionRepo, postedRepo, jda,
+            new GuildResourceVersions(), new QotdSchedule(), nearDuplicates, mock(PlatformTransactionManager.class),
+            Clock.fixed(NOW, ZoneOffset.UTC));
+
+        stream = new QotdStream();
+        stream.setId(1L);
+        stream.setGuildId("g1");
+        stream.setChannelId("c1");
+        stream.setStreamName("Default");
+        stream.setTimezone("UTC");
+        stream.setScheduleCron("0 0 9 * * *");
+        stream.setNextIndex(2);
+        question = new QotdQuestion();
+        question.setId(30L);
+        question.setText("What is your favorite season?");
+        question.setAuthorUsername("alice");
+
+        delivery = mock(QotdDelivery.class);
+        when(delivery.getId()).thenReturn(7L);
+        when(delivery.getStreamId()).thenReturn(1L);
+        when(delivery.getQuestionId()).thenReturn(30L);
+        when(delivery.getNextIndex()).thenReturn(3);
+        when(delivery.getAttempts()).thenReturn(1);
+        when(deliveryRepo.save(any(QotdDelivery.class))).thenReturn(delivery);
+        when(deliveryRepo.findById(7L)).thenReturn(Optional.of(delivery));
+        when(streamRepo.findById(1L)).thenReturn(Optional.of(stream));
+        when(questionRepo.findById(30L)).thenReturn(Optional.of(question));
+        when(postedRepo.save(any(QotdPosted.class))).thenAnswer(inv -> inv.getArgument(0));
+    }
+
+    @Test
+    @DisplayName("An acknowledged post advances the stream, archives the question with its message id and clears the delivery")
+    void acknowledgedPostCommitsState() {
+        TextChannel channel = textChannel();
+        MessageCreateAction embed = succeeding("m-1");
+        when(channel.sendMessageEmbeds(any(MessageEmbed.class))).thenReturn(embed);
+
+        service.reserve(stream, question, 3);
+
+        ArgumentCaptor<QotdDelivery> reserved = ArgumentCaptor.forClass(QotdDelivery.class);
+        verify(deliveryRepo).save(reserved.capture());
+        assertEquals(QotdDelivery.Status.SENDING, reserved.getValue().getStatus());
+        assertEquals(NOW.plus(Duration.ofMinutes(2)), reserved.getValue().getNextAttemptAt());
+
+        ArgumentCaptor<QotdPosted> archived = ArgumentCaptor.forClass(QotdPosted.class);
+        verify(postedRepo).save(archived.capture());
+        assertEquals("m-1", archived.getValue().getMessageId());
+        assertEquals(30L, archived.getValue().getQuestionId());
+        assertEquals("alice", archived.getValue().getAuthorUsername());
+        assertEquals(NOW, archived.getValue().getPostedAt());
+        verify(questionRepo).deleteById(30L);
+        verify(deliveryRepo).delete(delivery);
+        verify(nearDuplicates).questionPosted(eq("g1"), eq(30L), any(), eq(question.getText()));
+        assertEquals(3, stream.getNextIndex());
+        assertEquals(NOW, stream.getLastPostedAt());
+        assertEquals(Instant.parse("2025-03-02T09:00:00Z"), stream.getNextRunAt());
+        verify(streamRepo).save(stream);
+    }
+
+    @Test
+    @DisplayName("A rejected embed falls back to plain text, which still acknowledges the delivery")
+    void plainTextFallback() {
+        TextChannel channel = textChannel();
+        MessageCreateAction embed = failing("embeds disabled");
+        when(channel.sendMessageEmbeds(any(MessageEmbed.class))).thenReturn(embed);
+        MessageCreateAction plain = succeeding("m-2");
+        when(channel.sendMessage(anyString())).thenReturn(plain);
+
+        service.reserve(stream, question, 3);
+
+        verify(channel).sendMessage(contains(question.getText()));
+        ArgumentCaptor<QotdPosted> archived = ArgumentCaptor.forClass(QotdPosted.class);
+        verify(postedRepo).save(archived.capture());
+        assertEquals("m-2", archived.getValue().getMessageId());
+    }
+
+    @Test
+    @DisplayName("A failed send leaves the question queued and schedules a retry with backoff")
+    void failedSendSchedulesRetry() {
+        TextChannel channel = textChannel();
+        MessageCreateAction embed = failing("embeds disabled");
+        when(channel.sendMessageEmbeds(any(MessageEmbed.class))).thenReturn(embed);
+        MessageCreateAction plain = failing("Missing access");
+        when(channel.sendMessage(anyString())).thenReturn(plain);
+
+        service.reserve(stream, question, 3);
+
+        verify(deliveryRepo).scheduleRetry(7L, 1, NOW.plusSeconds(30), "Missing access");
+        verify(questionRepo, never()).deleteById(anyLong());
+        verify(postedRepo, never()).save(any());
+        assertEquals(2, stream.getNextIndex());
+    }
+
+    @Test
+    @DisplayName("A missing channel counts as a failed attempt")
+    void missingChannelFails() {
+        service.reserve(stream, question, 3);
+
+        verify(deliveryRepo).scheduleRetry(eq(7L), eq(1), eq(NOW.plusSeconds(30)), contains("Channel not found"));
+    }
+
+    @Test
+    @DisplayName("The last allowed attempt failing abandons the delivery")
+    void lastAttemptAbandons() {
+        QotdDelivery due = mock(QotdDelivery.class);
+        when(due.getId()).thenReturn(7L);
+        when(due.getStreamId()).thenReturn(1L);
+        when(due.getQuestionId()).thenReturn(30L);
+        when(due.getAttempts()).thenReturn(7);
+        when(due.getNextAttemptAt()).thenReturn(NOW.minusSeconds(1));
+        when(deliveryRepo.findDue(eq(NOW), any(Pageable.class))).thenReturn(List.of(due));
+        when(deliveryRepo.claim(7L, NOW.minusSeconds(1), NOW, NOW.plus(Duration.ofMinutes(2)))).thenReturn(1);
+        when(jda.getGuildById("g1")).thenReturn(null);
+
+        service.retryDueDeliveries();
+
+        verify(deliveryRepo).abandon(7L, 8);
+        verify(deliveryRepo, never()).scheduleRetry(anyLong(), anyInt(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Due deliveries are resent only by the instance that claims them")
+    void retryClaims() {
+        TextChannel channel = textChannel();
+        MessageCreateAction embed = succeeding("m-3");
+        when(channel.sendMessageEmbeds(any(MessageEmbed.class))).thenReturn(embed);
+        QotdDelivery won = dueDelivery(7L);
+        QotdDelivery lost = dueDelivery(8L);
+        when(deliveryRepo.findDue(eq(NOW), any(Pageable.class))).thenReturn(List.of(won, lost));
+        when(deliveryRepo.claim(eq(7L), any(), any(), any())).thenReturn(1);
+        when(deliveryRepo.claim(eq(8L), any(), any(), any())).thenReturn(0);
+
+        service.retryDueDeliveries();
+
+        verify(channel, times(1)).sendMessageEmbeds(any(MessageEmbed.class));
+        verify(postedRepo).save(any(QotdPosted.class));
+    }
+
+    @Test
+    @DisplayName("An unjoined thread is joined asynchronously before sending")
+    @SuppressWarnings("unchecked")
+    void joinsThreadWithoutBlocking() {
+        ThreadChannel thread = mock(ThreadChannel.class);
+        when(guild.getThreadChannelById("c1")).thenReturn(thread);
+        when(thread.isJoined()).thenReturn(false);
+        RestAction<Void> join = mock(RestAction.class);
+        when(thread.join()).thenReturn(join);
+        doAnswer(inv -> {
+            ((Consumer<Void>) inv.getArgument(0)).accept(null);
+            return null;
+        }).when(join).queue(any(), any());
+        MessageCreateAction embed = succeeding("m-4");
+        when(thread.sendMessageEmbeds(any(MessageEmbed.class))).thenReturn(embed);
+
+        service.reserve(stream, question, 3);
+
+        verify(join, never()).complete();
+        verify(thread).sendMessageEmbeds(any(MessageEmbed.class));
+        verify(questionRepo).deleteById(30L);
+    }
+
+    @Test
+    @DisplayName("An ack for a delivery that is no longer outstanding changes nothing")
+    void staleAckIgnored() {
+        TextChannel channel = textChannel();
+        MessageCreateAction embed = succeeding("m-5");
+        when(channel.sendMessageEmbeds(any(MessageEmbed.class))).thenReturn(embed);
+        when(deliveryRepo.findById(7L)).thenReturn(Optional.empty());
+
+        service.reserve(stream, question, 3);
+
+        verify(questionRepo, never()).deleteById(anyLong());
+        verify(postedRepo, never()).save(any());
+        verify(streamRepo, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("A batch goes out as one message with an embed per stream and is acknowledged for every stream at once")
+    void batchSendsOneMessage() {
+        QotdStream second = secondStream();
+        QotdQuestion other = secondQuestion();
+        QotdDelivery otherDelivery = secondDelivery();
+        when(deliveryRepo.save(any(QotdDelivery.class))).thenAnswer(inv ->
+            ((QotdDelivery) inv.getArgument(0)).getStreamId() == 1L ? delivery : otherDelivery);
+        TextChannel channel = textChannel();
+        MessageCreateAction action = succeeding("m-6");
+        List<MessageEmbed> sent = embedsSentTo(channel, action);
+
+        service.reserveBatch(List.of(new Reservation(stream, question, 3), new Reservation(second, other, null)));
+
+        ArgumentCaptor<QotdDelivery> reserved = ArgumentCaptor.forClass(QotdDelivery.class);
+        verify(deliveryRepo, times(2)).save(reserved.capture());
+        String batchId = reserved.getAllValues().get(0).getBatchId();
+        assertNotNull(batchId);
+        assertEquals(batchId, reserved.getAllValues().get(1).getBatchId());
+
+        assertEquals(List.of(question.getText(), other.getText()), sent.stream().map(MessageEmbed::getDescription).toList());
+        ArgumentCaptor<QotdPosted> archived = ArgumentCaptor.forClass(QotdPosted.class);
+        verify(postedRepo, times(2)).save(archived.capture());
+        assertEquals(List.of("m-6", "m-6"), archived.getAllValues().stream().map(QotdPosted::getMessageId).toList());
+        verify(questionRepo).deleteById(30L);
+        verify(questionRepo).deleteById(31L);
+        verify(deliveryRepo).delete(delivery);
+        verify(deliveryRepo).delete(otherDelivery);
+        assertEquals(3, stream.getNextIndex());
+        assertEquals(0, second.getNextIndex());
+        assertEquals(NOW, second.getLastPostedAt());
+    }
+
+    @Test
+    @DisplayName("A failed batch falls back to one plain message, then backs off as a unit")
+    void failedBatchRetriesTogether() {
+        QotdStream second = secondStream();
+        QotdQuestion other = secondQuestion();
+        QotdDelivery otherDelivery = secondDelivery();
+        when(deliveryRepo.save(any(QotdDelivery.class))).thenAnswer(inv ->
+            ((QotdDelivery) inv.getArgument(0)).getStreamId() == 1L ? delivery : otherDelivery);
+        TextChannel channel = textChannel();
+        MessageCreateAction embed = failing("embeds disabled");
+        embedsSentTo(channel, embed);
+        MessageCreateAction plain = failing("Missing access");
+        when(channel.sendMessage(anyString())).thenReturn(plain);
+
+        service.reserveBatch(List.of(new Reservation(stream, question, 3), new Reservation(second, other, null)));
+
+        verify(channel).sendMessage(argThat((String text) -> text.contains(question.getText()) && text.contains(other.getText())));
+        verify(deliveryRepo).scheduleBatchRetry(anyString(), eq(1), eq(NOW.plusSeconds(30)), eq("Missing access"));
+        verify(deliveryRepo, never()).scheduleRetry(anyLong(), anyInt(), any(), any());
+        verify(postedRepo, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("A batch over Discord's 6000-character embed limit goes out as several messages, each acknowledged")
+    void oversizedBatchIsSplit() {
+        QotdStream second = secondStream();
+        QotdQuestion other = secondQuestion();
+        QotdDelivery otherDelivery = secondDelivery();
+        question.setText("Q".repeat(3_500));
+        other.setText("R".repeat(3_500));
+        when(deliveryRepo.save(any(QotdDelivery.class))).thenAnswer(inv ->
+            ((QotdDelivery) inv.getArgument(0)).getStreamId() == 1L ? delivery : otherDelivery);
+        TextChannel channel = textChannel();
+        List<List<MessageEmbed>> messages = new ArrayList<>();
+        when(channel.sendMessageEmbeds(any(MessageEmbed.class), any(MessageEmbed[].class))).thenAnswer(inv -> {
+            Object[] args = inv.getRawArguments();
+            List<MessageEmbed> embeds = new ArrayList<>(List.of((MessageEmbed) args[0]));
+            embeds.addAll(List.of((MessageEmbed[]) args[1]));
+            messages.add(embeds);
+            return succeeding("m-" + messages.size());
+        });
+
+        service.reserveBatch(List.of(new Reservation(stream, question, 3), new Reservation(second, other, null)));
+
+        assertEquals(2, messages.size());
+        for (List<MessageEmbed> embeds : messages) {
+            assertTrue(embeds.stream().mapToInt(MessageEmbed::getLength).sum() <= MessageEmbed.EMBED_MAX_LENGTH_BOT);
+        }
+        ArgumentCaptor<QotdPosted> archived = ArgumentCaptor.forClass(QotdPosted.class);
+        verify(postedRepo, times(2)).save(archived.capture());
+        assertEquals(List.of("m-1", "m-2"), archived.getAllValues().stream().map(QotdPosted::getMessageId).toList());
+        verify(deliveryRepo).delete(delivery);
+        verify(deliveryRepo).delete(otherDelivery);
+    }
+
+    @Test
+    @DisplayName("The plain-text fallback stays within 2000 characters per message, and a failure stops the rest")
+    void longPlainFallbackIsSplit() {
+        QotdStream second = secondStream();
+        QotdQuestion other = secondQuestion();
+        QotdDelivery otherDelivery = secondDelivery();
+        stream.setMentionTarget("@everyone");
+        question.setText("Q".repeat(2_000));
+        other.setText("R".repeat(1_900));
+        when(deliveryRepo.save(any(QotdDelivery.class))).thenAnswer(inv ->
+            ((QotdDelivery) inv.getArgument(0)).getStreamId() == 1L ? delivery : otherDelivery);
+        TextChannel channel = textChannel();
+        MessageCreateAction embed = failing("embeds disabled");
+        when(embed.setAllowedMentions(any())).thenReturn(embed);
+        embedsSentTo(channel, embed);
+        List<String> plain = new ArrayList<>();
+        when(channel.sendMessage(anyString())).thenAnswer(inv -> {
+            plain.add(inv.getArgument(0));
+            return plain.size() == 1 ? succeeding("m-1") : failing("Missing access");
+        });
+
+        service.reserveBatch(List.of(new Reservation(stream, question, 3), new Reservation(second, other, null)));
+
+        assertEquals(2, plain.size());
+        assertTrue(plain.stream().allMatch(text -> text.length() <= Message.MAX_CONTENT_LENGTH));
+        assertTrue(plain.get(1).contains(other.getText()));
+        // The first message landed; only the rest of the batch backs off
+        ArgumentCaptor<QotdPosted> archived = ArgumentCaptor.forClass(QotdPosted.class);
+        verify(postedRepo).save(archived.capture());
+        assertEquals(30L, archived.getValue().getQuestionId());
+        verify(deliveryRepo).scheduleBatchRetry(anyString(), eq(1), eq(NOW.plusSeconds(30)), eq("Missing access"));
+    }
+
+    @Test
+    @DisplayName("A due batch is claimed and resent whole")
+    void batchRetryResendsAll() {
+        QotdStream second = secondStream();
+        secondQuestion();
+        QotdDelivery otherDelivery = secondDelivery();
+        QotdDelivery due = dueDelivery(7L);
+        when(due.getBatchId()).thenReturn("b-1");
+        when(deliveryRepo.findDue(eq(NOW), any(Pageable.class))).thenReturn(List.of(due));
+        when(deliveryRepo.claimBatch("b-1", NOW.minusSeconds(5), NOW, NOW.plus(Duration.ofMinutes(2)))).thenReturn(2);
+        when(deliveryRepo.findByBatchIdOrderByIdAsc("b-1")).thenReturn(List.of(delivery, otherDelivery));
+        TextChannel channel = textChannel();
+        MessageCreateAction action = succeeding("m-7");
+        List<MessageEmbed> sent = embedsSentTo(channel, action);
+
+        service.retryDueDeliveries();
+
+        verify(deliveryRepo, never()).claim(anyLong(), any(), any(), any());
+        assertEquals(2, sent.size());
+        verify(postedRepo, times(2)).save(any(QotdPosted.class));
+        assertEquals(NOW, second.getLastPostedAt());
+    }
+
+    private TextChannel textChannel() {
+        TextChannel channel = mock(TextChannel.class);
+        when(guild.getTextChannelById("c1")).thenReturn(channel);
+        return channel;
+    }
+
+    private QotdStream secondStream() {
+        QotdStream second = new QotdStream();
+        second.setId(2L);
+        second.setGuildId("g1");
+        second.setChannelId("c1");
+        second.setStreamName("Second");
+        second.setTimezone("UTC");
+        second.setScheduleCron("0 0 9 * * *");
+        when(streamRepo.findById(2L)).thenReturn(Optional.of(second));
+        return second;
+    }
+
+    private QotdQuestion secondQuestion() {
+        QotdQuestion other = new QotdQuestion();
+        other.setId(31L);
+        other.setText("Mountains or beaches?");
+        when(questionRepo.findById(31L)).thenReturn(Optional.of(other));
+        return other;
+    }
+
+    private QotdDelivery secondDelivery() {
+        QotdDelivery other = mock(QotdDelivery.class);
+        when(other.getId()).thenReturn(8L);
+        when(other.getStreamId()).thenReturn(2L);
+        when(other.getQuestionId()).thenReturn(31L);
+        when(other.getAttempts()).thenReturn(1);
+        when(deliveryRepo.findById(8L)).thenReturn(Optional.of(other));
+        return other;
+    }
+
+    /** Every embed of multi-embed messages sent to {@code channel}, which answer with {@code action}. */
+    private static List<MessageEmbed> embedsSentTo(TextChannel channel, MessageCreateAction action) {
+        List<MessageEmbed> sent = new ArrayList<>();
+        when(channel.sendMessageEmbeds(any(MessageEmbed.class), any(MessageEmbed[].class))).thenAnswer(inv -> {
+            Object[] args = inv.getRawArguments();
+            sent.add((MessageEmbed) args[0]);
+            sent.addAll(List.of((MessageEmbed[]) args[1]));
+            return action;
+        });
+        return sent;
+    }
+
+    private QotdDelivery dueDelivery(Long id) {
+        QotdDelivery due = mock(QotdDelivery.class);
+        when(due.getId()).thenReturn(id);
+        when(due.getStreamId()).thenReturn(1L);
+        when(due.getQuestionId()).thenReturn(30L);
+        when(due.getAttempts()).thenReturn(2);
+        when(due.getNextAttemptAt()).thenReturn(NOW.minusSeconds(5));
+        return due;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static MessageCreateAction succeeding(String messageId) {
+        MessageCreateAction action = mock(MessageCreateAction.class);
+        Message message = mock(Message.class);
+        when(message.getId()).thenReturn(messageId);
+        doAnswer(inv -> {
+            ((Consumer<Message>) inv.getArgument(0)).accept(message);
+            return null;
+        }).when(action).queue(any(), any());
+        return action;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static MessageCreateAction failing(String error) {
+        MessageCreateAction action = mock(MessageCreateAction.class);
+        doAnswer(inv -> {
+            ((Consumer<Throwable>) inv.getArgument(1)).accept(new RuntimeException(error));
+            return null;
+        }).when(action).queue(any(), any());
+        return action;
+    }
+}
@@ -0,0 +1,236 @@
+package com.discordbot;
+
+import com.discordbot.entity.QotdSubmission;
+import com.discordbot.repository.QotdPostedRepository;
+import com.discordbot.repository.QotdQuestionRepository;
+import com.discordbot.repository.QotdQuestionRepository.QuestionText;
+import com.discordbot.repository.QotdSubmissionRepository;
+import com.discordbot.web.service.QotdMinHash;
+import com.discordbot.web.service.QotdNearDuplicateIndex;
+import com.discordbot.web.service.QotdNearDuplicateIndex.Match;
+import com.discordbot.web.service.QotdNearDuplicateIndex.Source;
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class QotdNearDuplicateIndexTest {
+
+    private static class FakeTicker implements Ticker {
+        private final AtomicLong nanos = new AtomicLong();
+
+        @Override
+        public long read() {
+            return nanos.get();
+        }
+
+        void advance(Duration d) {
+            nanos.addAndGet(d.toNanos());
+        }
+    }
+
+    private final FakeTicker ticker = new FakeTicker();
+    // Background rebuilds queue here until the test runs them
+    private final Queue<Runnable> rebuilds = new ArrayDeque<>();
+    private QotdQuestionRepository questionRepo;
+    private QotdSubmissionRepository submissionRepo;
+    private QotdPostedRepository postedRepo;
+    private QotdNearDuplicateIndex index;
+
+    @BeforeEach
+    void setUp() {
+        questionRepo = mock(QotdQuestionRepository.class);
+        submissionRepo = mock(QotdSubmissionRepository.class);
+        postedRepo = mock(QotdPostedRepository.class);
+        index = new QotdNearDuplicateIndex(questionRepo, submissionRepo, postedRepo, ticker, rebuilds::add);
+    }
+
+    @Test
+    @DisplayName("Rewordings of a queued question are flagged; unrelated questions are not")
+    void flagsRewordings() {
+        when(questionRepo.findTextByGuildId("g1")).thenReturn(List.of(
+            text(1L, "What is your favorite movie of all time?"),
+            text(2L, "If you could live anywhere in the world, where would it be?")));
+
+        Match match = index.findSimilar("g1", "what is your favourite movie of all time??", null).orElseThrow();
+        assertEquals(Source.QUESTION, match.source());
+        assertEquals(1L, match.id());
+        assertTrue(match.similarity() >= QotdNearDuplicateIndex.THRESHOLD);
+
+        assertEquals(2L, index.findSimilar("g1", "If you could live anywhere in the world where would that be", null)
+            .orElseThrow().id());
+        assertTrue(index.findSimilar("g1", "Which board game do you always win?", null).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Pending submissions are indexed, and a submission is not matched against itself")
+    void pendingSubmissions() {
+        QotdSubmission pending = mock(QotdSubmission.class);
+        when(pending.getId()).thenReturn(10L);
+        when(pending.getText()).thenReturn("Cats or dogs, which is better?");
+        when(submissionRepo.findByGuildIdAndStatusOrderByCreatedAtAsc("g1", QotdSubmission.Status.PENDING))
+            .thenReturn(List.of(pending));
+
+        Match match = index.findSimilar("g1", "cats or dogs: which is better", null).orElseThrow();
+        assertEquals(Source.SUBMISSION, match.source());
+        assertEquals(10L, match.id());
+        assertTrue(index.findSimilar("g1", pending.getText(), 10L).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Recently posted questions are indexed, and posting moves a question from the queue to them")
+    void postedQuestions() {
+        when(postedRepo.findTextByGuildIdPostedSince(eq("g1"), any())).thenReturn(List.of(
+            text(3L, "What was the last book you read?")));
+        when(questionRepo.findTextByGuildId("g1")).thenReturn(List.of(
+            text(1L, "What is your favorite movie of all time?")));
+
+        Match match = index.findSimilar("g1", "what was the last book you read", null).orElseThrow();
+        assertEquals(Source.POSTED, match.source());
+        assertEquals(3L, match.id());
+
+        index.questionPosted("g1", 1L, 4L, "What is your favorite movie of all time?");
+        match = index.findSimilar("g1", "What is your favourite movie of all time?", null).orElseThrow();
+        assertEquals(Source.POSTED, match.source());
+        assertEquals(4L, match.id());
+    }
+
+    @Test
+    @DisplayName("A loaded index is updated incrementally without touching the database again")
+    void incrementalUpdates() {
+        assertTrue(index.findSimilar("g1", "Best pizza topping?", null).isEmpty());
+
+        index.questionAdded("g1", 5L, "What is the best pizza topping?");
+        index.submissionAdded("g1", 6L, "Pineapple on pizza: yes or no?");
+        assertEquals(5L, index.findSimilar("g1", "what's the best pizza topping", null).orElseThrow().id());
+        assertEquals(6L, index.findSimilar("g1", "Pineapple on pizza, yes or no", null).orElseThrow().id());
+
+        index.questionRemoved("g1", 5L);
+        index.submissionRemoved("g1", 6L);
+        assertTrue(index.findSimilar("g1", "what's the best pizza topping", null).isEmpty());
+        assertTrue(index.findSimilar("g1", "Pineapple on pizza, yes or no", null).isEmpty());
+
+        verify(questionRepo, times(1)).findTextByGuildId("g1");
+        // Other guilds are separate
+        assertTrue(index.findSimilar("g2", "Pineapple on pizza: yes or no?", null).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Updates for unloaded guilds are ignored and a rebuild serves the old index until it is ready")
+    void rebuildInBackground() {
+        index.questionAdded("g1", 5L, "What is the best pizza topping?");
+        index.rebuild("g1");
+        verifyNoInteractions(questionRepo);
+        assertTrue(rebuilds.isEmpty());
+
+        when(questionRepo.findTextByGuildId("g1")).thenReturn(List.of(text(7L, "Favorite ice cream flavor?")));
+        assertTrue(index.findSimilar("g1", "What is the best pizza topping?", null).isEmpty());
+
+        when(questionRepo.findTextByGuildId("g1")).thenReturn(List.of(text(8L, "What is the best pizza topping?")));
+        index.rebuild("g1");
+        assertTrue(index.findSimilar("g1", "What is the best pizza topping?", null).isEmpty());
+        verify(questionRepo, times(1)).findTextByGuildId("g1");
+
+        runRebuilds();
+        assertEquals(8L, index.findSimilar("g1", "What is the best pizza topping?", null).orElseThrow().id());
+        verify(questionRepo, times(2)).findTextByGuildId("g1");
+    }
+
+    @Test
+    @DisplayName("An index older than REBUILD_AFTER is rebuilt off the lookup thread")
+    void rebuildAfterAge() {
+        when(questionRepo.findTextByGuildId("g1")).thenReturn(List.of(text(7L, "Favorite ice cream flavor?")));
+        assertEquals(7L, index.findSimilar("g1", "favorite ice cream flavor", null).orElseThrow().id());
+
+        when(questionRepo.findTextByGuildId("g1")).thenReturn(List.of(text(8L, "Favorite pizza topping?")));
+        ticker.advance(Duration.ofMinutes(31));
+        assertEquals(7L, index.findSimilar("g1", "favorite ice cream flavor", null).orElseThrow().id());
+        assertFalse(rebuilds.isEmpty());
+
+        runRebuilds();
+        assertTrue(index.findSimilar("g1", "favorite ice cream flavor", null).isEmpty());
+        assertEquals(8L, index.findSimilar("g1", "favorite pizza topping", null).orElseThrow().id());
+    }
+
+    @Test
+    @DisplayName("Signature similarity tracks shingle overlap")
+    void signatures() {
+        int[] a = QotdMinHash.signature("What is your favorite season and why?");
+        assertEquals(1.0, QotdMinHash.similarity(a, QotdMinHash.signature("WHAT is your favorite season, and why")));
+        assertTrue(QotdMinHash.similarity(a, QotdMinHash.signature("Do you prefer mountains or beaches?")) < 0.3);
+        assertEquals(QotdMinHash.BANDS, QotdMinHash.bandKeys(a).length);
+    }
+
+    @Test
+    @DisplayName("Lookups in a 20k-question guild stay well under a millisecond")
+    void lookupLatency() {
+        Random random = new Random(7);
+        String[] vocabulary = new String[5_000];
+        for (int i = 0; i < vocabulary.length; i++) {
+            StringBuilder word = new StringBuilder();
+            for (int c = 3 + random.nextInt(6); c > 0; c--) {
+                word.append((char) ('a' + random.nextInt(26)));
+            }
+            vocabulary[i] = word.toString();
+        }
+        List<QuestionText> questions = new ArrayList<>();
+        for (long id = 1; id <= 20_000; id++) {
+            StringBuilder text = new StringBuilder("What is your");
+            for (int w = 4 + random.nextInt(8); w > 0; w--) {
+                text.append(' ').append(vocabulary[random.nextInt(vocabulary.length)]);
+            }
+            questions.add(text(id, text.append('?').toString()));
+        }
+        when(questionRepo.findTextByGuildId("big")).thenReturn(questions);
+        int lookups = 2_000;
+        for (int i = 0; i < lookups; i++) {
+            index.findSimilar("big", questions.get(random.nextInt(questions.size())).getText(), null);
+        }
+
+        long started = System.nanoTime();
+        int flagged = 0;
+        for (int i = 0; i < lookups; i++) {
+            Optional<Match> match = index.findSimilar("big", questions.get(random.nextInt(questions.size())).getText(), null);
+            if (match.isPresent()) {
+                flagged++;
+            }
+        }
+        double micros = (System.nanoTime() - started) / 1_000.0 / lookups;
+
+        assertEquals(lookups, flagged);
+        System.out.printf("Near-duplicate lookup over 20k questions: %.1f us average%n", micros);
+        assertTrue(micros < 1_000, "average lookup " + micros + " us");
+    }
+
+    private void runRebuilds() {
+        while (!rebuilds.isEmpty()) {
+            rebuilds.poll().run();
+        }
+    }
+
+    private static QuestionText text(Long id, String text) {
+        return new QuestionText() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getText() {
+                return text;
+            }
+        };
+    }
+}
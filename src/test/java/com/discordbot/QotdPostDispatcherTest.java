@@ -0,0 +1,105 @@
+package com.discordbot;
+
+import com.discordbot.web.service.QotdPostDispatcher;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QotdPostDispatcherTest {
+
+    private static final Instant NOW = Instant.parse("2026-03-02T09:00:03Z");
+
+    /** Executor that holds tasks until the test runs them. */
+    private static final class ManualExecutor implements Executor {
+        private final Deque<Runnable> tasks = new ArrayDeque<>();
+
+        @Override
+        public void execute(Runnable command) {
+            tasks.add(command);
+        }
+
+        void runNext() {
+            tasks.poll().run();
+        }
+
+        int pending() {
+            return tasks.size();
+        }
+    }
+
+    @Test
+    @DisplayName("Posts for different guilds run in parallel; one channel runs one post at a time")
+    void capsPerChannel() {
+        ManualExecutor executor = new ManualExecutor();
+        QotdPostDispatcher dispatcher = new QotdPostDispatcher(executor, Clock.fixed(NOW, ZoneOffset.UTC), 2, 1);
+        List<Long> ran = new ArrayList<>();
+
+        dispatcher.submit(1L, "g1", "c1", NOW, () -> ran.add(1L));
+        dispatcher.submit(2L, "g1", "c1", NOW, () -> ran.add(2L));
+        dispatcher.submit(3L, "g2", "c9", NOW, () -> ran.add(3L));
+
+        assertEquals(2, executor.pending());
+        assertEquals(1, dispatcher.waitingCount());
+
+        executor.runNext();
+        // Finishing stream 1 frees channel c1 for stream 2
+        assertEquals(2, executor.pending());
+        assertEquals(0, dispatcher.waitingCount());
+        executor.runNext();
+        executor.runNext();
+        assertEquals(List.of(1L, 3L, 2L), ran);
+    }
+
+    @Test
+    @DisplayName("A guild at its cap doesn't hold back other guilds")
+    void capsPerGuild() {
+        ManualExecutor executor = new ManualExecutor();
+        QotdPostDispatcher dispatcher = new QotdPostDispatcher(executor, Clock.fixed(NOW, ZoneOffset.UTC), 2, 1);
+
+        dispatcher.submit(1L, "g1", "c1", NOW, () -> {});
+        dispatcher.submit(2L, "g1", "c2", NOW, () -> {});
+        dispatcher.submit(3L, "g1", "c3", NOW, () -> {});
+        dispatcher.submit(4L, "g2", "c4", NOW, () -> {});
+
+        assertEquals(3, executor.pending());
+        assertEquals(1, dispatcher.waitingCount());
+    }
+
+    @Test
+    @DisplayName("A failing post still releases its slots")
+    void failureReleasesSlots() {
+        QotdPostDispatcher dispatcher = new QotdPostDispatcher(Runnable::run, Clock.fixed(NOW, ZoneOffset.UTC), 1, 1);
+
+        assertThrows(RuntimeException.class,
+            () -> dispatcher.submit(1L, "g1", "c1", NOW, () -> { throw new RuntimeException("boom"); }));
+        List<Long> ran = new ArrayList<>();
+        dispatcher.submit(2L, "g1", "c1", NOW, () -> ran.add(2L));
+
+        assertEquals(List.of(2L), ran);
+    }
+
+    @Test
+    @DisplayName("Lateness is measured from the cron fire time to when the post starts")
+    void recordsLateness() {
+        QotdPostDispatcher dispatcher = new QotdPostDispatcher(Runnable::run, Clock.fixed(NOW, ZoneOffset.UTC), 2, 1);
+
+        dispatcher.submit(1L, "g1", "c1", NOW.minusSeconds(3), () -> {});
+        dispatcher.submit(2L, "g2", "c2", NOW.minusSeconds(1), () -> {});
+
+        QotdPostDispatcher.LatenessStats stats = dispatcher.latenessStats();
+        assertEquals(2, stats.posts());
+        assertEquals(Duration.ofSeconds(3), stats.max());
+        assertEquals(Duration.ofSeconds(2), stats.mean());
+    }
+}
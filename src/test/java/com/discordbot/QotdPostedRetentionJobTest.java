@@ -0,0 +1,73 @@
+package com.discordbot;
+
+import com.discordbot.web.service.QotdPostedRetentionJob;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QotdPostedRetentionJobTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-01T00:00:00Z");
+
+    private JdbcTemplate jdbc;
+    private QotdPostedRetentionJob job;
+
+    @BeforeEach
+    void setup() {
+        DriverManagerDataSource ds = new DriverManagerDataSource(
+            "jdbc:h2:mem:qotd-retention-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        jdbc = new JdbcTemplate(ds);
+        jdbc.execute("CREATE TABLE qotd_posted (id BIGINT AUTO_INCREMENT PRIMARY KEY, guild_id VARCHAR(32) NOT NULL, "
+            + "channel_id VARCHAR(32) NOT NULL, stream_id BIGINT NOT NULL, question_id BIGINT, text VARCHAR(2000) NOT NULL, "
+            + "author_user_id VARCHAR(255), author_username VARCHAR(255), message_id VARCHAR(32), posted_at TIMESTAMP NOT NULL)");
+        jdbc.execute("CREATE INDEX idx_qotd_posted_posted_at ON qotd_posted (posted_at)");
+        job = new QotdPostedRetentionJob(jdbc, Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    private void insertPosts(int count, Instant postedAt) {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            rows.add(new Object[]{"Question " + i, Timestamp.from(postedAt)});
+        }
+        jdbc.batchUpdate("INSERT INTO qotd_posted (guild_id, channel_id, stream_id, text, posted_at) VALUES ('g', 'c', 1, ?, ?)", rows);
+    }
+
+    private int count() {
+        return jdbc.queryForObject("SELECT COUNT(*) FROM qotd_posted", Integer.class);
+    }
+
+    @Test
+    @DisplayName("Posts past retention are deleted in chunks; recent posts are kept")
+    void deletesExpiredInChunks() {
+        insertPosts(1_200, NOW.minus(Duration.ofDays(400)));
+        insertPosts(30, NOW.minus(Duration.ofDays(364)));
+
+        assertEquals(1_200, job.purgeExpired());
+        assertEquals(30, count());
+        assertEquals(0, job.purgeExpired());
+    }
+
+    @Test
+    @DisplayName("One run deletes at most MAX_CHUNKS_PER_RUN chunks; the rest go next run")
+    void boundedPerRun() {
+        insertPosts(10_500, NOW.minus(Duration.ofDays(500)));
+
+        assertEquals(10_000, job.purgeExpired());
+        assertEquals(500, count());
+        assertEquals(500, job.purgeExpired());
+        assertEquals(0, count());
+    }
+}
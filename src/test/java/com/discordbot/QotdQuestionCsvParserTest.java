@@ -0,0 +1,109 @@
+package com.discordbot;
+
+import com.discordbot.web.service.CsvBatchParser;
+import com.discordbot.web.service.QotdQuestionCsvParser;
+import com.discordbot.web.service.QotdQuestionCsvParser.Question;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QotdQuestionCsvParserTest {
+
+    private static InputStream csv(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static List<Question> parseAll(String content) throws IOException {
+        List<Question> rows = new ArrayList<>();
+        QotdQuestionCsvParser.parse(csv(content), 100, rows::addAll);
+        return rows;
+    }
+
+    @Test
+    @DisplayName("Quoted commas, doubled quotes and multi-line questions survive; header and blank lines are skipped")
+    void rfc4180Fields() throws IOException {
+        List<Question> rows = parseAll(
+            "question,author_username,author_userid\n" +
+            "What is your favorite color?,alice,123\n" +
+            "\n" +
+            "\"If you could, would you?\",,\n" +
+            "\"Finish the quote: \"\"To be or not to be\"\"\",bob,\n" +
+            "\"Line one\r\nline two\",carol,456\r\n" +
+            "No authors at all\n");
+
+        assertEquals(List.of(
+            new Question("What is your favorite color?", "alice", "123"),
+            new Question("If you could, would you?", null, null),
+            new Question("Finish the quote: \"To be or not to be\"", "bob", null),
+            new Question("Line one\r\nline two", "carol", "456"),
+            new Question("No authors at all", null, null)
+        ), rows);
+    }
+
+    @Test
+    @DisplayName("Invalid rows are reported by their physical line and skipped")
+    void lineAccurateErrors() throws IOException {
+        List<Question> rows = new ArrayList<>();
+        CsvBatchParser.Result result = QotdQuestionCsvParser.parse(csv(
+            "question\n" +
+            "\"Spans\ntwo lines\"\n" +
+            ",alice,1\n" +
+            "x".repeat(2001) + "\n" +
+            "ok," + "a".repeat(256) + "\n" +
+            "bad\"quote\n" +
+            "Good\n"), 100, rows::addAll);
+
+        assertEquals(2, result.validRows());
+        assertEquals(4, result.invalidRows());
+        assertEquals(List.of("Spans\ntwo lines", "Good"), rows.stream().map(Question::text).toList());
+        assertEquals("Line 4: Invalid question length", result.errors().get(0));
+        assertEquals("Line 5: Invalid question length", result.errors().get(1));
+        assertTrue(result.errors().get(2).startsWith("Line 6:"));
+        assertTrue(result.errors().get(3).startsWith("Line 7:"));
+    }
+
+    @Test
+    @DisplayName("Error messages are capped with a summary of the rest")
+    void errorCap() throws IOException {
+        StringBuilder content = new StringBuilder("question\n");
+        for (int i = 0; i < 150; i++) {
+            content.append(",alice\n");
+        }
+        CsvBatchParser.Result result = QotdQuestionCsvParser.parse(csv(content.toString()), 100, b -> {});
+        assertEquals(150, result.invalidRows());
+        assertEquals(101, result.errors().size());
+        assertEquals("... and 50 more invalid row(s)", result.errors().get(100));
+    }
+
+    @Test
+    @DisplayName("A 100k-line file streams through in fixed-size batches")
+    void largeFileInBatches() throws IOException {
+        int lines = 100_000;
+        StringBuilder content = new StringBuilder("question,author_username,author_userid\n");
+        for (int i = 0; i < lines; i++) {
+            content.append("\"Question ").append(i).append(", with a comma\",user").append(i).append(',').append(i).append('\n');
+        }
+        byte[] bytes = content.toString().getBytes(StandardCharsets.UTF_8);
+        AtomicInteger batches = new AtomicInteger();
+        AtomicInteger largest = new AtomicInteger();
+
+        CsvBatchParser.Result result = QotdQuestionCsvParser.parse(new ByteArrayInputStream(bytes), 500, b -> {
+            batches.incrementAndGet();
+            largest.accumulateAndGet(b.size(), Math::max);
+        });
+
+        assertEquals(lines, result.validRows());
+        assertEquals(0, result.invalidRows());
+        assertEquals(200, batches.get());
+        assertEquals(500, largest.get());
+    }
+}
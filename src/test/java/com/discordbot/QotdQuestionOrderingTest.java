@@ -0,0 +1,161 @@
+package com.discordbot;
+
+import com.discordbot.repository.QotdQuestionRepository;
+import com.discordbot.repository.QotdQuestionRepository.QuestionOrder;
+import com.discordbot.web.service.QotdQuestionOrdering;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static com.discordbot.web.service.QotdQuestionOrdering.GAP;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class QotdQuestionOrderingTest {
+
+    private static List<Long> ids(int n) {
+        List<Long> ids = new ArrayList<>();
+        for (long i = 1; i <= n; i++) {
+            ids.add(i);
+        }
+        return ids;
+    }
+
+    private static int[] spaced(int n) {
+        int[] orders = new int[n];
+        for (int i = 0; i < n; i++) {
+            orders[i] = (i + 1) * GAP;
+        }
+        return orders;
+    }
+
+    /** Apply moves and return the ids sorted the way the database lists them (display order, then id). */
+    private static List<Long> applied(List<Long> ids, int[] orders, Map<Long, Integer> moves) {
+        Map<Long, Integer> order = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            order.put(ids.get(i), orders[i]);
+        }
+        order.putAll(moves);
+        List<Long> result = new ArrayList<>(ids);
+        result.sort(Comparator.<Long>comparingInt(order::get).thenComparing(Comparator.naturalOrder()));
+        return result;
+    }
+
+    @Test
+    @DisplayName("Moving one question in a 5,000-question stream writes one row")
+    void singleMoveWritesOneRow() {
+        List<Long> ids = ids(5000);
+        int[] orders = spaced(5000);
+        List<Long> desired = new ArrayList<>(ids);
+        desired.add(10, desired.remove(4000));
+
+        Map<Long, Integer> moves = QotdQuestionOrdering.planMoves(ids, orders, desired);
+
+        assertEquals(Map.of(4001L, 10 * GAP + GAP / 2), moves);
+        assertEquals(desired, applied(ids, orders, moves));
+    }
+
+    @Test
+    @DisplayName("Moves to the front and the back extend the range by a gap")
+    void moveToEnds() {
+        List<Long> ids = ids(4);
+        int[] orders = spaced(4);
+
+        Map<Long, Integer> toFront = QotdQuestionOrdering.planMoves(ids, orders, List.of(3L, 1L, 2L, 4L));
+        assertEquals(Map.of(3L, 0), toFront);
+
+        Map<Long, Integer> toBack = QotdQuestionOrdering.planMoves(ids, orders, List.of(2L, 3L, 4L, 1L));
+        assertEquals(Map.of(1L, 5 * GAP), toBack);
+    }
+
+    @Test
+    @DisplayName("Random permutations are reproduced exactly with few writes")
+    void randomPermutations() {
+        Random random = new Random(42);
+        for (int round = 0; round < 50; round++) {
+            int n = 1 + random.nextInt(200);
+            List<Long> ids = ids(n);
+            int[] orders = spaced(n);
+            List<Long> desired = new ArrayList<>(ids);
+            // A few random moves
+            for (int m = 0; m < 3; m++) {
+                desired.add(random.nextInt(n), desired.remove(random.nextInt(n)));
+            }
+
+            Map<Long, Integer> moves = QotdQuestionOrdering.planMoves(ids, orders, desired);
+
+            assertNotNull(moves);
+            assertTrue(moves.size() <= 3, "round " + round + " wrote " + moves.size());
+            assertEquals(desired, applied(ids, orders, moves));
+        }
+    }
+
+    @Test
+    @DisplayName("A move with no free value between its neighbours asks for a respace")
+    void denseOrdersNeedRespace() {
+        assertNull(QotdQuestionOrdering.planMoves(ids(3), new int[] {1, 2, 3}, List.of(1L, 3L, 2L)));
+        // Reversal keeps one question and can still prepend the rest
+        assertNotNull(QotdQuestionOrdering.planMoves(ids(3), new int[] {1, 2, 3}, List.of(3L, 2L, 1L)));
+    }
+
+    @Test
+    @DisplayName("reorder respaces dense legacy orders, ignores unknown ids and keeps unlisted questions last")
+    void reorderRespacesLegacyOrders() {
+        QotdQuestionRepository repo = mock(QotdQuestionRepository.class);
+        when(repo.findOrderByStreamId(7L)).thenReturn(List.of(row(1L, 1), row(2L, 2), row(3L, 3), row(4L, 4)));
+
+        int written = QotdQuestionOrdering.reorder(repo, 7L, List.of(1L, 3L, 99L, 2L));
+
+        assertEquals(4, written);
+        verify(repo).updateDisplayOrder(1L, 7L, GAP);
+        verify(repo).updateDisplayOrder(3L, 7L, 2 * GAP);
+        verify(repo).updateDisplayOrder(2L, 7L, 3 * GAP);
+        verify(repo).updateDisplayOrder(4L, 7L, 4 * GAP);
+        verify(repo, never()).updateDisplayOrder(eq(99L), anyLong(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Appends use the max display order and respace before the int range runs out")
+    void appendOrders() {
+        QotdQuestionRepository repo = mock(QotdQuestionRepository.class);
+        when(repo.findMaxDisplayOrder(1L)).thenReturn(null);
+        assertEquals(GAP, QotdQuestionOrdering.nextAppendOrder(repo, 1L));
+
+        when(repo.findMaxDisplayOrder(2L)).thenReturn(Integer.MAX_VALUE - 10, 2 * GAP);
+        when(repo.findOrderByStreamId(2L)).thenReturn(List.of(row(5L, GAP), row(6L, Integer.MAX_VALUE - 10)));
+
+        assertEquals(3 * GAP, QotdQuestionOrdering.nextAppendOrder(repo, 2L));
+        verify(repo).updateDisplayOrder(6L, 2L, 2 * GAP);
+        verify(repo, never()).updateDisplayOrder(eq(5L), anyLong(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Reordering to the current order writes nothing")
+    void noOpReorder() {
+        List<Long> ids = ids(100);
+        assertEquals(Collections.emptyMap(), QotdQuestionOrdering.planMoves(ids, spaced(100), ids));
+    }
+
+    private static QuestionOrder row(Long id, int displayOrder) {
+        return new QuestionOrder() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public int getDisplayOrder() {
+                return displayOrder;
+            }
+        };
+    }
+}
@@ -0,0 +1,118 @@
+package com.discordbot;
+
+import com.discordbot.entity.QotdStream;
+import com.discordbot.web.service.QotdSchedule;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QotdScheduleTest {
+
+    private static final Instant NOW = Instant.parse("2026-03-02T08:00:30Z");
+
+    private static QotdStream stream(long id, String cron, String tz) {
+        QotdStream stream = new QotdStream();
+        stream.setId(id);
+        stream.setGuildId("g1");
+        stream.setChannelId("c1");
+        stream.setStreamName("s" + id);
+        stream.setScheduleCron(cron);
+        stream.setTimezone(tz);
+        stream.setEnabled(true);
+        return stream;
+    }
+
+    @Test
+    @DisplayName("Compiled expressions are cached and invalid input is rejected")
+    void compileCache() {
+        assertSame(QotdSchedule.compile("0 0 9 * * *", "UTC"), QotdSchedule.compile("0 0 9 * * *", null));
+        assertThrows(IllegalArgumentException.class, () -> QotdSchedule.compile("nope", "UTC"));
+        assertThrows(IllegalArgumentException.class, () -> QotdSchedule.compile("0 0 9 * * *", "Mars/Olympus"));
+    }
+
+    @Test
+    @DisplayName("Next run honors the stream's time zone; disabled and invalid streams have none")
+    void nextRunAt() {
+        assertEquals(Instant.parse("2026-03-02T09:00:00Z"), QotdSchedule.nextRunAt(stream(1, "0 0 9 * * *", "UTC"), NOW));
+        assertEquals(Instant.parse("2026-03-02T14:00:00Z"), QotdSchedule.nextRunAt(stream(2, "0 0 9 * * *", "America/New_York"), NOW));
+
+        QotdStream disabled = stream(3, "0 0 9 * * *", "UTC");
+        disabled.setEnabled(false);
+        assertNull(QotdSchedule.nextRunAt(disabled, NOW));
+        assertNull(QotdSchedule.nextRunAt(stream(4, "bad cron", "UTC"), NOW));
+        assertNull(QotdSchedule.nextRunAt(stream(5, null, "UTC"), NOW));
+    }
+
+    @Test
+    @DisplayName("Frequent crons fire at most once per duplicate-post window")
+    void minimumInterval() {
+        QotdStream stream = stream(1, "0 * * * * *", "UTC");
+        stream.setLastPostedAt(NOW.minusSeconds(30));
+        assertEquals(Instant.parse("2026-03-02T08:02:00Z"), QotdSchedule.nextRunAt(stream, NOW));
+
+        stream.setLastPostedAt(Instant.parse("2026-03-02T08:02:00Z"));
+        assertEquals(Instant.parse("2026-03-02T08:04:00Z"), QotdSchedule.nextRunAt(stream, Instant.parse("2026-03-02T08:02:00Z")));
+    }
+
+    @Test
+    @DisplayName("Upcoming runs are memoized per compiled expression until the first one passes")
+    void upcomingMemoized() {
+        QotdSchedule.CompiledCron compiled = QotdSchedule.compile("0 0 9 * * *", "UTC");
+        List<Instant> first = compiled.upcoming(NOW, 3);
+        assertEquals(List.of(Instant.parse("2026-03-02T09:00:00Z"), Instant.parse("2026-03-03T09:00:00Z"),
+            Instant.parse("2026-03-04T09:00:00Z")), first);
+        assertSame(first, compiled.upcoming(NOW.plusSeconds(60), 3));
+
+        assertEquals(Instant.parse("2026-03-03T09:00:00Z"), compiled.upcoming(Instant.parse("2026-03-02T09:00:00Z"), 3).get(0));
+    }
+
+    @Test
+    @DisplayName("The queue mirrors stored next runs and skips disabled or unscheduled streams")
+    void replaceAll() {
+        QotdStream early = stored(stream(1, "0 0 9 * * *", "UTC"), "2026-03-02T09:00:00Z");
+        QotdStream late = stored(stream(2, "0 0 9 * * *", "America/New_York"), "2026-03-02T14:00:00Z");
+        QotdStream unscheduled = stream(3, "0 0 9 * * *", "UTC");
+        QotdStream disabled = stored(stream(4, "0 0 9 * * *", "UTC"), "2026-03-02T08:30:00Z");
+        disabled.setEnabled(false);
+
+        QotdSchedule schedule = new QotdSchedule();
+        schedule.replaceAll(List.of(early, late, unscheduled, disabled));
+
+        assertEquals(2, schedule.size());
+        assertEquals(Instant.parse("2026-03-02T09:00:00Z"), schedule.nextFireAt());
+        assertEquals(Instant.parse("2026-03-02T14:00:00Z"), schedule.nextFireAt(2L));
+        assertNull(schedule.nextFireAt(3L));
+    }
+
+    @Test
+    @DisplayName("Removing or rescheduling a stream supersedes its queued entry")
+    void supersededEntries() {
+        QotdSchedule schedule = new QotdSchedule();
+        QotdStream stream = stored(stream(1, "0 0 9 * * *", "UTC"), "2026-03-02T09:00:00Z");
+        schedule.upsert(stream);
+
+        for (int i = 0; i < 100; i++) {
+            stored(stream, "2026-03-02T10:00:00Z");
+            schedule.upsert(stream);
+        }
+        assertEquals(Instant.parse("2026-03-02T10:00:00Z"), schedule.nextFireAt());
+
+        stream.setNextRunAt(null);
+        schedule.upsert(stream);
+        assertNull(schedule.nextFireAt());
+
+        schedule.upsert(stored(stream, "2026-03-02T11:00:00Z"));
+        schedule.remove(1L);
+        assertNull(schedule.nextFireAt());
+        assertEquals(0, schedule.size());
+    }
+
+    private static QotdStream stored(QotdStream stream, String nextRunAt) {
+        stream.setNextRunAt(Instant.parse(nextRunAt));
+        return stream;
+    }
+}
@@ -3,6 +3,8 @@ package com.discordbot;
 import com.discordbot.web.controller.QotdStreamController;
 import com.discordbot.web.dto.qotd.QotdDtos;
 import com.discordbot.web.service.AdminService;
+import com.discordbot.web.service.GuildResourceVersions;
+import com.discordbot.web.service.GuildResponseCache;
 import com.discordbot.web.service.QotdStreamService;
 import com.discordbot.web.service.RateLimitService;
 import org.junit.jupiter.api.BeforeEach;
@@ -31,7 +33,7 @@ class QotdStreamControllerTest {
         streamService = mock(QotdStreamService.class);
         adminService = mock(AdminService.class);
         rateLimitService = mock(RateLimitService.class);
-        controller = new QotdStreamController(streamService, adminService, rateLimitService);
+        controller = new QotdStreamController(streamService, adminService, rateLimitService, new GuildResponseCache(new GuildResourceVersions()));
         mockAuth = mock(Authentication.class);
 
         when(adminService.canManageGuild(mockAuth, "guild123")).thenReturn(true);
@@ -72,7 +74,7 @@ class QotdStreamControllerTest {
     @DisplayName("uploadCsv should accept .csv even with text/plain content-type")
     void testUploadCsv_AcceptsTextPlain() throws IOException {
         MultipartFile file = createMockMultipartFile("file", "questions.csv", "text/plain", "Q1\nQ2\n".getBytes());
-        QotdDtos.UploadCsvResult result = new QotdDtos.UploadCsvResult(2, 0, Collections.emptyList());
+        QotdDtos.UploadCsvResult result = new QotdDtos.UploadCsvResult(2, 0, 0, Collections.emptyList());
         when(streamService.uploadCsv("guild123", 42L, file)).thenReturn(result);
 
         var response = controller.uploadCsv("guild123", 42L, file, mockAuth);
@@ -86,7 +88,7 @@ class QotdStreamControllerTest {
     @DisplayName("uploadCsv should accept .csv with null content-type")
     void testUploadCsv_AcceptsNullContentType() throws IOException {
         MultipartFile file = createMockMultipartFile("file", "questions.csv", null, "Q1\nQ2\n".getBytes());
-        QotdDtos.UploadCsvResult result = new QotdDtos.UploadCsvResult(2, 0, Collections.emptyList());
+        QotdDtos.UploadCsvResult result = new QotdDtos.UploadCsvResult(2, 0, 0, Collections.emptyList());
         when(streamService.uploadCsv("guild123", 42L, file)).thenReturn(result);
 
         var response = controller.uploadCsv("guild123", 42L, file, mockAuth);
@@ -123,7 +125,7 @@ class QotdStreamControllerTest {
     @DisplayName("uploadCsv should accept uppercase .CSV extension")
     void testUploadCsv_AcceptsUppercaseExtension() throws IOException {
         MultipartFile file = createMockMultipartFile("file", "questions.CSV", "text/csv", "Q1\nQ2\n".getBytes());
-        QotdDtos.UploadCsvResult result = new QotdDtos.UploadCsvResult(2, 0, Collections.emptyList());
+        QotdDtos.UploadCsvResult result = new QotdDtos.UploadCsvResult(2, 0, 0, Collections.emptyList());
         when(streamService.uploadCsv("guild123", 42L, file)).thenReturn(result);
 
         var response = controller.uploadCsv("guild123", 42L, file, mockAuth);
@@ -136,7 +138,7 @@ class QotdStreamControllerTest {
     @DisplayName("uploadCsv should accept mixed-case .Csv extension")
     void testUploadCsv_AcceptsMixedCaseExtension() throws IOException {
         MultipartFile file = createMockMultipartFile("file", "questions.Csv", "text/csv", "Q1\nQ2\n".getBytes());
-        QotdDtos.UploadCsvResult result = new QotdDtos.UploadCsvResult(2, 0, Collections.emptyList());
+        QotdDtos.UploadCsvResult result = new QotdDtos.UploadCsvResult(2, 0, 0, Collections.emptyList());
         when(streamService.uploadCsv("guild123", 42L, file)).thenReturn(result);
 
         var response = controller.uploadCsv("guild123", 42L, file, mockAuth);
@@ -1,16 +1,30 @@
 package com.discordbot;
 
 import com.discordbot.entity.QotdStream;
+import com.discordbot.repository.QotdChannelSettingsRepository;
 import com.discordbot.repository.QotdStreamRepository;
+import com.discordbot.web.service.QotdSchedule;
 import com.discordbot.web.service.QotdScheduler;
+import com.discordbot.web.service.QotdStreamLeases;
 import com.discordbot.web.service.QotdStreamService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 
+import java.time.Clock;
+import java.time.Duration;
 import java.time.Instant;
-import java.util.Arrays;
-
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -18,137 +32,306 @@ import static org.mockito.Mockito.*;
  */
 class QotdStreamSchedulerTest {
 
+    private static final Instant NOW = Instant.parse("2026-03-02T09:00:05Z");
+    private static final Instant DUE = Instant.parse("2026-03-02T09:00:00Z");
+    private static final Instant PARKED = NOW.plus(Duration.ofMinutes(5));
+
     private QotdStreamRepository streamRepo;
     private QotdStreamService streamService;
+    private QotdStreamLeases leases;
+    private QotdChannelSettingsRepository channelSettingsRepo;
+    private QotdSchedule schedule;
     private QotdScheduler scheduler;
 
     @BeforeEach
     void setup() {
         streamRepo = mock(QotdStreamRepository.class);
         streamService = mock(QotdStreamService.class);
-
-        scheduler = new QotdScheduler(streamRepo, streamService);
+        leases = mock(QotdStreamLeases.class);
+        channelSettingsRepo = mock(QotdChannelSettingsRepository.class);
+        when(streamRepo.advanceNextRun(anyLong(), any(), any())).thenReturn(1);
+        when(leases.tryAcquire(anyLong(), any(), any())).thenAnswer(inv ->
+            new QotdStreamLeases.Lease(inv.getArgument(0), inv.getArgument(1), PARKED));
+
+        schedule = new QotdSchedule();
+        scheduler = new QotdScheduler(streamRepo, streamService, schedule, leases, channelSettingsRepo, Clock.fixed(NOW, ZoneOffset.UTC), null, Runnable::run);
     }
 
     @Test
-    @DisplayName("tick: processes enabled streams with valid cron")
-    void tick_processesEnabledStreams() {
-        QotdStream stream1 = createStream(1L, "g1", "c1", "Default", "* * * * * *", "UTC", true);
-        QotdStream stream2 = createStream(2L, "g1", "c1", "Weekly", "* * * * * *", "UTC", true);
-
-        when(streamRepo.findByEnabledTrue()).thenReturn(Arrays.asList(stream1, stream2));
+    @DisplayName("tick: leases, parks, posts and then advances every due stream")
+    void tick_processesDueStreams() {
+        QotdStream stream1 = createStream(1L, "g1", "c1", "Default", "0 0 9 * * *", "UTC", true);
+        QotdStream stream2 = createStream(2L, "g1", "c1", "Hourly", "0 0 * * * *", "UTC", true);
+        due(stream1, stream2);
 
         scheduler.tick();
 
-        // Both streams should trigger posting
-        verify(streamService, atLeastOnce()).postNextQuestion(1L);
-        verify(streamService, atLeastOnce()).postNextQuestion(2L);
+        verify(streamService).postNextQuestion(1L);
+        verify(streamService).postNextQuestion(2L);
+        verify(streamRepo).advanceNextRun(1L, DUE, PARKED);
+        verify(streamRepo).advanceNextRun(1L, PARKED, Instant.parse("2026-03-03T09:00:00Z"));
+        verify(streamRepo).advanceNextRun(2L, PARKED, Instant.parse("2026-03-02T10:00:00Z"));
+        verify(leases).release(1L);
+        verify(leases).release(2L);
+        assertEquals(Instant.parse("2026-03-02T10:00:00Z"), schedule.nextFireAt());
     }
 
     @Test
-    @DisplayName("tick: skips disabled streams")
-    void tick_skipsDisabledStreams() {
-        QotdStream enabledStream = createStream(1L, "g1", "c1", "Enabled", "* * * * * *", "UTC", true);
-        // Disabled stream exists but won't be in query results
-        createStream(2L, "g1", "c1", "Disabled", "* * * * * *", "UTC", false);
-
-        // Mock should only return enabled stream due to findByEnabledTrue()
-        when(streamRepo.findByEnabledTrue()).thenReturn(Arrays.asList(enabledStream));
+    @DisplayName("tick: a coalescing channel posts its due streams as one post, and each lease still advances")
+    void tick_coalescesChannel() {
+        QotdStream stream1 = createStream(1L, "g1", "c1", "Default", "0 0 9 * * *", "UTC", true);
+        QotdStream stream2 = createStream(2L, "g1", "c1", "Hourly", "0 0 * * * *", "UTC", true);
+        QotdStream other = createStream(3L, "g1", "c2", "Elsewhere", "0 0 9 * * *", "UTC", true);
+        due(stream2, stream1, other);
+        when(channelSettingsRepo.existsByGuildIdAndChannelIdAndCoalescePostsTrue("g1", "c1")).thenReturn(true);
+        when(channelSettingsRepo.existsByGuildIdAndChannelIdAndCoalescePostsTrue("g1", "c2")).thenReturn(true);
 
         scheduler.tick();
 
-        verify(streamService, atLeastOnce()).postNextQuestion(1L);
+        verify(streamService).postNextQuestions(List.of(1L, 2L));
+        verify(streamService).postNextQuestion(3L);
+        verify(streamService, never()).postNextQuestion(1L);
         verify(streamService, never()).postNextQuestion(2L);
+        verify(streamRepo).advanceNextRun(1L, PARKED, Instant.parse("2026-03-03T09:00:00Z"));
+        verify(streamRepo).advanceNextRun(2L, PARKED, Instant.parse("2026-03-02T10:00:00Z"));
+        verify(leases).release(1L);
+        verify(leases).release(2L);
+        verify(leases).release(3L);
     }
 
     @Test
-    @DisplayName("tick: skips streams with null or blank cron")
-    void tick_skipsNullOrBlankCron() {
-        QotdStream noCron = createStream(1L, "g1", "c1", "NoCron", null, "UTC", true);
-        QotdStream blankCron = createStream(2L, "g1", "c1", "BlankCron", "", "UTC", true);
-
-        when(streamRepo.findByEnabledTrue()).thenReturn(Arrays.asList(noCron, blankCron));
-
+    @DisplayName("tick: selects due streams by stored next run instead of scanning all streams")
+    void tick_queriesDueStreamsOnly() {
+        scheduler.tick();
         scheduler.tick();
 
+        verify(streamRepo, times(2)).findByEnabledTrueAndNextRunAtLessThanEqualOrderByNextRunAtAsc(NOW);
+        verify(streamRepo, times(1)).findByEnabledTrue();
         verify(streamService, never()).postNextQuestion(anyLong());
     }
 
     @Test
-    @DisplayName("tick: skips streams with invalid cron expressions")
-    void tick_skipsInvalidCron() {
-        QotdStream invalidStream = createStream(1L, "g1", "c1", "Invalid", "not-a-cron", "UTC", true);
-
-        when(streamRepo.findByEnabledTrue()).thenReturn(Arrays.asList(invalidStream));
+    @DisplayName("tick: a firing leased by another instance is not posted and is rechecked when the lease lapses")
+    void tick_skipsLeasedElsewhere() {
+        QotdStream stream = createStream(1L, "g1", "c1", "Default", "0 0 9 * * *", "UTC", true);
+        due(stream);
+        when(leases.tryAcquire(eq(1L), any(), any())).thenReturn(null);
+        when(leases.heldUntil(1L)).thenReturn(Instant.parse("2026-03-02T09:04:00Z"));
 
         scheduler.tick();
 
         verify(streamService, never()).postNextQuestion(1L);
+        verify(streamRepo, never()).advanceNextRun(anyLong(), any(), any());
+        assertEquals(Instant.parse("2026-03-02T09:04:00Z"), schedule.nextFireAt(1L));
     }
 
     @Test
-    @DisplayName("tick: prevents duplicate posts within 2-minute window")
-    void tick_preventsDuplicatePosts() {
-        // Stream that posted 1 minute ago
-        QotdStream recentlyPosted = createStream(1L, "g1", "c1", "Recent", "* * * * * *", "UTC", true);
-        recentlyPosted.setLastPostedAt(Instant.now().minusSeconds(60)); // 1 minute ago
-
-        when(streamRepo.findByEnabledTrue()).thenReturn(Arrays.asList(recentlyPosted));
+    @DisplayName("tick: releases the lease without posting if the stream was rescheduled meanwhile")
+    void tick_skipsLostClaim() {
+        QotdStream stream = createStream(1L, "g1", "c1", "Default", "0 0 9 * * *", "UTC", true);
+        due(stream);
+        when(streamRepo.advanceNextRun(eq(1L), any(), any())).thenReturn(0);
 
         scheduler.tick();
 
-        // Should NOT post because within 2-minute window
         verify(streamService, never()).postNextQuestion(1L);
+        verify(leases).release(1L);
     }
 
     @Test
-    @DisplayName("tick: allows post after 2-minute window")
-    void tick_allowsPostAfterTwoMinutes() {
-        // Stream that posted 3 minutes ago
-        QotdStream oldPost = createStream(1L, "g1", "c1", "Old", "* * * * * *", "UTC", true);
-        oldPost.setLastPostedAt(Instant.now().minusSeconds(180)); // 3 minutes ago
-
-        when(streamRepo.findByEnabledTrue()).thenReturn(Arrays.asList(oldPost));
+    @DisplayName("tick: reschedules without posting when a run was missed by more than the grace period")
+    void tick_skipsStaleRuns() {
+        QotdStream stream = createStream(1L, "g1", "c1", "Default", "0 0 * * * *", "UTC", true);
+        stream.setNextRunAt(Instant.parse("2026-03-02T07:00:00Z"));
+        when(streamRepo.findByEnabledTrueAndNextRunAtLessThanEqualOrderByNextRunAtAsc(NOW)).thenReturn(List.of(stream));
+        when(streamRepo.findById(1L)).thenReturn(Optional.of(stream));
 
         scheduler.tick();
 
-        // Should post because outside 2-minute window
-        verify(streamService, atLeastOnce()).postNextQuestion(1L);
+        verify(streamService, never()).postNextQuestion(1L);
+        verify(streamRepo).advanceNextRun(1L, PARKED, Instant.parse("2026-03-02T10:00:00Z"));
     }
 
     @Test
-    @DisplayName("tick: handles multiple streams in same channel with different schedules")
-    void tick_multipleStreamsInSameChannel() {
-        // Daily at 9 AM (won't fire with every-second cron in test)
-        QotdStream daily = createStream(1L, "g1", "c1", "Daily", "0 0 9 * * *", "UTC", true);
+    @DisplayName("tick: a failover keeps the original fire time for the grace check")
+    void tick_takeoverUsesOriginalFireTime() {
+        QotdStream stream = createStream(1L, "g1", "c1", "Default", "0 0 * * * *", "UTC", true);
+        due(stream);
+        when(leases.tryAcquire(eq(1L), any(), any()))
+            .thenReturn(new QotdStreamLeases.Lease(1L, Instant.parse("2026-03-02T08:00:00Z"), PARKED));
 
-        // Every second (will fire in test)
-        QotdStream frequent = createStream(2L, "g1", "c1", "Frequent", "* * * * * *", "UTC", true);
+        scheduler.tick();
 
-        when(streamRepo.findByEnabledTrue()).thenReturn(Arrays.asList(daily, frequent));
+        verify(streamService, never()).postNextQuestion(1L);
+        verify(leases).release(1L);
+    }
+
+    @Test
+    @DisplayName("tick: a due stream whose schedule became invalid is cleared, not posted")
+    void tick_clearsInvalidCron() {
+        QotdStream invalid = createStream(1L, "g1", "c1", "Invalid", "not-a-cron", "UTC", true);
+        due(invalid);
 
         scheduler.tick();
 
-        // Only frequent stream should trigger
         verify(streamService, never()).postNextQuestion(1L);
-        verify(streamService, atLeastOnce()).postNextQuestion(2L);
+        verify(streamRepo).advanceNextRun(1L, PARKED, null);
     }
 
     @Test
     @DisplayName("tick: handles stream service errors gracefully")
     void tick_handlesStreamServiceErrors() {
-        QotdStream stream1 = createStream(1L, "g1", "c1", "Stream1", "* * * * * *", "UTC", true);
-        QotdStream stream2 = createStream(2L, "g1", "c1", "Stream2", "* * * * * *", "UTC", true);
-
-        when(streamRepo.findByEnabledTrue()).thenReturn(Arrays.asList(stream1, stream2));
+        QotdStream stream1 = createStream(1L, "g1", "c1", "Stream1", "0 0 9 * * *", "UTC", true);
+        QotdStream stream2 = createStream(2L, "g1", "c1", "Stream2", "0 0 9 * * *", "UTC", true);
+        due(stream1, stream2);
 
         // Stream 1 throws error
         doThrow(new RuntimeException("Test error")).when(streamService).postNextQuestion(1L);
 
         scheduler.tick();
 
-        // Should still process stream 2 despite stream 1 error
-        verify(streamService, atLeastOnce()).postNextQuestion(2L);
+        // Should still process stream 2 despite stream 1 error, and release both leases
+        verify(streamService).postNextQuestion(2L);
+        verify(leases).release(1L);
+        verify(leases).release(2L);
+    }
+
+    @Test
+    @DisplayName("tick: drops a stream deleted before it could post")
+    void tick_dropsDeletedStream() {
+        QotdStream stream = createStream(1L, "g1", "c1", "Gone", "0 0 9 * * *", "UTC", true);
+        due(stream);
+        when(streamRepo.findById(1L)).thenReturn(Optional.empty());
+        doThrow(new IllegalArgumentException("Stream not found")).when(streamService).postNextQuestion(1L);
+
+        scheduler.tick();
+
+        assertNull(schedule.nextFireAt(1L));
+    }
+
+    @Test
+    @DisplayName("tick: refreshes mirrored entries that another instance already advanced")
+    void tick_refreshesStaleEntries() {
+        QotdStream mirrored = createStream(1L, "g1", "c1", "Default", "0 0 9 * * *", "UTC", true);
+        mirrored.setNextRunAt(DUE);
+        when(streamRepo.findByEnabledTrue()).thenReturn(List.of(mirrored));
+        QotdStream stored = createStream(1L, "g1", "c1", "Default", "0 0 9 * * *", "UTC", true);
+        stored.setNextRunAt(Instant.parse("2026-03-03T09:00:00Z"));
+        when(streamRepo.findAllById(List.of(1L))).thenReturn(List.of(stored));
+
+        scheduler.tick();
+
+        verify(streamService, never()).postNextQuestion(1L);
+        assertEquals(Instant.parse("2026-03-03T09:00:00Z"), schedule.nextFireAt(1L));
+    }
+
+    @Test
+    @DisplayName("Startup backfills next_run_at for streams that have none, once")
+    void backfillsMissingNextRuns() {
+        QotdStream legacy = createStream(1L, "g1", "c1", "Legacy", "0 0 9 * * *", "UTC", true);
+        legacy.setNextRunAt(null);
+        QotdStream noCron = createStream(2L, "g1", "c1", "NoCron", null, "UTC", true);
+        noCron.setNextRunAt(null);
+        when(streamRepo.findByEnabledTrueAndNextRunAtIsNull()).thenReturn(List.of(legacy, noCron));
+
+        scheduler.tick();
+        scheduler.tick();
+
+        // A fire in the minute before startup still counts as due
+        verify(streamRepo, times(1)).updateNextRun(1L, DUE);
+        verify(streamRepo, never()).updateNextRun(eq(2L), any());
+    }
+
+    @Test
+    @DisplayName("Timer wakes at least every poll interval and is re-armed when the head moves earlier")
+    void timerArmedForHead() {
+        MutableClock clock = new MutableClock(Instant.parse("2026-03-02T08:00:30Z"));
+        ScheduledExecutorService timer = mock(ScheduledExecutorService.class);
+        when(timer.schedule(any(Runnable.class), anyLong(), any())).thenAnswer(inv -> mock(java.util.concurrent.ScheduledFuture.class));
+        QotdStream later = createStream(1L, "g1", "c1", "Later", "0 30 8 * * *", "UTC", true);
+        later.setNextRunAt(Instant.parse("2026-03-02T08:30:00Z"));
+        when(streamRepo.findByEnabledTrue()).thenReturn(List.of(later));
+
+        QotdScheduler timed = new QotdScheduler(streamRepo, streamService, schedule, leases, channelSettingsRepo, clock, timer, Runnable::run);
+        timed.start();
+        verify(timer).schedule(any(Runnable.class), eq(Duration.ofSeconds(60).toMillis()), eq(TimeUnit.MILLISECONDS));
+
+        QotdStream sooner = createStream(2L, "g1", "c1", "Sooner", "45 0 8 * * *", "UTC", true);
+        sooner.setNextRunAt(Instant.parse("2026-03-02T08:00:45Z"));
+        schedule.upsert(sooner);
+        verify(timer).schedule(any(Runnable.class), eq(Duration.ofSeconds(15).toMillis()), eq(TimeUnit.MILLISECONDS));
+        assertEquals(Instant.parse("2026-03-02T08:00:45Z"), schedule.nextFireAt());
+    }
+
+    @Test
+    @DisplayName("Timer is re-armed after a failed tick, and the next tick runs normally")
+    void timerSurvivesFailedTick() {
+        ScheduledExecutorService timer = mock(ScheduledExecutorService.class);
+        when(timer.schedule(any(Runnable.class), anyLong(), any())).thenAnswer(inv -> mock(java.util.concurrent.ScheduledFuture.class));
+        QotdStream stream = createStream(1L, "g1", "c1", "Default", "0 0 9 * * *", "UTC", true);
+        due(stream);
+        when(streamRepo.findByEnabledTrueAndNextRunAtLessThanEqualOrderByNextRunAtAsc(NOW))
+            .thenThrow(new RuntimeException("database unavailable"))
+            .thenReturn(List.of(stream));
+
+        QotdScheduler timed = new QotdScheduler(streamRepo, streamService, schedule, leases, channelSettingsRepo, Clock.fixed(NOW, ZoneOffset.UTC), timer, Runnable::run);
+        timed.start();
+        timed.tick();
+        verify(streamService, never()).postNextQuestion(1L);
+
+        // start() armed once and the failed tick re-armed; run the wake-up it scheduled
+        ArgumentCaptor<Runnable> wakeUp = ArgumentCaptor.forClass(Runnable.class);
+        verify(timer, times(2)).schedule(wakeUp.capture(), anyLong(), eq(TimeUnit.MILLISECONDS));
+        wakeUp.getValue().run();
+
+        verify(streamService).postNextQuestion(1L);
+        verify(timer, times(3)).schedule(any(Runnable.class), anyLong(), eq(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    @DisplayName("A failed schedule load at startup still arms the timer to retry")
+    void timerArmedWhenLoadFails() {
+        ScheduledExecutorService timer = mock(ScheduledExecutorService.class);
+        when(timer.schedule(any(Runnable.class), anyLong(), any())).thenAnswer(inv -> mock(java.util.concurrent.ScheduledFuture.class));
+        when(streamRepo.findByEnabledTrue()).thenThrow(new RuntimeException("database unavailable"));
+
+        QotdScheduler timed = new QotdScheduler(streamRepo, streamService, schedule, leases, channelSettingsRepo, Clock.fixed(NOW, ZoneOffset.UTC), timer, Runnable::run);
+        timed.start();
+
+        verify(timer).schedule(any(Runnable.class), eq(Duration.ofMinutes(1).toMillis()), eq(TimeUnit.MILLISECONDS));
+    }
+
+    /** Stub the due-stream query with streams due at 09:00. */
+    private void due(QotdStream... streams) {
+        for (QotdStream stream : streams) {
+            stream.setNextRunAt(DUE);
+            when(streamRepo.findById(stream.getId())).thenReturn(Optional.of(stream));
+        }
+        when(streamRepo.findByEnabledTrueAndNextRunAtLessThanEqualOrderByNextRunAtAsc(NOW)).thenReturn(List.of(streams));
+    }
+
+    /** Clock whose instant can be moved by the test. */
+    private static final class MutableClock extends Clock {
+        private Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
     }
 
     // Helper method
@@ -1,10 +1,20 @@
 package com.discordbot;
 
+import com.discordbot.entity.QotdDelivery;
+import com.discordbot.entity.QotdPosted;
 import com.discordbot.entity.QotdQuestion;
 import com.discordbot.entity.QotdStream;
+import com.discordbot.repository.QotdChannelSettingsRepository;
+import com.discordbot.repository.QotdPostedRepository;
 import com.discordbot.repository.QotdQuestionRepository;
 import com.discordbot.repository.QotdStreamRepository;
 import com.discordbot.web.dto.qotd.QotdDtos.*;
+import com.discordbot.web.service.GuildResourceVersions;
+import com.discordbot.web.service.QotdDeliveryService;
+import com.discordbot.web.service.QotdNearDuplicateIndex;
+import com.discordbot.web.service.QotdQuestionImporter;
+import com.discordbot.web.service.QotdQuestionOrdering;
+import com.discordbot.web.service.QotdSchedule;
 import com.discordbot.web.service.QotdStreamService;
 import com.discordbot.web.service.WebSocketNotificationService;
 import net.dv8tion.jda.api.JDA;
@@ -13,6 +23,8 @@ import net.dv8tion.jda.api.entities.channel.concrete.TextChannel;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 
 import java.time.Instant;
 import java.util.Arrays;
@@ -27,6 +39,10 @@ class QotdStreamServiceTest {
 
     private QotdStreamRepository streamRepo;
     private QotdQuestionRepository questionRepo;
+    private QotdPostedRepository postedRepo;
+    private QotdChannelSettingsRepository channelSettingsRepo;
+    private QotdNearDuplicateIndex nearDuplicates;
+    private QotdDeliveryService deliveries;
     private JDA jda;
     private WebSocketNotificationService wsService;
     private QotdStreamService service;
@@ -35,9 +51,14 @@ class QotdStreamServiceTest {
     void setup() {
         streamRepo = mock(QotdStreamRepository.class);
         questionRepo = mock(QotdQuestionRepository.class);
+        postedRepo = mock(QotdPostedRepository.class);
+        channelSettingsRepo = mock(QotdChannelSettingsRepository.class);
+        nearDuplicates = mock(QotdNearDuplicateIndex.class);
+        deliveries = mock(QotdDeliveryService.class);
         jda = mock(JDA.class);
         wsService = mock(WebSocketNotificationService.class);
-        service = new QotdStreamService(streamRepo, questionRepo, jda, wsService);
+        service = new QotdStreamService(streamRepo, questionRepo, postedRepo, channelSettingsRepo, jda, wsService, new GuildResourceVersions(), new QotdSchedule(),
+            mock(QotdQuestionImporter.class), nearDuplicates, deliveries);
     }
 
     @Test
@@ -173,20 +194,8 @@ class QotdStreamServiceTest {
 
         when(streamRepo.findById(streamId)).thenReturn(Optional.of(stream));
 
-        // Mock: 5 existing questions
-        QotdQuestion q1 = new QotdQuestion();
-        q1.setDisplayOrder(1);
-        QotdQuestion q2 = new QotdQuestion();
-        q2.setDisplayOrder(2);
-        QotdQuestion q3 = new QotdQuestion();
-        q3.setDisplayOrder(3);
-        QotdQuestion q4 = new QotdQuestion();
-        q4.setDisplayOrder(4);
-        QotdQuestion q5 = new QotdQuestion();
-        q5.setDisplayOrder(5);
-
-        when(questionRepo.findByStreamIdOrderByDisplayOrderAsc(streamId))
-            .thenReturn(Arrays.asList(q1, q2, q3, q4, q5));
+        // Mock: 5 existing questions, spaced GAP apart
+        when(questionRepo.findMaxDisplayOrder(streamId)).thenReturn(5 * QotdQuestionOrdering.GAP);
 
         when(questionRepo.save(any())).thenAnswer(inv -> {
             QotdQuestion q = inv.getArgument(0);
@@ -199,15 +208,36 @@ class QotdStreamServiceTest {
         assertNotNull(result);
         assertEquals("What is your favorite color?", result.text());
 
-        // Verify the question was saved with display order 6 (next after 5)
+        // Verify the question was saved one gap after the last one, without loading the queue
+        verify(questionRepo, never()).findByStreamIdOrderByDisplayOrderAscIdAsc(anyLong());
         verify(questionRepo).save(argThat(q ->
             q.getStreamId().equals(streamId) &&
-            q.getDisplayOrder() == 6 &&
+            q.getDisplayOrder() == 6 * QotdQuestionOrdering.GAP &&
             q.getGuildId().equals("g1") &&
             q.getChannelId().equals("c1")
         ));
     }
 
+    @Test
+    @DisplayName("addQuestion: rejects a question already in the stream, ignoring case and spacing")
+    void addQuestion_rejectsDuplicate() {
+        Long streamId = 123L;
+        QotdStream stream = new QotdStream();
+        stream.setId(streamId);
+        stream.setGuildId("g1");
+        stream.setChannelId("c1");
+        when(streamRepo.findById(streamId)).thenReturn(Optional.of(stream));
+        when(questionRepo.existsByStreamIdAndTextHash(streamId, QotdQuestion.hashText("What is your favorite color?")))
+            .thenReturn(true);
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+            () -> service.addQuestion("g1", streamId, "  what is  your FAVORITE color? "));
+
+        assertEquals("This question is already in the stream", e.getMessage());
+        verify(questionRepo, never()).save(any());
+        verifyNoInteractions(wsService);
+    }
+
     @Test
     @DisplayName("listStreams: returns streams ordered by creation")
     void listStreams_orderedByCreation() {
@@ -302,4 +332,177 @@ class QotdStreamServiceTest {
 
         assertTrue(ex.getMessage().contains("Channel not found"));
     }
+
+    @Test
+    @DisplayName("postNextQuestion: reserves only the question at nextIndex, to advance on delivery")
+    void postNextQuestion_fetchesSingleRowAtNextIndex() {
+        QotdStream stream = postableStream(false, 2);
+        QotdQuestion third = question(30L, "third");
+        when(questionRepo.countByStreamId(1L)).thenReturn(5L);
+        when(questionRepo.findByStreamIdOrderByDisplayOrderAscIdAsc(1L, PageRequest.of(2, 1)))
+            .thenReturn(List.of(third));
+
+        service.postNextQuestion(1L);
+
+        verify(questionRepo, never()).findByStreamIdOrderByDisplayOrderAscIdAsc(anyLong());
+        verify(deliveries).reserve(stream, third, 3);
+        // Nothing changes until Discord acknowledges
+        verify(questionRepo, never()).deleteById(anyLong());
+        assertEquals(2, stream.getNextIndex());
+    }
+
+    @Test
+    @DisplayName("postNextQuestion: wraps to the head when nextIndex is past the end")
+    void postNextQuestion_wrapsToHead() {
+        QotdStream stream = postableStream(false, 7);
+        QotdQuestion first = question(10L, "first");
+        when(questionRepo.countByStreamId(1L)).thenReturn(3L);
+        when(questionRepo.findByStreamIdOrderByDisplayOrderAscIdAsc(1L, PageRequest.of(0, 1)))
+            .thenReturn(List.of(first));
+
+        service.postNextQuestion(1L);
+
+        verify(deliveries).reserve(stream, first, 1);
+    }
+
+    @Test
+    @DisplayName("postNextQuestion: random mode picks one row by offset and leaves nextIndex alone")
+    void postNextQuestion_randomPicksByOffset() {
+        QotdStream stream = postableStream(true, 4);
+        QotdQuestion any = question(20L, "any");
+        when(questionRepo.countByStreamId(1L)).thenReturn(3L);
+        when(questionRepo.findByStreamIdOrderByDisplayOrderAscIdAsc(eq(1L), any(Pageable.class)))
+            .thenReturn(List.of(any));
+
+        service.postNextQuestion(1L);
+
+        verify(questionRepo).findByStreamIdOrderByDisplayOrderAscIdAsc(eq(1L),
+            argThat((Pageable p) -> p.getPageSize() == 1 && p.getPageNumber() >= 0 && p.getPageNumber() < 3));
+        verify(deliveries).reserve(stream, any, null);
+    }
+
+    @Test
+    @DisplayName("postNextQuestion: an undelivered previous post is sent again instead of a new question")
+    void postNextQuestion_retriesOutstandingDelivery() {
+        postableStream(false, 0);
+        QotdDelivery outstanding = mock(QotdDelivery.class);
+        when(deliveries.findOutstanding(1L)).thenReturn(outstanding);
+
+        service.postNextQuestion(1L);
+
+        verify(deliveries).retryNow(outstanding);
+        verify(deliveries, never()).reserve(any(), any(), any());
+        verify(questionRepo, never()).countByStreamId(anyLong());
+    }
+
+    @Test
+    @DisplayName("postNextQuestion: a previous post still awaiting Discord's response is neither resent nor replaced")
+    void postNextQuestion_leavesInFlightDelivery() {
+        postableStream(false, 0);
+        QotdDelivery outstanding = mock(QotdDelivery.class);
+        when(deliveries.findOutstanding(1L)).thenReturn(outstanding);
+        when(deliveries.isInFlight(outstanding)).thenReturn(true);
+
+        service.postNextQuestion(1L);
+
+        verify(deliveries, never()).retryNow(any());
+        verify(deliveries, never()).reserve(any(), any(), any());
+        verify(questionRepo, never()).countByStreamId(anyLong());
+    }
+
+    @Test
+    @DisplayName("postNextQuestions: reserves one batch in the given stream order, leaving out streams with an outstanding post")
+    void postNextQuestions_reservesBatch() {
+        QotdStream first = postableStream(false, 0);
+        QotdStream second = new QotdStream();
+        second.setId(2L);
+        second.setGuildId("g1");
+        second.setChannelId("c1");
+        second.setStreamName("Second");
+        second.setRandomize(false);
+        second.setNextIndex(1);
+        QotdStream pending = new QotdStream();
+        pending.setId(3L);
+        pending.setGuildId("g1");
+        pending.setChannelId("c1");
+        pending.setStreamName("Pending");
+        when(streamRepo.findAllById(List.of(1L, 2L, 3L))).thenReturn(List.of(pending, second, first));
+        QotdDelivery outstanding = mock(QotdDelivery.class);
+        when(deliveries.findOutstanding(3L)).thenReturn(outstanding);
+        QotdQuestion a = question(10L, "a");
+        QotdQuestion b = question(20L, "b");
+        when(questionRepo.countByStreamId(1L)).thenReturn(2L);
+        when(questionRepo.countByStreamId(2L)).thenReturn(2L);
+        when(questionRepo.findByStreamIdOrderByDisplayOrderAscIdAsc(1L, PageRequest.of(0, 1))).thenReturn(List.of(a));
+        when(questionRepo.findByStreamIdOrderByDisplayOrderAscIdAsc(2L, PageRequest.of(1, 1))).thenReturn(List.of(b));
+
+        service.postNextQuestions(List.of(1L, 2L, 3L));
+
+        verify(deliveries).reserveBatch(List.of(
+            new QotdDeliveryService.Reservation(first, a, 1),
+            new QotdDeliveryService.Reservation(second, b, 0)));
+        verify(deliveries).retryNow(outstanding);
+        verify(deliveries, never()).reserve(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("listPosted: returns a cursor only when another page follows")
+    void listPosted_cursor() {
+        postableStream(false, 0);
+        QotdPosted newer = posted(5L, Instant.parse("2025-01-02T00:00:00Z"));
+        QotdPosted older = posted(4L, Instant.parse("2025-01-01T00:00:00Z"));
+        QotdPosted oldest = posted(3L, Instant.parse("2024-12-31T00:00:00Z"));
+        when(postedRepo.findByStreamIdOrderByPostedAtDescIdDesc(1L, PageRequest.of(0, 3)))
+            .thenReturn(List.of(newer, older, oldest));
+        when(postedRepo.findPageBefore(1L, older.getPostedAt(), 4L, PageRequest.of(0, 3)))
+            .thenReturn(List.of(oldest));
+
+        QotdPostedPageDto first = service.listPosted("g1", 1L, null, null, 2);
+        assertEquals(List.of(5L, 4L), first.items().stream().map(QotdPostedDto::id).toList());
+        assertEquals(older.getPostedAt(), first.nextBefore());
+        assertEquals(4L, first.nextBeforeId());
+
+        QotdPostedPageDto last = service.listPosted("g1", 1L, first.nextBefore(), first.nextBeforeId(), 2);
+        assertEquals(List.of(3L), last.items().stream().map(QotdPostedDto::id).toList());
+        assertNull(last.nextBefore());
+        assertNull(last.nextBeforeId());
+    }
+
+    @Test
+    @DisplayName("postNextQuestion: an empty queue posts nothing")
+    void postNextQuestion_emptyQueue() {
+        postableStream(false, 0);
+        when(questionRepo.countByStreamId(1L)).thenReturn(0L);
+
+        service.postNextQuestion(1L);
+
+        verify(questionRepo, never()).findByStreamIdOrderByDisplayOrderAscIdAsc(anyLong(), any());
+        verify(deliveries, never()).reserve(any(), any(), any());
+    }
+
+    private QotdStream postableStream(boolean randomize, int nextIndex) {
+        QotdStream stream = new QotdStream();
+        stream.setId(1L);
+        stream.setGuildId("g1");
+        stream.setChannelId("c1");
+        stream.setStreamName("Default");
+        stream.setRandomize(randomize);
+        stream.setNextIndex(nextIndex);
+        when(streamRepo.findById(1L)).thenReturn(Optional.of(stream));
+        return stream;
+    }
+
+    private static QotdPosted posted(Long id, Instant postedAt) {
+        QotdPosted posted = mock(QotdPosted.class);
+        when(posted.getId()).thenReturn(id);
+        when(posted.getPostedAt()).thenReturn(postedAt);
+        return posted;
+    }
+
+    private static QotdQuestion question(Long id, String text) {
+        QotdQuestion question = new QotdQuestion();
+        question.setId(id);
+        question.setText(text);
+        return question;
+    }
 }
@@ -1,11 +1,14 @@
 package com.discordbot;
 
 import com.discordbot.entity.QotdQuestion;
+import com.discordbot.entity.QotdStream;
 import com.discordbot.entity.QotdSubmission;
 import com.discordbot.repository.QotdQuestionRepository;
 import com.discordbot.repository.QotdStreamRepository;
 import com.discordbot.repository.QotdSubmissionRepository;
 import com.discordbot.web.dto.qotd.QotdDtos;
+import com.discordbot.web.service.GuildResourceVersions;
+import com.discordbot.web.service.QotdNearDuplicateIndex;
 import com.discordbot.web.service.QotdSubmissionService;
 import com.discordbot.web.service.WebSocketNotificationService;
 import org.junit.jupiter.api.BeforeEach;
@@ -30,6 +33,7 @@ class QotdSubmissionServiceTest {
     private QotdQuestionRepository questionRepo;
     private QotdStreamRepository streamRepo;
     private WebSocketNotificationService wsNotificationService;
+    private QotdNearDuplicateIndex nearDuplicates;
 
     @BeforeEach
     void setUp() {
@@ -37,7 +41,9 @@ class QotdSubmissionServiceTest {
         questionRepo = mock(QotdQuestionRepository.class);
         streamRepo = mock(QotdStreamRepository.class);
         wsNotificationService = mock(WebSocketNotificationService.class);
-        service = new QotdSubmissionService(submissionRepo, questionRepo, streamRepo, wsNotificationService);
+        nearDuplicates = mock(QotdNearDuplicateIndex.class);
+        service = new QotdSubmissionService(submissionRepo, questionRepo, streamRepo, wsNotificationService, new GuildResourceVersions(),
+            nearDuplicates);
     }
 
     @Test
@@ -369,6 +375,100 @@ class QotdSubmissionServiceTest {
     }
 
     // Helper method to create a submission with ID using reflection
+    @Test
+    @DisplayName("approve should refuse a question already in the target stream")
+    void testApprove_DuplicateInStream() {
+        QotdSubmission submission = createSubmissionWithId(1L, "guild123", "user123", "testuser", "Great question?");
+        when(submissionRepo.findById(1L)).thenReturn(Optional.of(submission));
+        when(questionRepo.existsByStreamIdAndTextHash(7L, QotdQuestion.hashText("great   QUESTION?"))).thenReturn(true);
+
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+            () -> service.approve("guild123", "channel456", 1L, 7L, "admin123", "AdminUser"));
+
+        assertEquals("Question is already in this stream", e.getMessage());
+        verify(questionRepo, never()).save(any());
+        assertEquals(QotdSubmission.Status.PENDING, submission.getStatus());
+    }
+
+    @Test
+    @DisplayName("auto-approve should skip streams that already hold the question")
+    void testSubmit_AutoApproveSkipsDuplicates() {
+        QotdStream holds = autoApproveStream(1L, "c1");
+        QotdStream fresh = autoApproveStream(2L, "c2");
+        when(streamRepo.findByGuildIdOrderByChannelIdAscIdAsc("guild123")).thenReturn(List.of(holds, fresh));
+        when(questionRepo.existsByStreamIdAndTextHash(1L, QotdQuestion.hashText("Favorite season?"))).thenReturn(true);
+        when(questionRepo.save(any(QotdQuestion.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(submissionRepo.save(any(QotdSubmission.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        QotdDtos.QotdSubmissionDto result = service.submit("guild123", "user123", "testuser", "Favorite season?", null);
+
+        assertEquals(QotdDtos.SubmissionStatus.APPROVED, result.status());
+        verify(questionRepo, times(1)).save(argThat(q -> q.getStreamId().equals(2L)));
+        verify(wsNotificationService, never()).notifyQotdQuestionsChanged("guild123", "c1", "auto-approved");
+    }
+
+    @Test
+    @DisplayName("submit should flag a near-duplicate and index the pending submission")
+    void testSubmit_FlagsNearDuplicate() {
+        when(nearDuplicates.findSimilar("guild123", "Whats your favourite movie?", null)).thenReturn(Optional.of(
+            new QotdNearDuplicateIndex.Match(QotdNearDuplicateIndex.Source.QUESTION, 4L, "What's your favorite movie?", 0.8)));
+        when(submissionRepo.save(any(QotdSubmission.class))).thenAnswer(inv -> {
+            QotdSubmission saved = inv.getArgument(0);
+            return createSubmissionWithId(21L, saved.getGuildId(), saved.getUserId(), saved.getUsername(), saved.getText());
+        });
+
+        QotdDtos.QotdSubmissionDto result = service.submit("guild123", "user123", "testuser", "Whats your favourite movie?", null);
+
+        assertEquals(new QotdDtos.NearDuplicateDto("QUESTION", 4L, "What's your favorite movie?", 0.8), result.similarTo());
+        verify(nearDuplicates).submissionAdded("guild123", 21L, "Whats your favourite movie?");
+    }
+
+    @Test
+    @DisplayName("listPending should flag near-duplicates other than the submission itself")
+    void testListPending_FlagsNearDuplicates() {
+        QotdSubmission first = createSubmissionWithId(1L, "guild123", "u1", "one", "Cats or dogs?");
+        QotdSubmission second = createSubmissionWithId(2L, "guild123", "u2", "two", "Dogs or cats?");
+        when(submissionRepo.findByGuildIdAndStatusOrderByCreatedAtAsc("guild123", QotdSubmission.Status.PENDING))
+            .thenReturn(List.of(first, second));
+        when(nearDuplicates.findSimilar("guild123", "Dogs or cats?", 2L)).thenReturn(Optional.of(
+            new QotdNearDuplicateIndex.Match(QotdNearDuplicateIndex.Source.SUBMISSION, 1L, "Cats or dogs?", 0.65)));
+
+        List<QotdDtos.QotdSubmissionDto> pending = service.listPending("guild123");
+
+        assertNull(pending.get(0).similarTo());
+        assertEquals(1L, pending.get(1).similarTo().id());
+    }
+
+    @Test
+    @DisplayName("approve and reject should keep the near-duplicate index current")
+    void testApproveReject_UpdateIndex() {
+        QotdSubmission toApprove = createSubmissionWithId(1L, "guild123", "u1", "one", "Approved question?");
+        QotdSubmission toReject = createSubmissionWithId(2L, "guild123", "u2", "two", "Rejected question?");
+        when(submissionRepo.findById(1L)).thenReturn(Optional.of(toApprove));
+        when(submissionRepo.findById(2L)).thenReturn(Optional.of(toReject));
+        when(questionRepo.save(any(QotdQuestion.class))).thenAnswer(inv -> {
+            QotdQuestion q = inv.getArgument(0);
+            q.setId(30L);
+            return q;
+        });
+
+        service.approve("guild123", "channel456", 1L, null, "admin123", "AdminUser");
+        service.reject("guild123", 2L, "admin123", "AdminUser");
+
+        verify(nearDuplicates).submissionRemoved("guild123", 1L);
+        verify(nearDuplicates).questionAdded("guild123", 30L, "Approved question?");
+        verify(nearDuplicates).submissionRemoved("guild123", 2L);
+    }
+
+    private static QotdStream autoApproveStream(Long id, String channelId) {
+        QotdStream stream = new QotdStream();
+        stream.setId(id);
+        stream.setGuildId("guild123");
+        stream.setChannelId(channelId);
+        stream.setAutoApprove(true);
+        return stream;
+    }
+
     private QotdSubmission createSubmissionWithId(Long id, String guildId, String userId, String username, String text) {
         QotdSubmission submission = new QotdSubmission(guildId, userId, username, text);
         try {
@@ -0,0 +1,186 @@
+package com.discordbot;
+
+import com.discordbot.entity.QotdStream;
+import com.discordbot.repository.QotdStreamRepository;
+import com.discordbot.web.service.QotdSchedule;
+import com.discordbot.web.service.QotdThreadWarmup;
+import com.discordbot.web.service.QotdThreadWarmup.Reason;
+import com.discordbot.web.service.QotdThreadWarmup.Warning;
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.SelfUser;
+import net.dv8tion.jda.api.entities.channel.concrete.ThreadChannel;
+import net.dv8tion.jda.api.events.guild.GuildReadyEvent;
+import net.dv8tion.jda.api.events.thread.member.ThreadMemberLeaveEvent;
+import net.dv8tion.jda.api.requests.RestAction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.*;
+
+class QotdThreadWarmupTest {
+
+    private static final Instant NOW = Instant.parse("2026-03-02T08:00:30Z");
+
+    private QotdSchedule schedule;
+    private QotdStreamRepository streamRepo;
+    private QotdThreadWarmup warmup;
+    private JDA jda;
+    private Guild guild;
+
+    @BeforeEach
+    void setUp() {
+        schedule = new QotdSchedule();
+        streamRepo = mock(QotdStreamRepository.class);
+        warmup = new QotdThreadWarmup(schedule, streamRepo, Duration.ofHours(1), Clock.fixed(NOW, ZoneOffset.UTC));
+        jda = mock(JDA.class);
+        guild = mock(Guild.class);
+        SelfUser self = mock(SelfUser.class);
+        when(self.getIdLong()).thenReturn(42L);
+        when(jda.getSelfUser()).thenReturn(self);
+        when(jda.getGuildById("g1")).thenReturn(guild);
+
+        GuildReadyEvent ready = mock(GuildReadyEvent.class);
+        when(ready.getJDA()).thenReturn(jda);
+        warmup.onGuildReady(ready);
+    }
+
+    private QotdStream stream(long id, String channelId, String nextRunAt) {
+        QotdStream stream = new QotdStream();
+        stream.setId(id);
+        stream.setGuildId("g1");
+        stream.setChannelId(channelId);
+        stream.setStreamName("s" + id);
+        stream.setScheduleCron("0 0 9 * * *");
+        stream.setTimezone("UTC");
+        stream.setEnabled(true);
+        stream.setNextRunAt(Instant.parse(nextRunAt));
+        return stream;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void scheduled(QotdStream... streams) {
+        schedule.replaceAll(List.of(streams));
+        when(streamRepo.findAllById(anyIterable())).thenAnswer(inv -> {
+            List<Long> ids = new ArrayList<>();
+            ((Iterable<Long>) inv.getArgument(0)).forEach(ids::add);
+            return List.of(streams).stream().filter(s -> ids.contains(s.getId())).toList();
+        });
+    }
+
+    private ThreadChannel thread(String id, boolean archived, boolean joined) {
+        ThreadChannel thread = mock(ThreadChannel.class);
+        when(thread.getId()).thenReturn(id);
+        when(thread.getName()).thenReturn("thread-" + id);
+        when(thread.isArchived()).thenReturn(archived);
+        when(thread.isJoined()).thenReturn(joined);
+        when(guild.getThreadChannelById(id)).thenReturn(thread);
+        return thread;
+    }
+
+    @SuppressWarnings("unchecked")
+    private RestAction<Void> joinAction(Throwable failure) {
+        RestAction<Void> action = mock(RestAction.class);
+        doAnswer(inv -> {
+            if (failure == null) {
+                ((Consumer<Void>) inv.getArgument(0)).accept(null);
+            } else {
+                ((Consumer<Throwable>) inv.getArgument(1)).accept(failure);
+            }
+            return null;
+        }).when(action).queue(any(), any());
+        return action;
+    }
+
+    @Test
+    @DisplayName("Threads of streams due within the horizon are joined once; later streams are left alone")
+    void joinsThreadsWithinHorizon() {
+        ThreadChannel soon = thread("t1", false, false);
+        ThreadChannel later = thread("t2", false, false);
+        RestAction<Void> join = joinAction(null);
+        when(soon.join()).thenReturn(join);
+        scheduled(stream(1, "t1", "2026-03-02T08:45:00Z"), stream(2, "t2", "2026-03-02T12:00:00Z"));
+
+        warmup.warmUpDueThreads();
+        warmup.warmUpDueThreads();
+
+        verify(soon, times(1)).join();
+        verify(later, never()).join();
+        assertTrue(warmup.getWarnings("g1").isEmpty());
+        // The schedule still fires both streams
+        assertEquals(List.of(1L, 2L), schedule.dueIds(Instant.parse("2026-03-02T12:00:00Z")));
+    }
+
+    @Test
+    @DisplayName("Leaving a thread is picked up from events and the next pass joins it again")
+    void rejoinsAfterLeave() {
+        ThreadChannel thread = thread("t1", false, false);
+        RestAction<Void> join = joinAction(null);
+        when(thread.join()).thenReturn(join);
+        scheduled(stream(1, "t1", "2026-03-02T08:45:00Z"));
+        warmup.warmUpDueThreads();
+
+        ThreadMemberLeaveEvent leave = mock(ThreadMemberLeaveEvent.class);
+        when(leave.getJDA()).thenReturn(jda);
+        when(leave.getThreadMemberIdLong()).thenReturn(42L);
+        when(leave.getThread()).thenReturn(thread);
+        warmup.onThreadMemberLeave(leave);
+        warmup.warmUpDueThreads();
+
+        verify(thread, times(2)).join();
+    }
+
+    @Test
+    @DisplayName("Archived, missing and unjoinable threads are flagged before the fire time")
+    void flagsUnreachableThreads() {
+        thread("t1", true, false);
+        ThreadChannel locked = thread("t3", false, false);
+        RestAction<Void> join = joinAction(new IllegalStateException("Missing access"));
+        when(locked.join()).thenReturn(join);
+        scheduled(stream(1, "t1", "2026-03-02T08:10:00Z"), stream(2, "gone", "2026-03-02T08:20:00Z"),
+            stream(3, "t3", "2026-03-02T08:30:00Z"));
+
+        warmup.warmUpDueThreads();
+
+        List<Warning> warnings = warmup.getWarnings("g1");
+        assertEquals(List.of(Reason.THREAD_ARCHIVED, Reason.CHANNEL_NOT_FOUND, Reason.JOIN_FAILED),
+            warnings.stream().map(Warning::reason).toList());
+        assertEquals(Instant.parse("2026-03-02T08:10:00Z"), warnings.get(0).fireAt());
+        assertEquals(NOW, warnings.get(0).detectedAt());
+        assertEquals("Missing access", warnings.get(2).detail());
+        assertTrue(warmup.getWarnings("g2").isEmpty());
+    }
+
+    @Test
+    @DisplayName("A flag clears once the thread is reachable or the stream leaves the horizon")
+    void flagsClear() {
+        thread("t1", true, false);
+        QotdStream stream = stream(1, "t1", "2026-03-02T08:10:00Z");
+        scheduled(stream);
+        warmup.warmUpDueThreads();
+        assertEquals(1, warmup.getWarnings("g1").size());
+
+        thread("t1", false, true);
+        warmup.warmUpDueThreads();
+        assertTrue(warmup.getWarnings("g1").isEmpty());
+
+        thread("t1", true, false);
+        warmup.warmUpDueThreads();
+        assertEquals(1, warmup.getWarnings("g1").size());
+        schedule.remove(stream.getId());
+        warmup.warmUpDueThreads();
+        assertTrue(warmup.getWarnings("g1").isEmpty());
+    }
+}
@@ -3,6 +3,8 @@ package com.discordbot;
 import com.discordbot.web.controller.RoleController;
 import com.discordbot.web.dto.*;
 import com.discordbot.web.service.AdminService;
+import com.discordbot.web.service.GuildResourceVersions;
+import com.discordbot.web.service.GuildResponseCache;
 import com.discordbot.web.service.RateLimitService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -35,7 +37,7 @@ class RoleControllerTest {
     void setUp() {
         adminService = mock(AdminService.class);
         rateLimitService = mock(RateLimitService.class);
-        roleController = new RoleController(adminService, rateLimitService);
+        roleController = new RoleController(adminService, rateLimitService, new GuildResponseCache(new GuildResourceVersions()));
         mockAuth = createMockAuth("user123");
     }
 
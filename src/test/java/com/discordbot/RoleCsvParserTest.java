@@ -0,0 +1,88 @@
+package com.discordbot;
+
+import com.discordbot.web.dto.CreateRoleRequest;
+import com.discordbot.web.service.CsvBatchParser;
+import com.discordbot.web.service.RoleCsvParser;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoleCsvParserTest {
+
+    private static InputStream csv(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Valid rows are normalized; header, comments and blank lines are skipped")
+    void normalizesRows() throws IOException {
+        List<CreateRoleRequest> rows = RoleCsvParser.parseAll(csv(
+            "name,rarity,colorHex,secondaryColorHex,tertiaryColorHex\n" +
+            "# Solid colors\n" +
+            "Sunset Glow,LEGENDARY,#ff6b35,,\n" +
+            "\n" +
+            "\"Ocean, Deep\",epic,3A86FF,#00ff00,\n" +
+            "Plain,common,,,\n"), 0);
+
+        assertEquals(List.of(
+            new CreateRoleRequest("Sunset Glow", "legendary", "#FF6B35", null, null),
+            new CreateRoleRequest("Ocean, Deep", "epic", "#3A86FF", "#00FF00", null),
+            new CreateRoleRequest("Plain", "common", null, null, null)
+        ), rows);
+    }
+
+    @Test
+    @DisplayName("Invalid rows are reported by line and skipped")
+    void lineAccurateErrors() throws IOException {
+        List<CreateRoleRequest> rows = new ArrayList<>();
+        CsvBatchParser.Result result = RoleCsvParser.parse(csv(
+            "name,rarity,colorHex\n" +
+            "Only Two,common\n" +
+            "Bad Rarity,mythic,#FFFFFF\n" +
+            "Bad Color,rare,#GGGGGG\n" +
+            "Bad Tertiary,rare,#FFFFFF,,#12\n" +
+            ",rare,#FFFFFF\n" +
+            "x\"y,rare,#FFFFFF\n" +
+            "Good,rare,#FFFFFF\n"), 10, 0, rows::addAll);
+
+        assertEquals(1, result.validRows());
+        assertEquals(6, result.invalidRows());
+        assertEquals(1, rows.size());
+        assertTrue(result.errors().get(0).startsWith("Line 2:"));
+        assertTrue(result.errors().get(1).startsWith("Line 3:"));
+        assertTrue(result.errors().get(2).contains("colorHex"));
+        assertTrue(result.errors().get(3).contains("tertiaryColorHex"));
+        assertTrue(result.errors().get(5).startsWith("Line 7:"));
+    }
+
+    @Test
+    @DisplayName("Rows are delivered in batches of the requested size")
+    void batches() throws IOException {
+        StringBuilder content = new StringBuilder("name,rarity,colorHex\n");
+        for (int i = 0; i < 25; i++) {
+            content.append("Role ").append(i).append(",common,#FFFFFF\n");
+        }
+        List<Integer> batchSizes = new ArrayList<>();
+
+        CsvBatchParser.Result result = RoleCsvParser.parse(csv(content.toString()), 10, 0, b -> batchSizes.add(b.size()));
+
+        assertEquals(25, result.validRows());
+        assertEquals(List.of(10, 10, 5), batchSizes);
+    }
+
+    @Test
+    @DisplayName("Exceeding the row limit fails with the offending line")
+    void rowLimit() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> RoleCsvParser.parseAll(csv(
+            "A,common,#FFFFFF\nB,common,#FFFFFF\nC,common,#FFFFFF\n"), 2));
+        assertTrue(e.getMessage().startsWith("Line 3:"));
+    }
+}
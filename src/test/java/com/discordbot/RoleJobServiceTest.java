@@ -0,0 +1,259 @@
+package com.discordbot;
+
+import com.discordbot.entity.RoleJob;
+import com.discordbot.repository.RoleJobRepository;
+import com.discordbot.web.dto.CreateRoleRequest;
+import com.discordbot.web.dto.RoleJobDto;
+import com.discordbot.web.service.AdminService;
+import com.discordbot.web.service.GuildResourceVersions;
+import com.discordbot.web.service.GuildResourceVersions.Family;
+import com.discordbot.web.service.GuildsCache;
+import com.discordbot.web.service.RoleJobService;
+import com.discordbot.web.service.WebSocketNotificationService;
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.Role;
+import net.dv8tion.jda.api.requests.restaction.AuditableRestAction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class RoleJobServiceTest {
+
+    private RoleJobRepository repository;
+    private AdminService adminService;
+    private JDA jda;
+    private Guild guild;
+    private GuildResourceVersions versions;
+    private GuildsCache guildsCache;
+    private WebSocketNotificationService ws;
+    private final Map<Long, RoleJob> stored = new HashMap<>();
+    private final List<Role> roles = new ArrayList<>();
+
+    @BeforeEach
+    void setup() {
+        repository = mock(RoleJobRepository.class);
+        adminService = mock(AdminService.class);
+        jda = mock(JDA.class);
+        guild = mock(Guild.class);
+        versions = new GuildResourceVersions();
+        guildsCache = mock(GuildsCache.class);
+        ws = mock(WebSocketNotificationService.class);
+
+        when(jda.getGuildById("g1")).thenReturn(guild);
+        when(guild.getRoles()).thenReturn(roles);
+        when(repository.save(any(RoleJob.class))).thenAnswer(inv -> {
+            RoleJob job = inv.getArgument(0);
+            if (job.getId() == null) {
+                ReflectionTestUtils.setField(job, "id", (long) stored.size() + 1);
+            }
+            stored.put(job.getId(), job);
+            return job;
+        });
+        when(repository.findById(anyLong())).thenAnswer(inv -> Optional.ofNullable(stored.get(inv.getArgument(0, Long.class))));
+        // Conditional claim: succeeds unless another instance's claim is still fresh
+        when(repository.claim(anyLong(), anyCollection(), anyString(), any(), any())).thenAnswer(inv -> {
+            RoleJob job = stored.get(inv.getArgument(0, Long.class));
+            if (job == null || job.isFinished() || (job.getClaimedBy() != null && job.getUpdatedAt() != null
+                    && !job.getUpdatedAt().isBefore(inv.getArgument(4)))) {
+                return 0;
+            }
+            job.setClaimedBy(inv.getArgument(2));
+            job.setUpdatedAt(inv.getArgument(3));
+            return 1;
+        });
+        when(repository.requestCancel(anyLong())).thenAnswer(inv -> {
+            stored.get(inv.getArgument(0, Long.class)).setCancelRequested(true);
+            return 1;
+        });
+        when(repository.isCancelRequested(anyLong())).thenAnswer(inv -> stored.get(inv.getArgument(0, Long.class)).isCancelRequested());
+        when(repository.findByIdAndGuildId(anyLong(), eq("g1"))).thenAnswer(inv -> Optional.ofNullable(stored.get(inv.getArgument(0, Long.class))));
+        when(adminService.gatchaRoleName(any())).thenAnswer(inv -> "gacha:" + inv.getArgument(0, CreateRoleRequest.class).rarity()
+            + ":" + inv.getArgument(0, CreateRoleRequest.class).name());
+    }
+
+    private RoleJobService service(Executor executor) {
+        return new RoleJobService(repository, adminService, jda, versions, guildsCache, ws, executor, "node-a");
+    }
+
+    private static CreateRoleRequest request(String name) {
+        return new CreateRoleRequest(name, "common", "#FF0000", null, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Role role(String id, String name, boolean deletable) {
+        Role role = mock(Role.class);
+        when(role.getId()).thenReturn(id);
+        when(role.getName()).thenReturn(name);
+        AuditableRestAction<Void> delete = mock(AuditableRestAction.class);
+        when(delete.submit()).thenReturn(deletable
+            ? CompletableFuture.completedFuture(null)
+            : CompletableFuture.failedFuture(new IllegalStateException("Missing Permissions")));
+        when(role.delete()).thenReturn(delete);
+        when(guild.getRoleById(id)).thenReturn(role);
+        roles.add(role);
+        return role;
+    }
+
+    @Test
+    @DisplayName("Create job skips existing and repeated names and records progress")
+    void createJob() {
+        role("r0", "gacha:common:Red", true);
+        when(adminService.submitGatchaRole(eq(guild), any())).thenReturn(CompletableFuture.completedFuture(mock(Role.class)));
+
+        RoleJobDto queued = service(Runnable::run).submitCreate("g1",
+            List.of(request("Red"), request("Blue"), request("blue"), request("Green")), "u1");
+
+        RoleJob job = stored.get(queued.id());
+        assertEquals(RoleJob.Status.COMPLETED, job.getStatus());
+        assertEquals(4, job.getNextItem());
+        assertEquals(2, job.getSucceededCount());
+        assertEquals(2, job.getSkippedCount());
+        assertNotNull(job.getFinishedAt());
+        verify(adminService, times(2)).submitGatchaRole(eq(guild), any());
+        verify(guildsCache).evictGuild("g1");
+        verify(ws).notifyRolesChanged("g1", "created");
+        assertTrue(versions.current("g1", Family.ROLES) > 0);
+    }
+
+    @Test
+    @DisplayName("Delete job skips missing roles, refuses non-gacha roles and records failures")
+    void deleteJob() {
+        Role ok = role("r1", "gacha:common:Red", true);
+        Role other = role("r2", "Moderator", true);
+        role("r3", "gacha:rare:Blue", false);
+
+        RoleJobDto queued = service(Runnable::run).submitDelete("g1", List.of("r1", "r2", "r3", "gone"), "u1");
+
+        RoleJob job = stored.get(queued.id());
+        assertEquals(RoleJob.Status.COMPLETED, job.getStatus());
+        assertEquals(1, job.getSucceededCount());
+        assertEquals(1, job.getSkippedCount());
+        assertEquals(2, job.getFailedCount());
+        verify(ok).delete();
+        verify(other, never()).delete();
+        RoleJobDto dto = service(Runnable::run).getJob("g1", queued.id()).orElseThrow();
+        assertEquals(4, dto.processedItems());
+        assertTrue(dto.errors().stream().anyMatch(e -> e.contains("role hierarchy")));
+    }
+
+    @Test
+    @DisplayName("Cancelled jobs stop before submitting remaining items")
+    void cancelBeforeRun() {
+        List<Runnable> pending = new ArrayList<>();
+        RoleJobService service = service(pending::add);
+        role("r1", "gacha:common:Red", true);
+
+        RoleJobDto queued = service.submitDelete("g1", List.of("r1"), "u1");
+        assertTrue(service.cancel("g1", queued.id()).orElseThrow().cancelRequested());
+        pending.forEach(Runnable::run);
+
+        RoleJob job = stored.get(queued.id());
+        assertEquals(RoleJob.Status.CANCELLED, job.getStatus());
+        assertEquals(0, job.getNextItem());
+        verify(repository).requestCancel(queued.id());
+        verify(roles.get(0), never()).delete();
+    }
+
+    @Test
+    @DisplayName("A cancel taken by another instance stops the running job at its next checkpoint")
+    @SuppressWarnings("unchecked")
+    void cancelFromAnotherInstance() {
+        RoleJobService other = new RoleJobService(repository, adminService, jda, versions, guildsCache, ws, Runnable::run, "node-b");
+        List<String> ids = new ArrayList<>();
+        for (int i = 1; i <= 12; i++) {
+            ids.add("r" + i);
+            role("r" + i, "gacha:common:Role" + i, true);
+        }
+        // The request lands on node-b while node-a is deleting the second role
+        AuditableRestAction<Void> delete = mock(AuditableRestAction.class);
+        when(delete.submit()).thenAnswer(inv -> {
+            other.cancel("g1", 1L);
+            return CompletableFuture.completedFuture(null);
+        });
+        when(roles.get(1).delete()).thenReturn(delete);
+
+        service(Runnable::run).submitDelete("g1", ids, "u1");
+
+        RoleJob job = stored.get(1L);
+        assertEquals(RoleJob.Status.CANCELLED, job.getStatus());
+        // Stopped at the first checkpoint (every 5 items), never writing the flag back
+        assertEquals(5, job.getNextItem());
+        assertTrue(job.isCancelRequested());
+        verify(roles.get(5).delete(), never()).submit();
+        verify(repository, times(1)).save(any(RoleJob.class));
+    }
+
+    @Test
+    @DisplayName("Unfinished jobs resume from their checkpoint on startup")
+    void resumeFromCheckpoint() {
+        role("r1", "gacha:common:Red", true);
+        Role second = role("r2", "gacha:common:Blue", true);
+        RoleJob job = new RoleJob("g1", RoleJob.Type.DELETE, "u1", "[\"r1\",\"r2\"]", 2);
+        job.setNamePrefix("gacha:");
+        job.setStatus(RoleJob.Status.RUNNING);
+        job.setNextItem(1);
+        job.setSucceededCount(1);
+        repository.save(job);
+        when(repository.findByStatusInOrderByIdAsc(anyCollection())).thenReturn(List.of(job));
+
+        service(Runnable::run).resumeUnfinished();
+
+        assertEquals(RoleJob.Status.COMPLETED, job.getStatus());
+        assertEquals(2, job.getSucceededCount());
+        verify(roles.get(0), never()).delete();
+        verify(second).delete();
+    }
+
+    @Test
+    @DisplayName("A job another instance is still checkpointing is not resumed")
+    void resumeSkipsLiveClaim() {
+        Role first = role("r1", "gacha:common:Red", true);
+        RoleJob job = new RoleJob("g1", RoleJob.Type.DELETE, "u1", "[\"r1\"]", 1);
+        job.setNamePrefix("gacha:");
+        job.setStatus(RoleJob.Status.RUNNING);
+        job.setClaimedBy("other-node");
+        job.setUpdatedAt(Instant.now());
+        repository.save(job);
+        when(repository.findByStatusInOrderByIdAsc(anyCollection())).thenReturn(List.of(job));
+
+        service(Runnable::run).resumeUnfinished();
+        assertEquals(RoleJob.Status.RUNNING, job.getStatus());
+        verify(first, never()).delete();
+
+        // The other instance stopped checkpointing: the job is claimed and resumed
+        job.setUpdatedAt(Instant.now().minus(Duration.ofMinutes(10)));
+        service(Runnable::run).resumeUnfinished();
+        assertEquals(RoleJob.Status.COMPLETED, job.getStatus());
+        assertEquals("node-a", job.getClaimedBy());
+        verify(first).delete();
+    }
+
+    @Test
+    @DisplayName("Empty and oversized jobs are rejected")
+    void limits() {
+        RoleJobService service = service(Runnable::run);
+
+        assertThrows(IllegalArgumentException.class, () -> service.submitDelete("g1", List.of(), "u1"));
+        assertThrows(IllegalArgumentException.class,
+            () -> service.submitDelete("g1", Collections.nCopies(1001, "r"), "u1"));
+        assertThrows(IllegalArgumentException.class, () -> service.submitDelete("missing", List.of("r1"), "u1"));
+        verify(repository, never()).save(any());
+    }
+}
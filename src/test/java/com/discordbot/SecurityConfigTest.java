@@ -82,12 +82,38 @@ class SecurityConfigTest {
     }
 
     @Test
-    @DisplayName("authorizedClientService bean creates JDBC service")
+    @DisplayName("authorizedClientService bean creates cached JDBC service")
     void auth_client_service() {
         SecurityConfig cfg = new SecurityConfig();
         DataSource ds = mock(DataSource.class);
         ClientRegistrationRepository repo = mock(ClientRegistrationRepository.class);
         OAuth2AuthorizedClientService service = cfg.authorizedClientService(ds, repo);
         assertNotNull(service);
+        assertTrue(service instanceof com.discordbot.web.CachingOAuth2AuthorizedClientService);
+    }
+
+    @Test
+    @DisplayName("cacheEvictingLogoutHandler evicts the user's authorization decisions, guild list and authorized client")
+    void logout_handler_evicts_caches() {
+        SecurityConfig cfg = new SecurityConfig();
+        var authCache = mock(com.discordbot.web.service.GuildAuthorizationCache.class);
+        var guildsCache = mock(com.discordbot.web.service.GuildsCache.class);
+        var user = mock(org.springframework.security.oauth2.core.user.OAuth2User.class);
+        when(user.getAttribute("id")).thenReturn("u1");
+        var auth = mock(org.springframework.security.core.Authentication.class);
+        when(auth.getPrincipal()).thenReturn(user);
+
+        var clients = mock(com.discordbot.web.CachingOAuth2AuthorizedClientService.class);
+        when(auth.getName()).thenReturn("u1");
+
+        var handler = cfg.cacheEvictingLogoutHandler(authCache, guildsCache, clients);
+        handler.logout(mock(HttpServletRequest.class), mock(HttpServletResponse.class), auth);
+        verify(authCache).evictUser("u1");
+        verify(guildsCache).evictUser("u1");
+        verify(clients).evictPrincipal("u1");
+
+        // Anonymous logout is a no-op
+        handler.logout(mock(HttpServletRequest.class), mock(HttpServletResponse.class), null);
+        verifyNoMoreInteractions(authCache, guildsCache, clients);
     }
 }
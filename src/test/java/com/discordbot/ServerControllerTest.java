@@ -1,11 +1,16 @@
 package com.discordbot;
 
 import com.discordbot.web.controller.ServerController;
+import com.discordbot.web.dto.DiscordMemberDto;
+import com.discordbot.web.dto.DiscordMemberPage;
 import com.discordbot.web.dto.GuildInfo;
 import com.discordbot.web.dto.qotd.QotdDtos.ChannelTreeNodeDto;
 import com.discordbot.web.dto.qotd.QotdDtos.ChannelType;
 import com.discordbot.web.dto.qotd.QotdDtos.ChannelStreamStatusDto;
 import com.discordbot.web.service.AdminService;
+import com.discordbot.web.service.GuildResourceVersions;
+import com.discordbot.web.service.GuildResponseCache;
+import com.discordbot.web.service.GuildSnapshotService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -28,7 +33,7 @@ class ServerControllerTest {
     @BeforeEach
     void setup() {
         adminService = mock(AdminService.class);
-        controller = new ServerController(adminService);
+        controller = new ServerController(adminService, new GuildSnapshotService(adminService), new GuildResponseCache(new GuildResourceVersions()));
         auth = createMockAuth("user123");
     }
 
@@ -201,4 +206,81 @@ class ServerControllerTest {
 
         return authentication;
     }
+
+    @Test
+    @DisplayName("getSnapshot enforces auth once and aggregates every section")
+    void getSnapshot_authzAndSections() {
+        assertEquals(401, controller.getSnapshot("g1", null).getStatusCode().value());
+
+        when(adminService.canManageGuild(auth, "g1")).thenReturn(false);
+        assertEquals(403, controller.getSnapshot("g1", auth).getStatusCode().value());
+
+        when(adminService.canManageGuild(auth, "g1")).thenReturn(true);
+        GuildInfo info = new GuildInfo("g1", "Guild", null, true, true, false);
+        when(adminService.getManageableGuild(auth, "g1")).thenReturn(java.util.Optional.of(info));
+        when(adminService.getChannelOptions("g1")).thenReturn(List.of());
+        when(adminService.getStreamStatusForAllChannels("g1")).thenReturn(List.of());
+        when(adminService.getAllGuildRoles("g1")).thenReturn(List.of());
+        when(adminService.searchGuildMembers("g1", null, null, 100)).thenReturn(new DiscordMemberPage(List.of(), null));
+        when(adminService.getGatchaRoles("g1")).thenThrow(new IllegalStateException("boom"));
+        when(adminService.checkRoleHierarchy("g1")).thenReturn(null);
+
+        var res = controller.getSnapshot("g1", auth);
+        assertEquals(200, res.getStatusCode().value());
+        var snapshot = res.getBody();
+        assertNotNull(snapshot);
+        assertEquals(info, snapshot.guild());
+        assertNotNull(snapshot.channelOptions());
+        assertNull(snapshot.gachaRoles());
+        assertEquals("boom", snapshot.errors().get("gachaRoles"));
+        assertEquals(7, snapshot.timingsMs().size());
+        // Authorization ran once for this snapshot (plus the earlier 403 attempt)
+        verify(adminService, times(2)).canManageGuild(auth, "g1");
+        // The heavy all-guilds listing is not used
+        verify(adminService, never()).getManageableGuilds(any());
+    }
+
+    @Test
+    @DisplayName("Snapshot sections still running at the budget are cancelled and reported as timed out")
+    void snapshot_cancelsSlowSections() throws Exception {
+        java.util.concurrent.CountDownLatch interrupted = new java.util.concurrent.CountDownLatch(1);
+        when(adminService.getGatchaRoles("g1")).thenAnswer(inv -> {
+            try {
+                new java.util.concurrent.CountDownLatch(1).await();
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return List.of();
+        });
+        GuildSnapshotService snapshots = new GuildSnapshotService(adminService, java.time.Duration.ofMillis(200));
+
+        var snapshot = snapshots.buildSnapshot(auth, "g1");
+
+        assertNull(snapshot.gachaRoles());
+        assertEquals("timed out", snapshot.errors().get("gachaRoles"));
+        assertNotNull(snapshot.allRoles());
+        assertTrue(interrupted.await(2, java.util.concurrent.TimeUnit.SECONDS), "slow section should be interrupted");
+    }
+
+    @Test
+    @DisplayName("getGuildMembers passes query and cursor through and exposes the next cursor")
+    void getGuildMembers_queryAndCursor() {
+        assertEquals(401, controller.getGuildMembers("g1", 100, null, null, null).getStatusCode().value());
+
+        when(adminService.canManageGuild(auth, "g1")).thenReturn(true);
+        DiscordMemberDto alice = new DiscordMemberDto("1", "alice", "Alice", null);
+        when(adminService.searchGuildMembers("g1", "al", null, 1)).thenReturn(new DiscordMemberPage(List.of(alice), "next"));
+        when(adminService.searchGuildMembers("g1", "al", "next", 1)).thenReturn(new DiscordMemberPage(List.of(), null));
+        when(adminService.searchGuildMembers("g1", null, "bad", 100)).thenThrow(new IllegalArgumentException("Invalid cursor"));
+
+        var first = controller.getGuildMembers("g1", 1, "al", null, auth);
+        assertEquals(200, first.getStatusCode().value());
+        assertEquals(List.of(alice), first.getBody());
+        assertEquals("next", first.getHeaders().getFirst("X-Next-Cursor"));
+
+        var last = controller.getGuildMembers("g1", 1, "al", "next", auth);
+        assertNull(last.getHeaders().getFirst("X-Next-Cursor"));
+
+        assertEquals(400, controller.getGuildMembers("g1", 100, null, "bad", auth).getStatusCode().value());
+    }
 }
@@ -0,0 +1,78 @@
+package com.discordbot;
+
+import com.discordbot.web.CachingSessionRepository;
+import com.discordbot.web.SessionExpiryCleanupJob;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class SessionExpiryCleanupJobTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-01T00:00:00Z");
+
+    private JdbcTemplate jdbc;
+    private CachingSessionRepository<?> sessionRepository;
+    private SessionExpiryCleanupJob job;
+
+    @BeforeEach
+    void setup() {
+        DriverManagerDataSource ds = new DriverManagerDataSource(
+            "jdbc:h2:mem:session-cleanup-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        jdbc = new JdbcTemplate(ds);
+        jdbc.execute("CREATE TABLE SPRING_SESSION (PRIMARY_ID CHAR(36) PRIMARY KEY, SESSION_ID CHAR(36) NOT NULL UNIQUE, "
+            + "CREATION_TIME BIGINT NOT NULL, LAST_ACCESS_TIME BIGINT NOT NULL, MAX_INACTIVE_INTERVAL INT NOT NULL, "
+            + "EXPIRY_TIME BIGINT NOT NULL, PRINCIPAL_NAME VARCHAR(100))");
+        jdbc.execute("CREATE TABLE SPRING_SESSION_ATTRIBUTES (SESSION_PRIMARY_ID CHAR(36) NOT NULL, ATTRIBUTE_NAME VARCHAR(200) NOT NULL, "
+            + "ATTRIBUTE_BYTES BLOB NOT NULL, PRIMARY KEY (SESSION_PRIMARY_ID, ATTRIBUTE_NAME), "
+            + "FOREIGN KEY (SESSION_PRIMARY_ID) REFERENCES SPRING_SESSION(PRIMARY_ID) ON DELETE CASCADE)");
+        sessionRepository = mock(CachingSessionRepository.class);
+        job = new SessionExpiryCleanupJob(jdbc, sessionRepository, Duration.ofMinutes(1), Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    private void insertSession(long expiryMillis) {
+        String primaryId = UUID.randomUUID().toString();
+        jdbc.update("INSERT INTO SPRING_SESSION VALUES (?, ?, 0, 0, 60, ?, NULL)", primaryId, UUID.randomUUID().toString(), expiryMillis);
+        jdbc.update("INSERT INTO SPRING_SESSION_ATTRIBUTES VALUES (?, 'a', X'00')", primaryId);
+    }
+
+    private int count(String table) {
+        return jdbc.queryForObject("SELECT COUNT(*) FROM " + table, Integer.class);
+    }
+
+    @Test
+    @DisplayName("Expired sessions are deleted in chunks along with their attributes")
+    void deletesInChunks() {
+        long expired = NOW.minusSeconds(3600).toEpochMilli();
+        for (int i = 0; i < 1200; i++) {
+            insertSession(expired);
+        }
+        insertSession(NOW.plusSeconds(3600).toEpochMilli());
+
+        assertEquals(1200, job.purgeExpired());
+        assertEquals(1, count("SPRING_SESSION"));
+        assertEquals(1, count("SPRING_SESSION_ATTRIBUTES"));
+        // 500 + 500 + 200
+        verify(sessionRepository, times(3)).evictAll(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Sessions that expired within the touch granularity are kept")
+    void keepsRecentlyExpired() {
+        insertSession(NOW.minusSeconds(30).toEpochMilli());
+        assertEquals(0, job.purgeExpired());
+        assertEquals(1, count("SPRING_SESSION"));
+        verifyNoInteractions(sessionRepository);
+    }
+}
@@ -0,0 +1,239 @@
+package com.discordbot;
+
+import com.discordbot.web.service.GuildResourceVersions;
+import com.discordbot.web.service.GuildResourceVersions.Family;
+import com.discordbot.web.service.ThreadRegistry;
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.channel.ChannelType;
+import net.dv8tion.jda.api.entities.channel.concrete.ThreadChannel;
+import net.dv8tion.jda.api.entities.channel.unions.ChannelUnion;
+import net.dv8tion.jda.api.events.channel.ChannelCreateEvent;
+import net.dv8tion.jda.api.events.channel.ChannelDeleteEvent;
+import net.dv8tion.jda.api.events.channel.update.ChannelUpdateArchivedEvent;
+import net.dv8tion.jda.api.events.guild.GuildLeaveEvent;
+import net.dv8tion.jda.api.events.guild.GuildReadyEvent;
+import net.dv8tion.jda.api.requests.RestAction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ThreadRegistryTest {
+
+    private ThreadRegistry registry;
+    private GuildResourceVersions versions;
+    private MutableClock clock;
+    private Guild guild;
+    private RestAction<List<ThreadChannel>> threadAction;
+    private List<ThreadChannel> discordThreads;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setup() {
+        versions = new GuildResourceVersions();
+        clock = new MutableClock(Instant.parse("2026-03-02T08:00:00Z"));
+        registry = new ThreadRegistry(versions, clock);
+        guild = mock(Guild.class);
+        when(guild.getId()).thenReturn("g1");
+        discordThreads = new ArrayList<>();
+        threadAction = mock(RestAction.class);
+        doAnswer(inv -> {
+            ((Consumer<List<ThreadChannel>>) inv.getArgument(0)).accept(new ArrayList<>(discordThreads));
+            return null;
+        }).when(threadAction).queue(any(), any());
+        when(threadAction.complete()).thenAnswer(inv -> new ArrayList<>(discordThreads));
+        when(guild.retrieveActiveThreads()).thenReturn(threadAction);
+    }
+
+    private ThreadChannel thread(String id, boolean archived) {
+        ThreadChannel t = mock(ThreadChannel.class);
+        when(t.getId()).thenReturn(id);
+        when(t.isArchived()).thenReturn(archived);
+        when(t.getGuild()).thenReturn(guild);
+        return t;
+    }
+
+    private ChannelUnion union(ThreadChannel thread) {
+        ChannelUnion u = mock(ChannelUnion.class);
+        when(u.getType()).thenReturn(ChannelType.GUILD_PUBLIC_THREAD);
+        when(u.asThreadChannel()).thenReturn(thread);
+        return u;
+    }
+
+    private void ready() {
+        GuildReadyEvent event = mock(GuildReadyEvent.class);
+        when(event.getGuild()).thenReturn(guild);
+        when(event.getJDA()).thenReturn(mock(JDA.class));
+        registry.onGuildReady(event);
+    }
+
+    private List<String> ids() {
+        return registry.getActiveThreads(guild).stream().map(ThreadChannel::getId).sorted().toList();
+    }
+
+    @Test
+    @DisplayName("Guild ready seeds the registry once; reads don't call Discord")
+    void seedsOnReady() {
+        discordThreads.add(thread("t1", false));
+        discordThreads.add(thread("t2", true));
+        ready();
+
+        assertEquals(List.of("t1"), ids());
+        assertEquals(List.of("t1"), ids());
+        verify(guild, times(1)).retrieveActiveThreads();
+        verify(threadAction, never()).complete();
+    }
+
+    @Test
+    @DisplayName("Unseeded guild falls back to JDA's thread cache and seeds in the background")
+    void fallbackWhenUnseeded() {
+        ThreadChannel cached = thread("t1", false);
+        ThreadChannel archived = thread("t9", true);
+        when(guild.getThreadChannels()).thenReturn(List.of(cached, archived));
+        discordThreads.add(cached);
+        discordThreads.add(thread("t2", false));
+
+        assertEquals(List.of("t1"), ids());
+        // The background seed has completed (synchronously in this test)
+        assertEquals(List.of("t1", "t2"), ids());
+    }
+
+    @Test
+    @DisplayName("Create, archive, unarchive and delete events keep the registry current")
+    void eventsUpdate() {
+        ready();
+        ThreadChannel t = thread("t1", false);
+
+        ChannelUnion channel = union(t);
+        ChannelCreateEvent create = mock(ChannelCreateEvent.class);
+        when(create.getChannel()).thenReturn(channel);
+        registry.onChannelCreate(create);
+        assertEquals(List.of("t1"), ids());
+
+        ChannelUpdateArchivedEvent archived = mock(ChannelUpdateArchivedEvent.class);
+        when(archived.getChannel()).thenReturn(channel);
+        when(archived.getNewValue()).thenReturn(true);
+        registry.onChannelUpdateArchived(archived);
+        assertTrue(ids().isEmpty());
+
+        when(archived.getNewValue()).thenReturn(false);
+        registry.onChannelUpdateArchived(archived);
+        assertEquals(List.of("t1"), ids());
+
+        ChannelDeleteEvent delete = mock(ChannelDeleteEvent.class);
+        when(delete.getChannel()).thenReturn(channel);
+        registry.onChannelDelete(delete);
+        assertTrue(ids().isEmpty());
+        verify(threadAction, never()).complete();
+    }
+
+    @Test
+    @DisplayName("reconcileNow replaces the registry with Discord's list; guild leave drops it")
+    void reconcileAndLeave() {
+        ready();
+        discordThreads.add(thread("t5", false));
+        assertEquals(List.of("t5"), registry.reconcileNow(guild).stream().map(ThreadChannel::getId).toList());
+        assertEquals(List.of("t5"), ids());
+
+        GuildLeaveEvent leave = mock(GuildLeaveEvent.class);
+        when(leave.getGuild()).thenReturn(guild);
+        registry.onGuildLeave(leave);
+        when(guild.getThreadChannels()).thenReturn(List.of());
+        discordThreads.clear();
+        assertTrue(ids().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Seeding and reconciling bump CHANNELS only when the thread list changes")
+    void seedBumpsChannels() {
+        long before = versions.current("g1", Family.CHANNELS);
+        discordThreads.add(thread("t1", false));
+        ready();
+        long seeded = versions.current("g1", Family.CHANNELS);
+        assertTrue(seeded > before);
+
+        registry.reconcileNow(guild);
+        assertEquals(seeded, versions.current("g1", Family.CHANNELS));
+
+        discordThreads.add(thread("t2", false));
+        registry.reconcileNow(guild);
+        assertTrue(versions.current("g1", Family.CHANNELS) > seeded);
+    }
+
+    @Test
+    @DisplayName("A failed seed backs off instead of calling Discord on every read")
+    @SuppressWarnings("unchecked")
+    void failedSeedBacksOff() {
+        when(guild.getThreadChannels()).thenReturn(List.of());
+        doAnswer(inv -> {
+            ((Consumer<Throwable>) inv.getArgument(1)).accept(new IllegalStateException("Missing access"));
+            return null;
+        }).when(threadAction).queue(any(), any());
+
+        ids();
+        ids();
+        verify(guild, times(1)).retrieveActiveThreads();
+
+        clock.instant = clock.instant.plus(Duration.ofSeconds(31));
+        ids();
+        ids();
+        verify(guild, times(2)).retrieveActiveThreads();
+
+        // The second failure doubles the wait
+        clock.instant = clock.instant.plus(Duration.ofSeconds(31));
+        ids();
+        verify(guild, times(2)).retrieveActiveThreads();
+        clock.instant = clock.instant.plus(Duration.ofSeconds(30));
+        ids();
+        verify(guild, times(3)).retrieveActiveThreads();
+    }
+
+    @Test
+    @DisplayName("Only one seed per guild is in flight at a time")
+    void oneSeedInFlight() {
+        when(guild.getThreadChannels()).thenReturn(List.of());
+        doNothing().when(threadAction).queue(any(), any());
+
+        ready();
+        ids();
+        ids();
+        verify(guild, times(1)).retrieveActiveThreads();
+    }
+
+    /** Clock whose instant can be moved by the test. */
+    private static final class MutableClock extends Clock {
+        private Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
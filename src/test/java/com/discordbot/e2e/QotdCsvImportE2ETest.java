@@ -0,0 +1,206 @@
+package com.discordbot.e2e;
+
+import com.discordbot.entity.QotdQuestion;
+import com.discordbot.entity.QotdStream;
+import com.discordbot.repository.QotdQuestionRepository;
+import com.discordbot.repository.QotdQuestionTextHashBackfill;
+import com.discordbot.repository.QotdStreamRepository;
+import com.discordbot.web.dto.qotd.QotdDtos.UploadCsvResult;
+import com.discordbot.web.service.QotdQuestionCsvParser;
+import com.discordbot.web.service.QotdQuestionOrdering;
+import com.discordbot.web.service.QotdStreamService;
+import liquibase.database.Database;
+import liquibase.database.DatabaseFactory;
+import liquibase.database.jvm.JdbcConnection;
+import net.dv8tion.jda.api.JDA;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CSV upload against the real schema: batched JDBC inserts land in file order with spaced display
+ * orders, after questions already in the stream, and duplicates are skipped by text hash.
+ * The 100k-row case doubles as a throughput check and is tagged "benchmark", so it only runs when
+ * the build includes that tag.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:file:./target/h2/qotd-import-${random.uuid}"
+})
+class QotdCsvImportE2ETest {
+
+    @MockitoBean(name = "jda")
+    private JDA jda;
+
+    @Autowired
+    private QotdStreamService streamService;
+
+    @Autowired
+    private QotdStreamRepository streamRepository;
+
+    @Autowired
+    private QotdQuestionRepository questionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private final List<Long> created = new ArrayList<>();
+
+    @AfterEach
+    void cleanup() {
+        for (Long id : created) {
+            jdbcTemplate.update("DELETE FROM qotd_questions WHERE stream_id = ?", id);
+        }
+        streamRepository.deleteAllById(created);
+    }
+
+    @Test
+    @DisplayName("Uploaded questions are appended after existing ones in file order")
+    void appendsInFileOrder() {
+        QotdStream stream = createStream("import-order");
+        streamService.addQuestion("g-import", stream.getId(), "Existing question");
+
+        UploadCsvResult result = streamService.uploadCsv("g-import", stream.getId(), file(
+            "question,author_username,author_userid\n" +
+            "\"First, with a comma\",alice,1\n" +
+            "\"Second\nover two lines\",,\n" +
+            ",bob,2\n" +
+            "Third\n"));
+
+        assertEquals(3, result.successCount());
+        assertEquals(1, result.failureCount());
+        assertEquals(0, result.duplicateCount());
+        assertEquals(List.of("Line 5: Invalid question length"), result.errors());
+
+        List<QotdQuestion> questions = questionRepository.findByStreamIdOrderByDisplayOrderAscIdAsc(stream.getId());
+        assertEquals(List.of("Existing question", "First, with a comma", "Second\nover two lines", "Third"),
+            questions.stream().map(QotdQuestion::getText).toList());
+        assertEquals("alice", questions.get(1).getAuthorUsername());
+        assertEquals("1", questions.get(1).getAuthorUserId());
+        assertNull(questions.get(2).getAuthorUsername());
+        for (int i = 1; i < questions.size(); i++) {
+            assertEquals(questions.get(i - 1).getDisplayOrder() + QotdQuestionOrdering.GAP, questions.get(i).getDisplayOrder());
+            assertEquals("g-import", questions.get(i).getGuildId());
+            assertEquals(stream.getChannelId(), questions.get(i).getChannelId());
+            assertNotNull(questions.get(i).getCreatedAt());
+        }
+    }
+
+    @Test
+    @DisplayName("Questions already in the stream or earlier in the file are skipped as duplicates")
+    void skipsDuplicates() {
+        QotdStream stream = createStream("import-duplicates");
+        streamService.addQuestion("g-import", stream.getId(), "Existing question");
+
+        UploadCsvResult result = streamService.uploadCsv("g-import", stream.getId(), file(
+            "question\n" +
+            "existing   QUESTION\n" +
+            "New question\n" +
+            "new question\n"));
+
+        assertEquals(1, result.successCount());
+        assertEquals(2, result.duplicateCount());
+        assertEquals(0, result.failureCount());
+        List<QotdQuestion> questions = questionRepository.findByStreamIdOrderByDisplayOrderAscIdAsc(stream.getId());
+        assertEquals(List.of("Existing question", "New question"), questions.stream().map(QotdQuestion::getText).toList());
+        assertEquals(QotdQuestion.hashText("new question"), questions.get(1).getTextHash());
+        assertThrows(IllegalArgumentException.class,
+            () -> streamService.addQuestion("g-import", stream.getId(), "NEW QUESTION"));
+    }
+
+    @Test
+    @DisplayName("A repeat in a later batch is caught by the lookup against rows already inserted")
+    void skipsDuplicatesAcrossBatches() {
+        QotdStream stream = createStream("import-duplicates-batches");
+        StringBuilder content = new StringBuilder("question\n");
+        for (int i = 0; i < QotdQuestionCsvParser.DEFAULT_BATCH_SIZE; i++) {
+            content.append("Question ").append(i).append('\n');
+        }
+        content.append("QUESTION   0\n");
+
+        UploadCsvResult result = streamService.uploadCsv("g-import", stream.getId(), file(content.toString()));
+
+        assertEquals(QotdQuestionCsvParser.DEFAULT_BATCH_SIZE, result.successCount());
+        assertEquals(1, result.duplicateCount());
+        assertEquals(QotdQuestionCsvParser.DEFAULT_BATCH_SIZE, questionRepository.countByStreamId(stream.getId()));
+    }
+
+    @Test
+    @DisplayName("The Liquibase backfill hashes rows written before text_hash existed")
+    void backfillHashesLegacyRows() throws Exception {
+        QotdStream stream = createStream("import-backfill");
+        streamService.addQuestion("g-import", stream.getId(), "Legacy  Question");
+        jdbcTemplate.update("UPDATE qotd_questions SET text_hash = NULL WHERE stream_id = ?", stream.getId());
+
+        try (Connection connection = dataSource.getConnection()) {
+            Database database = DatabaseFactory.getInstance()
+                .findCorrectDatabaseImplementation(new JdbcConnection(connection));
+            new QotdQuestionTextHashBackfill().execute(database);
+            database.commit();
+        }
+
+        assertEquals(QotdQuestion.hashText("legacy question"), jdbcTemplate.queryForObject(
+            "SELECT text_hash FROM qotd_questions WHERE stream_id = ?", String.class, stream.getId()));
+    }
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("A 100k-line upload is inserted in batches")
+    void largeUpload() {
+        QotdStream stream = createStream("import-large");
+        int lines = 100_000;
+        StringBuilder content = new StringBuilder("question,author_username,author_userid\n");
+        for (int i = 0; i < lines; i++) {
+            content.append("Question number ").append(i).append(",user").append(i).append(',').append(i).append('\n');
+        }
+        Runtime runtime = Runtime.getRuntime();
+        long usedBefore = runtime.totalMemory() - runtime.freeMemory();
+
+        long started = System.nanoTime();
+        UploadCsvResult result = streamService.uploadCsv("g-import", stream.getId(), file(content.toString()));
+        long millis = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+
+        assertEquals(lines, result.successCount());
+        assertEquals(0, result.failureCount());
+        assertEquals(lines, questionRepository.countByStreamId(stream.getId()));
+        QotdQuestion last = questionRepository.findByStreamIdOrderByDisplayOrderAscIdAsc(
+            stream.getId(), PageRequest.of(lines - 1, 1)).get(0);
+        assertEquals("Question number " + (lines - 1), last.getText());
+        System.out.printf("Imported %d rows in %d ms (%d rows/s), heap delta %d MiB%n", lines, millis,
+            lines * 1000L / millis, ((runtime.totalMemory() - runtime.freeMemory()) - usedBefore) >> 20);
+    }
+
+    private static MockMultipartFile file(String content) {
+        return new MockMultipartFile("file", "questions.csv", "text/csv", content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private QotdStream createStream(String name) {
+        QotdStream stream = new QotdStream();
+        stream.setGuildId("g-import");
+        stream.setChannelId("c-" + name);
+        stream.setStreamName(name);
+        stream.setScheduleCron("0 0 9 * * *");
+        stream.setTimezone("UTC");
+        stream.setEnabled(false);
+        QotdStream saved = streamRepository.save(stream);
+        created.add(saved.getId());
+        return saved;
+    }
+}
@@ -0,0 +1,227 @@
+package com.discordbot.e2e;
+
+import com.discordbot.entity.QotdDelivery;
+import com.discordbot.entity.QotdPosted;
+import com.discordbot.entity.QotdStream;
+import com.discordbot.repository.QotdDeliveryRepository;
+import com.discordbot.repository.QotdQuestionRepository;
+import com.discordbot.repository.QotdPostedRepository;
+import com.discordbot.repository.QotdStreamRepository;
+import com.discordbot.web.dto.qotd.QotdDtos.QotdChannelSettingsDto;
+import com.discordbot.web.service.QotdDeliveryService;
+import com.discordbot.web.service.QotdStreamService;
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.entities.MessageEmbed;
+import net.dv8tion.jda.api.entities.channel.concrete.TextChannel;
+import net.dv8tion.jda.api.requests.restaction.MessageCreateAction;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Acknowledged delivery against the real schema: a failed send keeps the question queued behind a
+ * persisted retry, and the stream only advances once a retry is acknowledged.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:file:./target/h2/qotd-delivery-${random.uuid}"
+})
+class QotdDeliveryE2ETest {
+
+    private static final String GUILD = "g-delivery";
+
+    @MockitoBean(name = "jda")
+    private JDA jda;
+
+    @Autowired
+    private QotdStreamService streamService;
+
+    @Autowired
+    private QotdDeliveryService deliveryService;
+
+    @Autowired
+    private QotdStreamRepository streamRepository;
+
+    @Autowired
+    private QotdQuestionRepository questionRepository;
+
+    @Autowired
+    private QotdDeliveryRepository deliveryRepository;
+
+    @Autowired
+    private QotdPostedRepository postedRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<Long> created = new ArrayList<>();
+
+    @AfterEach
+    void cleanup() {
+        for (Long id : created) {
+            jdbcTemplate.update("DELETE FROM qotd_posted WHERE stream_id = ?", id);
+            jdbcTemplate.update("DELETE FROM qotd_deliveries WHERE stream_id = ?", id);
+            jdbcTemplate.update("DELETE FROM qotd_questions WHERE stream_id = ?", id);
+        }
+        streamRepository.deleteAllById(created);
+        jdbcTemplate.update("DELETE FROM qotd_channel_settings WHERE guild_id = ?", GUILD);
+    }
+
+    @Test
+    @DisplayName("A failed send is retried from the database and the stream advances only when acknowledged")
+    void failedSendIsRetried() {
+        QotdStream stream = createStream("retry");
+        streamService.addQuestion(GUILD, stream.getId(), "First question?");
+        streamService.addQuestion(GUILD, stream.getId(), "Second question?");
+        AtomicBoolean discordUp = new AtomicBoolean(false);
+        TextChannel channel = channel(stream, discordUp);
+
+        streamService.postNextQuestion(stream.getId());
+
+        QotdDelivery pending = deliveryRepository.findByStreamId(stream.getId()).orElseThrow();
+        assertEquals(QotdDelivery.Status.RETRY, pending.getStatus());
+        assertEquals(1, pending.getAttempts());
+        assertNotNull(pending.getLastError());
+        assertTrue(pending.getNextAttemptAt().isAfter(Instant.now()));
+        assertEquals(2, questionRepository.countByStreamId(stream.getId()));
+        QotdStream unchanged = streamRepository.findById(stream.getId()).orElseThrow();
+        assertNull(unchanged.getLastPostedAt());
+        assertEquals(0, unchanged.getNextIndex());
+
+        // The next firing resends the reserved question rather than reserving another
+        streamService.postNextQuestion(stream.getId());
+        assertEquals(2, deliveryRepository.findByStreamId(stream.getId()).orElseThrow().getAttempts());
+
+        discordUp.set(true);
+        jdbcTemplate.update("UPDATE qotd_deliveries SET next_attempt_at = ? WHERE stream_id = ?",
+            Timestamp.from(Instant.now().minusSeconds(1)), stream.getId());
+        deliveryService.retryDueDeliveries();
+
+        assertTrue(deliveryRepository.findByStreamId(stream.getId()).isEmpty());
+        assertEquals(1, questionRepository.countByStreamId(stream.getId()));
+        assertEquals("First question?", streamService.listPosted(GUILD, stream.getId(), null, null, null)
+            .items().get(0).text());
+        QotdStream posted = streamRepository.findById(stream.getId()).orElseThrow();
+        assertNotNull(posted.getLastPostedAt());
+        assertEquals(1, posted.getNextIndex());
+        verify(channel, times(3)).sendMessageEmbeds(any(MessageEmbed.class));
+    }
+
+    @Test
+    @DisplayName("A send still awaiting Discord's response is not resent before its ack deadline")
+    void inFlightSendIsNotResent() {
+        QotdStream stream = createStream("in-flight");
+        streamService.addQuestion(GUILD, stream.getId(), "Mountains or beaches?");
+        TextChannel channel = channel(stream, new AtomicBoolean(true));
+        MessageCreateAction hanging = mock(MessageCreateAction.class);
+        when(channel.sendMessageEmbeds(any(MessageEmbed.class))).thenReturn(hanging);
+
+        streamService.postNextQuestion(stream.getId());
+        QotdDelivery inFlight = deliveryRepository.findByStreamId(stream.getId()).orElseThrow();
+        assertEquals(QotdDelivery.Status.SENDING, inFlight.getStatus());
+
+        // Neither the next firing nor a direct retry may send it a second time
+        streamService.postNextQuestion(stream.getId());
+        deliveryService.retryNow(inFlight);
+        QotdDelivery unchanged = deliveryRepository.findByStreamId(stream.getId()).orElseThrow();
+        assertEquals(1, unchanged.getAttempts());
+        assertEquals(inFlight.getNextAttemptAt(), unchanged.getNextAttemptAt());
+        verify(channel, times(1)).sendMessageEmbeds(any(MessageEmbed.class));
+
+        // Once the ack deadline passes it is fair game again
+        jdbcTemplate.update("UPDATE qotd_deliveries SET next_attempt_at = ? WHERE stream_id = ?",
+            Timestamp.from(Instant.now().minusSeconds(1)), stream.getId());
+        deliveryService.retryNow(deliveryRepository.findByStreamId(stream.getId()).orElseThrow());
+        assertEquals(2, deliveryRepository.findByStreamId(stream.getId()).orElseThrow().getAttempts());
+        verify(channel, times(2)).sendMessageEmbeds(any(MessageEmbed.class));
+    }
+
+    @Test
+    @DisplayName("A coalescing channel posts several streams as one message, archiving each under its message id")
+    void coalescedPost() {
+        QotdStream first = createStream("first", "c-shared");
+        QotdStream second = createStream("second", "c-shared");
+        streamService.addQuestion(GUILD, first.getId(), "Tea or coffee?");
+        streamService.addQuestion(GUILD, second.getId(), "Favorite board game?");
+        TextChannel channel = channel(first, new AtomicBoolean(true));
+        MessageCreateAction multi = channel.sendMessageEmbeds(mock(MessageEmbed.class));
+        when(channel.sendMessageEmbeds(any(MessageEmbed.class), any(MessageEmbed[].class))).thenReturn(multi);
+        clearInvocations(channel);
+
+        assertFalse(streamService.getChannelSettings(GUILD, "c-shared").coalescePosts());
+        streamService.updateChannelSettings(GUILD, "c-shared", new QotdChannelSettingsDto(true));
+        assertTrue(streamService.getChannelSettings(GUILD, "c-shared").coalescePosts());
+
+        streamService.postNextQuestions(List.of(first.getId(), second.getId()));
+
+        verify(channel, times(1)).sendMessageEmbeds(any(MessageEmbed.class), any(MessageEmbed[].class));
+        assertTrue(deliveryRepository.findByStreamId(first.getId()).isEmpty());
+        assertTrue(deliveryRepository.findByStreamId(second.getId()).isEmpty());
+        assertEquals(0, questionRepository.countByStreamId(first.getId()));
+        assertEquals(0, questionRepository.countByStreamId(second.getId()));
+        for (QotdStream stream : List.of(first, second)) {
+            QotdPosted posted = postedRepository.findByStreamIdOrderByPostedAtDescIdDesc(stream.getId(),
+                PageRequest.of(0, 1)).get(0);
+            assertEquals("987654321", posted.getMessageId());
+            assertNotNull(streamRepository.findById(stream.getId()).orElseThrow().getLastPostedAt());
+        }
+    }
+
+    /** A text channel whose sends fail until {@code up} is set. */
+    @SuppressWarnings("unchecked")
+    private TextChannel channel(QotdStream stream, AtomicBoolean up) {
+        Guild guild = mock(Guild.class);
+        TextChannel channel = mock(TextChannel.class);
+        Message message = mock(Message.class);
+        when(message.getId()).thenReturn("987654321");
+        when(jda.getGuildById(GUILD)).thenReturn(guild);
+        when(guild.getTextChannelById(stream.getChannelId())).thenReturn(channel);
+        MessageCreateAction action = mock(MessageCreateAction.class);
+        doAnswer(inv -> {
+            if (up.get()) {
+                ((Consumer<Message>) inv.getArgument(0)).accept(message);
+            } else {
+                ((Consumer<Throwable>) inv.getArgument(1)).accept(new IllegalStateException("Discord unavailable"));
+            }
+            return null;
+        }).when(action).queue(any(), any());
+        when(channel.sendMessageEmbeds(any(MessageEmbed.class))).thenReturn(action);
+        when(channel.sendMessage(anyString())).thenReturn(action);
+        return channel;
+    }
+
+    private QotdStream createStream(String name) {
+        return createStream(name, "c-" + name);
+    }
+
+    private QotdStream createStream(String name, String channelId) {
+        QotdStream stream = new QotdStream();
+        stream.setGuildId(GUILD);
+        stream.setChannelId(channelId);
+        stream.setStreamName(name);
+        stream.setScheduleCron("0 0 9 * * *");
+        stream.setTimezone("UTC");
+        stream.setEnabled(false);
+        QotdStream saved = streamRepository.save(stream);
+        created.add(saved.getId());
+        return saved;
+    }
+}
@@ -0,0 +1,175 @@
+package com.discordbot.e2e;
+
+import com.discordbot.entity.QotdPosted;
+import com.discordbot.entity.QotdStream;
+import com.discordbot.repository.QotdPostedRepository;
+import com.discordbot.repository.QotdQuestionRepository;
+import com.discordbot.repository.QotdStreamRepository;
+import com.discordbot.web.dto.qotd.QotdDtos.QotdPostedDto;
+import com.discordbot.web.dto.qotd.QotdDtos.QotdPostedPageDto;
+import com.discordbot.web.service.QotdStreamService;
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.entities.MessageEmbed;
+import net.dv8tion.jda.api.entities.channel.concrete.TextChannel;
+import net.dv8tion.jda.api.requests.restaction.MessageCreateAction;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Posting history against the real schema: posting moves the question into qotd_posted with the
+ * Discord message id, and keyset pages walk a stream's history newest first without gaps or repeats.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:file:./target/h2/qotd-history-${random.uuid}"
+})
+class QotdPostedHistoryE2ETest {
+
+    private static final String GUILD = "g-history";
+
+    @MockitoBean(name = "jda")
+    private JDA jda;
+
+    @Autowired
+    private QotdStreamService streamService;
+
+    @Autowired
+    private QotdStreamRepository streamRepository;
+
+    @Autowired
+    private QotdQuestionRepository questionRepository;
+
+    @Autowired
+    private QotdPostedRepository postedRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<Long> created = new ArrayList<>();
+
+    @AfterEach
+    void cleanup() {
+        for (Long id : created) {
+            jdbcTemplate.update("DELETE FROM qotd_posted WHERE stream_id = ?", id);
+            jdbcTemplate.update("DELETE FROM qotd_questions WHERE stream_id = ?", id);
+        }
+        streamRepository.deleteAllById(created);
+    }
+
+    @Test
+    @DisplayName("Posting archives the question with its message id and removes it from the queue")
+    @SuppressWarnings("unchecked")
+    void postingArchivesQuestion() {
+        QotdStream stream = createStream("post");
+        streamService.addQuestion(GUILD, stream.getId(), "What did you have for breakfast?");
+
+        Guild guild = mock(Guild.class);
+        TextChannel channel = mock(TextChannel.class);
+        MessageCreateAction action = mock(MessageCreateAction.class);
+        Message message = mock(Message.class);
+        when(message.getId()).thenReturn("123456789");
+        when(jda.getGuildById(GUILD)).thenReturn(guild);
+        when(guild.getTextChannelById(stream.getChannelId())).thenReturn(channel);
+        when(channel.sendMessageEmbeds(any(MessageEmbed.class))).thenReturn(action);
+        doAnswer(inv -> {
+            ((Consumer<Message>) inv.getArgument(0)).accept(message);
+            return null;
+        }).when(action).queue(any(), any());
+
+        streamService.postNextQuestion(stream.getId());
+
+        assertEquals(0, questionRepository.countByStreamId(stream.getId()));
+        QotdPostedPageDto page = streamService.listPosted(GUILD, stream.getId(), null, null, null);
+        assertEquals(1, page.items().size());
+        QotdPostedDto posted = page.items().get(0);
+        assertEquals("What did you have for breakfast?", posted.text());
+        assertEquals("123456789", posted.messageId());
+        assertNotNull(posted.postedAt());
+        assertNull(page.nextBefore());
+        QotdPosted row = postedRepository.findById(posted.id()).orElseThrow();
+        assertEquals(stream.getChannelId(), row.getChannelId());
+    }
+
+    @Test
+    @DisplayName("Keyset pages cover a stream's history exactly once, newest first, ties broken by id")
+    void keysetPagination() {
+        QotdStream stream = createStream("pages");
+        QotdStream other = createStream("other");
+        Instant base = Instant.parse("2025-06-01T09:00:00Z");
+        int rows = 1_050;
+        List<Object[]> inserts = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            // Pairs of rows share a posted_at so pages must break ties on id
+            inserts.add(new Object[]{stream.getId(), "Question " + i, Timestamp.from(base.plusSeconds(i / 2 * 60L))});
+            inserts.add(new Object[]{other.getId(), "Other " + i, Timestamp.from(base.plusSeconds(i * 60L))});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO qotd_posted (guild_id, channel_id, stream_id, text, posted_at) "
+            + "VALUES ('" + GUILD + "', 'c', ?, ?, ?)", inserts);
+
+        Set<Long> seen = new HashSet<>();
+        QotdPostedDto previous = null;
+        Instant before = null;
+        Long beforeId = null;
+        int pages = 0;
+        do {
+            QotdPostedPageDto page = streamService.listPosted(GUILD, stream.getId(), before, beforeId, 100);
+            pages++;
+            for (QotdPostedDto item : page.items()) {
+                assertTrue(item.text().startsWith("Question "), item.text());
+                assertTrue(seen.add(item.id()), "repeated " + item.id());
+                if (previous != null) {
+                    int cmp = item.postedAt().compareTo(previous.postedAt());
+                    assertTrue(cmp < 0 || (cmp == 0 && item.id() < previous.id()));
+                }
+                previous = item;
+            }
+            before = page.nextBefore();
+            beforeId = page.nextBeforeId();
+        } while (before != null);
+
+        assertEquals(rows, seen.size());
+        assertEquals(11, pages);
+        assertEquals("Question 1049", streamService.listPosted(GUILD, stream.getId(), null, null, 1).items().get(0).text());
+    }
+
+    @Test
+    @DisplayName("A cursor without its id, or a stream of another guild, is rejected")
+    void rejectsBadRequests() {
+        QotdStream stream = createStream("bad");
+        assertThrows(IllegalArgumentException.class,
+            () -> streamService.listPosted(GUILD, stream.getId(), Instant.now(), null, null));
+        assertThrows(IllegalArgumentException.class,
+            () -> streamService.listPosted("g-other", stream.getId(), null, null, null));
+    }
+
+    private QotdStream createStream(String name) {
+        QotdStream stream = new QotdStream();
+        stream.setGuildId(GUILD);
+        stream.setChannelId("c-" + name);
+        stream.setStreamName(name);
+        stream.setScheduleCron("0 0 9 * * *");
+        stream.setTimezone("UTC");
+        stream.setEnabled(false);
+        QotdStream saved = streamRepository.save(stream);
+        created.add(saved.getId());
+        return saved;
+    }
+}
@@ -0,0 +1,198 @@
+package com.discordbot.e2e;
+
+import com.discordbot.entity.QotdStream;
+import com.discordbot.repository.QotdChannelSettingsRepository;
+import com.discordbot.repository.QotdStreamLeaseRepository;
+import com.discordbot.repository.QotdStreamRepository;
+import com.discordbot.web.service.QotdSchedule;
+import com.discordbot.web.service.QotdScheduler;
+import com.discordbot.web.service.QotdStreamLeases;
+import com.discordbot.web.service.QotdStreamService;
+import net.dv8tion.jda.api.JDA;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Two in-process schedulers ("nodes") sharing one H2 file database: each firing must be posted
+ * exactly once, and a firing left leased by a dead node must fail over to the other.
+ * Times are far in the future so the application's own scheduler never finds these streams due.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:file:./target/h2/qotd-cluster-${random.uuid}"
+})
+class QotdSchedulerClusterE2ETest {
+
+    private static final Instant DUE = Instant.parse("2099-03-02T09:00:00Z");
+
+    @MockitoBean(name = "jda")
+    private JDA jda;
+
+    @Autowired
+    private QotdStreamRepository streamRepository;
+
+    @Autowired
+    private QotdStreamLeaseRepository leaseRepository;
+
+    @Autowired
+    private QotdChannelSettingsRepository channelSettingsRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<Long> created = new ArrayList<>();
+
+    @AfterEach
+    void cleanup() {
+        streamRepository.deleteAllById(created);
+    }
+
+    @Test
+    @DisplayName("Concurrent ticks on two nodes post each due stream exactly once")
+    void eachFiringPostedOnce() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            createStream("cluster-" + i);
+        }
+        Map<Long, AtomicInteger> posts = new ConcurrentHashMap<>();
+        MutableClock clock = new MutableClock(DUE.plusSeconds(1));
+        QotdScheduler nodeA = node("node-a", clock, posts);
+        QotdScheduler nodeB = node("node-b", clock, posts);
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            CountDownLatch go = new CountDownLatch(1);
+            Future<?> a = pool.submit(() -> { await(go); nodeA.tick(); });
+            Future<?> b = pool.submit(() -> { await(go); nodeB.tick(); });
+            go.countDown();
+            a.get();
+            b.get();
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(created.size(), posts.size());
+        posts.forEach((id, count) -> assertEquals(1, count.get(), "stream " + id));
+        for (Long id : created) {
+            assertEquals(Instant.parse("2099-03-03T09:00:00Z"), streamRepository.findById(id).orElseThrow().getNextRunAt());
+            assertTrue(leaseRepository.findById(id).isEmpty());
+        }
+    }
+
+    @Test
+    @DisplayName("A firing leased by a node that died fails over once the lease expires")
+    void failoverAfterLeaseExpiry() {
+        Long id = createStream("failover");
+        MutableClock clock = new MutableClock(DUE.plusSeconds(1));
+
+        // node-a takes the lease and parks the row, then dies before posting
+        QotdStreamLeases deadNode = new QotdStreamLeases(leaseRepository, transactionManager, "node-a");
+        QotdStreamLeases.Lease lease = deadNode.tryAcquire(id, DUE, clock.instant());
+        assertNotNull(lease);
+        assertEquals(1, streamRepository.advanceNextRun(id, DUE, lease.expiresAt()));
+
+        Map<Long, AtomicInteger> posts = new ConcurrentHashMap<>();
+        QotdScheduler nodeB = node("node-b", clock, posts);
+        nodeB.tick();
+        assertTrue(posts.isEmpty());
+
+        clock.instant = lease.expiresAt().plusSeconds(1);
+        nodeB.tick();
+        assertEquals(1, posts.get(id).get());
+        assertEquals(1, nodeB.latenessStats().posts());
+        // Lateness is measured from the original cron time, not the takeover
+        assertTrue(nodeB.latenessStats().max().compareTo(Duration.ofMinutes(5)) > 0);
+        assertTrue(leaseRepository.findById(id).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Inserting a lease that already exists, or for a deleted stream, is a no-op")
+    void leaseInsertIsConflictFree() {
+        Long id = createStream("insert");
+        Instant expiresAt = DUE.plus(Duration.ofMinutes(5));
+
+        assertEquals(1, leaseRepository.insertIfAbsent(id, "node-a", DUE, expiresAt));
+        assertEquals(0, leaseRepository.insertIfAbsent(id, "node-b", DUE, expiresAt));
+        assertEquals("node-a", leaseRepository.findById(id).orElseThrow().getOwner());
+        assertEquals(0, leaseRepository.insertIfAbsent(Long.MAX_VALUE, "node-a", DUE, expiresAt));
+    }
+
+    private QotdScheduler node(String owner, Clock clock, Map<Long, AtomicInteger> posts) {
+        QotdStreamService service = mock(QotdStreamService.class);
+        doAnswer(inv -> {
+            posts.computeIfAbsent(inv.getArgument(0), k -> new AtomicInteger()).incrementAndGet();
+            return null;
+        }).when(service).postNextQuestion(anyLong());
+        return new QotdScheduler(streamRepository, service, new QotdSchedule(),
+            new QotdStreamLeases(leaseRepository, transactionManager, owner), channelSettingsRepository, clock, null, Runnable::run);
+    }
+
+    private Long createStream(String name) {
+        QotdStream stream = new QotdStream();
+        stream.setGuildId("g-cluster");
+        stream.setChannelId("c-" + name);
+        stream.setStreamName(name);
+        stream.setScheduleCron("0 0 9 * * *");
+        stream.setTimezone("UTC");
+        stream.setEnabled(true);
+        stream.setNextRunAt(DUE);
+        Long id = streamRepository.save(stream).getId();
+        created.add(id);
+        return id;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** Clock whose instant can be moved by the test. */
+    private static final class MutableClock extends Clock {
+        private volatile Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -35,6 +35,21 @@ class EntityCoverageTest {
         assertEquals("user2x", q2.getAuthorUsername());
     }
 
+    @Test
+    void testQotdQuestion_TextHash() {
+        assertEquals("what is your favorite color?", QotdQuestion.normalizeText("  What  is your\tFAVORITE\ncolor? "));
+        assertEquals("", QotdQuestion.normalizeText(null));
+        // NFKC folds full-width and no-break-space variants
+        assertEquals(QotdQuestion.hashText("Q1 test"), QotdQuestion.hashText("Ｑ１\u00A0test"));
+        assertNotEquals(QotdQuestion.hashText("Q1"), QotdQuestion.hashText("Q2"));
+        assertEquals(64, QotdQuestion.hashText("Q1").length());
+
+        QotdQuestion q = new QotdQuestion("g1", "c1", "Hello World");
+        assertNull(q.getTextHash());
+        q.onSave();
+        assertEquals(QotdQuestion.hashText("hello world"), q.getTextHash());
+    }
+
     @Test
     void testQotdSubmission_GettersSetters() {
         QotdSubmission s = new QotdSubmission("g1", "u1", "user1", "q?");